@@ -4,11 +4,13 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.dcm.model.User;
 import com.example.dcm.service.UserService;
 
 @SpringBootApplication
+@EnableScheduling
 public class DcmApplication {
 
     public static void main(String[] args) {
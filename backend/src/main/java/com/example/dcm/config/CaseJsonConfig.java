@@ -0,0 +1,81 @@
+package com.example.dcm.config;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.service.PriorityEngine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.introspect.VirtualAnnotatedMember;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.VirtualBeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.Annotations;
+import com.fasterxml.jackson.databind.util.SimpleBeanPropertyDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * JSON representation of cases beyond their stored fields.
+ */
+@Configuration
+public class CaseJsonConfig {
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    // Adds effectivePriority to every serialized case, worked out by the priority engine under
+    // the rules in force; Spring Boot registers Module beans with its ObjectMapper
+    @Bean
+    public Module caseJsonModule() {
+        SimpleModule module = new SimpleModule("CaseJson");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> properties) {
+                if (Case.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                    JavaType type = config.constructType(Integer.class);
+                    AnnotatedClass classInfo = beanDesc.getClassInfo();
+                    BeanPropertyDefinition definition = SimpleBeanPropertyDefinition.construct(config,
+                            new VirtualAnnotatedMember(classInfo, beanDesc.getBeanClass(), "effectivePriority", type),
+                            PropertyName.construct("effectivePriority"));
+                    properties.add(new EffectivePriorityWriter(definition, classInfo.getAnnotations(), type));
+                }
+                return properties;
+            }
+        });
+        return module;
+    }
+
+    // Writes a case's priority with the age bonus as of now, or null while it has no priority
+    private class EffectivePriorityWriter extends VirtualBeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        EffectivePriorityWriter(BeanPropertyDefinition definition, Annotations annotations, JavaType type) {
+            super(definition, annotations, type);
+        }
+
+        @Override
+        protected Object value(Object bean, JsonGenerator gen, SerializerProvider prov) {
+            Case caseEntity = (Case) bean;
+            return caseEntity.getPriority() != null ? priorityEngine.effectivePriority(caseEntity) : null;
+        }
+
+        @Override
+        public VirtualBeanPropertyWriter withConfig(MapperConfig<?> config, AnnotatedClass declaringClass,
+                                                    BeanPropertyDefinition propDef, JavaType type) {
+            return new EffectivePriorityWriter(propDef, declaringClass.getAnnotations(), type);
+        }
+    }
+}
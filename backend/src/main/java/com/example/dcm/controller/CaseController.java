@@ -1,11 +1,15 @@
 package com.example.dcm.controller;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -15,12 +19,38 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.model.CaseNote;
+import com.example.dcm.service.AuditArchiveService;
+import com.example.dcm.service.AuditService;
+import com.example.dcm.service.BulkEscalationService;
+import com.example.dcm.service.CaseArchiveService;
+import com.example.dcm.service.CaseClaimQueue;
+import com.example.dcm.service.CaseEventRelay;
+import com.example.dcm.service.CaseFilter;
+import com.example.dcm.service.CaseLineageService;
+import com.example.dcm.service.CaseNoteService;
+import com.example.dcm.service.CaseReportService;
 import com.example.dcm.service.CaseService;
+import com.example.dcm.service.CompiledPriorityRules;
+import com.example.dcm.service.DocketExportService;
+import com.example.dcm.service.DocketSimulationService;
+import com.example.dcm.service.HearingConflictIndex;
+import com.example.dcm.service.HearingSchedulerService;
+import com.example.dcm.service.JudgeWorkloadIndex;
+import com.example.dcm.service.NoteWriteBehindBuffer;
+import com.example.dcm.service.PriorityEngine;
+import com.example.dcm.service.PriorityRecalculationService;
+import com.example.dcm.service.ReportArtifactCache;
+import com.example.dcm.service.SseCaseEventSink;
 
 @RestController
 @RequestMapping("/api/cases")
@@ -30,6 +60,60 @@ public class CaseController {
     @Autowired
     private CaseService caseService;
 
+    @Autowired
+    private CaseReportService caseReportService;
+
+    @Autowired
+    private DocketExportService docketExportService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    @Autowired
+    private CaseNoteService caseNoteService;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private BulkEscalationService bulkEscalationService;
+
+    @Autowired
+    private CaseLineageService lineageService;
+
+    @Autowired
+    private HearingSchedulerService hearingSchedulerService;
+
+    @Autowired
+    private HearingConflictIndex hearingIndex;
+
+    @Autowired
+    private JudgeWorkloadIndex workloadIndex;
+
+    @Autowired
+    private CaseClaimQueue claimQueue;
+
+    @Autowired
+    private DocketSimulationService docketSimulationService;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Autowired
+    private PriorityRecalculationService recalculationService;
+
+    @Autowired
+    private CaseEventRelay eventRelay;
+
+    @Autowired
+    private SseCaseEventSink sseEventSink;
+
     // Get all cases (for admins and judges)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
@@ -88,6 +172,8 @@ public class CaseController {
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
         }
     }
 
@@ -100,13 +186,49 @@ public class CaseController {
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
+        }
+    }
+
+    // Assign the least loaded judge of the case's court level (Admin only)
+    @PutMapping("/{id}/auto-assign-judge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> autoAssignJudge(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(caseService.autoAssignJudge(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            // No judge at the court level, a hearing clash on the chosen judge's calendar, or an escalated case
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Weighted open caseload of each judge, optionally for one court level
+    @GetMapping("/judges/workload")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLERK')")
+    public ResponseEntity<List<JudgeWorkloadIndex.JudgeWorkload>> getJudgeWorkloads(
+            @RequestParam(required = false) Case.CourtLevel courtLevel) {
+        return ResponseEntity.ok(workloadIndex.getWorkloads(courtLevel));
+    }
+
+    // Move cases without a hearing between a court level's judges to even out their loads (Admin only)
+    @PostMapping("/judges/rebalance")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> rebalanceJudges(
+            @RequestParam Case.CourtLevel courtLevel,
+            @RequestParam(defaultValue = "500") int maxMoves) {
+        if (maxMoves < 1) {
+            return ResponseEntity.badRequest().body(Map.of("message", "maxMoves must be positive"));
         }
+        return ResponseEntity.ok(caseService.rebalanceJudges(courtLevel, maxMoves));
     }
 
     // Schedule hearing
     @PutMapping("/{id}/schedule")
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
-    public ResponseEntity<Case> scheduleHearing(
+    public ResponseEntity<?> scheduleHearing(
             @PathVariable Long id,
             @RequestBody Map<String, String> request) {
         try {
@@ -116,11 +238,198 @@ public class CaseController {
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // Overlaps another hearing of the same judge, or the case was escalated
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // Allocate hearing slots to all unscheduled cases by priority and judge capacity (Admin only)
+    @PostMapping("/hearings/auto-schedule")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> autoScheduleHearings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        try {
+            LocalDate startDate = from != null ? from : LocalDate.now().plusDays(1);
+            return ResponseEntity.ok(hearingSchedulerService.scheduleUnscheduledCases(startDate));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Earliest hearing slot from the given time (default now) that is free for the judge
+    @GetMapping("/hearings/next-free-slot")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<?> getNextFreeHearingSlot(
+            @RequestParam Long judgeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        LocalDateTime slot = hearingIndex.findNextFreeSlot(judgeId, from != null ? from : LocalDateTime.now());
+        if (slot == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("judgeId", judgeId, "hearingDate", slot));
+    }
+
+    // Cause list of a judge for one day
+    @GetMapping("/hearings/cause-list")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<List<Case>> getCauseList(
+            @RequestParam Long judgeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(hearingSchedulerService.getCauseList(judgeId, date));
+    }
+
+    // Cause list with each case's priority broken down by rule
+    @GetMapping("/hearings/cause-list/priority")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<List<PriorityEngine.PriorityExplanation>> explainCauseList(
+            @RequestParam Long judgeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(priorityEngine.explainAll(hearingSchedulerService.getCauseList(judgeId, date)));
+    }
+
+    // Claim the most urgent unclaimed case of the judge's court level; 204 when none is waiting
+    @PostMapping("/queue/claim-next")
+    @PreAuthorize("hasRole('JUDGE')")
+    public ResponseEntity<?> claimNextCase(Authentication authentication) {
+        try {
+            return claimQueue.claimNext(authentication.getName())
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.noContent().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Extend the lease on a claimed case
+    @PutMapping("/{id}/claim/renew")
+    @PreAuthorize("hasRole('JUDGE')")
+    public ResponseEntity<?> renewClaim(@PathVariable Long id, Authentication authentication) {
+        try {
+            return ResponseEntity.ok(claimQueue.renew(id, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Return a claimed case to the queue
+    @PutMapping("/{id}/claim/release")
+    @PreAuthorize("hasRole('JUDGE')")
+    public ResponseEntity<?> releaseClaim(@PathVariable Long id, Authentication authentication) {
+        try {
+            claimQueue.release(id, authentication.getName());
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Cases the signed-in judge holds, soonest lease expiry first
+    @GetMapping("/queue/claims")
+    @PreAuthorize("hasRole('JUDGE')")
+    public ResponseEntity<?> getMyClaims(Authentication authentication) {
+        try {
+            return ResponseEntity.ok(claimQueue.getClaims(authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Waiting cases per court level and claims in progress
+    @GetMapping("/queue/stats")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
+    public ResponseEntity<CaseClaimQueue.QueueStats> getQueueStats() {
+        return ResponseEntity.ok(claimQueue.getStats());
+    }
+
+    // Stream of case status and priority changes; a reconnecting client resumes after Last-Event-ID
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<SseEmitter> streamCaseEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        if (!eventRelay.isEnabled(SseCaseEventSink.NAME)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(sseEventSink.subscribe(lastEventId));
+    }
+
+    // Delivery position of each case event sink
+    @GetMapping("/events/relay")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CaseEventRelay.RelayStats> getEventRelayStats() {
+        return ResponseEntity.ok(eventRelay.getStats());
+    }
+
+    // Priority rules in force, with their revision and where they were loaded from
+    @GetMapping("/priority/rules")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLERK')")
+    public ResponseEntity<?> getPriorityRules() {
+        CompiledPriorityRules rules = priorityEngine.getRules();
+        return ResponseEntity.ok(Map.of(
+                "revision", rules.getRevision(),
+                "source", priorityEngine.getRulesSource(),
+                "loadedAt", priorityEngine.getRulesLoadedAt(),
+                "rules", rules.getRuleSet()));
+    }
+
+    // Recompile the priority rules from their source now (Admin only)
+    @PostMapping("/priority/rules/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadPriorityRules() {
+        try {
+            CompiledPriorityRules rules = priorityEngine.reload();
+            return ResponseEntity.ok(Map.of("revision", rules.getRevision(), "source", priorityEngine.getRulesSource()));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Re-prioritize every open case in the background (Admin only)
+    @PostMapping("/priority/recalculations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startPriorityRecalculation(Authentication authentication) {
+        try {
+            return ResponseEntity.status(202).body(recalculationService.start(authentication.getName()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Progress and chunk timings of a recalculation run
+    @GetMapping("/priority/recalculations/{runId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PriorityRecalculationService.RecalculationView> getPriorityRecalculation(@PathVariable Long runId) {
+        try {
+            return ResponseEntity.ok(recalculationService.getRun(runId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Recent recalculation runs, newest first
+    @GetMapping("/priority/recalculations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PriorityRecalculationService.RecalculationView>> getPriorityRecalculations() {
+        return ResponseEntity.ok(recalculationService.getRecentRuns());
+    }
+
+    // Replay a synthetic or exported docket under one or more sets of priority rules (Admin only)
+    @PostMapping("/simulations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> simulateDocket(@RequestBody DocketSimulationService.SimulationRequest request) {
+        try {
+            return ResponseEntity.ok(docketSimulationService.simulate(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // Get cases by judge
     @GetMapping("/judge/{judgeId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
@@ -180,9 +489,21 @@ public class CaseController {
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
         }
     }
 
+    // How the case's priority is made up under the rules in force
+    @GetMapping("/{id}/priority/explain")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<PriorityEngine.PriorityExplanation> explainPriority(@PathVariable Long id) {
+        return caseService.getCaseById(id)
+                .map(priorityEngine::explain)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     // Set manual priority
     @PutMapping("/{id}/set-priority")
     @PreAuthorize("hasRole('ADMIN') or hasRole('CLERK')")
@@ -195,19 +516,26 @@ public class CaseController {
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).build();
         }
     }
 
     // Add or update case notes
     @PutMapping("/{id}/notes")
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
-    public ResponseEntity<Case> updateCaseNotes(@PathVariable Long id, @RequestBody Map<String, String> request) {
+    public ResponseEntity<?> updateCaseNotes(@PathVariable Long id, @RequestBody Map<String, String> request) {
         try {
             String notes = request.get("notes");
+            if (notes != null && notes.length() > 5000) {
+                return ResponseEntity.badRequest().build();
+            }
             Case updatedCase = caseService.updateCaseNotes(id, notes);
             return ResponseEntity.ok(updatedCase);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
         }
     }
 
@@ -227,36 +555,98 @@ public class CaseController {
         return ResponseEntity.ok(stats);
     }
 
-    // Generate case report
+    // Generate case report (cached until the case changes)
     @GetMapping("/{id}/report")
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
-    public ResponseEntity<String> generateCaseReport(@PathVariable Long id) {
+    public ResponseEntity<?> generateCaseReport(@PathVariable Long id) {
         try {
-            String report = caseService.generateCaseReport(id);
+            byte[] report = caseReportService.getCaseReport(id);
             return ResponseEntity.ok()
-                    .header("Content-Type", "text/plain")
+                    .header("Content-Type", "text/plain; charset=UTF-8")
                     .header("Content-Disposition", "attachment; filename=\"case-report-" + id + ".txt\"")
                     .body(report);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
+            return caseNotFound(id);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
         }
     }
 
-    // Generate case PDF (placeholder - would need PDF library)
+    // Generate reports for every case matching the filter (e.g. a court session's cause list)
+    @GetMapping("/reports/batch")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
+    public ResponseEntity<StreamingResponseBody> generateBatchReport(
+            @RequestParam(required = false) Case.CourtLevel courtLevel,
+            @RequestParam(required = false) Case.Status status,
+            @RequestParam(required = false) Long judgeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hearingFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hearingTo,
+            @RequestParam(defaultValue = "TXT") CaseReportService.BatchFormat format) {
+        CaseFilter filter = new CaseFilter(courtLevel, status, judgeId, hearingFrom, hearingTo);
+        StreamingResponseBody body = out -> caseReportService.writeBatchReport(filter, format, out);
+
+        String contentType = switch (format) {
+            case TXT -> "text/plain; charset=UTF-8";
+            case ZIP -> "application/zip";
+            case PDF -> "application/pdf";
+        };
+        return ResponseEntity.ok()
+                .header("Content-Type", contentType)
+                .header("Content-Disposition", "attachment; filename=\"case-reports." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    // Generate case PDF (cached until the case changes)
     @GetMapping("/{id}/pdf")
     @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE')")
-    public ResponseEntity<String> generateCasePDF(@PathVariable Long id) {
+    public ResponseEntity<?> generateCasePDF(@PathVariable Long id) {
         try {
-            String pdfContent = caseService.generateCasePDF(id);
+            byte[] pdf = caseReportService.getCasePdf(id);
             return ResponseEntity.ok()
                     .header("Content-Type", "application/pdf")
                     .header("Content-Disposition", "attachment; filename=\"case-report-" + id + ".pdf\"")
-                    .body(pdfContent);
+                    .body(pdf);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
+            return caseNotFound(id);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().build();
         }
     }
 
+    // Export the filtered docket as CSV or NDJSON (streamed, constant memory)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<StreamingResponseBody> exportDocket(
+            @RequestParam(required = false) Case.CourtLevel courtLevel,
+            @RequestParam(required = false) Case.Status status,
+            @RequestParam(required = false) Long judgeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hearingFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hearingTo,
+            @RequestParam(defaultValue = "CSV") DocketExportService.ExportFormat format) {
+        CaseFilter filter = new CaseFilter(courtLevel, status, judgeId, hearingFrom, hearingTo);
+        StreamingResponseBody body = out -> docketExportService.exportDocket(filter, format, out);
+
+        boolean csv = format == DocketExportService.ExportFormat.CSV;
+        return ResponseEntity.ok()
+                .header("Content-Type", csv ? "text/csv; charset=UTF-8" : "application/x-ndjson")
+                .header("Content-Disposition", "attachment; filename=\"docket." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Report cache statistics
+    @GetMapping("/reports/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportArtifactCache.CacheStats> getReportCacheStats() {
+        return ResponseEntity.ok(caseReportService.getCacheStats());
+    }
+
+    // Case notes write-behind buffer statistics (admin only)
+    @GetMapping("/notes/write-behind/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<NoteWriteBehindBuffer.WriteBehindStats> getNoteWriteBehindStats() {
+        return ResponseEntity.ok(noteBuffer.getStats());
+    }
+
     // Populate existing cases with sample documents (admin only)
     @PostMapping("/populate-documents")
     @PreAuthorize("hasRole('ADMIN')")
@@ -318,6 +708,83 @@ public class CaseController {
         }
     }
 
+    // Escalation lineage of a case, from the original case to the current higher-court case
+    @GetMapping("/{id}/lineage")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<?> getCaseLineage(@PathVariable Long id) {
+        Optional<CaseLineageService.CaseLineage> lineage = lineageService.getLineage(id);
+        if (lineage.isEmpty()) {
+            return caseNotFound(id);
+        }
+        return ResponseEntity.ok(lineage.get());
+    }
+
+    // Lineage cache statistics (Admin only)
+    @GetMapping("/lineage/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CaseLineageService.LineageCacheStats> getLineageCacheStats() {
+        return ResponseEntity.ok(lineageService.getStats());
+    }
+
+    // Escalate a list of cases, or every eligible case when caseIds is omitted (Admin only)
+    @PostMapping("/escalations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startBulkEscalation(
+            @RequestBody Map<String, Object> request,
+            Authentication authentication) {
+        List<Long> caseIds = null;
+        Object ids = request.get("caseIds");
+        if (ids instanceof List<?> list) {
+            try {
+                caseIds = list.stream().map(id -> Long.valueOf(String.valueOf(id))).toList();
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "caseIds must be a list of case ids"));
+            }
+        } else if (ids != null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "caseIds must be a list of case ids"));
+        }
+        Object reason = request.get("reason");
+        try {
+            return ResponseEntity.ok(bulkEscalationService.startJob(caseIds,
+                    reason != null ? reason.toString() : null, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Recent bulk escalation jobs (Admin only)
+    @GetMapping("/escalations")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<BulkEscalationService.EscalationJobView>> getBulkEscalations() {
+        return ResponseEntity.ok(bulkEscalationService.getRecentJobs());
+    }
+
+    // Bulk escalation job progress and per-case results (Admin only)
+    @GetMapping("/escalations/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkEscalationService.EscalationJobView> getBulkEscalation(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(bulkEscalationService.getJob(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Resume a failed bulk escalation job from its first unprocessed chunk (Admin only)
+    @PostMapping("/escalations/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> resumeBulkEscalation(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(bulkEscalationService.resume(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ========== DOCUMENT MANAGEMENT ENDPOINTS ==========
 
     // Upload document (Clerk, Judge, Admin)
@@ -353,30 +820,179 @@ public class CaseController {
             if (content == null || content.trim().isEmpty()) {
                 return ResponseEntity.badRequest().body(Map.of("message", "Note content is required"));
             }
-            // Note creation would be implemented here
+            CaseNote.NoteType noteType = noteTypeStr != null && !noteTypeStr.isBlank()
+                    ? CaseNote.NoteType.valueOf(noteTypeStr.trim().toUpperCase())
+                    : CaseNote.NoteType.GENERAL;
+            CaseNoteService.NoteView note = caseNoteService.addNote(id, content, noteType, authentication.getName());
             return ResponseEntity.ok(Map.of(
                 "message", "Judicial note added successfully",
-                "noteId", 1
+                "noteId", note.getId(),
+                "note", note
             ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to add note: " + e.getMessage()));
         }
     }
 
+    // Get judicial notes, newest first, one page at a time
+    @GetMapping("/{id}/notes/judicial")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<?> getJudicialNotes(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 200) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be between 1 and 200"));
+        }
+        try {
+            return ResponseEntity.ok(caseNoteService.getNotes(id, beforeId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Finalize a draft judicial note (authoring judge only)
+    @PostMapping("/{id}/notes/judicial/{noteId}/finalize")
+    @PreAuthorize("hasRole('JUDGE')")
+    public ResponseEntity<?> finalizeJudicialNote(
+            @PathVariable Long id,
+            @PathVariable Long noteId,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(caseNoteService.finalizeNote(id, noteId, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     // ========== AUDIT TRAIL ENDPOINTS ==========
 
-    // Get case audit history (Admin only)
+    // Get case audit history, one keyset page at a time (Admin only)
     @GetMapping("/{id}/audit")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> getCaseAuditHistory(@PathVariable Long id) {
+    public ResponseEntity<?> getCaseAuditHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) CaseAudit.ActionType actionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be between 1 and 500"));
+        }
+        if (caseService.getCaseById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            // Audit retrieval would be implemented here
-            return ResponseEntity.ok(Map.of(
-                "message", "Audit history endpoint - implementation needed",
-                "caseId", id
-            ));
+            return ResponseEntity.ok(auditService.getCaseHistory(id, actionType, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("message", "Failed to retrieve audit history: " + e.getMessage()));
         }
     }
+
+    // Get the actions performed by a user, one keyset page at a time (Admin only)
+    @GetMapping("/audit/users/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUserAuditHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) CaseAudit.ActionType actionType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > 500) {
+            return ResponseEntity.badRequest().body(Map.of("message", "limit must be between 1 and 500"));
+        }
+        try {
+            return ResponseEntity.ok(auditService.getUserHistory(userId, actionType, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Audit writer buffer and throughput statistics (Admin only)
+    @GetMapping("/audit/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditService.AuditStats> getAuditStats() {
+        return ResponseEntity.ok(auditService.getStats());
+    }
+
+    // Archive audit entries older than the retention period, or than olderThanDays (Admin only)
+    @PostMapping("/audit/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> archiveAuditEntries(@RequestParam(required = false) Integer olderThanDays) {
+        if (olderThanDays != null && olderThanDays < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            AuditArchiveService.ArchiveResult result = olderThanDays == null
+                    ? auditArchiveService.archiveExpiredEntries()
+                    : auditArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(olderThanDays));
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Archive finished cases unchanged for the retention period, or for olderThanDays (Admin only)
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> archiveCases(@RequestParam(required = false) Integer olderThanDays) {
+        if (olderThanDays != null && olderThanDays < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            CaseArchiveService.ArchiveResult result = olderThanDays == null
+                    ? caseArchiveService.archiveExpiredCases()
+                    : caseArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(olderThanDays));
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // Archived case by case number
+    @GetMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<CaseArchiveService.ArchivedCase> getArchivedCaseByNumber(@RequestParam String caseNumber) {
+        return caseArchiveService.findArchivedByCaseNumber(caseNumber)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Archived case by id
+    @GetMapping("/archive/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('JUDGE') or hasRole('CLERK')")
+    public ResponseEntity<CaseArchiveService.ArchivedCase> getArchivedCase(@PathVariable Long id) {
+        return caseArchiveService.findArchived(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Rows held in the case archive (Admin only)
+    @GetMapping("/archive/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CaseArchiveService.ArchiveStats> getCaseArchiveStats() {
+        return ResponseEntity.ok(caseArchiveService.getStats());
+    }
+
+    // 404 for a case missing from the hot tables, pointing at the archive when it was archived
+    private ResponseEntity<?> caseNotFound(Long id) {
+        if (caseArchiveService.isArchived(id)) {
+            return ResponseEntity.status(404).body(Map.of(
+                "message", "Case is archived",
+                "archivedCase", "/api/cases/archive/" + id
+            ));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // Audit archive segment statistics (Admin only)
+    @GetMapping("/audit/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AuditArchiveService.ArchiveStats> getAuditArchiveStats() {
+        return ResponseEntity.ok(auditArchiveService.getStats());
+    }
 }
@@ -22,11 +22,15 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
 import com.example.dcm.model.Document;
 import com.example.dcm.model.User;
 import com.example.dcm.repository.CaseRepository;
 import com.example.dcm.repository.DocumentRepository;
 import com.example.dcm.repository.UserRepository;
+import com.example.dcm.service.AuditEntry;
+import com.example.dcm.service.AuditService;
+import com.example.dcm.service.DocumentIndexService;
 
 @RestController
 @RequestMapping("/api/documents")
@@ -44,6 +48,12 @@ public class DocumentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DocumentIndexService documentIndexService;
+
+    @Autowired
+    private AuditService auditService;
+
     @PostMapping("/upload")
     public ResponseEntity<String> uploadDocument(
             @RequestParam("file") MultipartFile file,
@@ -84,6 +94,9 @@ public class DocumentController {
 
         documentRepository.save(document);
 
+        // Extract and index the file content once so searches never rescan files
+        documentIndexService.indexDocument(document);
+
         // Update case's documents JSON field
         List<Document> documents = documentRepository.findByCaseEntityId(caseId);
         List<DocumentInfo> docInfos = new ArrayList<>();
@@ -108,9 +121,26 @@ public class DocumentController {
         caseEntity.setDocuments(documentsJson);
         caseRepository.save(caseEntity);
 
+        AuditEntry audit = AuditEntry.of(caseEntity, CaseAudit.ActionType.DOCUMENT_UPLOADED,
+                "Document uploaded: " + originalFileName);
+        audit.setDetails("Document id " + document.getId() + ", " + file.getSize() + " bytes, " + file.getContentType());
+        auditService.record(audit);
+
         return ResponseEntity.ok("Document uploaded successfully");
     }
 
+    // Full-text search over indexed document content, optionally scoped to one case
+    @GetMapping("/search")
+    public ResponseEntity<List<DocumentIndexService.SearchHit>> searchDocuments(
+            @RequestParam("q") String query,
+            @RequestParam(value = "caseId", required = false) Long caseId,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (query.trim().isEmpty() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(documentIndexService.search(query, caseId, Math.min(limit, 200)));
+    }
+
     @GetMapping("/view/{filename}")
     public ResponseEntity<byte[]> viewDocument(@PathVariable String filename) throws IOException {
         Path filePath = Paths.get(UPLOAD_DIR + filename);
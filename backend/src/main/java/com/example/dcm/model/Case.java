@@ -1,6 +1,9 @@
 package com.example.dcm.model;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,6 +13,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -17,9 +21,17 @@ import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "cases")
+@Table(name = "cases", indexes = {
+    @Index(name = "idx_cases_original_case_id", columnList = "original_case_id"),
+    @Index(name = "idx_cases_judge_hearing", columnList = "assigned_judge_id, hearing_date"),
+    // A court level's docket: its cases not superseded by an escalation
+    @Index(name = "idx_cases_level_superseded", columnList = "court_level, superseded_by_id")
+})
 public class Case {
 
+    public static final int AGE_BONUS_DAYS = 30;
+    public static final int OLD_AGE_BONUS_DAYS = 90;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,6 +63,17 @@ public class Case {
     @Column(name = "original_case_id")
     private Long originalCaseId; // For escalated cases, points to original
 
+    // Escalation lineage: the lower-court case this one was escalated from, the ids from the
+    // original case down to this one ("1/5/9"), and the higher-court case that replaced this one
+    @Column(name = "parent_case_id")
+    private Long parentCaseId;
+
+    @Column(name = "lineage_path")
+    private String lineagePath;
+
+    @Column(name = "superseded_by_id")
+    private Long supersededById;
+
     @Column(name = "escalation_reason")
     private String escalationReason;
 
@@ -63,8 +86,15 @@ public class Case {
     @Column(name = "hearing_date")
     private LocalDateTime hearingDate;
 
+    // Base score, 1-10, higher number = higher priority. The age bonus is never stored; it is
+    // added when cases are read or ordered, see PriorityEngine.effectivePriority()
     @Column(nullable = false)
-    private Integer priority; // 1-10, higher number = higher priority
+    private Integer priority;
+
+    // Points a manual override or an escalation bump put on top of the rule score; kept apart from
+    // it so recalculating the score under changed rules preserves them
+    @Column(name = "priority_adjustment", columnDefinition = "integer default 0")
+    private Integer priorityAdjustment = 0;
 
     @Column(name = "estimated_duration_days")
     private Integer estimatedDurationDays;
@@ -72,16 +102,51 @@ public class Case {
     @Column(name = "resource_requirement")
     private String resourceRequirement; // e.g., "High court resources", "Special expertise needed"
 
-    @Column(length = 5000)
-    private String notes; // Case notes and comments
+    // Resource flags PriorityEngine extracted from the requirement, and the keyword version they
+    // were extracted under; cleared whenever the requirement changes
+    @JsonIgnore
+    @Column(name = "resource_flags")
+    private Integer resourceFlags;
+
+    @JsonIgnore
+    @Column(name = "resource_flags_version")
+    private Long resourceFlagsVersion;
+
+    // Case notes and comments. Changed only by NoteWriteBehindBuffer's targeted update, so saving
+    // a case loaded before a buffered edit was written never undoes the edit.
+    @Column(length = 5000, updatable = false)
+    private String notes;
 
     @Column(length = 10000)
     private String documents; // JSON string containing document metadata
 
+    // Judicial note summary, maintained by CaseNoteService so detail views need no count query.
+    // Written only by its single-statement updates, so saving a case loaded before a note was
+    // added or finalized never undoes the change.
+    @Column(name = "note_count", insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer noteCount = 0;
+
+    @Column(name = "latest_finalized_note_id", insertable = false, updatable = false)
+    private Long latestFinalizedNoteId;
+
+    @Column(name = "latest_finalized_note_summary", length = 500, insertable = false, updatable = false)
+    private String latestFinalizedNoteSummary;
+
+    @Column(name = "latest_finalized_note_at", insertable = false, updatable = false)
+    private LocalDateTime latestFinalizedNoteAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_judge_id")
     private User assignedJudge;
 
+    // Work queue claim: the judge working on the case and when the lease runs out. Written only
+    // by CaseClaimQueue, so saving a case loaded before a claim never undoes the claim.
+    @Column(name = "claimed_by_id", insertable = false, updatable = false)
+    private Long claimedById;
+
+    @Column(name = "claim_expires_at", insertable = false, updatable = false)
+    private LocalDateTime claimExpiresAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "filing_clerk_id")
     private User filingClerk;
@@ -92,6 +157,36 @@ public class Case {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Base priority plus the age bonus of a case filed at filingDate, as of asOf, at most maxPriority
+    public static int effectivePriority(int basePriority, Status status, LocalDateTime filingDate, LocalDateTime asOf,
+                                        int maxPriority) {
+        if (status == null || !status.gainsAgeBonus() || filingDate == null) {
+            return basePriority;
+        }
+        return Math.min(maxPriority, basePriority + ageBonus(filingDate, asOf));
+    }
+
+    // +1 once more than AGE_BONUS_DAYS whole days have passed since filing, +2 after OLD_AGE_BONUS_DAYS
+    public static int ageBonus(LocalDateTime filingDate, LocalDateTime asOf) {
+        if (!filingDate.isAfter(oldAgeBonusCutoff(asOf))) {
+            return 2;
+        }
+        if (!filingDate.isAfter(ageBonusCutoff(asOf))) {
+            return 1;
+        }
+        return 0;
+    }
+
+    // Latest filing date that earns the +1 bonus as of asOf
+    public static LocalDateTime ageBonusCutoff(LocalDateTime asOf) {
+        return asOf.minusDays(AGE_BONUS_DAYS + 1);
+    }
+
+    // Latest filing date that earns the +2 bonus as of asOf
+    public static LocalDateTime oldAgeBonusCutoff(LocalDateTime asOf) {
+        return asOf.minusDays(OLD_AGE_BONUS_DAYS + 1);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -135,7 +230,12 @@ public class Case {
     }
 
     public enum Status {
-        FILED, UNDER_REVIEW, SCHEDULED, IN_PROGRESS, COMPLETED, DISMISSED, ESCALATED
+        FILED, UNDER_REVIEW, SCHEDULED, IN_PROGRESS, COMPLETED, DISMISSED, ESCALATED;
+
+        // Cases still waiting to be heard gain priority with age
+        public boolean gainsAgeBonus() {
+            return this == FILED || this == UNDER_REVIEW;
+        }
     }
 
     public enum CourtLevel {
@@ -209,6 +309,18 @@ public class Case {
     public Long getOriginalCaseId() { return originalCaseId; }
     public void setOriginalCaseId(Long originalCaseId) { this.originalCaseId = originalCaseId; }
 
+    public Long getParentCaseId() { return parentCaseId; }
+    public void setParentCaseId(Long parentCaseId) { this.parentCaseId = parentCaseId; }
+
+    public String getLineagePath() { return lineagePath; }
+    public void setLineagePath(String lineagePath) { this.lineagePath = lineagePath; }
+
+    public Long getSupersededById() { return supersededById; }
+    public void setSupersededById(Long supersededById) { this.supersededById = supersededById; }
+
+    public Long getClaimedById() { return claimedById; }
+    public LocalDateTime getClaimExpiresAt() { return claimExpiresAt; }
+
     public String getEscalationReason() { return escalationReason; }
     public void setEscalationReason(String escalationReason) { this.escalationReason = escalationReason; }
 
@@ -224,11 +336,28 @@ public class Case {
     public Integer getPriority() { return priority; }
     public void setPriority(Integer priority) { this.priority = priority; }
 
+    public int getPriorityAdjustment() { return priorityAdjustment != null ? priorityAdjustment : 0; }
+    public void setPriorityAdjustment(int priorityAdjustment) { this.priorityAdjustment = priorityAdjustment; }
+
     public Integer getEstimatedDurationDays() { return estimatedDurationDays; }
     public void setEstimatedDurationDays(Integer estimatedDurationDays) { this.estimatedDurationDays = estimatedDurationDays; }
 
     public String getResourceRequirement() { return resourceRequirement; }
-    public void setResourceRequirement(String resourceRequirement) { this.resourceRequirement = resourceRequirement; }
+    public void setResourceRequirement(String resourceRequirement) {
+        if (!Objects.equals(this.resourceRequirement, resourceRequirement)) {
+            this.resourceFlags = null;
+            this.resourceFlagsVersion = null;
+        }
+        this.resourceRequirement = resourceRequirement;
+    }
+
+    public Integer getResourceFlags() { return resourceFlags; }
+    public Long getResourceFlagsVersion() { return resourceFlagsVersion; }
+
+    public void cacheResourceFlags(Integer resourceFlags, Long resourceFlagsVersion) {
+        this.resourceFlags = resourceFlags;
+        this.resourceFlagsVersion = resourceFlagsVersion;
+    }
 
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
@@ -236,6 +365,11 @@ public class Case {
     public String getDocuments() { return documents; }
     public void setDocuments(String documents) { this.documents = documents; }
 
+    public Integer getNoteCount() { return noteCount; }
+    public Long getLatestFinalizedNoteId() { return latestFinalizedNoteId; }
+    public String getLatestFinalizedNoteSummary() { return latestFinalizedNoteSummary; }
+    public LocalDateTime getLatestFinalizedNoteAt() { return latestFinalizedNoteAt; }
+
     public User getAssignedJudge() { return assignedJudge; }
     public void setAssignedJudge(User assignedJudge) { this.assignedJudge = assignedJudge; }
 
@@ -10,13 +10,17 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "case_audit")
+@Table(name = "case_audit", indexes = {
+    @Index(name = "idx_case_audit_case_created", columnList = "case_id, created_at"),
+    @Index(name = "idx_case_audit_user_created", columnList = "performed_by_id, created_at")
+})
 public class CaseAudit {
 
     @Id
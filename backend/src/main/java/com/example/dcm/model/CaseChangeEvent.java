@@ -0,0 +1,111 @@
+package com.example.dcm.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A change to a case's status or priority, written to the outbox in the same transaction as the
+ * change and relayed to the event sinks in id order. Rows carry no foreign key, so events outlive
+ * the cases they describe until the relay purges them.
+ */
+@Entity
+@Table(name = "case_change_events", indexes = {
+    @Index(name = "idx_case_change_events_occurred", columnList = "occurred_at")
+})
+public class CaseChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private Case.Status previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status")
+    private Case.Status newStatus;
+
+    @Column(name = "previous_priority")
+    private Integer previousPriority;
+
+    @Column(name = "new_priority")
+    private Integer newPriority;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        // New case; carries its initial status and priority
+        CREATED,
+        STATUS_CHANGED,
+        PRIORITY_CHANGED
+    }
+
+    public CaseChangeEvent() {}
+
+    public CaseChangeEvent(Long caseId, Type type, Case.Status previousStatus, Case.Status newStatus,
+                           Integer previousPriority, Integer newPriority, LocalDateTime occurredAt) {
+        this.caseId = caseId;
+        this.type = type;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.previousPriority = previousPriority;
+        this.newPriority = newPriority;
+        this.occurredAt = occurredAt;
+    }
+
+    public static CaseChangeEvent created(Case caseEntity) {
+        return new CaseChangeEvent(caseEntity.getId(), Type.CREATED, null, caseEntity.getStatus(),
+                null, caseEntity.getPriority(), LocalDateTime.now());
+    }
+
+    public static CaseChangeEvent statusChanged(Long caseId, Case.Status previousStatus, Case.Status newStatus) {
+        return new CaseChangeEvent(caseId, Type.STATUS_CHANGED, previousStatus, newStatus, null, null, LocalDateTime.now());
+    }
+
+    public static CaseChangeEvent priorityChanged(Long caseId, Integer previousPriority, Integer newPriority) {
+        return new CaseChangeEvent(caseId, Type.PRIORITY_CHANGED, null, null, previousPriority, newPriority, LocalDateTime.now());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCaseId() { return caseId; }
+    public void setCaseId(Long caseId) { this.caseId = caseId; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Case.Status getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Case.Status previousStatus) { this.previousStatus = previousStatus; }
+
+    public Case.Status getNewStatus() { return newStatus; }
+    public void setNewStatus(Case.Status newStatus) { this.newStatus = newStatus; }
+
+    public Integer getPreviousPriority() { return previousPriority; }
+    public void setPreviousPriority(Integer previousPriority) { this.previousPriority = previousPriority; }
+
+    public Integer getNewPriority() { return newPriority; }
+    public void setNewPriority(Integer newPriority) { this.newPriority = newPriority; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
@@ -0,0 +1,234 @@
+package com.example.dcm.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * A bulk escalation run. The target case ids are fixed when the job is created and
+ * processed in order; nextIndex and the per-case results advance in the same
+ * transaction as each chunk, so a failed or interrupted job resumes where it stopped.
+ */
+@Entity
+@Table(name = "escalation_jobs")
+public class EscalationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private String reason;
+
+    // Comma-separated case ids in processing order
+    @Lob
+    @Column(name = "case_ids", nullable = false)
+    private String caseIds;
+
+    @Column(name = "total_cases", nullable = false)
+    private Integer totalCases;
+
+    @Column(name = "next_index", nullable = false)
+    private Integer nextIndex = 0;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    private Integer escalated = 0;
+
+    private Integer skipped = 0;
+
+    private Integer failed = 0;
+
+    @Column(name = "last_error", length = 2000)
+    private String lastError;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Indexed list, so appending a chunk's results inserts only the new rows
+    @ElementCollection
+    @CollectionTable(name = "escalation_job_results", joinColumns = @JoinColumn(name = "job_id"))
+    @OrderColumn(name = "result_index")
+    private List<Result> results = new ArrayList<>();
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public enum Outcome {
+        ESCALATED,
+        SKIPPED,
+        FAILED
+    }
+
+    // Outcome for one case of the job
+    @Embeddable
+    public static class Result {
+        @Column(name = "case_id", nullable = false)
+        private Long caseId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false)
+        private Outcome outcome;
+
+        @Column(name = "previous_case_number")
+        private String previousCaseNumber;
+
+        @Column(name = "new_case_id")
+        private Long newCaseId;
+
+        @Column(name = "new_case_number")
+        private String newCaseNumber;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "new_court_level")
+        private Case.CourtLevel newCourtLevel;
+
+        @Column(length = 500)
+        private String message;
+
+        public Result() {}
+
+        public Result(Long caseId, Outcome outcome, String message) {
+            this.caseId = caseId;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        public Long getCaseId() { return caseId; }
+        public Outcome getOutcome() { return outcome; }
+
+        public String getPreviousCaseNumber() { return previousCaseNumber; }
+        public void setPreviousCaseNumber(String previousCaseNumber) { this.previousCaseNumber = previousCaseNumber; }
+
+        public Long getNewCaseId() { return newCaseId; }
+        public void setNewCaseId(Long newCaseId) { this.newCaseId = newCaseId; }
+
+        public String getNewCaseNumber() { return newCaseNumber; }
+        public void setNewCaseNumber(String newCaseNumber) { this.newCaseNumber = newCaseNumber; }
+
+        public Case.CourtLevel getNewCourtLevel() { return newCourtLevel; }
+        public void setNewCourtLevel(Case.CourtLevel newCourtLevel) { this.newCourtLevel = newCourtLevel; }
+
+        public String getMessage() { return message; }
+    }
+
+    // Constructors
+    public EscalationJob() {}
+
+    public EscalationJob(List<Long> caseIds, String reason, int chunkSize, String createdBy) {
+        this.caseIds = caseIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        this.totalCases = caseIds.size();
+        this.reason = reason;
+        this.chunkSize = chunkSize;
+        this.createdBy = createdBy;
+        this.status = Status.PENDING;
+    }
+
+    public List<Long> getCaseIdList() {
+        return Arrays.stream(caseIds.split(",")).map(Long::valueOf).toList();
+    }
+
+    // Record a processed chunk and move past it
+    public void addResults(List<Result> chunkResults, int newNextIndex) {
+        for (Result result : chunkResults) {
+            switch (result.getOutcome()) {
+                case ESCALATED -> escalated++;
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+        }
+        results.addAll(chunkResults);
+        nextIndex = newNextIndex;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+
+    public String getCaseIds() { return caseIds; }
+    public void setCaseIds(String caseIds) { this.caseIds = caseIds; }
+
+    public Integer getTotalCases() { return totalCases; }
+    public void setTotalCases(Integer totalCases) { this.totalCases = totalCases; }
+
+    public Integer getNextIndex() { return nextIndex; }
+    public void setNextIndex(Integer nextIndex) { this.nextIndex = nextIndex; }
+
+    public Integer getChunkSize() { return chunkSize; }
+    public void setChunkSize(Integer chunkSize) { this.chunkSize = chunkSize; }
+
+    public Integer getEscalated() { return escalated; }
+    public void setEscalated(Integer escalated) { this.escalated = escalated; }
+
+    public Integer getSkipped() { return skipped; }
+    public void setSkipped(Integer skipped) { this.skipped = skipped; }
+
+    public Integer getFailed() { return failed; }
+    public void setFailed(Integer failed) { this.failed = failed; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getCreatedBy() { return createdBy; }
+    public void setCreatedBy(String createdBy) { this.createdBy = createdBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public List<Result> getResults() { return results; }
+    public void setResults(List<Result> results) { this.results = results; }
+}
@@ -0,0 +1,39 @@
+package com.example.dcm.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * How far an event sink has been delivered the case change outbox: every event up to and
+ * including lastEventId has been published to it.
+ */
+@Entity
+@Table(name = "outbox_checkpoints")
+public class OutboxCheckpoint {
+
+    @Id
+    @Column(name = "sink", length = 64)
+    private String sink;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public OutboxCheckpoint() {}
+
+    // Getters and Setters
+    public String getSink() { return sink; }
+    public void setSink(String sink) { this.sink = sink; }
+
+    public Long getLastEventId() { return lastEventId; }
+    public void setLastEventId(Long lastEventId) { this.lastEventId = lastEventId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
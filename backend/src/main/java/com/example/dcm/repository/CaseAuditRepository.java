@@ -3,7 +3,10 @@ package com.example.dcm.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.dcm.model.Case;
@@ -22,6 +25,44 @@ public interface CaseAuditRepository extends JpaRepository<CaseAudit, Long> {
     // Find audit entries by case ID
     List<CaseAudit> findByCaseEntityId(Long caseId);
 
+    // First page of a case's audit history, newest first (served by idx_case_audit_case_created)
+    @Query("SELECT a FROM CaseAudit a LEFT JOIN FETCH a.performedBy " +
+           "WHERE a.caseEntity.id = :caseId AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<CaseAudit> findCaseHistory(@Param("caseId") Long caseId,
+                                    @Param("actionType") CaseAudit.ActionType actionType,
+                                    Pageable pageable);
+
+    // Next page of a case's audit history after the (createdAt, id) keyset position
+    @Query("SELECT a FROM CaseAudit a LEFT JOIN FETCH a.performedBy " +
+           "WHERE a.caseEntity.id = :caseId AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "AND a.createdAt <= :beforeTime AND (a.createdAt < :beforeTime OR a.id < :beforeId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<CaseAudit> findCaseHistoryBefore(@Param("caseId") Long caseId,
+                                          @Param("actionType") CaseAudit.ActionType actionType,
+                                          @Param("beforeTime") LocalDateTime beforeTime,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
+    // First page of the actions performed by a user, newest first (served by idx_case_audit_user_created)
+    @Query("SELECT a FROM CaseAudit a LEFT JOIN FETCH a.performedBy " +
+           "WHERE a.performedBy.id = :userId AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<CaseAudit> findUserHistory(@Param("userId") Long userId,
+                                    @Param("actionType") CaseAudit.ActionType actionType,
+                                    Pageable pageable);
+
+    // Next page of a user's actions after the (createdAt, id) keyset position
+    @Query("SELECT a FROM CaseAudit a LEFT JOIN FETCH a.performedBy " +
+           "WHERE a.performedBy.id = :userId AND (:actionType IS NULL OR a.actionType = :actionType) " +
+           "AND a.createdAt <= :beforeTime AND (a.createdAt < :beforeTime OR a.id < :beforeId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<CaseAudit> findUserHistoryBefore(@Param("userId") Long userId,
+                                          @Param("actionType") CaseAudit.ActionType actionType,
+                                          @Param("beforeTime") LocalDateTime beforeTime,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
     // Find audit entries by action type
     List<CaseAudit> findByCaseEntityAndActionType(Case caseEntity, CaseAudit.ActionType actionType);
 
@@ -1,9 +1,14 @@
 package com.example.dcm.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.dcm.model.Case;
@@ -22,6 +27,18 @@ public interface CaseNoteRepository extends JpaRepository<CaseNote, Long> {
     // Find notes by case ID
     List<CaseNote> findByCaseEntityId(Long caseId);
 
+    // One page of a case's notes older than beforeId, newest first (served by idx_case_notes_case_id)
+    @Query("SELECT n FROM CaseNote n JOIN FETCH n.createdBy " +
+           "WHERE n.caseEntity.id = :caseId AND n.id < :beforeId ORDER BY n.id DESC")
+    List<CaseNote> findPageBefore(@Param("caseId") Long caseId, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Finalize a draft note; returns 0 if the note is missing, belongs to another case or is already final
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CaseNote n SET n.isFinalized = true, n.finalizedAt = :now, n.updatedAt = :now " +
+           "WHERE n.id = :noteId AND n.caseEntity.id = :caseId " +
+           "AND (n.isFinalized = false OR n.isFinalized IS NULL)")
+    int finalizeNote(@Param("caseId") Long caseId, @Param("noteId") Long noteId, @Param("now") LocalDateTime now);
+
     // Find notes by type
     List<CaseNote> findByCaseEntityAndNoteType(Case caseEntity, CaseNote.NoteType noteType);
 
@@ -2,8 +2,11 @@ package com.example.dcm.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,46 +19,171 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
 
     List<Case> findByStatus(Case.Status status);
 
+    // Cases still active at their court level, i.e. not replaced by an escalation
+    List<Case> findBySupersededByIdIsNull();
+
+    List<Case> findByStatusAndSupersededByIdIsNull(Case.Status status);
+
     List<Case> findByCaseType(Case.CaseType caseType);
 
     List<Case> findByAssignedJudge(User judge);
 
+    List<Case> findByAssignedJudgeAndSupersededByIdIsNull(User judge);
+
     List<Case> findByFilingClerk(User clerk);
 
     boolean existsByCaseNumber(String caseNumber);
 
+    // Base priority plus the age bonus, as Case.effectivePriority computes it; :ageCutoff and
+    // :oldAgeCutoff are Case.ageBonusCutoff and Case.oldAgeBonusCutoff of the current time, and
+    // :maxPriority the cap of the rules in force
+    String EFFECTIVE_PRIORITY =
+            "least(c.priority + CASE WHEN c.status IN ('FILED', 'UNDER_REVIEW') AND c.filingDate <= :oldAgeCutoff THEN 2 " +
+            "WHEN c.status IN ('FILED', 'UNDER_REVIEW') AND c.filingDate <= :ageCutoff THEN 1 ELSE 0 END, :maxPriority)";
+
     // Priority-based queries for intelligent scheduling
-    @Query("SELECT c FROM Case c WHERE c.status IN :statuses ORDER BY c.priority DESC, c.filingDate ASC")
-    List<Case> findByStatusOrderByPriorityDescFilingDateAsc(@Param("statuses") List<Case.Status> statuses);
+    @Query("SELECT c FROM Case c WHERE c.status IN :statuses AND c.supersededById IS NULL " +
+           "ORDER BY " + EFFECTIVE_PRIORITY + " DESC, c.filingDate ASC")
+    List<Case> findByStatusOrderByEffectivePriority(@Param("statuses") List<Case.Status> statuses,
+                                                    @Param("ageCutoff") LocalDateTime ageCutoff,
+                                                    @Param("oldAgeCutoff") LocalDateTime oldAgeCutoff,
+                                                    @Param("maxPriority") int maxPriority);
 
     // Cases requiring scheduling
-    @Query("SELECT c FROM Case c WHERE c.status = 'UNDER_REVIEW' AND c.hearingDate IS NULL ORDER BY c.priority DESC")
-    List<Case> findUnscheduledCasesOrderByPriority();
+    @Query("SELECT c FROM Case c WHERE c.status = 'UNDER_REVIEW' AND c.hearingDate IS NULL " +
+           "ORDER BY " + EFFECTIVE_PRIORITY + " DESC")
+    List<Case> findUnscheduledCasesOrderByEffectivePriority(@Param("ageCutoff") LocalDateTime ageCutoff,
+                                                            @Param("oldAgeCutoff") LocalDateTime oldAgeCutoff,
+                                                            @Param("maxPriority") int maxPriority);
+
+    @Query("SELECT c FROM Case c WHERE c.supersededById IS NULL AND " + EFFECTIVE_PRIORITY + " >= :minPriority")
+    List<Case> findByEffectivePriorityAtLeast(@Param("minPriority") int minPriority,
+                                              @Param("ageCutoff") LocalDateTime ageCutoff,
+                                              @Param("oldAgeCutoff") LocalDateTime oldAgeCutoff,
+                                              @Param("maxPriority") int maxPriority);
 
     // Cases by priority range
     List<Case> findByPriorityGreaterThanEqual(Integer minPriority);
 
+    List<Case> findByPriorityGreaterThanEqualAndSupersededByIdIsNull(Integer minPriority);
+
     // Recent cases
     List<Case> findByFilingDateAfter(LocalDateTime date);
 
     // Cases assigned to judge with specific status
     List<Case> findByAssignedJudgeAndStatus(User judge, Case.Status status);
 
-    // All cases with eager loading of users to avoid serialization issues
-    @Query("SELECT c FROM Case c LEFT JOIN FETCH c.filingClerk LEFT JOIN FETCH c.assignedJudge")
+    // All active cases with eager loading of users to avoid serialization issues
+    @Query("SELECT c FROM Case c LEFT JOIN FETCH c.filingClerk LEFT JOIN FETCH c.assignedJudge " +
+           "WHERE c.supersededById IS NULL")
     List<Case> findAllCasesWithUsers();
 
-    // Find the maximum case sequence number for sequential case numbering
-    @Query("SELECT MAX(c.caseSequence) FROM Case c")
+    // Single case with its users loaded, for rendering outside the transaction
+    @Query("SELECT c FROM Case c LEFT JOIN FETCH c.filingClerk LEFT JOIN FETCH c.assignedJudge WHERE c.id = :id")
+    Optional<Case> findByIdWithUsers(@Param("id") Long id);
+
+    // What the version of a case's cached artifacts is derived from, see CaseReportService
+    @Query("SELECT c.updatedAt AS updatedAt, c.status AS status, c.filingDate AS filingDate FROM Case c WHERE c.id = :id")
+    Optional<ArtifactVersion> findArtifactVersionById(@Param("id") Long id);
+
+    // Keyset-ordered chunk of filtered live cases (id > afterId), used for batch reports
+    @Query("SELECT c FROM Case c LEFT JOIN FETCH c.filingClerk LEFT JOIN FETCH c.assignedJudge j " +
+           "WHERE c.id > :afterId AND c.supersededById IS NULL " +
+           "AND (:courtLevel IS NULL OR c.courtLevel = :courtLevel) " +
+           "AND (:status IS NULL OR c.status = :status) " +
+           "AND (:judgeId IS NULL OR j.id = :judgeId) " +
+           "AND (:hearingFrom IS NULL OR c.hearingDate >= :hearingFrom) " +
+           "AND (:hearingTo IS NULL OR c.hearingDate < :hearingTo) " +
+           "ORDER BY c.id")
+    List<Case> findChunkAfterId(@Param("afterId") Long afterId,
+                                @Param("courtLevel") Case.CourtLevel courtLevel,
+                                @Param("status") Case.Status status,
+                                @Param("judgeId") Long judgeId,
+                                @Param("hearingFrom") LocalDateTime hearingFrom,
+                                @Param("hearingTo") LocalDateTime hearingTo,
+                                Pageable pageable);
+
+    // Find the maximum case sequence number for sequential case numbering; archived cases keep
+    // their numbers, so the archive counts too
+    @Query(value = "SELECT NULLIF(GREATEST(COALESCE((SELECT MAX(case_sequence) FROM cases), 0), " +
+                   "COALESCE((SELECT MAX(case_sequence) FROM archive.cases), 0)), 0)", nativeQuery = true)
     Integer findMaxCaseSequence();
 
     // Get recent cases sorted by filing date (descending)
-    @Query("SELECT c FROM Case c ORDER BY c.filingDate DESC")
+    @Query("SELECT c FROM Case c WHERE c.supersededById IS NULL ORDER BY c.filingDate DESC")
     List<Case> findTop5ByOrderByFilingDateDesc();
 
     // Find cases by court level
     List<Case> findByCourtLevel(Case.CourtLevel courtLevel);
 
+    // A court level's docket, read through idx_cases_level_superseded
+    List<Case> findByCourtLevelAndSupersededByIdIsNullOrderById(Case.CourtLevel courtLevel);
+
+    // Size of every court level's docket, with how many of its cases are escalated ones
+    @Query("SELECT c.courtLevel AS courtLevel, COUNT(c) AS cases, " +
+           "SUM(CASE WHEN c.status = 'ESCALATED' THEN 1 ELSE 0 END) AS escalated " +
+           "FROM Case c WHERE c.supersededById IS NULL GROUP BY c.courtLevel")
+    List<DocketCount> countDockets();
+
+    // A judge's hearings within a time window in hearing order, i.e. the cause list for a day
+    @Query("SELECT c FROM Case c LEFT JOIN FETCH c.filingClerk JOIN FETCH c.assignedJudge j " +
+           "WHERE j.id = :judgeId AND c.hearingDate >= :from AND c.hearingDate < :to " +
+           "AND c.supersededById IS NULL ORDER BY c.hearingDate, c.id")
+    List<Case> findCauseList(@Param("judgeId") Long judgeId,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+
     // Find cases by original case ID (for tracking escalations)
     List<Case> findByOriginalCaseId(Long originalCaseId);
+
+    // Whole escalation chain of any of its cases in one statement: the original case and every
+    // case escalated from it, lowest court first
+    @Query("SELECT c FROM Case c WHERE c.id = (SELECT COALESCE(x.originalCaseId, x.id) FROM Case x WHERE x.id = :caseId) " +
+           "OR c.originalCaseId = (SELECT COALESCE(x.originalCaseId, x.id) FROM Case x WHERE x.id = :caseId) " +
+           "ORDER BY c.id")
+    List<Case> findLineageOf(@Param("caseId") Long caseId);
+
+    // Count a newly appended judicial note in the same statement that reads the old count
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Case c SET c.noteCount = COALESCE(c.noteCount, 0) + 1, c.updatedAt = :now WHERE c.id = :caseId")
+    int incrementNoteCount(@Param("caseId") Long caseId, @Param("now") LocalDateTime now);
+
+    // Record a finalized note unless a later one is already recorded
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Case c SET c.latestFinalizedNoteId = :noteId, c.latestFinalizedNoteSummary = :summary, " +
+           "c.latestFinalizedNoteAt = :finalizedAt, c.updatedAt = :finalizedAt " +
+           "WHERE c.id = :caseId AND (c.latestFinalizedNoteAt IS NULL OR c.latestFinalizedNoteAt <= :finalizedAt)")
+    int updateLatestFinalizedNote(@Param("caseId") Long caseId,
+                                  @Param("noteId") Long noteId,
+                                  @Param("summary") String summary,
+                                  @Param("finalizedAt") LocalDateTime finalizedAt);
+
+    // Case number alone, without loading the entity
+    @Query("SELECT c.caseNumber FROM Case c WHERE c.id = :id")
+    Optional<String> findCaseNumberById(@Param("id") Long id);
+
+    // Targeted write of the notes column, bumping the version used by the report cache
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Case c SET c.notes = :notes, c.updatedAt = :now WHERE c.id = :caseId")
+    int updateNotes(@Param("caseId") Long caseId, @Param("notes") String notes, @Param("now") LocalDateTime now);
+
+    // Carry a case's notes over to the case continuing it, as they are stored at the time
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE cases SET notes = (SELECT notes FROM cases WHERE id = :fromId) WHERE id = :toId",
+           nativeQuery = true)
+    int copyNotes(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Projection of one court level's counts, see countDockets
+    interface DocketCount {
+        Case.CourtLevel getCourtLevel();
+        long getCases();
+        long getEscalated();
+    }
+
+    // Projection of the columns findArtifactVersionById reads
+    interface ArtifactVersion {
+        LocalDateTime getUpdatedAt();
+        Case.Status getStatus();
+        LocalDateTime getFilingDate();
+    }
 }
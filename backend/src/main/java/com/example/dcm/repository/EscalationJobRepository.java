@@ -0,0 +1,18 @@
+package com.example.dcm.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.dcm.model.EscalationJob;
+
+@Repository
+public interface EscalationJobRepository extends JpaRepository<EscalationJob, Long> {
+
+    // Find jobs in a given state, e.g. runs interrupted by a restart
+    List<EscalationJob> findByStatus(EscalationJob.Status status);
+
+    // Most recent jobs first
+    List<EscalationJob> findTop20ByOrderByCreatedAtDesc();
+}
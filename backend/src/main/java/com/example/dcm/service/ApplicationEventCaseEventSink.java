@@ -0,0 +1,35 @@
+package com.example.dcm.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.example.dcm.model.CaseChangeEvent;
+
+/**
+ * Publishes case change events to in-process listeners as Spring application events; any bean
+ * with an {@code @EventListener} method taking a {@link CaseChangeEvent} receives them. Listeners
+ * run on the relay thread, and one that throws has the whole batch offered again.
+ */
+@Component
+public class ApplicationEventCaseEventSink implements CaseEventSink {
+
+    public static final String NAME = "listener";
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void publish(List<CaseChangeEvent> events) {
+        for (CaseChangeEvent event : events) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
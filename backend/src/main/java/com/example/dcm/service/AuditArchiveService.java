@@ -0,0 +1,460 @@
+package com.example.dcm.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Moves old case_audit rows into immutable, compressed segment files, one directory
+ * per month. Every archive run appends new segments; a segment holds one deflated
+ * block per case and a small index file maps case ids to block offsets, so reading a
+ * case's archived history touches only that case's blocks.
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final int SEGMENT_MAGIC = 0x44434D41; // "DCMA"
+    private static final int INDEX_MAGIC = 0x44434D49;   // "DCMI"
+    private static final short FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 6;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final String SELECT_OLD_ROWS =
+            "SELECT a.id, a.case_id, a.case_number, a.action_type, a.description, a.previous_status, a.new_status, " +
+            "a.previous_court_level, a.new_court_level, a.performed_by_id, u.username, a.details, a.ip_address, a.created_at " +
+            "FROM case_audit a LEFT JOIN users u ON u.id = a.performed_by_id " +
+            "WHERE a.id > ? AND a.created_at < ? ORDER BY a.id LIMIT ?";
+
+    private static final String DELETE_ARCHIVED_ROWS =
+            "DELETE FROM case_audit WHERE id > ? AND id <= ? AND created_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${dcm.audit.archive.dir:audit-archive}")
+    private String archiveDirectory;
+
+    @Value("${dcm.audit.archive.retention-days:365}")
+    private int retentionDays;
+
+    // Rows read, written to segments and deleted per step
+    @Value("${dcm.audit.archive.chunk-size:5000}")
+    private int chunkSize;
+
+    // Own mapper so the segment format does not follow web serialization settings
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    private Path archivePath;
+    // Copy-on-write list of complete segments, newest month first
+    private volatile List<Segment> segments = List.of();
+    private int runSequence;
+
+    @PostConstruct
+    void loadSegments() throws IOException {
+        archivePath = Paths.get(archiveDirectory);
+        Files.createDirectories(archivePath);
+
+        List<Segment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> months = Files.newDirectoryStream(archivePath, Files::isDirectory)) {
+            for (Path monthDir : months) {
+                YearMonth month;
+                try {
+                    month = YearMonth.parse(monthDir.getFileName().toString(), MONTH_FORMAT);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(monthDir)) {
+                    for (Path file : files) {
+                        String name = file.getFileName().toString();
+                        if (name.endsWith(INDEX_SUFFIX)) {
+                            Path data = monthDir.resolve(name.substring(0, name.length() - INDEX_SUFFIX.length()) + SEGMENT_SUFFIX);
+                            if (!Files.exists(data)) {
+                                continue;
+                            }
+                            try {
+                                loaded.add(new Segment(month, data, readIndex(file), Files.size(data)));
+                            } catch (IOException e) {
+                                log.error("Skipping unreadable audit archive index {}", file, e);
+                            }
+                        } else if (name.endsWith(".tmp")) {
+                            // Left behind by an interrupted run whose rows were never deleted
+                            Files.deleteIfExists(file);
+                        }
+                    }
+                }
+            }
+        }
+        loaded.sort(Comparator.comparing((Segment s) -> s.month).reversed());
+        segments = Collections.unmodifiableList(loaded);
+    }
+
+    @Scheduled(cron = "${dcm.audit.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        try {
+            ArchiveResult result = archiveExpiredEntries();
+            if (result.getArchivedEntries() > 0) {
+                log.info("Archived {} audit entries into {} segments", result.getArchivedEntries(), result.getSegmentsWritten());
+            }
+        } catch (RuntimeException e) {
+            log.error("Audit archive run failed", e);
+        }
+    }
+
+    // Archive every audit row older than the retention period
+    public ArchiveResult archiveExpiredEntries() {
+        return archiveOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public ArchiveResult archiveOlderThan(LocalDateTime cutoff) {
+        if (!archiveLock.tryLock()) {
+            throw new IllegalStateException("An audit archive run is already in progress");
+        }
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Timestamp cutoffTime = Timestamp.valueOf(cutoff);
+            long archived = 0;
+            int segmentsWritten = 0;
+            long afterId = 0;
+
+            while (true) {
+                List<AuditEntry> chunk = jdbcTemplate.query(SELECT_OLD_ROWS, this::mapRow, afterId, cutoffTime, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                // Group by month, then by case, so each case's entries for a month form one block
+                Map<YearMonth, TreeMap<Long, List<AuditEntry>>> byMonth = new TreeMap<>();
+                for (AuditEntry entry : chunk) {
+                    byMonth.computeIfAbsent(YearMonth.from(entry.getCreatedAt()), m -> new TreeMap<>())
+                            .computeIfAbsent(entry.getCaseId(), id -> new ArrayList<>())
+                            .add(entry);
+                }
+
+                List<Segment> written = new ArrayList<>();
+                for (Map.Entry<YearMonth, TreeMap<Long, List<AuditEntry>>> month : byMonth.entrySet()) {
+                    written.add(writeSegment(month.getKey(), month.getValue()));
+                }
+                // Publish before deleting, so a concurrent reader always finds each row in one place or the other
+                publish(written);
+
+                long fromId = afterId;
+                long toId = chunk.get(chunk.size() - 1).getId();
+                transaction.executeWithoutResult(status ->
+                        jdbcTemplate.update(DELETE_ARCHIVED_ROWS, fromId, toId, cutoffTime));
+
+                archived += chunk.size();
+                segmentsWritten += written.size();
+                afterId = toId;
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            return new ArchiveResult(cutoff, archived, segmentsWritten);
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    // Archived entries of a case past the cursor, newest first. Segments are scanned newest month first:
+    // months after the cursor or before notBefore are skipped, and the scan stops at a month boundary
+    // once limit entries are collected, since older months cannot contribute to the page.
+    public List<AuditEntry> findCaseEntries(Long caseId, CaseAudit.ActionType actionType, AuditCursor before,
+            LocalDateTime notBefore, int limit) {
+        YearMonth newestMonth = before != null ? YearMonth.from(before.getCreatedAt()) : null;
+        YearMonth oldestMonth = notBefore != null ? YearMonth.from(notBefore) : null;
+
+        List<AuditEntry> entries = new ArrayList<>();
+        YearMonth scanning = null;
+        for (Segment segment : segments) {
+            if (newestMonth != null && segment.month.isAfter(newestMonth)) {
+                continue;
+            }
+            if (oldestMonth != null && segment.month.isBefore(oldestMonth)) {
+                break;
+            }
+            if (!segment.month.equals(scanning)) {
+                if (entries.size() >= limit) {
+                    break;
+                }
+                scanning = segment.month;
+            }
+            BlockRef block = segment.blocks.get(caseId);
+            if (block == null) {
+                continue;
+            }
+            for (AuditEntry entry : readBlock(segment, block)) {
+                if ((actionType == null || entry.getActionType() == actionType)
+                        && (before == null || before.precedes(entry))) {
+                    entries.add(entry);
+                }
+            }
+        }
+        entries.sort(AuditService.NEWEST_FIRST);
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    public ArchiveStats getStats() {
+        List<Segment> current = segments;
+        long entries = 0;
+        long bytes = 0;
+        for (Segment segment : current) {
+            bytes += segment.bytes;
+            for (BlockRef block : segment.blocks.values()) {
+                entries += block.count;
+            }
+        }
+        long months = current.stream().map(s -> s.month).distinct().count();
+        return new ArchiveStats(current.size(), months, entries, bytes, retentionDays);
+    }
+
+    private synchronized void publish(List<Segment> written) {
+        List<Segment> updated = new ArrayList<>(segments);
+        updated.addAll(written);
+        updated.sort(Comparator.comparing((Segment s) -> s.month).reversed());
+        segments = Collections.unmodifiableList(updated);
+    }
+
+    // Write the segment and then its index; a segment only becomes visible once its index exists
+    private Segment writeSegment(YearMonth month, TreeMap<Long, List<AuditEntry>> entriesByCase) {
+        try {
+            Path monthDir = archivePath.resolve(month.format(MONTH_FORMAT));
+            Files.createDirectories(monthDir);
+            String name = "segment-" + LocalDateTime.now().format(RUN_FORMAT) + "-" + (++runSequence);
+            Path data = monthDir.resolve(name + SEGMENT_SUFFIX);
+            Path dataTemp = monthDir.resolve(name + SEGMENT_SUFFIX + ".tmp");
+
+            Map<Long, BlockRef> blocks = new HashMap<>();
+            long size;
+            try (FileChannel channel = FileChannel.open(dataTemp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).putInt(SEGMENT_MAGIC).putShort(FORMAT_VERSION);
+                channel.write(header.flip());
+
+                for (Map.Entry<Long, List<AuditEntry>> caseEntries : entriesByCase.entrySet()) {
+                    byte[] block = compress(caseEntries.getValue());
+                    CRC32 crc = new CRC32();
+                    crc.update(block);
+                    long offset = channel.position();
+                    channel.write(ByteBuffer.wrap(block));
+                    blocks.put(caseEntries.getKey(),
+                            new BlockRef(offset, block.length, caseEntries.getValue().size(), (int) crc.getValue()));
+                }
+                channel.force(true);
+                size = channel.position();
+            }
+            Files.move(dataTemp, data, StandardCopyOption.ATOMIC_MOVE);
+
+            Path index = monthDir.resolve(name + INDEX_SUFFIX);
+            Path indexTemp = monthDir.resolve(name + INDEX_SUFFIX + ".tmp");
+            try (FileChannel channel = FileChannel.open(indexTemp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+                out.writeInt(INDEX_MAGIC);
+                out.writeShort(FORMAT_VERSION);
+                out.writeInt(blocks.size());
+                for (Map.Entry<Long, BlockRef> block : new TreeMap<>(blocks).entrySet()) {
+                    out.writeLong(block.getKey());
+                    out.writeLong(block.getValue().offset);
+                    out.writeInt(block.getValue().length);
+                    out.writeInt(block.getValue().count);
+                    out.writeInt(block.getValue().crc);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(indexTemp, index, StandardCopyOption.ATOMIC_MOVE);
+
+            return new Segment(month, data, blocks, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write audit archive segment for " + month, e);
+        }
+    }
+
+    private Map<Long, BlockRef> readIndex(Path index) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(index))) {
+            if (in.readInt() != INDEX_MAGIC || in.readShort() != FORMAT_VERSION) {
+                throw new IOException("Not an audit archive index: " + index);
+            }
+            int count = in.readInt();
+            Map<Long, BlockRef> blocks = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                long caseId = in.readLong();
+                blocks.put(caseId, new BlockRef(in.readLong(), in.readInt(), in.readInt(), in.readInt()));
+            }
+            return blocks;
+        }
+    }
+
+    private List<AuditEntry> readBlock(Segment segment, BlockRef block) {
+        try (FileChannel channel = FileChannel.open(segment.data, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(block.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset + buffer.position()) < 0) {
+                    throw new IOException("Truncated audit archive segment " + segment.data);
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array());
+            if ((int) crc.getValue() != block.crc) {
+                throw new IOException("Checksum mismatch in audit archive segment " + segment.data);
+            }
+            try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(buffer.array()))) {
+                return mapper.readValue(in, new TypeReference<List<AuditEntry>>() {});
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] compress(List<AuditEntry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * entries.size());
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            mapper.writeValue(out, entries);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private AuditEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+        AuditEntry entry = new AuditEntry();
+        entry.setId(rs.getLong("id"));
+        entry.setCaseId(rs.getLong("case_id"));
+        entry.setCaseNumber(rs.getString("case_number"));
+        entry.setActionType(CaseAudit.ActionType.valueOf(rs.getString("action_type")));
+        entry.setDescription(rs.getString("description"));
+        entry.setPreviousStatus(enumValue(Case.Status.class, rs.getString("previous_status")));
+        entry.setNewStatus(enumValue(Case.Status.class, rs.getString("new_status")));
+        entry.setPreviousCourtLevel(enumValue(Case.CourtLevel.class, rs.getString("previous_court_level")));
+        entry.setNewCourtLevel(enumValue(Case.CourtLevel.class, rs.getString("new_court_level")));
+        long performedById = rs.getLong("performed_by_id");
+        entry.setPerformedById(rs.wasNull() ? null : performedById);
+        entry.setPerformedBy(rs.getString("username"));
+        entry.setDetails(rs.getString("details"));
+        entry.setIpAddress(rs.getString("ip_address"));
+        entry.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return entry;
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private record BlockRef(long offset, int length, int count, int crc) {}
+
+    private static class Segment {
+        private final YearMonth month;
+        private final Path data;
+        private final Map<Long, BlockRef> blocks;
+        private final long bytes;
+
+        Segment(YearMonth month, Path data, Map<Long, BlockRef> blocks, long bytes) {
+            this.month = month;
+            this.data = data;
+            this.blocks = blocks;
+            this.bytes = bytes;
+        }
+    }
+
+    // Inner class for the outcome of an archive run
+    public static class ArchiveResult {
+        private final LocalDateTime cutoff;
+        private final long archivedEntries;
+        private final int segmentsWritten;
+
+        public ArchiveResult(LocalDateTime cutoff, long archivedEntries, int segmentsWritten) {
+            this.cutoff = cutoff;
+            this.archivedEntries = archivedEntries;
+            this.segmentsWritten = segmentsWritten;
+        }
+
+        // Getters
+        public LocalDateTime getCutoff() { return cutoff; }
+        public long getArchivedEntries() { return archivedEntries; }
+        public int getSegmentsWritten() { return segmentsWritten; }
+    }
+
+    // Inner class for archive statistics
+    public static class ArchiveStats {
+        private final int segments;
+        private final long months;
+        private final long archivedEntries;
+        private final long bytes;
+        private final int retentionDays;
+
+        public ArchiveStats(int segments, long months, long archivedEntries, long bytes, int retentionDays) {
+            this.segments = segments;
+            this.months = months;
+            this.archivedEntries = archivedEntries;
+            this.bytes = bytes;
+            this.retentionDays = retentionDays;
+        }
+
+        // Getters
+        public int getSegments() { return segments; }
+        public long getMonths() { return months; }
+        public long getArchivedEntries() { return archivedEntries; }
+        public long getBytes() { return bytes; }
+        public int getRetentionDays() { return retentionDays; }
+    }
+}
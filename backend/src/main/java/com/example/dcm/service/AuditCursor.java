@@ -0,0 +1,54 @@
+package com.example.dcm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in an audit history ordered by (createdAt, id) descending.
+ * Encoded as an opaque URL-safe token so clients just hand back what they received.
+ */
+public final class AuditCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public AuditCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static AuditCursor after(AuditEntry entry) {
+        return new AuditCursor(entry.getCreatedAt(), entry.getId());
+    }
+
+    // Null for a missing token; IllegalArgumentException for a malformed one
+    public static AuditCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new AuditCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid audit cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // True if the entry comes after this position in newest-first order
+    public boolean precedes(AuditEntry entry) {
+        int byTime = entry.getCreatedAt().compareTo(createdAt);
+        return byTime < 0 || (byTime == 0 && entry.getId() < id);
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getId() { return id; }
+}
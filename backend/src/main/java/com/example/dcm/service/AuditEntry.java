@@ -0,0 +1,143 @@
+package com.example.dcm.service;
+
+import java.time.LocalDateTime;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+
+/**
+ * Detached audit record: what is buffered before a {@link CaseAudit} row is written,
+ * and what the audit history API returns. Users are referenced by id and username
+ * so no entity graph is kept alive while an entry waits in the buffer.
+ */
+public class AuditEntry {
+
+    private Long id;
+    private Long caseId;
+    private String caseNumber;
+    private CaseAudit.ActionType actionType;
+    private String description;
+    private Case.Status previousStatus;
+    private Case.Status newStatus;
+    private Case.CourtLevel previousCourtLevel;
+    private Case.CourtLevel newCourtLevel;
+    private Long performedById;
+    private String performedBy;
+    private String details;
+    private String ipAddress;
+    private LocalDateTime createdAt;
+
+    public AuditEntry() {}
+
+    public AuditEntry(Long caseId, String caseNumber, CaseAudit.ActionType actionType, String description) {
+        this.caseId = caseId;
+        this.caseNumber = caseNumber;
+        this.actionType = actionType;
+        this.description = description;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Static factory methods for common audit actions (mirroring CaseAudit)
+    public static AuditEntry of(Case caseEntity, CaseAudit.ActionType actionType, String description) {
+        return new AuditEntry(caseEntity.getId(), caseEntity.getCaseNumber(), actionType, description);
+    }
+
+    public static AuditEntry created(Case caseEntity) {
+        AuditEntry entry = of(caseEntity, CaseAudit.ActionType.CASE_CREATED,
+                "Case filed in " + caseEntity.getCourtLevel().getDisplayName());
+        entry.setNewStatus(caseEntity.getStatus());
+        entry.setNewCourtLevel(caseEntity.getCourtLevel());
+        return entry;
+    }
+
+    public static AuditEntry statusChanged(Case caseEntity, Case.Status previousStatus, Case.Status newStatus) {
+        CaseAudit.ActionType actionType = switch (newStatus) {
+            case COMPLETED -> CaseAudit.ActionType.CASE_COMPLETED;
+            case DISMISSED -> CaseAudit.ActionType.CASE_DISMISSED;
+            default -> previousStatus == Case.Status.COMPLETED || previousStatus == Case.Status.DISMISSED
+                    ? CaseAudit.ActionType.CASE_REOPENED
+                    : CaseAudit.ActionType.STATUS_CHANGED;
+        };
+        AuditEntry entry = of(caseEntity, actionType, "Status changed from " + previousStatus + " to " + newStatus);
+        entry.setPreviousStatus(previousStatus);
+        entry.setNewStatus(newStatus);
+        return entry;
+    }
+
+    public static AuditEntry escalated(Case caseEntity, Case.CourtLevel previousLevel, Case.CourtLevel newLevel,
+            Case.Status previousStatus, String reason) {
+        AuditEntry entry = of(caseEntity, CaseAudit.ActionType.COURT_ESCALATED,
+                "Case escalated from " + previousLevel.getDisplayName() + " to " + newLevel.getDisplayName());
+        entry.setPreviousCourtLevel(previousLevel);
+        entry.setNewCourtLevel(newLevel);
+        entry.setPreviousStatus(previousStatus);
+        entry.setNewStatus(caseEntity.getStatus());
+        entry.setDetails("Escalation reason: " + reason);
+        return entry;
+    }
+
+    // Build from a persisted row
+    public static AuditEntry fromEntity(CaseAudit audit) {
+        AuditEntry entry = new AuditEntry();
+        entry.setId(audit.getId());
+        entry.setCaseId(audit.getCaseEntity().getId());
+        entry.setCaseNumber(audit.getCaseNumber());
+        entry.setActionType(audit.getActionType());
+        entry.setDescription(audit.getDescription());
+        entry.setPreviousStatus(audit.getPreviousStatus());
+        entry.setNewStatus(audit.getNewStatus());
+        entry.setPreviousCourtLevel(audit.getPreviousCourtLevel());
+        entry.setNewCourtLevel(audit.getNewCourtLevel());
+        if (audit.getPerformedBy() != null) {
+            entry.setPerformedById(audit.getPerformedBy().getId());
+            entry.setPerformedBy(audit.getPerformedBy().getUsername());
+        }
+        entry.setDetails(audit.getDetails());
+        entry.setIpAddress(audit.getIpAddress());
+        entry.setCreatedAt(audit.getCreatedAt());
+        return entry;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCaseId() { return caseId; }
+    public void setCaseId(Long caseId) { this.caseId = caseId; }
+
+    public String getCaseNumber() { return caseNumber; }
+    public void setCaseNumber(String caseNumber) { this.caseNumber = caseNumber; }
+
+    public CaseAudit.ActionType getActionType() { return actionType; }
+    public void setActionType(CaseAudit.ActionType actionType) { this.actionType = actionType; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Case.Status getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(Case.Status previousStatus) { this.previousStatus = previousStatus; }
+
+    public Case.Status getNewStatus() { return newStatus; }
+    public void setNewStatus(Case.Status newStatus) { this.newStatus = newStatus; }
+
+    public Case.CourtLevel getPreviousCourtLevel() { return previousCourtLevel; }
+    public void setPreviousCourtLevel(Case.CourtLevel previousCourtLevel) { this.previousCourtLevel = previousCourtLevel; }
+
+    public Case.CourtLevel getNewCourtLevel() { return newCourtLevel; }
+    public void setNewCourtLevel(Case.CourtLevel newCourtLevel) { this.newCourtLevel = newCourtLevel; }
+
+    public Long getPerformedById() { return performedById; }
+    public void setPerformedById(Long performedById) { this.performedById = performedById; }
+
+    public String getPerformedBy() { return performedBy; }
+    public void setPerformedBy(String performedBy) { this.performedBy = performedBy; }
+
+    public String getDetails() { return details; }
+    public void setDetails(String details) { this.details = details; }
+
+    public String getIpAddress() { return ipAddress; }
+    public void setIpAddress(String ipAddress) { this.ipAddress = ipAddress; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,426 @@
+package com.example.dcm.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.repository.CaseAuditRepository;
+import com.example.dcm.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Audit trail writer. Mutations hand their {@link AuditEntry} to a bounded in-memory
+ * buffer once their transaction commits, and a background thread inserts the buffer
+ * into case_audit in JDBC batches at least once per flush interval. With SYNC
+ * durability, or whenever the buffer is full, entries are written by the caller.
+ */
+@Service
+public class AuditService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    public enum Durability {
+        // Buffered after commit; entries still buffered when the JVM dies are lost
+        ASYNC,
+        // Inserted inside the mutating transaction
+        SYNC
+    }
+
+    static final Comparator<AuditEntry> NEWEST_FIRST = Comparator
+            .comparing(AuditEntry::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(AuditEntry::getId, Comparator.reverseOrder());
+
+    private static final String INSERT_SQL =
+            "INSERT INTO case_audit (case_id, case_number, action_type, description, previous_status, new_status, " +
+            "previous_court_level, new_court_level, performed_by_id, details, ip_address, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CaseAuditRepository caseAuditRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    @Value("${dcm.audit.durability:ASYNC}")
+    private Durability durability;
+
+    @Value("${dcm.audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+
+    @Value("${dcm.audit.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound on how long an entry waits in the buffer
+    @Value("${dcm.audit.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    private ArrayBlockingQueue<AuditEntry> buffer;
+    private TransactionTemplate writeTransaction;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // Serializes buffer drains so an explicit flush waits for the writer's batch
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Object wakeUp = new Object();
+    private final Map<String, Long> userIds = new ConcurrentHashMap<>();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong synchronousWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        // Audit rows commit on their own, whatever transaction the caller is in
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        synchronized (wakeUp) {
+            wakeUp.notifyAll();
+        }
+        writerThread.join(flushIntervalMs * 4);
+        // Whatever the writer did not get to is written before the datasource goes away
+        flush();
+    }
+
+    // Record an audit entry for the current user and request
+    public void record(AuditEntry entry) {
+        stampContext(entry);
+
+        if (durability == Durability.SYNC) {
+            // Joins the caller's transaction, so the row commits or rolls back with the change
+            insertBatch(List.of(entry));
+            synchronousWrites.incrementAndGet();
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only committed changes are audited, and the case row is visible to the writer by then
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    // Record several entries at once, e.g. one per case of a bulk operation
+    public void recordAll(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.forEach(this::stampContext);
+
+        if (durability == Durability.SYNC) {
+            insertBatch(entries);
+            synchronousWrites.addAndGet(entries.size());
+            return;
+        }
+
+        List<AuditEntry> batch = List.copyOf(entries);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueueAll(batch);
+                }
+            });
+        } else {
+            enqueueAll(batch);
+        }
+    }
+
+    // Write everything buffered so far; used before reads that must include recent changes
+    public void flush() {
+        drainLock.lock();
+        try {
+            List<AuditEntry> batch = new ArrayList<>(Math.min(batchSize, buffer.size() + 1));
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    // One page of a case's audit history, newest first, continuing from the live table into the archive
+    public AuditPage getCaseHistory(Long caseId, CaseAudit.ActionType actionType, String cursor, int limit) {
+        AuditCursor before = AuditCursor.decode(cursor);
+        flush();
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<CaseAudit> live = before == null
+                ? caseAuditRepository.findCaseHistory(caseId, actionType, page)
+                : caseAuditRepository.findCaseHistoryBefore(caseId, actionType, before.getCreatedAt(), before.getId(), page);
+        List<AuditEntry> rows = live.stream().map(AuditEntry::fromEntity).toList();
+        // An archived case has its rows in archive.case_audit instead
+        if (rows.isEmpty() && caseArchiveService.isArchived(caseId)) {
+            rows = caseArchiveService.findArchivedAudit(caseId, actionType,
+                    before != null ? before.getCreatedAt() : null, before != null ? before.getId() : null, limit);
+        }
+
+        // Live rows are read first: rows are archived before they are deleted, so none can be missed
+        Map<Long, AuditEntry> entries = new HashMap<>();
+        for (AuditEntry row : rows) {
+            entries.put(row.getId(), row);
+        }
+        // A full live page bounds the archive scan to months no older than its last row
+        LocalDateTime notBefore = rows.size() == limit ? rows.get(rows.size() - 1).getCreatedAt() : null;
+        // A run interrupted between writing a segment and deleting its rows leaves both copies
+        for (AuditEntry archived : auditArchiveService.findCaseEntries(caseId, actionType, before, notBefore, limit)) {
+            entries.putIfAbsent(archived.getId(), archived);
+        }
+
+        List<AuditEntry> merged = new ArrayList<>(entries.values());
+        merged.sort(NEWEST_FIRST);
+        return toPage(merged, limit);
+    }
+
+    // One page of the actions performed by a user, newest first. Covers the live table only:
+    // archive segments are indexed by case.
+    public AuditPage getUserHistory(Long userId, CaseAudit.ActionType actionType, String cursor, int limit) {
+        AuditCursor before = AuditCursor.decode(cursor);
+        flush();
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<CaseAudit> live = before == null
+                ? caseAuditRepository.findUserHistory(userId, actionType, page)
+                : caseAuditRepository.findUserHistoryBefore(userId, actionType, before.getCreatedAt(), before.getId(), page);
+        return toPage(live.stream().map(AuditEntry::fromEntity).toList(), limit);
+    }
+
+    private AuditPage toPage(List<AuditEntry> sorted, int limit) {
+        List<AuditEntry> entries = sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+        String nextCursor = entries.size() == limit ? AuditCursor.after(entries.get(limit - 1)).encode() : null;
+        return new AuditPage(List.copyOf(entries), nextCursor);
+    }
+
+    public AuditStats getStats() {
+        return new AuditStats(durability, buffer.size(), bufferCapacity, written.get(), batches.get(),
+                synchronousWrites.get(), failed.get());
+    }
+
+    private void enqueue(AuditEntry entry) {
+        if (running && buffer.offer(entry)) {
+            if (buffer.size() >= batchSize) {
+                synchronized (wakeUp) {
+                    wakeUp.notifyAll();
+                }
+            }
+            return;
+        }
+        // Buffer full (or shutting down): apply back-pressure by writing on the caller's thread
+        synchronousWrites.incrementAndGet();
+        writeBatch(List.of(entry));
+    }
+
+    // Entries that do not fit in the buffer are written on the caller's thread in full batches
+    private void enqueueAll(List<AuditEntry> entries) {
+        List<AuditEntry> overflow = new ArrayList<>();
+        for (AuditEntry entry : entries) {
+            if (!running || !buffer.offer(entry)) {
+                overflow.add(entry);
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            synchronized (wakeUp) {
+                wakeUp.notifyAll();
+            }
+        }
+        for (int from = 0; from < overflow.size(); from += batchSize) {
+            writeBatch(overflow.subList(from, Math.min(from + batchSize, overflow.size())));
+        }
+        synchronousWrites.addAndGet(overflow.size());
+    }
+
+    private void runWriter() {
+        while (running) {
+            try {
+                synchronized (wakeUp) {
+                    if (running && buffer.size() < batchSize) {
+                        wakeUp.wait(flushIntervalMs);
+                    }
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed to flush", e);
+            }
+        }
+    }
+
+    private void writeBatch(List<AuditEntry> batch) {
+        try {
+            writeTransaction.executeWithoutResult(status -> insertBatch(batch));
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed.incrementAndGet();
+                log.error("Dropping audit entry {} for case {}", batch.get(0).getActionType(), batch.get(0).getCaseId(), e);
+                return;
+            }
+            // One bad row (e.g. a case deleted meanwhile) must not lose the rest of the batch
+            for (AuditEntry entry : batch) {
+                writeBatch(List.of(entry));
+            }
+        }
+    }
+
+    private void insertBatch(List<AuditEntry> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bind);
+        written.addAndGet(batch.size());
+    }
+
+    private void bind(PreparedStatement ps, AuditEntry entry) throws SQLException {
+        ps.setLong(1, entry.getCaseId());
+        ps.setString(2, entry.getCaseNumber());
+        ps.setString(3, entry.getActionType().name());
+        ps.setString(4, truncate(entry.getDescription(), 1000));
+        ps.setString(5, name(entry.getPreviousStatus()));
+        ps.setString(6, name(entry.getNewStatus()));
+        ps.setString(7, name(entry.getPreviousCourtLevel()));
+        ps.setString(8, name(entry.getNewCourtLevel()));
+        if (entry.getPerformedById() != null) {
+            ps.setLong(9, entry.getPerformedById());
+        } else {
+            ps.setNull(9, Types.BIGINT);
+        }
+        ps.setString(10, truncate(entry.getDetails(), 2000));
+        ps.setString(11, entry.getIpAddress());
+        ps.setTimestamp(12, Timestamp.valueOf(entry.getCreatedAt()));
+    }
+
+    // Capture who and where on the request thread, before the entry is handed off
+    private void stampContext(AuditEntry entry) {
+        if (entry.getPerformedBy() == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()) {
+                entry.setPerformedBy(authentication.getName());
+            }
+        }
+        if (entry.getPerformedBy() != null && entry.getPerformedById() == null) {
+            entry.setPerformedById(userIds.computeIfAbsent(entry.getPerformedBy(),
+                    username -> userRepository.findByUsername(username).map(user -> user.getId()).orElse(null)));
+        }
+        if (entry.getIpAddress() == null) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes servletAttributes) {
+                entry.setIpAddress(servletAttributes.getRequest().getRemoteAddr());
+            }
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    // Inner class for writer statistics
+    public static class AuditStats {
+        private final Durability durability;
+        private final int buffered;
+        private final int capacity;
+        private final long written;
+        private final long batches;
+        private final long synchronousWrites;
+        private final long failed;
+
+        public AuditStats(Durability durability, int buffered, int capacity, long written, long batches,
+                long synchronousWrites, long failed) {
+            this.durability = durability;
+            this.buffered = buffered;
+            this.capacity = capacity;
+            this.written = written;
+            this.batches = batches;
+            this.synchronousWrites = synchronousWrites;
+            this.failed = failed;
+        }
+
+        // Getters
+        public Durability getDurability() { return durability; }
+        public int getBuffered() { return buffered; }
+        public int getCapacity() { return capacity; }
+        public long getWritten() { return written; }
+        public long getBatches() { return batches; }
+        public long getSynchronousWrites() { return synchronousWrites; }
+        public long getFailed() { return failed; }
+    }
+
+    // Inner class for a page of audit history
+    public static class AuditPage {
+        private final List<AuditEntry> entries;
+        private final String nextCursor;
+
+        public AuditPage(List<AuditEntry> entries, String nextCursor) {
+            this.entries = entries;
+            this.nextCursor = nextCursor;
+        }
+
+        // Getters
+        public List<AuditEntry> getEntries() { return entries; }
+        public String getNextCursor() { return nextCursor; }
+    }
+}
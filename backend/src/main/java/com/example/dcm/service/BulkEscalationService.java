@@ -0,0 +1,334 @@
+package com.example.dcm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.EscalationJob;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.EscalationJobRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Escalates many cases as a persisted job. Cases are processed in fixed-size chunks, each in
+ * its own transaction: the chunk's cases are loaded together, and the updated cases, job
+ * progress and audit entries are written together. Case numbers come from the same allocator
+ * as single-case creation and escalation. A case that cannot be escalated is recorded FAILED;
+ * a chunk that rolls back is redone one case per transaction, so only the cases that fail are
+ * marked FAILED. Only a failure outside the cases, such as writing the job itself, leaves the
+ * job FAILED, ready to resume.
+ */
+@Service
+public class BulkEscalationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkEscalationService.class);
+
+    @Autowired
+    private EscalationJobRepository jobRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Cases escalated per transaction
+    @Value("${dcm.escalation.chunk-size:50}")
+    private int chunkSize;
+
+    // Upper bound on the cases one job may target
+    @Value("${dcm.escalation.max-cases:10000}")
+    private int maxCases;
+
+    // One job runs at a time
+    private final ReentrantLock runLock = new ReentrantLock();
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Escalate the given cases, or every case currently eligible when no ids are given
+    public EscalationJobView startJob(List<Long> caseIds, String reason, String username) {
+        if (reason == null || reason.trim().isEmpty()) {
+            throw new IllegalArgumentException("Escalation reason is required");
+        }
+        // Same limit as the case's escalation_reason column, so no chunk fails on it
+        if (reason.trim().length() > 255) {
+            throw new IllegalArgumentException("Escalation reason must be at most 255 characters");
+        }
+        List<Long> targets = caseIds != null && !caseIds.isEmpty()
+                ? new ArrayList<>(new LinkedHashSet<>(caseIds))
+                : caseService.getCasesEligibleForEscalation().stream().map(Case::getId).toList();
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No cases to escalate");
+        }
+        if (targets.size() > maxCases) {
+            throw new IllegalArgumentException("A job may escalate at most " + maxCases + " cases");
+        }
+
+        EscalationJob job = jobRepository.save(new EscalationJob(targets, reason.trim(), chunkSize, username));
+        return run(job.getId());
+    }
+
+    // Continue a failed job from its first unprocessed chunk
+    public EscalationJobView resume(Long jobId) {
+        EscalationJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("Escalation job not found with id: " + jobId));
+        if (job.getStatus() == EscalationJob.Status.COMPLETED) {
+            throw new IllegalStateException("Escalation job " + jobId + " has already completed");
+        }
+        return run(jobId);
+    }
+
+    public EscalationJobView getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+                .map(EscalationJobView::new)
+                .orElseThrow(() -> new IllegalArgumentException("Escalation job not found with id: " + jobId));
+    }
+
+    public List<EscalationJobView> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByCreatedAtDesc().stream()
+                .map(EscalationJobView::summary)
+                .toList();
+    }
+
+    private EscalationJobView run(Long jobId) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Another escalation job is already running");
+        }
+        try {
+            // Escalation rewrites the case row, so buffered note edits must land first
+            noteBuffer.flushAll();
+            setStatus(jobId, EscalationJob.Status.RUNNING, null);
+
+            boolean more = true;
+            while (more) {
+                try {
+                    try {
+                        more = chunkTransaction.execute(status -> processChunk(jobId, Integer.MAX_VALUE));
+                    } catch (RuntimeException e) {
+                        log.warn("Escalation job {} chunk rolled back; retrying its cases one at a time", jobId, e);
+                        entityManager.clear();
+                        more = processCasesSeparately(jobId);
+                    }
+                    // Keep a long job's persistence context to a single chunk
+                    entityManager.clear();
+                } catch (RuntimeException e) {
+                    log.error("Escalation job {} failed", jobId, e);
+                    setStatus(jobId, EscalationJob.Status.FAILED, e.getMessage());
+                    return getJob(jobId);
+                }
+            }
+            setStatus(jobId, EscalationJob.Status.COMPLETED, null);
+            return getJob(jobId);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // Escalate the next chunk, or fewer cases when limit is smaller; returns whether cases remain
+    private boolean processChunk(Long jobId, int limit) {
+        EscalationJob job = jobRepository.findById(jobId).orElseThrow();
+        List<Long> caseIds = job.getCaseIdList();
+        int from = job.getNextIndex();
+        int to = Math.min(from + Math.min(job.getChunkSize(), limit), caseIds.size());
+        if (from >= to) {
+            return false;
+        }
+
+        List<Long> chunk = caseIds.subList(from, to);
+        Map<Long, Case> cases = caseRepository.findAllById(chunk).stream()
+                .collect(Collectors.toMap(Case::getId, Function.identity()));
+        // Archived cases are moved back to the hot tables first, as for a single escalation
+        for (Long caseId : chunk) {
+            if (!cases.containsKey(caseId) && caseArchiveService.restore(caseId)) {
+                cases.put(caseId, caseRepository.findById(caseId).orElseThrow());
+            }
+        }
+
+        List<EscalationJob.Result> results = new ArrayList<>();
+        List<AuditEntry> audits = new ArrayList<>();
+        List<Case> escalated = new ArrayList<>();
+        for (Long caseId : chunk) {
+            Case caseEntity = cases.get(caseId);
+            if (caseEntity == null) {
+                results.add(new EscalationJob.Result(caseId, EscalationJob.Outcome.FAILED, "Case not found"));
+                continue;
+            }
+            String skipReason = caseEntity.getSupersededById() != null
+                    ? "Already escalated to case " + caseEntity.getSupersededById()
+                    : caseEntity.getCourtLevel() != null && caseEntity.getCourtLevel().isFinalLevel()
+                            ? "Already at the highest court level" : null;
+            if (skipReason != null) {
+                EscalationJob.Result skipped = new EscalationJob.Result(caseId, EscalationJob.Outcome.SKIPPED, skipReason);
+                skipped.setPreviousCaseNumber(caseEntity.getCaseNumber());
+                results.add(skipped);
+                continue;
+            }
+
+            int firstAudit = audits.size();
+            Case higherCourtCase;
+            try {
+                higherCourtCase = caseService.applyEscalation(caseEntity, job.getReason(),
+                        caseService.nextCaseSequence(), audits);
+            } catch (IllegalStateException e) {
+                // Raised by the checks ahead of any write, so the rest of the chunk is unaffected
+                EscalationJob.Result failed = new EscalationJob.Result(caseId, EscalationJob.Outcome.FAILED,
+                        truncate(e.getMessage()));
+                failed.setPreviousCaseNumber(caseEntity.getCaseNumber());
+                results.add(failed);
+                continue;
+            }
+            audits.subList(firstAudit, audits.size()).forEach(audit -> audit.setPerformedBy(job.getCreatedBy()));
+            escalated.add(caseEntity);
+
+            EscalationJob.Result result = new EscalationJob.Result(caseId, EscalationJob.Outcome.ESCALATED, null);
+            result.setPreviousCaseNumber(caseEntity.getCaseNumber());
+            result.setNewCaseId(higherCourtCase.getId());
+            result.setNewCaseNumber(higherCourtCase.getCaseNumber());
+            result.setNewCourtLevel(higherCourtCase.getCourtLevel());
+            results.add(result);
+        }
+
+        caseRepository.saveAll(escalated);
+        job.addResults(results, to);
+        jobRepository.save(job);
+        // Enqueued after this chunk commits, or written in it under SYNC durability
+        auditService.recordAll(audits);
+        return to < caseIds.size();
+    }
+
+    // Redo the current chunk one case per transaction; a case whose transaction fails is recorded
+    // FAILED in a transaction of its own. Returns whether cases remain.
+    private boolean processCasesSeparately(Long jobId) {
+        EscalationJob job = jobRepository.findById(jobId).orElseThrow();
+        int cases = Math.min(job.getChunkSize(), job.getTotalCases() - job.getNextIndex());
+        for (int i = 0; i < cases; i++) {
+            try {
+                chunkTransaction.execute(status -> processChunk(jobId, 1));
+            } catch (RuntimeException e) {
+                log.warn("Escalation job {} could not escalate a case", jobId, e);
+                chunkTransaction.executeWithoutResult(status -> recordFailure(jobId, e));
+            }
+            entityManager.clear();
+        }
+        EscalationJob progress = jobRepository.findById(jobId).orElseThrow();
+        return progress.getNextIndex() < progress.getTotalCases();
+    }
+
+    private void recordFailure(Long jobId, RuntimeException failure) {
+        EscalationJob job = jobRepository.findById(jobId).orElseThrow();
+        int index = job.getNextIndex();
+        Long caseId = job.getCaseIdList().get(index);
+        String message = failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName();
+        job.addResults(List.of(new EscalationJob.Result(caseId, EscalationJob.Outcome.FAILED, truncate(message))),
+                index + 1);
+        jobRepository.save(job);
+    }
+
+    // Result messages are stored in a 500 character column
+    private static String truncate(String message) {
+        return message != null && message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    private void setStatus(Long jobId, EscalationJob.Status status, String error) {
+        chunkTransaction.executeWithoutResult(tx -> {
+            EscalationJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(status);
+            job.setLastError(error != null && error.length() > 2000 ? error.substring(0, 2000) : error);
+            jobRepository.save(job);
+        });
+    }
+
+    // Inner class for job status and per-case results
+    public static class EscalationJobView {
+        private final Long id;
+        private final EscalationJob.Status status;
+        private final String reason;
+        private final int totalCases;
+        private final int processed;
+        private final int escalated;
+        private final int skipped;
+        private final int failed;
+        private final String lastError;
+        private final String createdBy;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final List<EscalationJob.Result> results;
+
+        public EscalationJobView(EscalationJob job) {
+            this(job, List.copyOf(job.getResults()));
+        }
+
+        private EscalationJobView(EscalationJob job, List<EscalationJob.Result> results) {
+            this.id = job.getId();
+            this.status = job.getStatus();
+            this.reason = job.getReason();
+            this.totalCases = job.getTotalCases();
+            this.processed = job.getNextIndex();
+            this.escalated = job.getEscalated();
+            this.skipped = job.getSkipped();
+            this.failed = job.getFailed();
+            this.lastError = job.getLastError();
+            this.createdBy = job.getCreatedBy();
+            this.createdAt = job.getCreatedAt();
+            this.updatedAt = job.getUpdatedAt();
+            this.results = results;
+        }
+
+        // Counters only, for job listings
+        static EscalationJobView summary(EscalationJob job) {
+            return new EscalationJobView(job, null);
+        }
+
+        // Getters
+        public Long getId() { return id; }
+        public EscalationJob.Status getStatus() { return status; }
+        public String getReason() { return reason; }
+        public int getTotalCases() { return totalCases; }
+        public int getProcessed() { return processed; }
+        public int getEscalated() { return escalated; }
+        public int getSkipped() { return skipped; }
+        public int getFailed() { return failed; }
+        public String getLastError() { return lastError; }
+        public String getCreatedBy() { return createdBy; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        public List<EscalationJob.Result> getResults() { return results; }
+    }
+}
@@ -0,0 +1,429 @@
+package com.example.dcm.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.model.CaseNote;
+import com.example.dcm.model.Document;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.DocumentRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * Cold tier for finished cases. COMPLETED and DISMISSED cases nobody has changed for the
+ * retention period are moved, together with their documents, notes and audit rows, out of the
+ * hot tables into copies of those tables in the archive schema, one chunk per transaction.
+ * Rows keep their ids, so lineage links, note references and audit cursors stay valid, and a
+ * case whose status is changed again is moved back exactly as it was.
+ *
+ * An archived case can still be read by id: CaseService.getCaseById, its notes, audit history
+ * (AuditService.getCaseHistory) and priority explanation fall back to the archive, and its documents stay searchable. Listings,
+ * dockets, statistics, exports, batch reports, per-case reports and lineage cover the hot tables
+ * only; for an archived case the per-case ones answer 404 pointing at /api/cases/archive/{id}.
+ *
+ * The archive tables are created from the hot tables at startup and gain any column the hot
+ * tables have since gained. They have no foreign keys to cases, but keep those to users, so a
+ * user an archived case refers to cannot be deleted any more than for a live case.
+ */
+@Service
+@DependsOn("entityManagerFactory")
+public class CaseArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseArchiveService.class);
+
+    private static final String SCHEMA = "archive";
+
+    // Tables moved with their case, by the column holding the case id
+    private static final Map<String, String> DEPENDENTS = new LinkedHashMap<>();
+    // Columns of the moved tables that refer to users, by table
+    private static final Map<String, List<String>> USER_REFERENCES = new LinkedHashMap<>();
+
+    static {
+        DEPENDENTS.put("documents", "case_id");
+        DEPENDENTS.put("case_notes", "case_id");
+        DEPENDENTS.put("case_audit", "case_id");
+        USER_REFERENCES.put("cases", List.of("assigned_judge_id", "filing_clerk_id", "claimed_by_id"));
+        USER_REFERENCES.put("documents", List.of("uploaded_by_id"));
+        USER_REFERENCES.put("case_notes", List.of("created_by_id"));
+        USER_REFERENCES.put("case_audit", List.of("performed_by_id"));
+    }
+
+    private static final String SELECT_COLUMNS =
+            "SELECT column_name, data_type, character_maximum_length FROM information_schema.columns " +
+            "WHERE table_schema = ? AND table_name = ? ORDER BY ordinal_position";
+
+    // Locked until the chunk commits, so none of them can be reopened halfway through the move
+    private static final String SELECT_EXPIRED =
+            "SELECT id, original_case_id FROM cases " +
+            "WHERE status IN ('COMPLETED', 'DISMISSED') AND superseded_by_id IS NULL " +
+            "AND COALESCE(updated_at, created_at) < ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentIndexService documentIndexService;
+
+    @Autowired
+    private CaseLineageService lineageService;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private AuditService auditService;
+
+    // Days a finished case stays in the hot tables after its last change
+    @Value("${dcm.cases.archive.retention-days:90}")
+    private int retentionDays;
+
+    // Cases moved per transaction
+    @Value("${dcm.cases.archive.chunk-size:500}")
+    private int chunkSize;
+
+    // Column list of each moved table, in the hot table's order
+    private final Map<String, String> columns = new LinkedHashMap<>();
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    @PostConstruct
+    void createArchiveTables() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA);
+            List<String> tables = new ArrayList<>();
+            tables.add("cases");
+            tables.addAll(DEPENDENTS.keySet());
+            for (String table : tables) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archived(table) +
+                        " AS SELECT * FROM public." + table + " WITH NO DATA");
+                columns.put(table, String.join(", ", addMissingColumns(table)));
+                // CREATE TABLE AS copies no constraints, not even NOT NULL
+                jdbcTemplate.execute("ALTER TABLE " + archived(table) + " ALTER COLUMN id SET NOT NULL");
+                jdbcTemplate.execute("ALTER TABLE " + archived(table) + " ADD CONSTRAINT IF NOT EXISTS " +
+                        "archived_" + table + "_pk PRIMARY KEY (id)");
+                for (String column : USER_REFERENCES.get(table)) {
+                    jdbcTemplate.execute("ALTER TABLE " + archived(table) + " ADD CONSTRAINT IF NOT EXISTS " +
+                            "archived_" + table + "_" + column + "_fk FOREIGN KEY (" + column + ") " +
+                            "REFERENCES public.users (id)");
+                }
+            }
+            for (Map.Entry<String, String> dependent : DEPENDENTS.entrySet()) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + SCHEMA + ".archived_" + dependent.getKey() +
+                        "_case ON " + archived(dependent.getKey()) + " (" + dependent.getValue() + ")");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + archived("cases") + " ADD COLUMN IF NOT EXISTS archived_at TIMESTAMP");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + SCHEMA + ".archived_cases_case_number ON " +
+                    archived("cases") + " (case_number)");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + SCHEMA + ".archived_cases_case_sequence ON " +
+                    archived("cases") + " (case_sequence)");
+        });
+    }
+
+    @Scheduled(cron = "${dcm.cases.archive.cron:0 0 3 * * *}")
+    public void scheduledArchive() {
+        try {
+            ArchiveResult result = archiveExpiredCases();
+            if (result.getArchivedCases() > 0) {
+                log.info("Archived {} finished cases", result.getArchivedCases());
+            }
+        } catch (RuntimeException e) {
+            log.error("Case archive run failed", e);
+        }
+    }
+
+    // Archive every finished case unchanged for the retention period
+    public ArchiveResult archiveExpiredCases() {
+        return archiveOlderThan(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    public ArchiveResult archiveOlderThan(LocalDateTime cutoff) {
+        if (!archiveLock.tryLock()) {
+            throw new IllegalStateException("A case archive run is already in progress");
+        }
+        try {
+            // Buffered notes and audit entries must reach their tables before the rows are moved
+            noteBuffer.flushAll();
+            auditService.flush();
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            Timestamp cutoffTime = Timestamp.valueOf(cutoff);
+            long archived = 0;
+            int chunks = 0;
+            long afterId = 0;
+            while (true) {
+                long fromId = afterId;
+                List<Long> moved = transaction.execute(status -> archiveChunk(cutoffTime, fromId));
+                if (moved.isEmpty()) {
+                    break;
+                }
+                archived += moved.size();
+                chunks++;
+                afterId = moved.get(moved.size() - 1);
+                if (moved.size() < chunkSize) {
+                    break;
+                }
+            }
+            return new ArchiveResult(cutoff, archived, chunks);
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    // Move one chunk of expired cases and their dependent rows; returns the moved case ids in order
+    private List<Long> archiveChunk(Timestamp cutoff, long afterId) {
+        List<Long> ids = new ArrayList<>();
+        List<Long> lineages = new ArrayList<>();
+        jdbcTemplate.query(SELECT_EXPIRED, rs -> {
+            ids.add(rs.getLong("id"));
+            long originalCaseId = rs.getLong("original_case_id");
+            lineages.add(rs.wasNull() ? null : originalCaseId);
+        }, cutoff, afterId, chunkSize);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+
+        Long[] caseIds = ids.toArray(new Long[0]);
+        for (Map.Entry<String, String> dependent : DEPENDENTS.entrySet()) {
+            String table = dependent.getKey();
+            jdbcTemplate.update("INSERT INTO " + archived(table) + " (" + columns.get(table) + ") SELECT " +
+                    columns.get(table) + " FROM " + table + " WHERE " + dependent.getValue() + " = ANY(?)", (Object) caseIds);
+        }
+        jdbcTemplate.update("INSERT INTO " + archived("cases") + " (" + columns.get("cases") + ", archived_at) SELECT " +
+                columns.get("cases") + ", ? FROM cases WHERE id = ANY(?)", Timestamp.valueOf(LocalDateTime.now()), caseIds);
+        for (Map.Entry<String, String> dependent : DEPENDENTS.entrySet()) {
+            jdbcTemplate.update("DELETE FROM " + dependent.getKey() + " WHERE " + dependent.getValue() + " = ANY(?)",
+                    (Object) caseIds);
+        }
+        jdbcTemplate.update("DELETE FROM cases WHERE id = ANY(?)", (Object) caseIds);
+
+        for (Long originalCaseId : lineages) {
+            if (originalCaseId != null) {
+                lineageService.evictAfterCommit(originalCaseId);
+            }
+        }
+        return ids;
+    }
+
+    // Move an archived case and its dependent rows back to the hot tables, in the caller's
+    // transaction; false when the case is not archived
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean restore(Long caseId) {
+        int restored = jdbcTemplate.update("INSERT INTO cases (" + columns.get("cases") + ") SELECT " +
+                columns.get("cases") + " FROM " + archived("cases") + " WHERE id = ?", caseId);
+        if (restored == 0) {
+            return false;
+        }
+        for (Map.Entry<String, String> dependent : DEPENDENTS.entrySet()) {
+            String table = dependent.getKey();
+            jdbcTemplate.update("INSERT INTO " + table + " (" + columns.get(table) + ") SELECT " + columns.get(table) +
+                    " FROM " + archived(table) + " WHERE " + dependent.getValue() + " = ?", caseId);
+            jdbcTemplate.update("DELETE FROM " + archived(table) + " WHERE " + dependent.getValue() + " = ?", caseId);
+        }
+        jdbcTemplate.update("DELETE FROM " + archived("cases") + " WHERE id = ?", caseId);
+
+        Case caseEntity = caseRepository.findById(caseId).orElseThrow();
+        // Re-indexed from the hot row, which the index entry read from the archive now refers to
+        documentRepository.findByCaseEntityId(caseId).forEach(documentIndexService::indexDocument);
+        if (caseEntity.getOriginalCaseId() != null) {
+            lineageService.evictAfterCommit(caseEntity.getOriginalCaseId());
+        }
+        log.info("Restored archived case {}", caseEntity.getCaseNumber());
+        return true;
+    }
+
+    public boolean isArchived(Long caseId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + archived("cases") + " WHERE id = ?",
+                Long.class, caseId) > 0;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ArchivedCase> findArchived(Long caseId) {
+        return findOne("id = ?", caseId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ArchivedCase> findArchivedByCaseNumber(String caseNumber) {
+        return findOne("case_number = ?", caseNumber);
+    }
+
+    // One page of an archived case's notes older than beforeId, newest first
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<CaseNote> findArchivedNotes(Long caseId, long beforeId, int limit) {
+        return entityManager.createNativeQuery("SELECT * FROM " + archived("case_notes") +
+                        " WHERE case_id = ?1 AND id < ?2 ORDER BY id DESC LIMIT ?3", CaseNote.class)
+                .setParameter(1, caseId)
+                .setParameter(2, beforeId)
+                .setParameter(3, limit)
+                .getResultList();
+    }
+
+    // One page of an archived case's audit rows, newest first, after the cursor position when given;
+    // mapped while the session is open, so the performing users can still be read
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<AuditEntry> findArchivedAudit(Long caseId, CaseAudit.ActionType actionType,
+                                             LocalDateTime beforeTime, Long beforeId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM " + archived("case_audit") + " WHERE case_id = :caseId");
+        if (actionType != null) {
+            sql.append(" AND action_type = :actionType");
+        }
+        if (beforeTime != null) {
+            sql.append(" AND created_at <= :beforeTime AND (created_at < :beforeTime OR id < :beforeId)");
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), CaseAudit.class)
+                .setParameter("caseId", caseId)
+                .setParameter("limit", limit);
+        if (actionType != null) {
+            query.setParameter("actionType", actionType.name());
+        }
+        if (beforeTime != null) {
+            query.setParameter("beforeTime", beforeTime).setParameter("beforeId", beforeId);
+        }
+        List<CaseAudit> rows = query.getResultList();
+        return rows.stream().map(AuditEntry::fromEntity).toList();
+    }
+
+    // Documents of every archived case; they stay in the full-text index while archived
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Document> findArchivedDocuments() {
+        return entityManager.createNativeQuery("SELECT * FROM " + archived("documents"), Document.class)
+                .getResultList();
+    }
+
+    public ArchiveStats getStats() {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (String table : columns.keySet()) {
+            rows.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + archived(table), Long.class));
+        }
+        return new ArchiveStats(rows, retentionDays);
+    }
+
+    private Optional<ArchivedCase> findOne(String condition, Object value) {
+        List<?> found = entityManager.createNativeQuery("SELECT * FROM " + archived("cases") + " WHERE " + condition,
+                Case.class).setParameter(1, value).getResultList();
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Case archivedCase = (Case) found.get(0);
+        // Never written back: the row it was read from is not in the cases table
+        entityManager.detach(archivedCase);
+        LocalDateTime archivedAt = jdbcTemplate.queryForObject(
+                "SELECT archived_at FROM " + archived("cases") + " WHERE id = ?", LocalDateTime.class, archivedCase.getId());
+        return Optional.of(new ArchivedCase(archivedCase, archivedAt));
+    }
+
+    // Add hot table columns the archive copy lacks; returns the hot table's columns
+    private List<String> addMissingColumns(String table) {
+        List<String> archivedColumns = jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.columns WHERE table_schema = ? AND table_name = ?",
+                String.class, SCHEMA.toUpperCase(), table.toUpperCase());
+        List<String> hotColumns = new ArrayList<>();
+        jdbcTemplate.query(SELECT_COLUMNS, rs -> {
+            String column = rs.getString("column_name");
+            hotColumns.add(column);
+            if (!archivedColumns.contains(column)) {
+                String type = rs.getString("data_type");
+                long length = rs.getLong("character_maximum_length");
+                if ("ENUM".equals(type)) {
+                    // Values are copied as their names
+                    type = "CHARACTER VARYING";
+                } else if (type.endsWith("VARYING") && length > 0) {
+                    type += "(" + length + ")";
+                }
+                jdbcTemplate.execute("ALTER TABLE " + archived(table) + " ADD COLUMN " + column + " " + type);
+            }
+        }, "PUBLIC", table.toUpperCase());
+        return hotColumns;
+    }
+
+    private static String archived(String table) {
+        return SCHEMA + "." + table;
+    }
+
+    // Inner class for an archived case and when it was archived
+    public static class ArchivedCase {
+        private final Case archivedCase;
+        private final LocalDateTime archivedAt;
+
+        public ArchivedCase(Case archivedCase, LocalDateTime archivedAt) {
+            this.archivedCase = archivedCase;
+            this.archivedAt = archivedAt;
+        }
+
+        // Getters
+        public Case getArchivedCase() { return archivedCase; }
+        public LocalDateTime getArchivedAt() { return archivedAt; }
+    }
+
+    // Inner class for the result of an archive run
+    public static class ArchiveResult {
+        private final LocalDateTime cutoff;
+        private final long archivedCases;
+        private final int chunks;
+
+        public ArchiveResult(LocalDateTime cutoff, long archivedCases, int chunks) {
+            this.cutoff = cutoff;
+            this.archivedCases = archivedCases;
+            this.chunks = chunks;
+        }
+
+        // Getters
+        public LocalDateTime getCutoff() { return cutoff; }
+        public long getArchivedCases() { return archivedCases; }
+        public int getChunks() { return chunks; }
+    }
+
+    // Inner class for archive table sizes
+    public static class ArchiveStats {
+        private final Map<String, Long> archivedRows;
+        private final int retentionDays;
+
+        public ArchiveStats(Map<String, Long> archivedRows, int retentionDays) {
+            this.archivedRows = archivedRows;
+            this.retentionDays = retentionDays;
+        }
+
+        // Getters
+        public Map<String, Long> getArchivedRows() { return archivedRows; }
+        public int getRetentionDays() { return retentionDays; }
+    }
+}
@@ -0,0 +1,451 @@
+package com.example.dcm.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.UserRepository;
+
+/**
+ * Shared "next case" queue per court level. Open, unclaimed cases wait in a concurrent skip list
+ * grouped by base priority and by whether they still gain an age bonus, oldest first within a
+ * group. A group's first case is its best by effective priority, so the most urgent case is
+ * found among the group heads at any time, without re-sorting as cases age. A judge takes it
+ * and holds it under a lease that is renewed while working and expires if abandoned. Claims live
+ * in the cases table and each one is taken with a conditional update, so two judges never hold
+ * the same case and claims survive a restart; the in-memory queue is rebuilt from the table at
+ * startup.
+ */
+@Service
+public class CaseClaimQueue {
+
+    private static final String SELECT_OPEN_CASES =
+            "SELECT id, court_level, status, priority, filing_date, claimed_by_id, claim_expires_at FROM cases " +
+            "WHERE superseded_by_id IS NULL AND status NOT IN ('COMPLETED', 'DISMISSED')";
+
+    // Only an open case with no live claim can be claimed
+    private static final String CLAIM =
+            "UPDATE cases SET claimed_by_id = ?, claim_expires_at = ? " +
+            "WHERE id = ? AND superseded_by_id IS NULL AND status NOT IN ('COMPLETED', 'DISMISSED') " +
+            "AND (claimed_by_id IS NULL OR claim_expires_at <= ?)";
+
+    private static final String RENEW =
+            "UPDATE cases SET claim_expires_at = ? WHERE id = ? AND claimed_by_id = ? AND claim_expires_at > ?";
+
+    private static final String RELEASE =
+            "UPDATE cases SET claimed_by_id = NULL, claim_expires_at = NULL WHERE id = ? AND claimed_by_id = ?";
+
+    private static final String EXPIRE =
+            "UPDATE cases SET claimed_by_id = NULL, claim_expires_at = NULL " +
+            "WHERE id = ? AND claimed_by_id = ? AND claim_expires_at <= ?";
+
+    private static final String CLEAR =
+            "UPDATE cases SET claimed_by_id = NULL, claim_expires_at = NULL WHERE id = ? AND claimed_by_id IS NOT NULL";
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Value("${dcm.claims.lease-minutes:30}")
+    private int leaseMinutes;
+
+    private final Map<Case.CourtLevel, ConcurrentSkipListSet<QueueEntry>> queues = new EnumMap<>(Case.CourtLevel.class);
+
+    // Current entry of every open case, queued or claimed; an entry no longer current is skipped
+    private final ConcurrentHashMap<Long, QueueEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Claim> claims = new ConcurrentHashMap<>();
+    // Live claims by expiry, so the reaper only looks at the ones that ran out
+    private final ConcurrentSkipListSet<Claim> leases = new ConcurrentSkipListSet<>(Claim.BY_EXPIRY);
+
+    // Changes to one case's entry or claim are serialized on its stripe; queue reads take no lock
+    private final Object[] stripes = new Object[STRIPES];
+
+    public CaseClaimQueue() {
+        for (Case.CourtLevel level : Case.CourtLevel.values()) {
+            queues.put(level, new ConcurrentSkipListSet<>(QueueEntry.ORDER));
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        queues.values().forEach(ConcurrentSkipListSet::clear);
+        entries.clear();
+        claims.clear();
+        leases.clear();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.query(SELECT_OPEN_CASES, rs -> {
+            String level = rs.getString("court_level");
+            QueueEntry entry = new QueueEntry(rs.getLong("id"),
+                    level != null ? Case.CourtLevel.valueOf(level) : Case.CourtLevel.DISTRICT,
+                    Case.Status.valueOf(rs.getString("status")).gainsAgeBonus(),
+                    rs.getInt("priority"), rs.getTimestamp("filing_date").toLocalDateTime());
+            entries.put(entry.caseId, entry);
+
+            long judgeId = rs.getLong("claimed_by_id");
+            boolean claimed = !rs.wasNull();
+            Timestamp expiresAt = rs.getTimestamp("claim_expires_at");
+            if (claimed && expiresAt != null && expiresAt.toLocalDateTime().isAfter(now)) {
+                Claim claim = new Claim(entry.caseId, judgeId, expiresAt.toLocalDateTime());
+                claims.put(entry.caseId, claim);
+                leases.add(claim);
+            } else {
+                queues.get(entry.courtLevel).add(entry);
+            }
+        });
+    }
+
+    // Claim the most urgent unclaimed case of the judge's court level, or empty when none is waiting
+    public Optional<Case> claimNext(String username) {
+        User judge = findJudge(username);
+        Case.CourtLevel courtLevel = judge.getCourtLevel() != null
+                ? Case.CourtLevel.valueOf(judge.getCourtLevel().name()) : Case.CourtLevel.DISTRICT;
+        ConcurrentSkipListSet<QueueEntry> queue = queues.get(courtLevel);
+
+        QueueEntry entry;
+        while ((entry = head(queue, LocalDateTime.now())) != null) {
+            // Taken by another judge in the meantime
+            if (!queue.remove(entry)) {
+                continue;
+            }
+            synchronized (stripe(entry.caseId)) {
+                // Replaced by a newer entry, or closed, since it was queued
+                if (entries.get(entry.caseId) != entry) {
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime expiresAt = now.plusMinutes(leaseMinutes);
+                if (jdbcTemplate.update(CLAIM, judge.getId(), Timestamp.valueOf(expiresAt), entry.caseId,
+                        Timestamp.valueOf(now)) == 0) {
+                    // Closed or claimed outside this queue; it is picked up again when it changes
+                    entries.remove(entry.caseId, entry);
+                    continue;
+                }
+                Claim claim = new Claim(entry.caseId, judge.getId(), expiresAt);
+                claims.put(entry.caseId, claim);
+                leases.add(claim);
+            }
+            return caseRepository.findById(entry.caseId);
+        }
+        return Optional.empty();
+    }
+
+    // Extend the lease of a claim held by the judge
+    public ClaimView renew(Long caseId, String username) {
+        User judge = findJudge(username);
+        synchronized (stripe(caseId)) {
+            Claim claim = findClaim(caseId, judge);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plusMinutes(leaseMinutes);
+            if (jdbcTemplate.update(RENEW, Timestamp.valueOf(expiresAt), caseId, judge.getId(), Timestamp.valueOf(now)) == 0) {
+                throw new IllegalStateException("The claim on case " + caseId + " has expired");
+            }
+            Claim renewed = new Claim(caseId, judge.getId(), expiresAt);
+            leases.remove(claim);
+            claims.put(caseId, renewed);
+            leases.add(renewed);
+            return new ClaimView(renewed);
+        }
+    }
+
+    // Hand a claimed case back to the queue
+    public void release(Long caseId, String username) {
+        User judge = findJudge(username);
+        synchronized (stripe(caseId)) {
+            Claim claim = findClaim(caseId, judge);
+            jdbcTemplate.update(RELEASE, caseId, judge.getId());
+            unclaim(claim);
+        }
+    }
+
+    public List<ClaimView> getClaims(String username) {
+        Long judgeId = findJudge(username).getId();
+        List<ClaimView> views = new ArrayList<>();
+        for (Claim claim : claims.values()) {
+            if (claim.judgeId == judgeId) {
+                views.add(new ClaimView(claim));
+            }
+        }
+        views.sort(Comparator.comparing(ClaimView::getExpiresAt));
+        return views;
+    }
+
+    public QueueStats getStats() {
+        Map<Case.CourtLevel, Integer> waiting = new EnumMap<>(Case.CourtLevel.class);
+        queues.forEach((level, queue) -> waiting.put(level, queue.size()));
+        return new QueueStats(waiting, claims.size());
+    }
+
+    // Return cases whose lease ran out to the queue
+    @Scheduled(fixedDelayString = "${dcm.claims.reap-interval-ms:30000}")
+    public void reapExpiredClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Claim claim : leases) {
+            if (claim.expiresAt.isAfter(now)) {
+                return;
+            }
+            synchronized (stripe(claim.caseId)) {
+                leases.remove(claim);
+                // Renewed or released in the meantime
+                if (claims.get(claim.caseId) != claim) {
+                    continue;
+                }
+                jdbcTemplate.update(EXPIRE, claim.caseId, claim.judgeId, Timestamp.valueOf(now));
+                unclaim(claim);
+            }
+        }
+    }
+
+    // Re-queue cases whose priority or status changed, once the change commits. Closed and
+    // escalated cases leave the queue and lose their claim; the claim columns are cleared in the
+    // caller's transaction, so they commit or roll back with the change that closed the case.
+    public void refresh(Collection<Case> cases) {
+        List<QueueEntry> updated = new ArrayList<>(cases.size());
+        List<Long> closed = new ArrayList<>();
+        for (Case caseEntity : cases) {
+            boolean open = caseEntity.getSupersededById() == null
+                    && caseEntity.getStatus() != Case.Status.COMPLETED
+                    && caseEntity.getStatus() != Case.Status.DISMISSED;
+            if (open) {
+                updated.add(new QueueEntry(caseEntity.getId(),
+                        caseEntity.getCourtLevel() != null ? caseEntity.getCourtLevel() : Case.CourtLevel.DISTRICT,
+                        caseEntity.getStatus() != null && caseEntity.getStatus().gainsAgeBonus(),
+                        caseEntity.getPriority() != null ? caseEntity.getPriority() : 5, caseEntity.getFilingDate()));
+            } else {
+                closed.add(caseEntity.getId());
+            }
+        }
+        if (!closed.isEmpty()) {
+            jdbcTemplate.batchUpdate(CLEAR, closed.stream().map(caseId -> new Object[] { caseId }).toList());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(updated, closed);
+                }
+            });
+        } else {
+            apply(updated, closed);
+        }
+    }
+
+    // Re-order queued cases whose priorities were rewritten in bulk; call once the writes commit
+    public void reprioritize(long[] caseIds, int[] priorities, int count) {
+        for (int i = 0; i < count; i++) {
+            synchronized (stripe(caseIds[i])) {
+                QueueEntry previous = entries.get(caseIds[i]);
+                if (previous == null || previous.priority == priorities[i]) {
+                    continue;
+                }
+                QueueEntry entry = new QueueEntry(previous.caseId, previous.courtLevel, previous.ages, priorities[i],
+                        previous.filingDate);
+                entries.put(entry.caseId, entry);
+                if (queues.get(previous.courtLevel).remove(previous)) {
+                    queues.get(entry.courtLevel).add(entry);
+                }
+            }
+        }
+    }
+
+    private void apply(List<QueueEntry> updated, List<Long> closed) {
+        for (QueueEntry entry : updated) {
+            synchronized (stripe(entry.caseId)) {
+                QueueEntry previous = entries.put(entry.caseId, entry);
+                if (previous != null) {
+                    queues.get(previous.courtLevel).remove(previous);
+                }
+                if (!claims.containsKey(entry.caseId)) {
+                    queues.get(entry.courtLevel).add(entry);
+                }
+            }
+        }
+        for (Long caseId : closed) {
+            synchronized (stripe(caseId)) {
+                QueueEntry previous = entries.remove(caseId);
+                if (previous != null) {
+                    queues.get(previous.courtLevel).remove(previous);
+                }
+                Claim claim = claims.remove(caseId);
+                if (claim != null) {
+                    leases.remove(claim);
+                }
+            }
+        }
+    }
+
+    // Waiting case with the highest effective priority as of now, earliest filed on a tie. Only the
+    // head of each (ages, base priority) group can be it, and cases that do not age have no
+    // bonus, so their first head is the only one that counts.
+    private QueueEntry head(ConcurrentSkipListSet<QueueEntry> queue, LocalDateTime now) {
+        QueueEntry best = null;
+        int bestPriority = Integer.MIN_VALUE;
+        int maxPriority = priorityEngine.getRules().getMaxPriority();
+        QueueEntry group = queue.ceiling(QueueEntry.groupStart(true, Integer.MAX_VALUE));
+        while (group != null) {
+            int effective = group.ages
+                    ? Case.effectivePriority(group.priority, Case.Status.FILED, group.filingDate, now, maxPriority)
+                    : group.priority;
+            if (best == null || effective > bestPriority
+                    || effective == bestPriority && QueueEntry.BY_AGE.compare(group, best) < 0) {
+                best = group;
+                bestPriority = effective;
+            }
+            if (!group.ages) {
+                break;
+            }
+            group = queue.ceiling(QueueEntry.groupStart(true, group.priority - 1));
+            if (group == null) {
+                group = queue.ceiling(QueueEntry.groupStart(false, Integer.MAX_VALUE));
+            }
+        }
+        return best;
+    }
+
+    // Drop a claim and queue its case again; caller holds the case's stripe
+    private void unclaim(Claim claim) {
+        claims.remove(claim.caseId, claim);
+        leases.remove(claim);
+        QueueEntry entry = entries.get(claim.caseId);
+        if (entry != null) {
+            queues.get(entry.courtLevel).add(entry);
+        }
+    }
+
+    private Claim findClaim(Long caseId, User judge) {
+        Claim claim = claims.get(caseId);
+        if (claim == null || claim.judgeId != judge.getId()) {
+            throw new IllegalStateException("Case " + caseId + " is not claimed by " + judge.getUsername());
+        }
+        return claim;
+    }
+
+    private User findJudge(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (user.getRole() != User.Role.JUDGE) {
+            throw new IllegalArgumentException("User is not a judge");
+        }
+        return user;
+    }
+
+    private Object stripe(long caseId) {
+        return stripes[(int) (caseId % STRIPES)];
+    }
+
+    // Queue position of an open case; immutable, replaced when the case changes
+    private static final class QueueEntry {
+        static final Comparator<QueueEntry> BY_AGE = Comparator
+                .comparing((QueueEntry entry) -> entry.filingDate)
+                .thenComparingLong(entry -> entry.caseId);
+
+        // Aging cases first, then by base priority, oldest first within a group
+        static final Comparator<QueueEntry> ORDER = Comparator
+                .comparing((QueueEntry entry) -> !entry.ages)
+                .thenComparingInt(entry -> -entry.priority)
+                .thenComparing(BY_AGE);
+
+        private final long caseId;
+        private final Case.CourtLevel courtLevel;
+        // Whether the case still gains an age bonus, i.e. has not reached a hearing
+        private final boolean ages;
+        private final int priority;
+        private final LocalDateTime filingDate;
+
+        QueueEntry(long caseId, Case.CourtLevel courtLevel, boolean ages, int priority, LocalDateTime filingDate) {
+            this.caseId = caseId;
+            this.courtLevel = courtLevel;
+            this.ages = ages;
+            this.priority = priority;
+            this.filingDate = filingDate;
+        }
+
+        // Sorts before every entry of the group, and after every entry of the groups before it
+        static QueueEntry groupStart(boolean ages, int priority) {
+            return new QueueEntry(Long.MIN_VALUE, null, ages, priority, LocalDateTime.MIN);
+        }
+    }
+
+    private static final class Claim {
+        static final Comparator<Claim> BY_EXPIRY = Comparator
+                .comparing((Claim claim) -> claim.expiresAt)
+                .thenComparingLong(claim -> claim.caseId);
+
+        private final long caseId;
+        private final long judgeId;
+        private final LocalDateTime expiresAt;
+
+        Claim(long caseId, long judgeId, LocalDateTime expiresAt) {
+            this.caseId = caseId;
+            this.judgeId = judgeId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Inner class for a claim held by a judge
+    public static class ClaimView {
+        private final Long caseId;
+        private final Long judgeId;
+        private final LocalDateTime expiresAt;
+
+        ClaimView(Claim claim) {
+            this.caseId = claim.caseId;
+            this.judgeId = claim.judgeId;
+            this.expiresAt = claim.expiresAt;
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public Long getJudgeId() { return judgeId; }
+        public LocalDateTime getExpiresAt() { return expiresAt; }
+    }
+
+    // Inner class for queue statistics
+    public static class QueueStats {
+        private final Map<Case.CourtLevel, Integer> waitingCases;
+        private final int activeClaims;
+
+        public QueueStats(Map<Case.CourtLevel, Integer> waitingCases, int activeClaims) {
+            this.waitingCases = waitingCases;
+            this.activeClaims = activeClaims;
+        }
+
+        // Getters
+        public Map<Case.CourtLevel, Integer> getWaitingCases() { return waitingCases; }
+        public int getActiveClaims() { return activeClaims; }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.dcm.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseChangeEvent;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Write side of the case change outbox. Status and priority changes are recorded as
+ * {@link CaseChangeEvent} rows inside the transaction that makes them, so an event exists exactly
+ * when its change committed; CaseEventRelay publishes them. Pending entity changes are flushed
+ * before the events are inserted, which locks the changed case rows first: a later change to the
+ * same case waits for this transaction and is given a later event id.
+ */
+@Service
+public class CaseEventOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO case_change_events (case_id, event_type, previous_status, new_status, " +
+            "previous_priority, new_priority, occurred_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_AFTER =
+            "SELECT id, case_id, event_type, previous_status, new_status, previous_priority, new_priority, occurred_at " +
+            "FROM case_change_events WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Signalled when a transaction that recorded events commits, so the relay need not wait out its poll
+    private final Object committed = new Object();
+    private boolean signalled;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CaseChangeEvent event) {
+        recordAll(List.of(event));
+    }
+
+    // Record the events of one transaction in a single batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<CaseChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getCaseId());
+            ps.setString(2, event.getType().name());
+            ps.setString(3, name(event.getPreviousStatus()));
+            ps.setString(4, name(event.getNewStatus()));
+            setInteger(ps, 5, event.getPreviousPriority());
+            setInteger(ps, 6, event.getNewPriority());
+            ps.setTimestamp(7, Timestamp.valueOf(event.getOccurredAt()));
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signal();
+            }
+        });
+    }
+
+    // Priority changes written as columns by the bulk recalculation
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordPriorityChanges(long[] caseIds, int[] previousPriorities, int[] newPriorities, int count,
+                                      LocalDateTime occurredAt) {
+        List<CaseChangeEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new CaseChangeEvent(caseIds[i], CaseChangeEvent.Type.PRIORITY_CHANGED, null, null,
+                    previousPriorities[i], newPriorities[i], occurredAt));
+        }
+        recordAll(events);
+    }
+
+    // Events with ids in (afterId, upToId], oldest first
+    public List<CaseChangeEvent> read(long afterId, long upToId, int limit) {
+        return jdbcTemplate.query(SELECT_AFTER, this::mapEvent, afterId, upToId, limit);
+    }
+
+    // Wait until a transaction that recorded events commits, or the timeout passes
+    void awaitCommit(long timeoutMs) throws InterruptedException {
+        synchronized (committed) {
+            if (!signalled) {
+                committed.wait(timeoutMs);
+            }
+            signalled = false;
+        }
+    }
+
+    void signal() {
+        synchronized (committed) {
+            signalled = true;
+            committed.notifyAll();
+        }
+    }
+
+    private CaseChangeEvent mapEvent(ResultSet rs, int rowNum) throws SQLException {
+        CaseChangeEvent event = new CaseChangeEvent(rs.getLong("case_id"),
+                CaseChangeEvent.Type.valueOf(rs.getString("event_type")),
+                status(rs.getString("previous_status")), status(rs.getString("new_status")),
+                (Integer) rs.getObject("previous_priority"), (Integer) rs.getObject("new_priority"),
+                rs.getTimestamp("occurred_at").toLocalDateTime());
+        event.setId(rs.getLong("id"));
+        return event;
+    }
+
+    private static Case.Status status(String name) {
+        return name != null ? Case.Status.valueOf(name) : null;
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.dcm.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.dcm.model.CaseChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Publishes the case change outbox to the enabled {@link CaseEventSink}s. Each sink has its own
+ * checkpoint in outbox_checkpoints and is handed the events after it in id order, so a failing
+ * sink is retried from where it stopped without holding up the others.
+ *
+ * Event ids are allocated when a transaction inserts its events but become visible when it
+ * commits, so a later id can be read before an earlier one. Past the furthest checkpoint the
+ * relay only publishes ids that follow on without a gap; a gap is waited out for up to
+ * dcm.outbox.gap-timeout-ms and then taken to be a rolled back transaction and skipped.
+ */
+@Service
+public class CaseEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseEventRelay.class);
+
+    private static final String SELECT_CHECKPOINT =
+            "SELECT last_event_id FROM outbox_checkpoints WHERE sink = ?";
+
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO outbox_checkpoints (sink, last_event_id, updated_at) VALUES (?, 0, ?)";
+
+    private static final String UPDATE_CHECKPOINT =
+            "UPDATE outbox_checkpoints SET last_event_id = ?, updated_at = ? WHERE sink = ?";
+
+    private static final String PURGE_EVENTS =
+            "DELETE FROM case_change_events WHERE id <= ? AND occurred_at < ?";
+
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Autowired
+    private CaseEventOutbox outbox;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<CaseEventSink> availableSinks;
+
+    // Names of the sinks to publish to
+    @Value("${dcm.outbox.sinks:listener,log,sse}")
+    private Set<String> enabledSinks;
+
+    @Value("${dcm.outbox.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound on how long a committed event waits when no commit wakes the relay
+    @Value("${dcm.outbox.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    // Longer than any transaction that records events is expected to stay open
+    @Value("${dcm.outbox.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    // Events every sink has been given are kept this long for SSE clients to resume from
+    @Value("${dcm.outbox.retention-hours:24}")
+    private int retentionHours;
+
+    private final List<SinkState> sinks = new ArrayList<>();
+    private Thread relayThread;
+    private volatile boolean running;
+
+    // First missing id past the furthest checkpoint and when it was first seen missing
+    private long heldAtId = -1;
+    private long heldSince;
+    private long lastPurge = System.nanoTime();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadCheckpoints();
+        running = true;
+        relayThread = new Thread(this::runRelay, "outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+    }
+
+    // Resume every enabled sink from its stored checkpoint, creating the missing ones
+    synchronized void loadCheckpoints() {
+        for (CaseEventSink sink : availableSinks) {
+            if (!enabledSinks.contains(sink.getName())) {
+                continue;
+            }
+            List<Long> checkpoint = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, sink.getName());
+            if (checkpoint.isEmpty()) {
+                jdbcTemplate.update(INSERT_CHECKPOINT, sink.getName(), Timestamp.valueOf(LocalDateTime.now()));
+            }
+            long lastEventId = checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+            sink.resume(lastEventId);
+            sinks.add(new SinkState(sink, lastEventId));
+        }
+        log.info("Relaying case change events to {}", sinks.stream().map(s -> s.sink.getName()).toList());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        outbox.signal();
+        if (relayThread != null) {
+            relayThread.join(pollIntervalMs * 4);
+        }
+    }
+
+    public boolean isEnabled(String sinkName) {
+        return enabledSinks.contains(sinkName);
+    }
+
+    public synchronized RelayStats getStats() {
+        List<SinkStats> stats = sinks.stream().map(SinkStats::new).collect(Collectors.toList());
+        return new RelayStats(stats, heldAtId > 0 ? heldAtId : null);
+    }
+
+    private void runRelay() {
+        while (running) {
+            try {
+                if (!relayBatch()) {
+                    outbox.awaitCommit(pollIntervalMs);
+                }
+                if (System.nanoTime() - lastPurge > PURGE_INTERVAL_NANOS) {
+                    purge();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Outbox relay failed", e);
+                sleepQuietly();
+            }
+        }
+    }
+
+    // Publish one batch to every sink; true when a sink has more waiting
+    synchronized boolean relayBatch() {
+        if (sinks.isEmpty()) {
+            return false;
+        }
+        long frontier = sinks.stream().mapToLong(s -> s.lastEventId).max().getAsLong();
+        List<CaseChangeEvent> fresh = outbox.read(frontier, Long.MAX_VALUE, batchSize);
+        List<CaseChangeEvent> ready = fresh.subList(0, committedPrefix(fresh, frontier));
+        long safeUpTo = ready.isEmpty() ? frontier : ready.get(ready.size() - 1).getId();
+
+        boolean more = ready.size() == batchSize;
+        for (SinkState state : sinks) {
+            List<CaseChangeEvent> pending = state.lastEventId == frontier
+                    ? ready : outbox.read(state.lastEventId, safeUpTo, batchSize);
+            if (pending.isEmpty()) {
+                continue;
+            }
+            if (deliver(state, pending) && pending.size() == batchSize) {
+                more = true;
+            }
+        }
+        return more;
+    }
+
+    // How many of the events read past the frontier follow on from it without an unexpired gap
+    private int committedPrefix(List<CaseChangeEvent> events, long frontier) {
+        long expected = frontier + 1;
+        for (int i = 0; i < events.size(); i++) {
+            long id = events.get(i).getId();
+            if (id != expected) {
+                long now = System.nanoTime();
+                if (heldAtId != expected) {
+                    heldAtId = expected;
+                    heldSince = now;
+                    return i;
+                }
+                if (now - heldSince < TimeUnit.MILLISECONDS.toNanos(gapTimeoutMs)) {
+                    return i;
+                }
+                log.warn("Outbox event ids {} to {} never committed; skipping them", expected, id - 1);
+            }
+            heldAtId = -1;
+            expected = id + 1;
+        }
+        return events.size();
+    }
+
+    private boolean deliver(SinkState state, List<CaseChangeEvent> events) {
+        try {
+            state.sink.publish(events);
+        } catch (Exception e) {
+            state.failures++;
+            state.lastError = e.getMessage();
+            // Logged once per outage rather than once per retry
+            if (!state.failing) {
+                log.warn("Case event sink {} failed; retrying from event {}", state.sink.getName(), state.lastEventId + 1, e);
+            }
+            state.failing = true;
+            return false;
+        }
+        long lastEventId = events.get(events.size() - 1).getId();
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(UPDATE_CHECKPOINT, lastEventId, Timestamp.valueOf(now), state.sink.getName());
+        state.lastEventId = lastEventId;
+        state.delivered += events.size();
+        state.lastDeliveredAt = now;
+        state.failing = false;
+        return true;
+    }
+
+    // Drop events every sink has been given once they are past retention
+    private synchronized void purge() {
+        lastPurge = System.nanoTime();
+        if (sinks.isEmpty()) {
+            return;
+        }
+        long delivered = sinks.stream().mapToLong(s -> s.lastEventId).min().getAsLong();
+        int purged = jdbcTemplate.update(PURGE_EVENTS, delivered,
+                Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        if (purged > 0) {
+            log.info("Purged {} delivered case change events", purged);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Delivery position of one sink; only touched while holding the relay's lock
+    private static final class SinkState {
+        private final CaseEventSink sink;
+        private long lastEventId;
+        private long delivered;
+        private long failures;
+        private boolean failing;
+        private String lastError;
+        private LocalDateTime lastDeliveredAt;
+
+        SinkState(CaseEventSink sink, long lastEventId) {
+            this.sink = sink;
+            this.lastEventId = lastEventId;
+        }
+    }
+
+    // Inner class for relay statistics
+    public static class RelayStats {
+        private final List<SinkStats> sinks;
+        private final Long waitingForEventId;
+
+        public RelayStats(List<SinkStats> sinks, Long waitingForEventId) {
+            this.sinks = sinks;
+            this.waitingForEventId = waitingForEventId;
+        }
+
+        // Getters
+        public List<SinkStats> getSinks() { return sinks; }
+        public Long getWaitingForEventId() { return waitingForEventId; }
+    }
+
+    // Inner class for one sink's delivery position
+    public static class SinkStats {
+        private final String name;
+        private final long lastEventId;
+        private final long delivered;
+        private final long failures;
+        private final boolean failing;
+        private final String lastError;
+        private final LocalDateTime lastDeliveredAt;
+
+        SinkStats(SinkState state) {
+            this.name = state.sink.getName();
+            this.lastEventId = state.lastEventId;
+            this.delivered = state.delivered;
+            this.failures = state.failures;
+            this.failing = state.failing;
+            this.lastError = state.lastError;
+            this.lastDeliveredAt = state.lastDeliveredAt;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public long getLastEventId() { return lastEventId; }
+        public long getDelivered() { return delivered; }
+        public long getFailures() { return failures; }
+        public boolean isFailing() { return failing; }
+        public String getLastError() { return lastError; }
+        public LocalDateTime getLastDeliveredAt() { return lastDeliveredAt; }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dcm.service;
+
+import java.util.List;
+
+import com.example.dcm.model.CaseChangeEvent;
+
+/**
+ * A destination for case change events. CaseEventRelay hands each enabled sink the events after
+ * its checkpoint in id order, and moves the checkpoint past a batch only once publish returns, so
+ * a sink sees every event at least once and must tolerate seeing a batch again after a failure or
+ * restart.
+ */
+public interface CaseEventSink {
+
+    // Name used to enable the sink in dcm.outbox.sinks and to store its checkpoint
+    String getName();
+
+    // Publish a batch; throwing leaves the checkpoint in place and the batch is offered again
+    void publish(List<CaseChangeEvent> events) throws Exception;
+
+    // Called once at startup with the last event id already delivered to this sink
+    default void resume(long lastEventId) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.dcm.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.dcm.model.Case;
+
+/**
+ * Optional criteria for bulk case reads (batch reports, exports).
+ * Null fields are not applied; hearing dates are inclusive calendar days.
+ */
+public class CaseFilter {
+
+    private Case.CourtLevel courtLevel;
+    private Case.Status status;
+    private Long judgeId;
+    private LocalDate hearingFrom;
+    private LocalDate hearingTo;
+
+    public CaseFilter() {}
+
+    public CaseFilter(Case.CourtLevel courtLevel, Case.Status status, Long judgeId, LocalDate hearingFrom, LocalDate hearingTo) {
+        this.courtLevel = courtLevel;
+        this.status = status;
+        this.judgeId = judgeId;
+        this.hearingFrom = hearingFrom;
+        this.hearingTo = hearingTo;
+    }
+
+    // Start of the hearing window (inclusive) as a timestamp, or null
+    public LocalDateTime getHearingFromTime() {
+        return hearingFrom == null ? null : hearingFrom.atStartOfDay();
+    }
+
+    // End of the hearing window (exclusive) as a timestamp, or null
+    public LocalDateTime getHearingToTime() {
+        return hearingTo == null ? null : hearingTo.plusDays(1).atStartOfDay();
+    }
+
+    // Getters and Setters
+    public Case.CourtLevel getCourtLevel() { return courtLevel; }
+    public void setCourtLevel(Case.CourtLevel courtLevel) { this.courtLevel = courtLevel; }
+
+    public Case.Status getStatus() { return status; }
+    public void setStatus(Case.Status status) { this.status = status; }
+
+    public Long getJudgeId() { return judgeId; }
+    public void setJudgeId(Long judgeId) { this.judgeId = judgeId; }
+
+    public LocalDate getHearingFrom() { return hearingFrom; }
+    public void setHearingFrom(LocalDate hearingFrom) { this.hearingFrom = hearingFrom; }
+
+    public LocalDate getHearingTo() { return hearingTo; }
+    public void setHearingTo(LocalDate hearingTo) { this.hearingTo = hearingTo; }
+}
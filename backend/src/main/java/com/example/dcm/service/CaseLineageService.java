@@ -0,0 +1,184 @@
+package com.example.dcm.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.repository.CaseRepository;
+
+/**
+ * Escalation lineage of a case: the original case and each higher-court case escalated from it.
+ * A chain is read in one query and cached under the id of every case in it. Stages only hold
+ * fields that are fixed once a case has been escalated, so a chain changes only when it is
+ * escalated again, which evicts it after the escalation commits.
+ */
+@Service
+public class CaseLineageService {
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Value("${dcm.lineage.cache-size:2000}")
+    private int maxEntries;
+
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Long, CaseLineageChain> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CaseLineageChain> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Bumped by every eviction, so a chain read before an escalation committed is not cached after it
+    private long generation;
+    private long hits;
+    private long misses;
+
+    public Optional<CaseLineage> getLineage(Long caseId) {
+        long loadGeneration;
+        synchronized (this) {
+            CaseLineageChain chain = cache.get(caseId);
+            if (chain != null) {
+                hits++;
+                return Optional.of(new CaseLineage(caseId, chain));
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        List<Case> cases = caseRepository.findLineageOf(caseId);
+        if (cases.isEmpty()) {
+            return Optional.empty();
+        }
+        CaseLineageChain chain = new CaseLineageChain(cases.stream().map(LineageStage::new).toList());
+
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                chain.stages.forEach(stage -> cache.put(stage.getCaseId(), chain));
+            }
+        }
+        return Optional.of(new CaseLineage(caseId, chain));
+    }
+
+    // Drop a chain once the transaction that escalated one of its cases commits
+    public void evictAfterCommit(Long originalCaseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(originalCaseId);
+                }
+            });
+        } else {
+            evict(originalCaseId);
+        }
+    }
+
+    public synchronized void evict(Long originalCaseId) {
+        generation++;
+        cache.values().removeIf(chain -> chain.originalCaseId.equals(originalCaseId));
+    }
+
+    public synchronized LineageCacheStats getStats() {
+        return new LineageCacheStats(cache.size(), hits, misses);
+    }
+
+    // Materialized path of a case; an original case is the root of its own path
+    static String pathOf(Case caseEntity) {
+        return caseEntity.getLineagePath() != null ? caseEntity.getLineagePath() : String.valueOf(caseEntity.getId());
+    }
+
+    private static final class CaseLineageChain {
+        private final Long originalCaseId;
+        private final List<LineageStage> stages;
+
+        CaseLineageChain(List<LineageStage> stages) {
+            this.originalCaseId = stages.get(0).getCaseId();
+            this.stages = stages;
+        }
+    }
+
+    // Inner class for one court stage of a lineage
+    public static class LineageStage {
+        private final Long caseId;
+        private final String caseNumber;
+        private final Case.CourtLevel courtLevel;
+        private final Long parentCaseId;
+        private final Long supersededById;
+        private final String lineagePath;
+        private final LocalDateTime filingDate;
+        private final String escalationReason;
+        private final LocalDateTime escalationDate;
+
+        public LineageStage(Case caseEntity) {
+            this.caseId = caseEntity.getId();
+            this.caseNumber = caseEntity.getCaseNumber();
+            this.courtLevel = caseEntity.getCourtLevel();
+            this.parentCaseId = caseEntity.getParentCaseId();
+            this.supersededById = caseEntity.getSupersededById();
+            this.lineagePath = pathOf(caseEntity);
+            this.filingDate = caseEntity.getFilingDate();
+            this.escalationReason = caseEntity.getEscalationReason();
+            this.escalationDate = caseEntity.getEscalationDate();
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public String getCaseNumber() { return caseNumber; }
+        public Case.CourtLevel getCourtLevel() { return courtLevel; }
+        public Long getParentCaseId() { return parentCaseId; }
+        public Long getSupersededById() { return supersededById; }
+        public String getLineagePath() { return lineagePath; }
+        public LocalDateTime getFilingDate() { return filingDate; }
+        public String getEscalationReason() { return escalationReason; }
+        public LocalDateTime getEscalationDate() { return escalationDate; }
+    }
+
+    // Inner class for the lineage of a requested case
+    public static class CaseLineage {
+        private final Long caseId;
+        private final Long originalCaseId;
+        private final Long currentCaseId;
+        private final List<LineageStage> stages;
+
+        CaseLineage(Long caseId, CaseLineageChain chain) {
+            this.caseId = caseId;
+            this.originalCaseId = chain.originalCaseId;
+            this.currentCaseId = chain.stages.get(chain.stages.size() - 1).getCaseId();
+            this.stages = chain.stages;
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public Long getOriginalCaseId() { return originalCaseId; }
+        public Long getCurrentCaseId() { return currentCaseId; }
+        public List<LineageStage> getStages() { return stages; }
+    }
+
+    // Inner class for cache statistics
+    public static class LineageCacheStats {
+        private final int cachedCases;
+        private final long hits;
+        private final long misses;
+
+        public LineageCacheStats(int cachedCases, long hits, long misses) {
+            this.cachedCases = cachedCases;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        // Getters
+        public int getCachedCases() { return cachedCases; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+    }
+}
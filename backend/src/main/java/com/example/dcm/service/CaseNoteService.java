@@ -0,0 +1,165 @@
+package com.example.dcm.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.model.CaseNote;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.CaseNoteRepository;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.UserRepository;
+
+/**
+ * Judicial notes. Notes are append-only: content is never edited, a draft can only be
+ * finalized. The case row carries the note count and latest finalized note, kept current
+ * with single-statement updates so concurrent writers cannot lose an increment.
+ */
+@Service
+@Transactional
+public class CaseNoteService {
+
+    private static final int SUMMARY_LENGTH = 200;
+
+    @Autowired
+    private CaseNoteRepository caseNoteRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    // Append a judicial note to a case
+    public NoteView addNote(Long caseId, String content, CaseNote.NoteType noteType, String authorUsername) {
+        if (content == null || content.trim().isEmpty()) {
+            throw new IllegalArgumentException("Note content is required");
+        }
+        if (content.length() > 5000) {
+            throw new IllegalArgumentException("Note content must not exceed 5000 characters");
+        }
+        Case caseEntity = caseRepository.findById(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        User author = userRepository.findByUsername(authorUsername)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        CaseNote note = caseNoteRepository.save(new CaseNote(caseEntity, content,
+                noteType != null ? noteType : CaseNote.NoteType.GENERAL, author));
+        NoteView view = new NoteView(note, author.getUsername());
+        caseRepository.incrementNoteCount(caseId, note.getCreatedAt());
+
+        AuditEntry audit = AuditEntry.of(caseEntity, CaseAudit.ActionType.NOTE_ADDED,
+                "Judicial note " + note.getId() + " added (" + note.getNoteType() + ")");
+        audit.setDetails(summarize(content));
+        auditService.record(audit);
+        return view;
+    }
+
+    // Finalize a draft note; only its author may do so, and only once
+    public NoteView finalizeNote(Long caseId, Long noteId, String username) {
+        CaseNote note = caseNoteRepository.findById(noteId)
+                .filter(n -> n.getCaseEntity().getId().equals(caseId))
+                .orElseThrow(() -> new IllegalArgumentException("Note not found"));
+        if (!note.getCreatedBy().getUsername().equals(username)) {
+            throw new IllegalStateException("Only the author can finalize a note");
+        }
+
+        // Read before the bulk updates below detach the loaded entities
+        String caseNumber = note.getCaseEntity().getCaseNumber();
+        String summary = summarize(note.getContent());
+
+        LocalDateTime now = LocalDateTime.now();
+        if (caseNoteRepository.finalizeNote(caseId, noteId, now) == 0) {
+            throw new IllegalStateException("Note is already finalized");
+        }
+        caseRepository.updateLatestFinalizedNote(caseId, noteId, summary, now);
+
+        CaseNote finalized = caseNoteRepository.findById(noteId).orElseThrow();
+        AuditEntry audit = new AuditEntry(caseId, caseNumber,
+                CaseAudit.ActionType.NOTE_UPDATED, "Judicial note " + noteId + " finalized");
+        audit.setDetails(summary);
+        auditService.record(audit);
+        return new NoteView(finalized, username);
+    }
+
+    // One page of a case's notes, newest first; pass the previous page's nextBeforeId to continue
+    @Transactional(readOnly = true)
+    public NotePage getNotes(Long caseId, Long beforeId, int limit) {
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        List<CaseNote> page;
+        if (caseRepository.existsById(caseId)) {
+            page = caseNoteRepository.findPageBefore(caseId, before, PageRequest.of(0, limit));
+        } else if (caseArchiveService.isArchived(caseId)) {
+            page = caseArchiveService.findArchivedNotes(caseId, before, limit);
+        } else {
+            throw new IllegalArgumentException("Case not found");
+        }
+        List<NoteView> notes = page.stream()
+                .map(n -> new NoteView(n, n.getCreatedBy().getUsername()))
+                .toList();
+        Long nextBeforeId = notes.size() == limit ? notes.get(limit - 1).getId() : null;
+        return new NotePage(notes, nextBeforeId);
+    }
+
+    private static String summarize(String content) {
+        String flat = content.strip().replaceAll("\\s+", " ");
+        return flat.length() <= SUMMARY_LENGTH ? flat : flat.substring(0, SUMMARY_LENGTH - 3) + "...";
+    }
+
+    // Inner class for a note as returned by the API
+    public static class NoteView {
+        private final Long id;
+        private final String content;
+        private final CaseNote.NoteType noteType;
+        private final String createdBy;
+        private final boolean finalized;
+        private final LocalDateTime finalizedAt;
+        private final LocalDateTime createdAt;
+
+        public NoteView(CaseNote note, String createdBy) {
+            this.id = note.getId();
+            this.content = note.getContent();
+            this.noteType = note.getNoteType();
+            this.createdBy = createdBy;
+            this.finalized = Boolean.TRUE.equals(note.getIsFinalized());
+            this.finalizedAt = note.getFinalizedAt();
+            this.createdAt = note.getCreatedAt();
+        }
+
+        // Getters
+        public Long getId() { return id; }
+        public String getContent() { return content; }
+        public CaseNote.NoteType getNoteType() { return noteType; }
+        public String getCreatedBy() { return createdBy; }
+        public boolean isFinalized() { return finalized; }
+        public LocalDateTime getFinalizedAt() { return finalizedAt; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+    }
+
+    // Inner class for a page of notes
+    public static class NotePage {
+        private final List<NoteView> notes;
+        private final Long nextBeforeId;
+
+        public NotePage(List<NoteView> notes, Long nextBeforeId) {
+            this.notes = notes;
+            this.nextBeforeId = nextBeforeId;
+        }
+
+        // Getters
+        public List<NoteView> getNotes() { return notes; }
+        public Long getNextBeforeId() { return nextBeforeId; }
+    }
+}
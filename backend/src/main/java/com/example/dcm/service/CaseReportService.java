@@ -0,0 +1,319 @@
+package com.example.dcm.service;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.repository.CaseRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Renders case reports straight into an output stream.
+ * Batch reports walk the filtered docket in keyset-ordered chunks so memory use
+ * is bounded by the chunk size rather than the number of cases.
+ */
+@Service
+public class CaseReportService {
+
+    public enum BatchFormat {
+        TXT, ZIP, PDF
+    }
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ReportArtifactCache artifactCache;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Value("${dcm.reports.batch-chunk-size:200}")
+    private int batchChunkSize;
+
+    // Load a case with the users its report needs; fails fast before any bytes are streamed
+    public Case getCaseForReport(Long caseId) {
+        return caseRepository.findByIdWithUsers(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+    }
+
+    // Rendered text report, served from the cache while the case is unchanged
+    public byte[] getCaseReport(Long caseId) throws IOException {
+        return getArtifact(caseId, ReportArtifactCache.ArtifactType.REPORT);
+    }
+
+    // Rendered PDF, served from the cache while the case is unchanged
+    public byte[] getCasePdf(Long caseId) throws IOException {
+        return getArtifact(caseId, ReportArtifactCache.ArtifactType.PDF);
+    }
+
+    public ReportArtifactCache.CacheStats getCacheStats() {
+        return artifactCache.getStats();
+    }
+
+    // The version comes from the case's updatedAt: a repeat download costs one small query
+    private byte[] getArtifact(Long caseId, ReportArtifactCache.ArtifactType type) throws IOException {
+        // Buffered notes belong in the report, and writing them bumps the version
+        noteBuffer.flush(caseId);
+        LocalDateTime now = LocalDateTime.now();
+        CaseRepository.ArtifactVersion current = caseRepository.findArtifactVersionById(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        LocalDateTime version = artifactVersion(current.getUpdatedAt(), current.getStatus(), current.getFilingDate(), now);
+        byte[] cached = artifactCache.get(caseId, type, version);
+        if (cached != null) {
+            return cached;
+        }
+
+        Case caseEntity = getCaseForReport(caseId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        if (type == ReportArtifactCache.ArtifactType.PDF) {
+            writeCasePdf(caseEntity, out);
+        } else {
+            writeCaseReport(caseEntity, out);
+        }
+
+        byte[] content = out.toByteArray();
+        // Keyed by the version actually rendered, which may be newer than the one looked up
+        artifactCache.put(caseId, type, artifactVersion(caseEntity.getUpdatedAt(), caseEntity.getStatus(),
+                caseEntity.getFilingDate(), now), content);
+        return content;
+    }
+
+    // Reports show the effective priority, so a case's artifacts also go stale when it reaches a
+    // new age bonus tier: the version is the later of its last update and that moment
+    static LocalDateTime artifactVersion(LocalDateTime updatedAt, Case.Status status, LocalDateTime filingDate,
+                                         LocalDateTime asOf) {
+        if (updatedAt == null || status == null || !status.gainsAgeBonus() || filingDate == null) {
+            return updatedAt;
+        }
+        for (int days : new int[] { Case.OLD_AGE_BONUS_DAYS, Case.AGE_BONUS_DAYS }) {
+            LocalDateTime reached = filingDate.plusDays(days + 1);
+            if (!reached.isAfter(asOf)) {
+                return reached.isAfter(updatedAt) ? reached : updatedAt;
+            }
+        }
+        return updatedAt;
+    }
+
+    // Stream a single case report
+    public void writeCaseReport(Case caseEntity, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeTextReport(caseEntity, writer);
+        writer.flush();
+    }
+
+    // Stream a single case as a PDF document
+    public void writeCasePdf(Case caseEntity, OutputStream out) throws IOException {
+        PdfDocumentWriter pdf = new PdfDocumentWriter(out);
+        writePdfReport(caseEntity, pdf);
+        pdf.finish();
+    }
+
+    // Stream the reports of every case matching the filter: concatenated text, one zip entry per case,
+    // or one PDF with each case starting on a new page
+    public int writeBatchReport(CaseFilter filter, BatchFormat format, OutputStream out) throws IOException {
+        noteBuffer.flushAll();
+        return switch (format) {
+            case TXT -> writeBatchText(filter, out);
+            case ZIP -> writeBatchZip(filter, out);
+            case PDF -> writeBatchPdf(filter, out);
+        };
+    }
+
+    private int writeBatchText(CaseFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int written = forEachMatchingCase(filter, (caseEntity, index) -> {
+            if (index > 0) {
+                writer.write("\n\f\n");
+            }
+            writeTextReport(caseEntity, writer);
+        }, writer::flush);
+
+        if (written == 0) {
+            writer.write("No cases match the requested filter.\n");
+        }
+        writer.flush();
+        return written;
+    }
+
+    private int writeBatchZip(CaseFilter filter, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        // Flushed after every entry but never closed, so the zip and the response stay open
+        Writer writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        int written = forEachMatchingCase(filter, (caseEntity, index) -> {
+            zip.putNextEntry(new ZipEntry("case-report-" + caseEntity.getCaseNumber() + ".txt"));
+            writeTextReport(caseEntity, writer);
+            writer.flush();
+            zip.closeEntry();
+        }, zip::flush);
+
+        zip.finish();
+        return written;
+    }
+
+    private int writeBatchPdf(CaseFilter filter, OutputStream out) throws IOException {
+        PdfDocumentWriter pdf = new PdfDocumentWriter(out);
+        int written = forEachMatchingCase(filter, (caseEntity, index) -> {
+            pdf.pageBreak();
+            writePdfReport(caseEntity, pdf);
+        }, out::flush);
+
+        if (written == 0) {
+            pdf.paragraph("No cases match the requested filter.");
+        }
+        pdf.finish();
+        return written;
+    }
+
+    // Walk the filtered docket in id-keyset chunks, calling afterChunk once each chunk is written
+    private int forEachMatchingCase(CaseFilter filter, CaseWriter caseWriter, ChunkCallback afterChunk) throws IOException {
+        int written = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Case> chunk = caseRepository.findChunkAfterId(afterId,
+                    filter.getCourtLevel(), filter.getStatus(), filter.getJudgeId(),
+                    filter.getHearingFromTime(), filter.getHearingToTime(),
+                    PageRequest.of(0, batchChunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            for (Case caseEntity : chunk) {
+                caseWriter.write(caseEntity, written++);
+            }
+            afterChunk.run();
+
+            afterId = chunk.get(chunk.size() - 1).getId();
+            // Drop the chunk from any request-scoped persistence context before fetching the next one
+            entityManager.clear();
+
+            if (chunk.size() < batchChunkSize) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    // PDF layout of a case report; long descriptions and notes flow onto further pages
+    void writePdfReport(Case caseEntity, PdfDocumentWriter pdf) throws IOException {
+        pdf.heading("Case Management Report");
+        pdf.field("Case Number", caseEntity.getCaseNumber());
+        pdf.field("Title", caseEntity.getTitle());
+        pdf.field("Case Type", caseEntity.getCaseType());
+        pdf.field("Status", caseEntity.getStatus());
+        pdf.field("Priority", priorityText(caseEntity));
+        pdf.field("Filing Date", caseEntity.getFilingDate());
+
+        if (caseEntity.getHearingDate() != null) {
+            pdf.field("Hearing Date", caseEntity.getHearingDate());
+        }
+
+        if (caseEntity.getAssignedJudge() != null) {
+            pdf.field("Assigned Judge", caseEntity.getAssignedJudge().getFirstName()
+                    + " " + caseEntity.getAssignedJudge().getLastName());
+        }
+
+        if (caseEntity.getFilingClerk() != null) {
+            pdf.field("Filing Clerk", caseEntity.getFilingClerk().getFirstName()
+                    + " " + caseEntity.getFilingClerk().getLastName());
+        }
+
+        if (caseEntity.getDescription() != null && !caseEntity.getDescription().trim().isEmpty()) {
+            pdf.section("Description");
+            pdf.paragraph(caseEntity.getDescription());
+        }
+
+        if (caseEntity.getNotes() != null && !caseEntity.getNotes().trim().isEmpty()) {
+            pdf.section("Case Notes");
+            pdf.paragraph(caseEntity.getNotes());
+        }
+
+        pdf.spacer();
+        pdf.field("Report Generated", LocalDateTime.now());
+    }
+
+    // Effective priority out of the rules' maximum, with the stored base when the age bonus raised it
+    private String priorityText(Case caseEntity) {
+        CompiledPriorityRules rules = priorityEngine.getRules();
+        int effective = priorityEngine.effectivePriority(caseEntity, rules, LocalDateTime.now());
+        String text = effective + "/" + rules.getMaxPriority();
+        return effective != caseEntity.getPriority() ? text + " (base " + caseEntity.getPriority() + ")" : text;
+    }
+
+    // Text layout shared by single and batch reports
+    void writeTextReport(Case caseEntity, Writer report) throws IOException {
+        report.write("CASE MANAGEMENT REPORT\n");
+        report.write("======================\n\n");
+
+        report.write("Case Information:\n");
+        writeLine(report, "- Case Number: ", caseEntity.getCaseNumber());
+        writeLine(report, "- Title: ", caseEntity.getTitle());
+        writeLine(report, "- Case Type: ", caseEntity.getCaseType());
+        writeLine(report, "- Status: ", caseEntity.getStatus());
+        report.write("- Priority: " + priorityText(caseEntity) + "\n");
+        writeLine(report, "- Filing Date: ", caseEntity.getFilingDate());
+
+        if (caseEntity.getHearingDate() != null) {
+            writeLine(report, "- Hearing Date: ", caseEntity.getHearingDate());
+        }
+
+        if (caseEntity.getAssignedJudge() != null) {
+            writeLine(report, "- Assigned Judge: ", caseEntity.getAssignedJudge().getFirstName()
+                    + " " + caseEntity.getAssignedJudge().getLastName());
+        }
+
+        if (caseEntity.getFilingClerk() != null) {
+            writeLine(report, "- Filing Clerk: ", caseEntity.getFilingClerk().getFirstName()
+                    + " " + caseEntity.getFilingClerk().getLastName());
+        }
+
+        if (caseEntity.getDescription() != null && !caseEntity.getDescription().trim().isEmpty()) {
+            report.write("\nDescription:\n");
+            writeLine(report, "", caseEntity.getDescription());
+        }
+
+        if (caseEntity.getNotes() != null && !caseEntity.getNotes().trim().isEmpty()) {
+            report.write("\nCase Notes:\n");
+            writeLine(report, "", caseEntity.getNotes());
+        }
+
+        report.write("\nReport Generated: " + LocalDateTime.now() + "\n");
+    }
+
+    private void writeLine(Writer report, String label, Object value) throws IOException {
+        report.write(label);
+        report.write(String.valueOf(value));
+        report.write('\n');
+    }
+
+    @FunctionalInterface
+    private interface CaseWriter {
+        void write(Case caseEntity, int index) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkCallback {
+        void run() throws IOException;
+    }
+}
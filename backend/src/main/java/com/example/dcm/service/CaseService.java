@@ -1,18 +1,28 @@
 package com.example.dcm.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.model.CaseChangeEvent;
 import com.example.dcm.model.User;
 import com.example.dcm.repository.CaseRepository;
 import com.example.dcm.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+
 @Service
 @Transactional
 public class CaseService {
@@ -26,6 +36,40 @@ public class CaseService {
     @Autowired
     private PriorityEngine priorityEngine;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CaseLineageService lineageService;
+
+    @Autowired
+    private HearingConflictIndex hearingIndex;
+
+    @Autowired
+    private JudgeWorkloadIndex workloadIndex;
+
+    @Autowired
+    private CaseClaimQueue claimQueue;
+
+    @Autowired
+    private CaseEventOutbox eventOutbox;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    // Give new and escalated cases the least loaded judge of their court level
+    @Value("${dcm.assignment.auto-assign:false}")
+    private boolean autoAssign;
+
+    // Last case sequence handed out by nextCaseSequence; guarded by this
+    private int lastCaseSequence;
+
     // Create a new case
     public Case createCase(Case caseEntity, String clerkUsername) {
         try {
@@ -55,14 +99,21 @@ public class CaseService {
             // Add sample documents to new cases
             addSampleDocuments(caseEntity);
 
-            Case savedCase = caseRepository.save(caseEntity);
+            User judge = autoAssign && caseEntity.getAssignedJudge() == null
+                    ? findLeastLoadedJudge(caseEntity.getCourtLevel()) : null;
+            if (judge != null) {
+                caseEntity.setAssignedJudge(judge);
+            }
 
-            // Recalculate priorities for all existing cases to maintain relative priority accuracy
-            List<Case> allCases = caseRepository.findAll();
-            priorityEngine.recalculateAllPriorities(allCases);
+            Case savedCase = caseRepository.save(caseEntity);
+            auditService.record(AuditEntry.created(savedCase));
+            eventOutbox.record(CaseChangeEvent.created(savedCase));
+            if (judge != null) {
+                auditService.record(autoAssigned(savedCase, judge));
+            }
 
-            // Save all updated cases
-            caseRepository.saveAll(allCases);
+            // Base priorities do not depend on other cases, so only the new case joins the work indexes
+            trackWorkload(savedCase);
 
             return savedCase;
         } catch (Exception e) {
@@ -74,16 +125,21 @@ public class CaseService {
 
     // Generate sequential case number - FIXED: Only called on successful submission
     private void generateSequentialCaseNumber(Case caseEntity) {
-        // Get the highest existing case sequence for the current year
+        assignCaseNumber(caseEntity, nextCaseSequence());
+    }
+
+    // Allocate the next case sequence for case creation, single and bulk escalation alike. The
+    // last one handed out is remembered, so transactions that have not committed yet never get
+    // the same number; a rolled back transaction leaves a gap.
+    synchronized int nextCaseSequence() {
         Integer maxSequence = caseRepository.findMaxCaseSequence();
+        lastCaseSequence = Math.max(lastCaseSequence, maxSequence == null ? 0 : maxSequence) + 1;
+        return lastCaseSequence;
+    }
 
-        // If no cases exist yet, start from 1
-        if (maxSequence == null) {
-            caseEntity.setCaseSequence(1);
-        } else {
-            // Increment the highest sequence by 1
-            caseEntity.setCaseSequence(maxSequence + 1);
-        }
+    // Number a case with an already allocated sequence
+    void assignCaseNumber(Case caseEntity, int caseSequence) {
+        caseEntity.setCaseSequence(caseSequence);
 
         // Generate the case number format: CASE-YYYY-NNNN
         String year = String.valueOf(java.time.LocalDateTime.now().getYear());
@@ -102,19 +158,92 @@ public class CaseService {
         caseEntity.setCaseNumber(baseNumber);
     }
 
-    // Update case status
-    public Case updateCaseStatus(Long caseId, Case.Status newStatus) {
+    // Load a case about to be saved in full, writing any buffered notes first so the save
+    // and the response carry the latest text. Cases replaced by an escalation are part of the
+    // lineage record and stay as they were when escalated.
+    private Case findCaseForUpdate(Long caseId) {
+        noteBuffer.flush(caseId);
         Case caseEntity = caseRepository.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        if (caseEntity.getSupersededById() != null) {
+            throw new IllegalStateException("Case " + caseEntity.getCaseNumber()
+                    + " was escalated and is continued as case " + caseEntity.getSupersededById());
+        }
+        return caseEntity;
+    }
+
+    // Keep the hearing index in step with a case. A hearing counts against its judge's calendar
+    // while the case is open; a new or moved hearing that overlaps another fails with
+    // IllegalStateException when checked.
+    private void indexHearing(Case caseEntity, boolean checkConflicts) {
+        Long judgeId = caseEntity.getAssignedJudge() != null ? caseEntity.getAssignedJudge().getId() : null;
+        boolean active = judgeId != null && caseEntity.getHearingDate() != null
+                && caseEntity.getSupersededById() == null
+                && caseEntity.getStatus() != Case.Status.COMPLETED
+                && caseEntity.getStatus() != Case.Status.DISMISSED;
+        if (!active) {
+            hearingIndex.remove(caseEntity.getId());
+        } else if (checkConflicts) {
+            hearingIndex.reserve(caseEntity.getId(), judgeId, caseEntity.getHearingDate());
+        } else {
+            hearingIndex.refresh(caseEntity.getId(), judgeId, caseEntity.getHearingDate());
+        }
+    }
+
+    // Keep the judge workloads and the work queue in step with a case whose judge, status, hearing
+    // or priority changed
+    private void trackWorkload(Case caseEntity) {
+        workloadIndex.refresh(List.of(caseEntity));
+        claimQueue.refresh(List.of(caseEntity));
+    }
+
+    // Least loaded judge of a court level, or null when it has none
+    private User findLeastLoadedJudge(Case.CourtLevel courtLevel) {
+        Long judgeId = workloadIndex.findLeastLoadedJudge(courtLevel != null ? courtLevel : Case.CourtLevel.DISTRICT);
+        return judgeId != null ? userRepository.findById(judgeId).orElse(null) : null;
+    }
+
+    private AuditEntry autoAssigned(Case caseEntity, User judge) {
+        AuditEntry audit = AuditEntry.of(caseEntity, CaseAudit.ActionType.JUDGE_ASSIGNED,
+                "Assigned to judge " + judge.getFirstName() + " " + judge.getLastName());
+        audit.setDetails("Least loaded judge of the court level");
+        return audit;
+    }
+
+    // Show buffered notes text on a case that is only being read
+    private Case withPendingNotes(Case caseEntity) {
+        String pendingNotes = noteBuffer.getPending(caseEntity.getId());
+        if (pendingNotes != null) {
+            // Detached so the overlay is never written back by dirty checking
+            entityManager.detach(caseEntity);
+            caseEntity.setNotes(pendingNotes);
+        }
+        return caseEntity;
+    }
+
+    // Update case status; an archived case is moved back to the hot tables first, e.g. on reopening
+    public Case updateCaseStatus(Long caseId, Case.Status newStatus) {
+        if (!caseRepository.existsById(caseId)) {
+            caseArchiveService.restore(caseId);
+        }
+        Case caseEntity = findCaseForUpdate(caseId);
 
+        Case.Status previousStatus = caseEntity.getStatus();
         caseEntity.setStatus(newStatus);
-        return caseRepository.save(caseEntity);
+        indexHearing(caseEntity, false);
+        trackWorkload(caseEntity);
+        Case saved = caseRepository.save(caseEntity);
+
+        if (previousStatus != newStatus) {
+            auditService.record(AuditEntry.statusChanged(saved, previousStatus, newStatus));
+            eventOutbox.record(CaseChangeEvent.statusChanged(saved.getId(), previousStatus, newStatus));
+        }
+        return saved;
     }
 
     // Assign judge to case
     public Case assignJudge(Long caseId, Long judgeId) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        Case caseEntity = findCaseForUpdate(caseId);
 
         User judge = userRepository.findById(judgeId)
                 .orElseThrow(() -> new IllegalArgumentException("Judge not found"));
@@ -123,34 +252,123 @@ public class CaseService {
             throw new IllegalArgumentException("User is not a judge");
         }
 
+        User previousJudge = caseEntity.getAssignedJudge();
+        Case.Status previousStatus = caseEntity.getStatus();
         caseEntity.setAssignedJudge(judge);
         caseEntity.setStatus(Case.Status.SCHEDULED);
-        return caseRepository.save(caseEntity);
+        // A hearing already set moves to the new judge's calendar
+        indexHearing(caseEntity, true);
+        trackWorkload(caseEntity);
+        Case saved = caseRepository.save(caseEntity);
+
+        AuditEntry audit = AuditEntry.of(saved, CaseAudit.ActionType.JUDGE_ASSIGNED,
+                "Assigned to judge " + judge.getFirstName() + " " + judge.getLastName());
+        audit.setPreviousStatus(previousStatus);
+        audit.setNewStatus(saved.getStatus());
+        if (previousJudge != null) {
+            audit.setDetails("Previously assigned to " + previousJudge.getUsername());
+        }
+        auditService.record(audit);
+        recordStatusChange(saved, previousStatus);
+        return saved;
+    }
+
+    // Assign the least loaded judge of the case's court level, not counting the case itself
+    public Case autoAssignJudge(Long caseId) {
+        Case caseEntity = findCaseForUpdate(caseId);
+        Case.CourtLevel courtLevel = caseEntity.getCourtLevel() != null ? caseEntity.getCourtLevel() : Case.CourtLevel.DISTRICT;
+
+        workloadIndex.untrack(caseId);
+        Long judgeId = workloadIndex.findLeastLoadedJudge(courtLevel);
+        if (judgeId == null) {
+            throw new IllegalStateException("No judges at the " + courtLevel.getDisplayName());
+        }
+        return assignJudge(caseId, judgeId);
+    }
+
+    // Even out the weighted loads of a court level's judges by moving cases that have no hearing yet
+    public RebalanceResult rebalanceJudges(Case.CourtLevel courtLevel, int maxMoves) {
+        noteBuffer.flushAll();
+        List<JudgeWorkloadIndex.Move> moves = workloadIndex.planRebalance(courtLevel, maxMoves);
+
+        Map<Long, Case> cases = caseRepository.findAllById(moves.stream().map(JudgeWorkloadIndex.Move::getCaseId).toList())
+                .stream().collect(Collectors.toMap(Case::getId, Function.identity()));
+        Map<Long, User> judges = userRepository.findAllById(moves.stream().map(JudgeWorkloadIndex.Move::getToJudgeId).toList())
+                .stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<JudgeWorkloadIndex.Move> applied = new ArrayList<>();
+        List<Case> stale = new ArrayList<>();
+        List<AuditEntry> audits = new ArrayList<>();
+        for (JudgeWorkloadIndex.Move move : moves) {
+            Case caseEntity = cases.get(move.getCaseId());
+            if (caseEntity == null) {
+                workloadIndex.untrack(move.getCaseId());
+                continue;
+            }
+            User previousJudge = caseEntity.getAssignedJudge();
+            User judge = judges.get(move.getToJudgeId());
+            // Changed since the index last saw it; the index is corrected from the case below
+            if (judge == null || previousJudge == null || !previousJudge.getId().equals(move.getFromJudgeId())
+                    || caseEntity.getHearingDate() != null || caseEntity.getSupersededById() != null) {
+                stale.add(caseEntity);
+                continue;
+            }
+            caseEntity.setAssignedJudge(judge);
+            applied.add(move);
+
+            AuditEntry audit = AuditEntry.of(caseEntity, CaseAudit.ActionType.JUDGE_ASSIGNED,
+                    "Assigned to judge " + judge.getFirstName() + " " + judge.getLastName());
+            audit.setDetails("Rebalanced from " + previousJudge.getUsername());
+            audits.add(audit);
+        }
+        caseRepository.saveAll(cases.values());
+        workloadIndex.refresh(stale);
+        auditService.recordAll(audits);
+        return new RebalanceResult(courtLevel, applied, workloadIndex.getWorkloads(courtLevel));
     }
 
     // Schedule hearing
     public Case scheduleHearing(Long caseId, LocalDateTime hearingDate) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        Case caseEntity = findCaseForUpdate(caseId);
 
+        LocalDateTime previousHearing = caseEntity.getHearingDate();
+        Case.Status previousStatus = caseEntity.getStatus();
         caseEntity.setHearingDate(hearingDate);
         // Only change status to SCHEDULED if it's not already in a more advanced state
         if (caseEntity.getStatus() == Case.Status.FILED || caseEntity.getStatus() == Case.Status.UNDER_REVIEW) {
             caseEntity.setStatus(Case.Status.SCHEDULED);
         }
-        return caseRepository.save(caseEntity);
+        indexHearing(caseEntity, true);
+        // A case with a hearing stays with its judge when loads are rebalanced
+        trackWorkload(caseEntity);
+        Case saved = caseRepository.save(caseEntity);
+
+        AuditEntry audit = AuditEntry.of(saved, CaseAudit.ActionType.HEARING_SCHEDULED,
+                "Hearing scheduled for " + hearingDate);
+        audit.setPreviousStatus(previousStatus);
+        audit.setNewStatus(saved.getStatus());
+        if (previousHearing != null) {
+            audit.setDetails("Previously scheduled for " + previousHearing);
+        }
+        auditService.record(audit);
+        recordStatusChange(saved, previousStatus);
+        return saved;
     }
 
     // Get cases by priority order (for scheduling)
     public List<Case> getCasesByPriorityOrder() {
-        return caseRepository.findByStatusOrderByPriorityDescFilingDateAsc(
-            List.of(Case.Status.UNDER_REVIEW, Case.Status.SCHEDULED)
+        LocalDateTime now = LocalDateTime.now();
+        return caseRepository.findByStatusOrderByEffectivePriority(
+            List.of(Case.Status.UNDER_REVIEW, Case.Status.SCHEDULED),
+            Case.ageBonusCutoff(now), Case.oldAgeBonusCutoff(now), priorityEngine.getRules().getMaxPriority()
         );
     }
 
     // Get unscheduled cases
     public List<Case> getUnscheduledCases() {
-        return caseRepository.findUnscheduledCasesOrderByPriority();
+        LocalDateTime now = LocalDateTime.now();
+        return caseRepository.findUnscheduledCasesOrderByEffectivePriority(
+                Case.ageBonusCutoff(now), Case.oldAgeBonusCutoff(now), priorityEngine.getRules().getMaxPriority());
     }
 
     // Get cases assigned to judge
@@ -158,7 +376,7 @@ public class CaseService {
         User judge = userRepository.findById(judgeId)
                 .orElseThrow(() -> new IllegalArgumentException("Judge not found"));
 
-        return caseRepository.findByAssignedJudge(judge);
+        return caseRepository.findByAssignedJudgeAndSupersededByIdIsNull(judge);
     }
 
     // Get cases accessible to a judge based on their court level
@@ -173,12 +391,12 @@ public class CaseService {
         // Judges can only see cases at their court level
         if (judge.getCourtLevel() == null) {
             // If no court level set, default to District
-            return caseRepository.findByCourtLevel(Case.CourtLevel.DISTRICT);
+            return caseRepository.findByCourtLevelAndSupersededByIdIsNullOrderById(Case.CourtLevel.DISTRICT);
         }
 
         // Convert User.CourtLevel to Case.CourtLevel
         Case.CourtLevel caseCourtLevel = convertUserCourtLevelToCaseCourtLevel(judge.getCourtLevel());
-        return caseRepository.findByCourtLevel(caseCourtLevel);
+        return caseRepository.findByCourtLevelAndSupersededByIdIsNullOrderById(caseCourtLevel);
     }
 
     // Check if judge can access a specific case
@@ -223,156 +441,63 @@ public class CaseService {
 
     // Get high priority cases
     public List<Case> getHighPriorityCases() {
-        return caseRepository.findByPriorityGreaterThanEqual(8);
+        LocalDateTime now = LocalDateTime.now();
+        return caseRepository.findByEffectivePriorityAtLeast(8, Case.ageBonusCutoff(now), Case.oldAgeBonusCutoff(now),
+                priorityEngine.getRules().getMaxPriority());
     }
 
     // Update case priority
     public Case updatePriority(Long caseId) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        Case caseEntity = findCaseForUpdate(caseId);
 
-        // Recalculate priority with age consideration
-        int newPriority = priorityEngine.adjustPriorityForAge(caseEntity);
+        // Recalculate the base score from the current rules, keeping any manual or escalation
+        // adjustment; the age bonus is applied on read
+        int previousPriority = caseEntity.getPriority();
+        int newPriority = priorityEngine.adjustedPriority(caseEntity);
         caseEntity.setPriority(newPriority);
+        trackWorkload(caseEntity);
+        Case saved = caseRepository.save(caseEntity);
 
-        return caseRepository.save(caseEntity);
+        if (previousPriority != newPriority) {
+            recordPriorityChange(saved, previousPriority, "Recalculated");
+        }
+        return saved;
     }
 
     // Set manual priority
     public Case setManualPriority(Long caseId, Integer priority) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        Case caseEntity = findCaseForUpdate(caseId);
 
+        int previousPriority = caseEntity.getPriority();
+        // Stored as the distance from the rule score, so recalculations keep the override
+        caseEntity.setPriorityAdjustment(priority - priorityEngine.calculatePriority(caseEntity));
         caseEntity.setPriority(priority);
-        return caseRepository.save(caseEntity);
-    }
-
-    // Generate case report
-    public String generateCaseReport(Long caseId) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
-
-        StringBuilder report = new StringBuilder();
-        report.append("CASE MANAGEMENT REPORT\n");
-        report.append("======================\n\n");
-
-        report.append("Case Information:\n");
-        report.append("- Case Number: ").append(caseEntity.getCaseNumber()).append("\n");
-        report.append("- Title: ").append(caseEntity.getTitle()).append("\n");
-        report.append("- Case Type: ").append(caseEntity.getCaseType()).append("\n");
-        report.append("- Status: ").append(caseEntity.getStatus()).append("\n");
-        report.append("- Priority: ").append(caseEntity.getPriority()).append("/10\n");
-        report.append("- Filing Date: ").append(caseEntity.getFilingDate()).append("\n");
-
-        if (caseEntity.getHearingDate() != null) {
-            report.append("- Hearing Date: ").append(caseEntity.getHearingDate()).append("\n");
-        }
-
-        if (caseEntity.getAssignedJudge() != null) {
-            report.append("- Assigned Judge: ").append(caseEntity.getAssignedJudge().getFirstName())
-                  .append(" ").append(caseEntity.getAssignedJudge().getLastName()).append("\n");
-        }
-
-        if (caseEntity.getFilingClerk() != null) {
-            report.append("- Filing Clerk: ").append(caseEntity.getFilingClerk().getFirstName())
-                  .append(" ").append(caseEntity.getFilingClerk().getLastName()).append("\n");
-        }
+        trackWorkload(caseEntity);
+        Case saved = caseRepository.save(caseEntity);
 
-        if (caseEntity.getDescription() != null && !caseEntity.getDescription().trim().isEmpty()) {
-            report.append("\nDescription:\n").append(caseEntity.getDescription()).append("\n");
-        }
+        recordPriorityChange(saved, previousPriority, "Manual override");
+        return saved;
+    }
 
-        if (caseEntity.getNotes() != null && !caseEntity.getNotes().trim().isEmpty()) {
-            report.append("\nCase Notes:\n").append(caseEntity.getNotes()).append("\n");
+    private void recordPriorityChange(Case caseEntity, int previousPriority, String reason) {
+        AuditEntry audit = AuditEntry.of(caseEntity, CaseAudit.ActionType.PRIORITY_UPDATED,
+                "Priority changed from " + previousPriority + " to " + caseEntity.getPriority());
+        audit.setDetails(reason);
+        auditService.record(audit);
+        if (previousPriority != caseEntity.getPriority()) {
+            eventOutbox.record(CaseChangeEvent.priorityChanged(caseEntity.getId(), previousPriority, caseEntity.getPriority()));
         }
-
-        report.append("\nReport Generated: ").append(java.time.LocalDateTime.now()).append("\n");
-
-        return report.toString();
     }
 
-    // Generate case PDF (placeholder - returns formatted text for now)
-    public String generateCasePDF(Long caseId) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
-
-        // For now, return a simple text-based "PDF" representation
-        // In a real implementation, you'd use a PDF library like iText or Apache PDFBox
-        StringBuilder pdfContent = new StringBuilder();
-        pdfContent.append("%PDF-1.4\n");
-        pdfContent.append("1 0 obj\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Type /Catalog\n");
-        pdfContent.append("/Pages 2 0 R\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("endobj\n");
-
-        pdfContent.append("2 0 obj\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Type /Pages\n");
-        pdfContent.append("/Kids [3 0 R]\n");
-        pdfContent.append("/Count 1\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("endobj\n");
-
-        pdfContent.append("3 0 obj\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Type /Page\n");
-        pdfContent.append("/Parent 2 0 R\n");
-        pdfContent.append("/MediaBox [0 0 612 792]\n");
-        pdfContent.append("/Contents 4 0 R\n");
-        pdfContent.append("/Resources << /Font << /F1 5 0 R >> >>\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("endobj\n");
-
-        pdfContent.append("4 0 obj\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Length ").append(("BT\n/F1 12 Tf\n72 720 Td\n(" + caseEntity.getTitle() + ") Tj\nET\n").length()).append("\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("stream\n");
-        pdfContent.append("BT\n");
-        pdfContent.append("/F1 12 Tf\n");
-        pdfContent.append("72 720 Td\n");
-        pdfContent.append("(").append(caseEntity.getTitle()).append(") Tj\n");
-        pdfContent.append("0 -20 Td\n");
-        pdfContent.append("(Case Number: ").append(caseEntity.getCaseNumber()).append(") Tj\n");
-        pdfContent.append("0 -20 Td\n");
-        pdfContent.append("(Status: ").append(caseEntity.getStatus()).append(") Tj\n");
-        pdfContent.append("ET\n");
-        pdfContent.append("endstream\n");
-        pdfContent.append("endobj\n");
-
-        pdfContent.append("5 0 obj\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Type /Font\n");
-        pdfContent.append("/Subtype /Type1\n");
-        pdfContent.append("/BaseFont /Helvetica\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("endobj\n");
-
-        pdfContent.append("xref\n");
-        pdfContent.append("0 6\n");
-        pdfContent.append("0000000000 65535 f \n");
-        pdfContent.append("0000000009 00000 n \n");
-        pdfContent.append("0000000058 00000 n \n");
-        pdfContent.append("0000000115 00000 n \n");
-        pdfContent.append("0000000274 00000 n \n");
-        pdfContent.append("0000000516 00000 n \n");
-        pdfContent.append("trailer\n");
-        pdfContent.append("<<\n");
-        pdfContent.append("/Size 6\n");
-        pdfContent.append("/Root 1 0 R\n");
-        pdfContent.append(">>\n");
-        pdfContent.append("startxref\n");
-        pdfContent.append("581\n");
-        pdfContent.append("%%EOF\n");
-
-        return pdfContent.toString();
+    private void recordStatusChange(Case caseEntity, Case.Status previousStatus) {
+        if (previousStatus != caseEntity.getStatus()) {
+            eventOutbox.record(CaseChangeEvent.statusChanged(caseEntity.getId(), previousStatus, caseEntity.getStatus()));
+        }
     }
 
     // Get case statistics
     public CaseStatistics getCaseStatistics() {
-        List<Case> allCases = caseRepository.findAll();
+        List<Case> allCases = caseRepository.findBySupersededByIdIsNull();
 
         long totalCases = allCases.size();
         long filedCases = allCases.stream().mapToLong(c -> c.getStatus() == Case.Status.FILED ? 1 : 0).sum();
@@ -387,16 +512,25 @@ public class CaseService {
     // Get all cases (for case management - includes all statuses)
     public List<Case> getAllCases() {
         // Use a custom query to avoid Hibernate lazy loading issues
-        return caseRepository.findAllCasesWithUsers();
+        List<Case> cases = caseRepository.findAllCasesWithUsers();
+        cases.forEach(this::withPendingNotes);
+        return cases;
     }
 
-    // Update case notes
+    // Update case notes. The write is buffered so rapid edits to a case are coalesced into one
+    // targeted update; the returned case already shows the new text.
+    @Transactional(readOnly = true)
     public Case updateCaseNotes(Long caseId, String notes) {
         Case caseEntity = caseRepository.findById(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        // Rejected before buffering, as every direct update of a replaced case is
+        if (caseEntity.getSupersededById() != null) {
+            throw new IllegalStateException("Case " + caseEntity.getCaseNumber()
+                    + " was escalated and is continued as case " + caseEntity.getSupersededById());
+        }
 
-        caseEntity.setNotes(notes);
-        return caseRepository.save(caseEntity);
+        noteBuffer.put(caseId, caseEntity.getCaseNumber(), notes);
+        return withPendingNotes(caseEntity);
     }
 
     // Add sample documents to new cases
@@ -455,13 +589,19 @@ public class CaseService {
             if (caseEntity.getDocuments() == null || caseEntity.getDocuments().trim().isEmpty()) {
                 addSampleDocuments(caseEntity);
                 caseRepository.save(caseEntity);
+                auditService.record(AuditEntry.of(caseEntity, CaseAudit.ActionType.DOCUMENT_UPLOADED,
+                        "Sample documents attached"));
             }
         }
     }
 
-    // Get case by ID
+    // Get case by ID; an archived case is read from the archive, detached
     public Optional<Case> getCaseById(Long id) {
-        return caseRepository.findById(id);
+        Optional<Case> found = caseRepository.findById(id).map(this::withPendingNotes);
+        if (found.isPresent()) {
+            return found;
+        }
+        return caseArchiveService.findArchived(id).map(CaseArchiveService.ArchivedCase::getArchivedCase);
     }
 
     // Get recent cases (sorted by creation date, descending)
@@ -496,11 +636,32 @@ public class CaseService {
     }
 
     /**
-     * Escalate a case to the next court level
+     * Escalate a case to the next court level, returning the new higher-court case. An archived
+     * case, e.g. a dismissed one being appealed, is moved back to the hot tables first.
      */
     public Case escalateCase(Long caseId, String reason) {
-        Case caseEntity = caseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found"));
+        if (!caseRepository.existsById(caseId)) {
+            caseArchiveService.restore(caseId);
+        }
+        Case caseEntity = findCaseForUpdate(caseId);
+
+        List<AuditEntry> audits = new ArrayList<>();
+        Case escalated = applyEscalation(caseEntity, reason, nextCaseSequence(), audits);
+        caseRepository.save(caseEntity);
+        auditService.recordAll(audits);
+        return escalated;
+    }
+
+    /**
+     * Open the next court level's case for a loaded case, numbered with a pre-allocated sequence.
+     * The new case is saved and linked into the lineage, and the escalated case is marked as
+     * superseded by it; the caller saves the escalated case and records the added audit entries.
+     * Shared by single and bulk escalation.
+     */
+    Case applyEscalation(Case caseEntity, String reason, int caseSequence, List<AuditEntry> audits) {
+        if (caseEntity.getSupersededById() != null) {
+            throw new IllegalStateException("Case has already been escalated to case " + caseEntity.getSupersededById());
+        }
 
         Case.CourtLevel currentLevel = caseEntity.getCourtLevel();
         if (currentLevel == null) {
@@ -518,77 +679,131 @@ public class CaseService {
             throw new IllegalStateException("Cannot escalate beyond Supreme Court");
         }
 
-        // Update case with new court level
-        caseEntity.setCourtLevel(nextLevel);
-        caseEntity.setEscalationReason(reason);
-        caseEntity.setEscalationDate(LocalDateTime.now());
-        caseEntity.setStatus(Case.Status.ESCALATED);
-
-        // Apply priority multiplier for higher court (increase by 2 points, max 10)
-        int newPriority = Math.min(caseEntity.getPriority() + 2, 10);
-        caseEntity.setPriority(newPriority);
+        Case.Status previousStatus = caseEntity.getStatus();
+
+        // The higher court continues the matter as a new case linked to the one it came from
+        Case escalated = new Case();
+        escalated.setTitle(caseEntity.getTitle());
+        escalated.setDescription(caseEntity.getDescription());
+        escalated.setCaseType(caseEntity.getCaseType());
+        escalated.setFilingDate(caseEntity.getFilingDate());
+        escalated.setEstimatedDurationDays(caseEntity.getEstimatedDurationDays());
+        escalated.setResourceRequirement(caseEntity.getResourceRequirement());
+        escalated.cacheResourceFlags(caseEntity.getResourceFlags(), caseEntity.getResourceFlagsVersion());
+        escalated.setDocuments(caseEntity.getDocuments());
+        escalated.setFilingClerk(caseEntity.getFilingClerk());
+        escalated.setCourtLevel(nextLevel);
+        escalated.setEscalationReason(reason);
+        escalated.setEscalationDate(LocalDateTime.now());
+        escalated.setStatus(Case.Status.ESCALATED);
+        escalated.setOriginalCaseId(caseEntity.getOriginalCaseId() != null
+                ? caseEntity.getOriginalCaseId() : caseEntity.getId());
+        escalated.setParentCaseId(caseEntity.getId());
+
+        // Apply priority multiplier for higher court (increase by 2 points, up to the rules' maximum)
+        int newPriority = Math.min(caseEntity.getPriority() + 2, priorityEngine.getRules().getMaxPriority());
+        escalated.setPriority(newPriority);
+        // Kept as an adjustment over the new level's rule score, so recalculations keep the bump
+        escalated.setPriorityAdjustment(newPriority - priorityEngine.calculatePriority(escalated));
+
+        // New case number with court level suffix; no judge until the new court assigns one,
+        // unless judges are assigned by workload
+        assignCaseNumber(escalated, caseSequence);
+        User judge = autoAssign ? findLeastLoadedJudge(nextLevel) : null;
+        escalated.setAssignedJudge(judge);
+        escalated = caseRepository.save(escalated);
+        // Notes are not part of entity saves; copied in SQL so an edit flushed since this case was
+        // loaded carries over too
+        caseRepository.copyNotes(caseEntity.getId(), escalated.getId());
+        escalated.setLineagePath(CaseLineageService.pathOf(caseEntity) + "/" + escalated.getId());
 
-        // Generate new case number with court level suffix
-        generateSequentialCaseNumber(caseEntity);
-
-        // Clear assigned judge (new court will assign their own judge)
-        caseEntity.setAssignedJudge(null);
-
-        return caseRepository.save(caseEntity);
+        caseEntity.setStatus(Case.Status.ESCALATED);
+        caseEntity.setSupersededById(escalated.getId());
+        indexHearing(caseEntity, false);
+        workloadIndex.refresh(List.of(caseEntity, escalated));
+        claimQueue.refresh(List.of(caseEntity, escalated));
+        lineageService.evictAfterCommit(escalated.getOriginalCaseId());
+        recordStatusChange(caseEntity, previousStatus);
+        eventOutbox.record(CaseChangeEvent.created(escalated));
+
+        AuditEntry closed = AuditEntry.escalated(caseEntity, currentLevel, nextLevel, previousStatus, reason);
+        closed.setDetails(closed.getDetails() + "; continued as " + escalated.getCaseNumber());
+        AuditEntry opened = AuditEntry.escalated(escalated, currentLevel, nextLevel, previousStatus, reason);
+        opened.setDetails(opened.getDetails() + "; escalated from " + caseEntity.getCaseNumber());
+        audits.add(closed);
+        audits.add(opened);
+        if (judge != null) {
+            audits.add(autoAssigned(escalated, judge));
+        }
+        return escalated;
     }
 
     /**
      * Get cases by court level
      */
     public List<Case> getCasesByCourtLevel(Case.CourtLevel courtLevel) {
-        return caseRepository.findByCourtLevel(courtLevel);
+        return caseRepository.findByCourtLevelAndSupersededByIdIsNullOrderById(courtLevel);
     }
 
     /**
      * Get all escalated cases
      */
     public List<Case> getEscalatedCases() {
-        return caseRepository.findByStatus(Case.Status.ESCALATED);
+        return caseRepository.findByStatusAndSupersededByIdIsNull(Case.Status.ESCALATED);
     }
 
     /**
      * Get cases eligible for escalation
      */
     public List<Case> getCasesEligibleForEscalation() {
-        return caseRepository.findAll().stream()
-                .filter(c -> c.getCourtLevel() != Case.CourtLevel.SUPREME)
-                .filter(this::checkEscalationConditions)
-                .toList();
+        List<Case> eligible = new ArrayList<>();
+        for (Case.CourtLevel level : Case.CourtLevel.values()) {
+            if (!level.isFinalLevel()) {
+                caseRepository.findByCourtLevelAndSupersededByIdIsNullOrderById(level).stream()
+                        .filter(this::checkEscalationConditions)
+                        .forEach(eligible::add);
+            }
+        }
+        return eligible;
     }
 
     /**
      * Get court level distribution statistics
      */
     public CourtLevelStats getCourtLevelStats() {
-        List<Case> allCases = caseRepository.findAll();
-        
-        long districtCases = allCases.stream()
-                .filter(c -> c.getCourtLevel() == null || c.getCourtLevel() == Case.CourtLevel.DISTRICT)
-                .count();
-        
-        long highCourtCases = allCases.stream()
-                .filter(c -> c.getCourtLevel() == Case.CourtLevel.HIGH)
-                .count();
-        
-        long supremeCourtCases = allCases.stream()
-                .filter(c -> c.getCourtLevel() == Case.CourtLevel.SUPREME)
-                .count();
-        
-        long escalatedCases = allCases.stream()
-                .filter(c -> c.getStatus() == Case.Status.ESCALATED)
-                .count();
-        
-        long escalationEligible = allCases.stream()
-                .filter(c -> c.getCourtLevel() != Case.CourtLevel.SUPREME)
-                .filter(this::checkEscalationConditions)
-                .count();
+        Map<Case.CourtLevel, Long> cases = new EnumMap<>(Case.CourtLevel.class);
+        long escalatedCases = 0;
+        for (CaseRepository.DocketCount count : caseRepository.countDockets()) {
+            // Cases without a court level are District Court cases
+            Case.CourtLevel level = count.getCourtLevel() != null ? count.getCourtLevel() : Case.CourtLevel.DISTRICT;
+            cases.merge(level, count.getCases(), Long::sum);
+            escalatedCases += count.getEscalated();
+        }
+        long escalationEligible = getCasesEligibleForEscalation().size();
+
+        return new CourtLevelStats(cases.getOrDefault(Case.CourtLevel.DISTRICT, 0L),
+                cases.getOrDefault(Case.CourtLevel.HIGH, 0L), cases.getOrDefault(Case.CourtLevel.SUPREME, 0L),
+                escalatedCases, escalationEligible);
+    }
+
+    // Inner class for the outcome of a workload rebalance
+    public static class RebalanceResult {
+        private final Case.CourtLevel courtLevel;
+        private final List<JudgeWorkloadIndex.Move> moves;
+        private final List<JudgeWorkloadIndex.JudgeWorkload> workloads;
 
-        return new CourtLevelStats(districtCases, highCourtCases, supremeCourtCases, escalatedCases, escalationEligible);
+        public RebalanceResult(Case.CourtLevel courtLevel, List<JudgeWorkloadIndex.Move> moves,
+                               List<JudgeWorkloadIndex.JudgeWorkload> workloads) {
+            this.courtLevel = courtLevel;
+            this.moves = moves;
+            this.workloads = workloads;
+        }
+
+        // Getters
+        public Case.CourtLevel getCourtLevel() { return courtLevel; }
+        public int getCasesMoved() { return moves.size(); }
+        public List<JudgeWorkloadIndex.Move> getMoves() { return moves; }
+        public List<JudgeWorkloadIndex.JudgeWorkload> getWorkloads() { return workloads; }
     }
 
     // Inner class for court level statistics
@@ -0,0 +1,302 @@
+package com.example.dcm.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import com.example.dcm.model.Case;
+
+/**
+ * A PriorityRuleSet compiled into lookup tables. Everything but the resource flags is folded into
+ * one table indexed by (case type, court level, duration bucket, escalated), and the weight of
+ * each combination of flags is precomputed, so scoring a case is two array reads and a clamp with
+ * no allocation. Flag keywords are matched in one pass by a KeywordAutomaton built alongside.
+ * Immutable; PriorityEngine swaps in a new instance when the rules are reloaded.
+ */
+public final class CompiledPriorityRules {
+
+    static final int MAX_RESOURCE_FLAGS = 12;
+
+    private static final Case.CaseType[] CASE_TYPES = Case.CaseType.values();
+    private static final Case.CourtLevel[] COURT_LEVELS = Case.CourtLevel.values();
+    // One extra slot each for a missing case type, court level or duration estimate
+    private static final int TYPE_SLOTS = CASE_TYPES.length + 1;
+    private static final int LEVEL_SLOTS = COURT_LEVELS.length + 1;
+
+    private final PriorityRuleSet ruleSet;
+    private final long revision;
+    private final int minPriority;
+    private final int maxPriority;
+    private final int[] bucketLimits;
+    private final int bucketSlots;
+    private final int[] table;
+    private final int[] flagWeights;
+    private final String[] flagNames;
+    private final KeywordAutomaton keywordMatcher;
+    private final long keywordVersion;
+
+    // Per-rule weights the table was summed from, for explanations
+    private final int[] typeWeights = new int[TYPE_SLOTS];
+    private final int[] levelWeights = new int[LEVEL_SLOTS];
+    private final int[] durationWeights;
+    private final int[] singleFlagWeights;
+    // Breakdowns already built, by table index and flags; a breakdown depends on nothing else
+    private final ConcurrentHashMap<Long, Breakdown> breakdowns = new ConcurrentHashMap<>();
+
+    CompiledPriorityRules(PriorityRuleSet ruleSet, long revision) {
+        this.ruleSet = ruleSet;
+        this.revision = revision;
+        if (ruleSet.getMinPriority() > ruleSet.getMaxPriority()) {
+            throw new IllegalArgumentException("minPriority must not exceed maxPriority");
+        }
+        this.minPriority = ruleSet.getMinPriority();
+        this.maxPriority = ruleSet.getMaxPriority();
+
+        // Bounded buckets in order, then the weight of estimates past the last bound
+        List<PriorityRuleSet.DurationBucket> buckets = ruleSet.getDurationBuckets() != null
+                ? ruleSet.getDurationBuckets() : List.of();
+        List<Integer> limits = new ArrayList<>();
+        List<Integer> bucketWeights = new ArrayList<>();
+        int overflowWeight = 0;
+        for (int i = 0; i < buckets.size(); i++) {
+            PriorityRuleSet.DurationBucket bucket = buckets.get(i);
+            if (bucket.getMaxDays() == null) {
+                if (i != buckets.size() - 1) {
+                    throw new IllegalArgumentException("Only the last duration bucket may be open-ended");
+                }
+                overflowWeight = bucket.getWeight();
+            } else {
+                if (!limits.isEmpty() && bucket.getMaxDays() <= limits.get(limits.size() - 1)) {
+                    throw new IllegalArgumentException("Duration buckets must have increasing maxDays");
+                }
+                limits.add(bucket.getMaxDays());
+                bucketWeights.add(bucket.getWeight());
+            }
+        }
+        bucketWeights.add(overflowWeight);
+        this.bucketLimits = limits.stream().mapToInt(Integer::intValue).toArray();
+        // Slot 0 is "no estimate", then each bounded bucket, then the overflow
+        this.bucketSlots = bucketLimits.length + 2;
+
+        this.durationWeights = new int[bucketSlots];
+        for (int bucket = 1; bucket < bucketSlots; bucket++) {
+            durationWeights[bucket] = bucketWeights.get(bucket - 1);
+        }
+        for (int type = 0; type < CASE_TYPES.length; type++) {
+            typeWeights[type] = ruleSet.getCaseTypeWeights() != null
+                    ? ruleSet.getCaseTypeWeights().getOrDefault(CASE_TYPES[type], 0) : 0;
+        }
+        for (int level = 0; level < COURT_LEVELS.length; level++) {
+            levelWeights[level] = ruleSet.getCourtLevelWeights() != null
+                    ? ruleSet.getCourtLevelWeights().getOrDefault(COURT_LEVELS[level], 0) : 0;
+        }
+
+        this.table = new int[TYPE_SLOTS * LEVEL_SLOTS * bucketSlots * 2];
+        for (int type = 0; type < TYPE_SLOTS; type++) {
+            for (int level = 0; level < LEVEL_SLOTS; level++) {
+                for (int bucket = 0; bucket < bucketSlots; bucket++) {
+                    for (int escalated = 0; escalated < 2; escalated++) {
+                        table[index(type, level, bucket, escalated)] = ruleSet.getBase() + typeWeights[type]
+                                + levelWeights[level] + durationWeights[bucket]
+                                + (escalated == 1 ? ruleSet.getEscalatedWeight() : 0);
+                    }
+                }
+            }
+        }
+
+        List<PriorityRuleSet.ResourceFlag> flags = ruleSet.getResourceFlags() != null
+                ? ruleSet.getResourceFlags() : List.of();
+        if (flags.size() > MAX_RESOURCE_FLAGS) {
+            throw new IllegalArgumentException("At most " + MAX_RESOURCE_FLAGS + " resource flags are supported");
+        }
+        this.flagNames = new String[flags.size()];
+        List<String> keywordList = new ArrayList<>();
+        List<Integer> keywordFlagList = new ArrayList<>();
+        for (int flag = 0; flag < flags.size(); flag++) {
+            PriorityRuleSet.ResourceFlag resourceFlag = flags.get(flag);
+            flagNames[flag] = resourceFlag.getName() != null ? resourceFlag.getName() : "FLAG_" + flag;
+            if (resourceFlag.getKeywords() == null || resourceFlag.getKeywords().isEmpty()) {
+                throw new IllegalArgumentException("Resource flag " + flagNames[flag] + " has no keywords");
+            }
+            for (String keyword : resourceFlag.getKeywords()) {
+                if (keyword == null || keyword.isBlank()) {
+                    throw new IllegalArgumentException("Resource flag " + flagNames[flag] + " has a blank keyword");
+                }
+                keywordList.add(keyword);
+                keywordFlagList.add(1 << flag);
+            }
+        }
+        this.keywordMatcher = new KeywordAutomaton(keywordList,
+                keywordFlagList.stream().mapToInt(Integer::intValue).toArray());
+        this.keywordVersion = keywordVersion(flags);
+        this.singleFlagWeights = flags.stream().mapToInt(PriorityRuleSet.ResourceFlag::getWeight).toArray();
+        this.flagWeights = new int[1 << flags.size()];
+        for (int mask = 1; mask < flagWeights.length; mask++) {
+            int lowest = Integer.numberOfTrailingZeros(mask);
+            flagWeights[mask] = flagWeights[mask & (mask - 1)] + flags.get(lowest).getWeight();
+        }
+    }
+
+    // Priority of a case with the given resource flags
+    public int score(Case caseEntity, int flags) {
+        return score(caseEntity.getCaseType(), caseEntity.getCourtLevel(), caseEntity.getEstimatedDurationDays(),
+                caseEntity.getEscalationDate() != null, flags);
+    }
+
+    // Same, from the scoring inputs alone, for callers that read cases as plain rows
+    public int score(Case.CaseType caseType, Case.CourtLevel courtLevel, Integer estimatedDurationDays,
+                     boolean escalated, int flags) {
+        int score = table[index(caseType, courtLevel, estimatedDurationDays, escalated)]
+                + flagWeights[flags & (flagWeights.length - 1)];
+        return Math.max(minPriority, Math.min(maxPriority, score));
+    }
+
+    // A score with a case's stored adjustment applied, kept within the same range
+    public int adjust(int score, int adjustment) {
+        return Math.max(minPriority, Math.min(maxPriority, score + adjustment));
+    }
+
+    // Rule by rule account of score(); built once per distinct combination of inputs and reused
+    public Breakdown breakdown(Case caseEntity, int flags) {
+        int index = index(caseEntity.getCaseType(), caseEntity.getCourtLevel(),
+                caseEntity.getEstimatedDurationDays(), caseEntity.getEscalationDate() != null);
+        int mask = flags & (flagWeights.length - 1);
+        return breakdowns.computeIfAbsent(((long) index << MAX_RESOURCE_FLAGS) | mask,
+                key -> buildBreakdown(index, mask));
+    }
+
+    // Bit mask of the resource flags raised by a requirement; keywords match in any case
+    public int resourceFlags(CharSequence requirement) {
+        return keywordMatcher.match(requirement);
+    }
+
+    public PriorityRuleSet getRuleSet() { return ruleSet; }
+    public long getRevision() { return revision; }
+    public int getMinPriority() { return minPriority; }
+    public int getMaxPriority() { return maxPriority; }
+
+    // Identifies the flag keywords and their bit positions; flags cached under the same version
+    // are still valid, whatever else in the rules changed
+    public long getKeywordVersion() { return keywordVersion; }
+
+    public String[] getFlagNames() { return flagNames.clone(); }
+
+    private int bucket(Integer durationDays) {
+        if (durationDays == null) {
+            return 0;
+        }
+        int days = durationDays;
+        for (int i = 0; i < bucketLimits.length; i++) {
+            if (days <= bucketLimits[i]) {
+                return i + 1;
+            }
+        }
+        return bucketLimits.length + 1;
+    }
+
+    private Breakdown buildBreakdown(int index, int flags) {
+        int escalated = index % 2;
+        int bucket = index / 2 % bucketSlots;
+        int level = index / 2 / bucketSlots % LEVEL_SLOTS;
+        int type = index / 2 / bucketSlots / LEVEL_SLOTS;
+
+        List<Contribution> contributions = new ArrayList<>();
+        contributions.add(new Contribution("BASE", null, ruleSet.getBase()));
+        contributions.add(new Contribution("CASE_TYPE",
+                type < CASE_TYPES.length ? CASE_TYPES[type].name() : "none", typeWeights[type]));
+        contributions.add(new Contribution("COURT_LEVEL",
+                level < COURT_LEVELS.length ? COURT_LEVELS[level].name() : "none", levelWeights[level]));
+        contributions.add(new Contribution("DURATION", bucketLabel(bucket), durationWeights[bucket]));
+        if (escalated == 1) {
+            contributions.add(new Contribution("ESCALATED", null, ruleSet.getEscalatedWeight()));
+        }
+        for (int flag = 0; flag < flagNames.length; flag++) {
+            if ((flags & (1 << flag)) != 0) {
+                contributions.add(new Contribution("RESOURCE_FLAG", flagNames[flag], singleFlagWeights[flag]));
+            }
+        }
+        int raw = table[index] + flagWeights[flags];
+        int score = Math.max(minPriority, Math.min(maxPriority, raw));
+        if (score != raw) {
+            contributions.add(new Contribution("CLAMP", minPriority + "-" + maxPriority, score - raw));
+        }
+        return new Breakdown(revision, raw, score, contributions);
+    }
+
+    private String bucketLabel(int bucket) {
+        if (bucket == 0) {
+            return "no estimate";
+        }
+        if (bucket <= bucketLimits.length) {
+            int from = bucket == 1 ? 0 : bucketLimits[bucket - 2] + 1;
+            return from + "-" + bucketLimits[bucket - 1] + " days";
+        }
+        return bucketLimits.length == 0 ? "any estimate" : "over " + bucketLimits[bucketLimits.length - 1] + " days";
+    }
+
+    private static long keywordVersion(List<PriorityRuleSet.ResourceFlag> flags) {
+        CRC32 crc = new CRC32();
+        for (PriorityRuleSet.ResourceFlag flag : flags) {
+            for (String keyword : flag.getKeywords()) {
+                crc.update(keyword.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+                crc.update(0);
+            }
+            crc.update(1);
+        }
+        // Never 0, so a version is always distinguishable from "not cached"
+        return crc.getValue() + 1;
+    }
+
+    private int index(Case.CaseType caseType, Case.CourtLevel courtLevel, Integer estimatedDurationDays,
+                      boolean escalated) {
+        return index(caseType != null ? caseType.ordinal() : CASE_TYPES.length,
+                courtLevel != null ? courtLevel.ordinal() : COURT_LEVELS.length,
+                bucket(estimatedDurationDays), escalated ? 1 : 0);
+    }
+
+    private int index(int type, int level, int bucket, int escalated) {
+        return ((type * LEVEL_SLOTS + level) * bucketSlots + bucket) * 2 + escalated;
+    }
+
+    // Inner class for a rule by rule account of a score
+    public static class Breakdown {
+        private final long rulesRevision;
+        private final int rawScore;
+        private final int score;
+        private final List<Contribution> contributions;
+
+        public Breakdown(long rulesRevision, int rawScore, int score, List<Contribution> contributions) {
+            this.rulesRevision = rulesRevision;
+            this.rawScore = rawScore;
+            this.score = score;
+            this.contributions = List.copyOf(contributions);
+        }
+
+        // Getters
+        public long getRulesRevision() { return rulesRevision; }
+        public int getRawScore() { return rawScore; }
+        public int getScore() { return score; }
+        public List<Contribution> getContributions() { return contributions; }
+    }
+
+    // Inner class for the points one rule added; detail names the matched case type, bucket or flag
+    public static class Contribution {
+        private final String rule;
+        private final String detail;
+        private final int points;
+
+        public Contribution(String rule, String detail, int points) {
+            this.rule = rule;
+            this.detail = detail;
+            this.points = points;
+        }
+
+        // Getters
+        public String getRule() { return rule; }
+        public String getDetail() { return detail; }
+        public int getPoints() { return points; }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.dcm.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.repository.CaseRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Streams the filtered docket as CSV or NDJSON for analytics tools.
+ * Rows are read as scalar tuples through a forward-only cursor, so no entities
+ * enter the persistence context and heap use does not grow with the row count.
+ */
+@Service
+public class DocketExportService {
+
+    public enum ExportFormat {
+        CSV, NDJSON
+    }
+
+    private static final String[] COLUMNS = {
+        "id", "caseNumber", "title", "caseType", "status", "courtLevel", "priority", "effectivePriority",
+        "filingDate", "hearingDate", "estimatedDurationDays", "resourceRequirement",
+        "escalationDate", "originalCaseId", "assignedJudge", "filingClerk"
+    };
+
+    private static final String EXPORT_QUERY =
+            "SELECT c.id, c.caseNumber, c.title, c.caseType, c.status, c.courtLevel, c.priority, " +
+            CaseRepository.EFFECTIVE_PRIORITY + ", " +
+            "c.filingDate, c.hearingDate, c.estimatedDurationDays, c.resourceRequirement, " +
+            "c.escalationDate, c.originalCaseId, j.username, k.username " +
+            "FROM Case c LEFT JOIN c.assignedJudge j LEFT JOIN c.filingClerk k " +
+            "WHERE (:courtLevel IS NULL OR c.courtLevel = :courtLevel) " +
+            "AND (:status IS NULL OR c.status = :status) " +
+            "AND (:judgeId IS NULL OR j.id = :judgeId) " +
+            "AND (:hearingFrom IS NULL OR c.hearingDate >= :hearingFrom) " +
+            "AND (:hearingTo IS NULL OR c.hearingDate < :hearingTo) " +
+            "ORDER BY c.id";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Value("${dcm.export.fetch-size:500}")
+    private int fetchSize;
+
+    // Rows between explicit flushes of the response
+    @Value("${dcm.export.flush-every:1000}")
+    private int flushEvery;
+
+    @PostConstruct
+    void validateSettings() {
+        if (flushEvery < 1) {
+            throw new IllegalStateException("dcm.export.flush-every must be positive");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportDocket(CaseFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        LocalDateTime now = LocalDateTime.now();
+        SelectionQuery<Object[]> query = entityManager.unwrap(Session.class)
+                .createSelectionQuery(EXPORT_QUERY, Object[].class)
+                .setParameter("courtLevel", filter.getCourtLevel())
+                .setParameter("status", filter.getStatus())
+                .setParameter("judgeId", filter.getJudgeId())
+                .setParameter("hearingFrom", filter.getHearingFromTime())
+                .setParameter("hearingTo", filter.getHearingToTime())
+                .setParameter("ageCutoff", Case.ageBonusCutoff(now))
+                .setParameter("oldAgeCutoff", Case.oldAgeBonusCutoff(now))
+                .setParameter("maxPriority", priorityEngine.getRules().getMaxPriority())
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+
+        long rows = 0;
+        rowWriter.writeHeader();
+        try (ScrollableResults<Object[]> results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                rowWriter.writeRow(results.get());
+                if (++rows % flushEvery == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        rowWriter.finish();
+        writer.flush();
+        return rows;
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void writeRow(Object[] row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (row[i] != null) {
+                    writeField(row[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180 quoting: only fields with separators, quotes or line breaks are quoted
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = new JsonFactory().createGenerator(writer);
+            // The writer belongs to the response: never close it, and leave flushing to the export loop
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Rows are separated by the newline written after each one
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void writeRow(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < row.length; i++) {
+                Object value = row[i];
+                if (value == null) {
+                    generator.writeNullField(COLUMNS[i]);
+                } else if (value instanceof Long number) {
+                    generator.writeNumberField(COLUMNS[i], number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumberField(COLUMNS[i], number);
+                } else if (value instanceof Enum<?> constant) {
+                    generator.writeStringField(COLUMNS[i], constant.name());
+                } else if (value instanceof LocalDateTime timestamp) {
+                    generator.writeStringField(COLUMNS[i], timestamp.toString());
+                } else {
+                    generator.writeStringField(COLUMNS[i], value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+}
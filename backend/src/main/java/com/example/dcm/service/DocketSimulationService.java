@@ -0,0 +1,676 @@
+package com.example.dcm.service;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * What-if runs of the docket under alternative priority rules. A stream of filings, either
+ * synthetic or replayed from the cases table, goes through a discrete-event model of filing,
+ * daily hearing allocation by priority, adjournment and disposition, with priorities from the
+ * real PriorityEngine on the simulated clock. Runs are in memory and touch no live data; each
+ * parameter set runs on its own thread against the same filings, so differences between runs
+ * come from the rules alone.
+ */
+@Service
+public class DocketSimulationService {
+
+    private static final String SELECT_DOCKET =
+            "SELECT case_type, court_level, resource_requirement, estimated_duration_days, filing_date FROM cases " +
+            "WHERE original_case_id IS NULL ORDER BY filing_date";
+
+    private static final int MAX_DAYS = 3660;
+    private static final int MAX_FILINGS = 2_000_000;
+    private static final int MAX_PARAMETER_SETS = 16;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int FILING_WINDOW_MINUTES = 8 * 60;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${dcm.simulation.threads:0}")
+    private int threads;
+
+    @Value("${dcm.scheduling.daily-capacity:6}")
+    private int defaultDailyCapacity;
+
+    @Value("${dcm.scheduling.slot-minutes:60}")
+    private int slotMinutes;
+
+    @Value("${dcm.scheduling.day-start:09:00}")
+    private LocalTime dayStart;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "docket-simulation-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Run every parameter set against the same filings and report each run's outcome
+    public SimulationReport simulate(SimulationRequest request) {
+        long started = System.currentTimeMillis();
+        validate(request);
+
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        List<Filing> filings = request.getSource() == Source.DOCKET
+                ? loadDocket(request.getDays())
+                : synthesize(request, startDate);
+        Map<Case.CourtLevel, Integer> judges = request.getJudges() != null ? request.getJudges() : countJudges();
+        int dailyCapacity = request.getDailyCapacity() != null ? request.getDailyCapacity() : defaultDailyCapacity;
+
+        List<ParameterSet> parameterSets = request.getParameterSets() == null || request.getParameterSets().isEmpty()
+                ? List.of(new ParameterSet()) : request.getParameterSets();
+        List<Future<RunResult>> runs = new ArrayList<>();
+        for (int i = 0; i < parameterSets.size(); i++) {
+            ParameterSet parameters = parameterSets.get(i);
+            String name = parameters.getName() != null ? parameters.getName() : "set-" + (i + 1);
+            CompiledPriorityRules rules;
+            try {
+                rules = priorityEngine.compileOverrides(parameters.getRules());
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid rules in parameter set " + name + ": " + e.getMessage(), e);
+            }
+            DocketModel model = new DocketModel(name, rules, request, startDate, filings, judges, dailyCapacity);
+            runs.add(executor.submit(model::run));
+        }
+
+        List<RunResult> results = new ArrayList<>(runs.size());
+        try {
+            for (Future<RunResult> run : runs) {
+                results.add(run.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            runs.forEach(run -> run.cancel(true));
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            runs.forEach(run -> run.cancel(true));
+            throw new IllegalStateException("Simulation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return new SimulationReport(request.getSource(), startDate, request.getDays(), filings.size(), judges,
+                dailyCapacity, results, System.currentTimeMillis() - started);
+    }
+
+    private void validate(SimulationRequest request) {
+        if (request.getDays() < 1 || request.getDays() > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        if (request.getFilingsPerDay() < 0 || request.getFilingsPerDay() * request.getDays() > MAX_FILINGS) {
+            throw new IllegalArgumentException("At most " + MAX_FILINGS + " filings can be simulated");
+        }
+        if (request.getParameterSets() != null && request.getParameterSets().size() > MAX_PARAMETER_SETS) {
+            throw new IllegalArgumentException("At most " + MAX_PARAMETER_SETS + " parameter sets per simulation");
+        }
+        if (request.getDailyCapacity() != null && request.getDailyCapacity() < 1) {
+            throw new IllegalArgumentException("dailyCapacity must be positive");
+        }
+        if (request.getAdjournmentDays() < 1 || request.getDaysPerHearing() < 1) {
+            throw new IllegalArgumentException("adjournmentDays and daysPerHearing must be positive");
+        }
+        if (request.getJudges() != null && request.getJudges().values().stream().anyMatch(count -> count == null || count < 0)) {
+            throw new IllegalArgumentException("Judge counts must not be negative");
+        }
+    }
+
+    private Map<Case.CourtLevel, Integer> countJudges() {
+        Map<Case.CourtLevel, Integer> judges = new EnumMap<>(Case.CourtLevel.class);
+        for (Case.CourtLevel level : Case.CourtLevel.values()) {
+            judges.put(level, 0);
+        }
+        for (User judge : userRepository.findByRole(User.Role.JUDGE)) {
+            Case.CourtLevel level = judge.getCourtLevel() != null
+                    ? Case.CourtLevel.valueOf(judge.getCourtLevel().name()) : Case.CourtLevel.DISTRICT;
+            judges.merge(level, 1, Integer::sum);
+        }
+        return judges;
+    }
+
+    // Original filings from the cases table, at their offsets from the earliest one
+    private List<Filing> loadDocket(int days) {
+        List<Filing> filings = new ArrayList<>();
+        LocalDateTime[] first = new LocalDateTime[1];
+        jdbcTemplate.query(SELECT_DOCKET, rs -> {
+            LocalDateTime filedAt = rs.getTimestamp("filing_date").toLocalDateTime();
+            if (first[0] == null) {
+                first[0] = filedAt.toLocalDate().atStartOfDay();
+            }
+            long minute = ChronoUnit.MINUTES.between(first[0], filedAt);
+            if (minute >= (long) days * MINUTES_PER_DAY || filings.size() >= MAX_FILINGS) {
+                return;
+            }
+            String level = rs.getString("court_level");
+            filings.add(new Filing(minute, Case.CaseType.valueOf(rs.getString("case_type")),
+                    level != null ? Case.CourtLevel.valueOf(level) : Case.CourtLevel.DISTRICT,
+                    rs.getString("resource_requirement"), (Integer) rs.getObject("estimated_duration_days")));
+        });
+        return filings;
+    }
+
+    // Filings on working days with a Poisson count per day and a fixed mix of types, courts and durations
+    private List<Filing> synthesize(SimulationRequest request, LocalDate startDate) {
+        Random random = new Random(request.getSeed());
+        List<Filing> filings = new ArrayList<>();
+        long dayStartMinute = dayStart.toSecondOfDay() / 60;
+        for (int day = 0; day < request.getDays(); day++) {
+            if (isWeekend(startDate.plusDays(day))) {
+                continue;
+            }
+            int count = poisson(random, request.getFilingsPerDay());
+            long[] minutes = new long[count];
+            for (int i = 0; i < count; i++) {
+                minutes[i] = (long) day * MINUTES_PER_DAY + dayStartMinute + random.nextInt(FILING_WINDOW_MINUTES);
+            }
+            Arrays.sort(minutes);
+            for (long minute : minutes) {
+                filings.add(new Filing(minute, pick(random, CASE_TYPE_MIX), pick(random, COURT_LEVEL_MIX),
+                        resourceRequirement(random), duration(random)));
+            }
+        }
+        return filings;
+    }
+
+    private static final Object[][] CASE_TYPE_MIX = {
+        { Case.CaseType.CIVIL, 0.40 }, { Case.CaseType.CRIMINAL, 0.30 }, { Case.CaseType.FAMILY, 0.15 },
+        { Case.CaseType.ADMINISTRATIVE, 0.10 }, { Case.CaseType.CONSTITUTIONAL, 0.05 }
+    };
+
+    private static final Object[][] COURT_LEVEL_MIX = {
+        { Case.CourtLevel.DISTRICT, 0.85 }, { Case.CourtLevel.HIGH, 0.12 }, { Case.CourtLevel.SUPREME, 0.03 }
+    };
+
+    @SuppressWarnings("unchecked")
+    private static <T> T pick(Random random, Object[][] mix) {
+        double roll = random.nextDouble();
+        for (Object[] option : mix) {
+            roll -= (Double) option[1];
+            if (roll < 0) {
+                return (T) option[0];
+            }
+        }
+        return (T) mix[mix.length - 1][0];
+    }
+
+    private static String resourceRequirement(Random random) {
+        double roll = random.nextDouble();
+        if (roll < 0.08) {
+            return "Urgent hearing requested";
+        }
+        return roll < 0.18 ? "Complex matter" : null;
+    }
+
+    // Exponential with a mean of 45 days; one case in ten is filed without an estimate
+    private static Integer duration(Random random) {
+        if (random.nextDouble() < 0.1) {
+            return null;
+        }
+        return (int) Math.min(365, Math.max(1, Math.round(-45 * Math.log(1 - random.nextDouble()))));
+    }
+
+    private static int poisson(Random random, double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean > 50) {
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * random.nextGaussian()));
+        }
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    private static double percentile(double[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        double rank = fraction * (sorted.length - 1);
+        int lower = (int) Math.floor(rank);
+        int upper = (int) Math.ceil(rank);
+        return sorted[lower] + (sorted[upper] - sorted[lower]) * (rank - lower);
+    }
+
+    // One run of the docket under one set of rules. Events are processed in time order: a filing
+    // joins its court's waiting list; each working day opens by re-prioritizing the waiting cases
+    // and giving the top ones that day's slots; a heard case is adjourned until it has had all its
+    // hearings, then disposed.
+    private final class DocketModel {
+        private final String name;
+        private final CompiledPriorityRules rules;
+        private final SimulationRequest request;
+        private final LocalDateTime origin;
+        private final List<Filing> filings;
+        private final Map<Case.CourtLevel, Integer> judges;
+        private final int dailyCapacity;
+
+        private final PriorityQueue<Event> events = new PriorityQueue<>(Event.ORDER);
+        private final Map<Case.CourtLevel, List<SimCase>> waiting = new EnumMap<>(Case.CourtLevel.class);
+        private long sequence;
+
+        DocketModel(String name, CompiledPriorityRules rules, SimulationRequest request, LocalDate startDate,
+                List<Filing> filings, Map<Case.CourtLevel, Integer> judges, int dailyCapacity) {
+            this.name = name;
+            this.rules = rules;
+            this.request = request;
+            this.origin = startDate.atStartOfDay();
+            this.filings = filings;
+            this.judges = judges;
+            this.dailyCapacity = dailyCapacity;
+            for (Case.CourtLevel level : Case.CourtLevel.values()) {
+                waiting.put(level, new ArrayList<>());
+            }
+        }
+
+        RunResult run() {
+            long started = System.currentTimeMillis();
+            int days = request.getDays();
+            long horizon = (long) days * MINUTES_PER_DAY;
+            long dayStartMinute = dayStart.toSecondOfDay() / 60;
+
+            int nextFiling = 0;
+            for (int day = 0; day < days; day++) {
+                if (!isWeekend(origin.toLocalDate().plusDays(day))) {
+                    schedule((long) day * MINUTES_PER_DAY + dayStartMinute, EventType.OPEN_DAY, null);
+                }
+            }
+
+            int[] openByDay = new int[days];
+            int[] disposedByDay = new int[days];
+            List<Double> timesToDisposition = new ArrayList<>();
+            Map<Case.CaseType, List<Double>> timesByType = new EnumMap<>(Case.CaseType.class);
+            int open = 0;
+            int hearings = 0;
+            int day = 0;
+
+            while (true) {
+                // Filings are already in time order, so they are merged in rather than queued
+                Event next = events.peek();
+                if (nextFiling < filings.size() && (next == null || filings.get(nextFiling).minute <= next.minute)) {
+                    Filing filing = filings.get(nextFiling);
+                    if (filing.minute >= horizon) {
+                        break;
+                    }
+                    advance(openByDay, open, day, (int) (filing.minute / MINUTES_PER_DAY));
+                    day = (int) (filing.minute / MINUTES_PER_DAY);
+                    waiting.get(filing.courtLevel).add(file(nextFiling++, filing));
+                    open++;
+                    continue;
+                }
+                if (next == null || next.minute >= horizon) {
+                    break;
+                }
+                events.poll();
+                advance(openByDay, open, day, (int) (next.minute / MINUTES_PER_DAY));
+                day = (int) (next.minute / MINUTES_PER_DAY);
+
+                switch (next.type) {
+                    case OPEN_DAY -> openDay(next.minute);
+                    case HEARD -> {
+                        SimCase heard = next.simCase;
+                        hearings++;
+                        heard.hearingsLeft--;
+                        heard.model.setStatus(Case.Status.IN_PROGRESS);
+                        if (heard.hearingsLeft > 0) {
+                            schedule(next.minute + (long) request.getAdjournmentDays() * MINUTES_PER_DAY,
+                                    EventType.READY, heard);
+                        } else {
+                            open--;
+                            disposedByDay[day]++;
+                            double daysTaken = (next.minute - heard.filedMinute) / (double) MINUTES_PER_DAY;
+                            timesToDisposition.add(daysTaken);
+                            timesByType.computeIfAbsent(heard.model.getCaseType(), type -> new ArrayList<>()).add(daysTaken);
+                        }
+                    }
+                    case READY -> waiting.get(next.simCase.model.getCourtLevel()).add(next.simCase);
+                }
+            }
+            advance(openByDay, open, day, days);
+
+            return result(openByDay, disposedByDay, timesToDisposition, timesByType, open, hearings,
+                    System.currentTimeMillis() - started);
+        }
+
+        private SimCase file(int index, Filing filing) {
+            Case model = new Case();
+            model.setCaseType(filing.caseType);
+            model.setCourtLevel(filing.courtLevel);
+            model.setResourceRequirement(filing.resourceRequirement);
+            model.setEstimatedDurationDays(filing.durationDays);
+            model.setFilingDate(origin.plusMinutes(filing.minute));
+            model.setStatus(Case.Status.FILED);
+            int basePriority = priorityEngine.calculatePriority(model, rules);
+            model.setPriority(basePriority);
+
+            int duration = filing.durationDays != null ? filing.durationDays : request.getDaysPerHearing();
+            int hearingsNeeded = Math.max(1, (duration + request.getDaysPerHearing() - 1) / request.getDaysPerHearing());
+            return new SimCase(index, model, basePriority, filing.minute, hearingsNeeded);
+        }
+
+        // Re-prioritize the waiting cases as of the day's opening and hand out the day's slots
+        private void openDay(long minute) {
+            LocalDateTime asOf = origin.plusMinutes(minute);
+            for (Map.Entry<Case.CourtLevel, List<SimCase>> entry : waiting.entrySet()) {
+                List<SimCase> cases = entry.getValue();
+                int courtJudges = judges.getOrDefault(entry.getKey(), 0);
+                if (cases.isEmpty() || courtJudges == 0) {
+                    continue;
+                }
+                for (SimCase simCase : cases) {
+                    simCase.priority = priorityEngine.effectivePriority(simCase.model, rules, asOf);
+                }
+                PriorityQueue<SimCase> docket = new PriorityQueue<>(cases);
+                int slots = courtJudges * dailyCapacity;
+                for (int slot = 0; slot < slots && !docket.isEmpty(); slot++) {
+                    // Judges sit in parallel, one hearing per slot each
+                    long hearingEnd = minute + (long) (slot / courtJudges + 1) * slotMinutes;
+                    schedule(hearingEnd, EventType.HEARD, docket.poll());
+                }
+                entry.setValue(new ArrayList<>(docket));
+            }
+        }
+
+        private void schedule(long minute, EventType type, SimCase simCase) {
+            events.add(new Event(minute, sequence++, type, simCase));
+        }
+
+        // Carry the open count over the days between events
+        private void advance(int[] openByDay, int open, int fromDay, int toDay) {
+            for (int d = fromDay; d < Math.min(toDay, openByDay.length); d++) {
+                openByDay[d] = open;
+            }
+        }
+
+        private RunResult result(int[] openByDay, int[] disposedByDay, List<Double> times,
+                Map<Case.CaseType, List<Double>> timesByType, int open, int hearings, long elapsedMillis) {
+            double[] sorted = times.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            Map<Case.CaseType, Double> medianByType = new EnumMap<>(Case.CaseType.class);
+            timesByType.forEach((type, values) ->
+                    medianByType.put(type, percentile(values.stream().mapToDouble(Double::doubleValue).sorted().toArray(), 0.5)));
+
+            // Backlog at the end of each week, throughput per 30 days
+            List<Integer> backlog = new ArrayList<>();
+            for (int d = 6; d < openByDay.length; d += 7) {
+                backlog.add(openByDay[d]);
+            }
+            if (openByDay.length % 7 != 0) {
+                backlog.add(openByDay[openByDay.length - 1]);
+            }
+            List<Integer> throughput = new ArrayList<>();
+            for (int from = 0; from < disposedByDay.length; from += 30) {
+                int disposed = 0;
+                for (int d = from; d < Math.min(from + 30, disposedByDay.length); d++) {
+                    disposed += disposedByDay[d];
+                }
+                throughput.add(disposed);
+            }
+            return new RunResult(name, rules.getRuleSet(), filings.size(), sorted.length, open, hearings,
+                    sorted.length / (double) openByDay.length, percentile(sorted, 0.5), percentile(sorted, 0.9),
+                    medianByType, throughput, backlog, elapsedMillis);
+        }
+    }
+
+    private enum EventType { OPEN_DAY, HEARD, READY }
+
+    private static final class Event {
+        static final Comparator<Event> ORDER = Comparator.comparingLong((Event event) -> event.minute)
+                .thenComparingLong(event -> event.sequence);
+
+        private final long minute;
+        private final long sequence;
+        private final EventType type;
+        private final SimCase simCase;
+
+        Event(long minute, long sequence, EventType type, SimCase simCase) {
+            this.minute = minute;
+            this.sequence = sequence;
+            this.type = type;
+            this.simCase = simCase;
+        }
+    }
+
+    // A simulated case; ordered like the live docket, highest priority then earliest filing first
+    private static final class SimCase implements Comparable<SimCase> {
+        private final int index;
+        private final Case model;
+        private final long filedMinute;
+        private int priority;
+        private int hearingsLeft;
+
+        SimCase(int index, Case model, int basePriority, long filedMinute, int hearingsNeeded) {
+            this.index = index;
+            this.model = model;
+            this.priority = basePriority;
+            this.filedMinute = filedMinute;
+            this.hearingsLeft = hearingsNeeded;
+        }
+
+        @Override
+        public int compareTo(SimCase other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            if (filedMinute != other.filedMinute) {
+                return Long.compare(filedMinute, other.filedMinute);
+            }
+            return Integer.compare(index, other.index);
+        }
+    }
+
+    private static final class Filing {
+        private final long minute;
+        private final Case.CaseType caseType;
+        private final Case.CourtLevel courtLevel;
+        private final String resourceRequirement;
+        private final Integer durationDays;
+
+        Filing(long minute, Case.CaseType caseType, Case.CourtLevel courtLevel, String resourceRequirement,
+                Integer durationDays) {
+            this.minute = minute;
+            this.caseType = caseType;
+            this.courtLevel = courtLevel;
+            this.resourceRequirement = resourceRequirement;
+            this.durationDays = durationDays;
+        }
+    }
+
+    public enum Source { SYNTHETIC, DOCKET }
+
+    // Simulation input. Judges per court level default to the current judges; a case needs one
+    // hearing per daysPerHearing of its estimated duration and waits adjournmentDays between them.
+    public static class SimulationRequest {
+        private Source source = Source.SYNTHETIC;
+        private LocalDate startDate;
+        private int days = 365;
+        private double filingsPerDay = 40;
+        private long seed = 42;
+        private Map<Case.CourtLevel, Integer> judges;
+        private Integer dailyCapacity;
+        private int adjournmentDays = 14;
+        private int daysPerHearing = 30;
+        private List<ParameterSet> parameterSets;
+
+        // Getters and Setters
+        public Source getSource() { return source; }
+        public void setSource(Source source) { this.source = source; }
+
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+
+        public int getDays() { return days; }
+        public void setDays(int days) { this.days = days; }
+
+        public double getFilingsPerDay() { return filingsPerDay; }
+        public void setFilingsPerDay(double filingsPerDay) { this.filingsPerDay = filingsPerDay; }
+
+        public long getSeed() { return seed; }
+        public void setSeed(long seed) { this.seed = seed; }
+
+        public Map<Case.CourtLevel, Integer> getJudges() { return judges; }
+        public void setJudges(Map<Case.CourtLevel, Integer> judges) { this.judges = judges; }
+
+        public Integer getDailyCapacity() { return dailyCapacity; }
+        public void setDailyCapacity(Integer dailyCapacity) { this.dailyCapacity = dailyCapacity; }
+
+        public int getAdjournmentDays() { return adjournmentDays; }
+        public void setAdjournmentDays(int adjournmentDays) { this.adjournmentDays = adjournmentDays; }
+
+        public int getDaysPerHearing() { return daysPerHearing; }
+        public void setDaysPerHearing(int daysPerHearing) { this.daysPerHearing = daysPerHearing; }
+
+        public List<ParameterSet> getParameterSets() { return parameterSets; }
+        public void setParameterSets(List<ParameterSet> parameterSets) { this.parameterSets = parameterSets; }
+    }
+
+    // A named set of priority rule overrides, in the rules file format; omitted values keep their live settings
+    public static class ParameterSet {
+        private String name;
+        private JsonNode rules;
+
+        // Getters and Setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public JsonNode getRules() { return rules; }
+        public void setRules(JsonNode rules) { this.rules = rules; }
+    }
+
+    // Inner class for the outcome of one parameter set
+    public static class RunResult {
+        private final String name;
+        private final PriorityRuleSet rules;
+        private final int filed;
+        private final int disposed;
+        private final int openAtEnd;
+        private final int hearingsHeld;
+        private final double disposedPerDay;
+        private final double medianDaysToDisposition;
+        private final double p90DaysToDisposition;
+        private final Map<Case.CaseType, Double> medianDaysByCaseType;
+        private final List<Integer> disposedPer30Days;
+        private final List<Integer> weeklyBacklog;
+        private final long elapsedMillis;
+
+        public RunResult(String name, PriorityRuleSet rules, int filed, int disposed, int openAtEnd, int hearingsHeld,
+                         double disposedPerDay, double medianDaysToDisposition, double p90DaysToDisposition,
+                         Map<Case.CaseType, Double> medianDaysByCaseType, List<Integer> disposedPer30Days,
+                         List<Integer> weeklyBacklog, long elapsedMillis) {
+            this.name = name;
+            this.rules = rules;
+            this.filed = filed;
+            this.disposed = disposed;
+            this.openAtEnd = openAtEnd;
+            this.hearingsHeld = hearingsHeld;
+            this.disposedPerDay = disposedPerDay;
+            this.medianDaysToDisposition = medianDaysToDisposition;
+            this.p90DaysToDisposition = p90DaysToDisposition;
+            this.medianDaysByCaseType = medianDaysByCaseType;
+            this.disposedPer30Days = disposedPer30Days;
+            this.weeklyBacklog = weeklyBacklog;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public PriorityRuleSet getRules() { return rules; }
+        public int getFiled() { return filed; }
+        public int getDisposed() { return disposed; }
+        public int getOpenAtEnd() { return openAtEnd; }
+        public int getHearingsHeld() { return hearingsHeld; }
+        public double getDisposedPerDay() { return disposedPerDay; }
+        public double getMedianDaysToDisposition() { return medianDaysToDisposition; }
+        public double getP90DaysToDisposition() { return p90DaysToDisposition; }
+        public Map<Case.CaseType, Double> getMedianDaysByCaseType() { return medianDaysByCaseType; }
+        public List<Integer> getDisposedPer30Days() { return disposedPer30Days; }
+        public List<Integer> getWeeklyBacklog() { return weeklyBacklog; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    // Inner class for a whole simulation
+    public static class SimulationReport {
+        private final Source source;
+        private final LocalDate startDate;
+        private final int days;
+        private final int filings;
+        private final Map<Case.CourtLevel, Integer> judges;
+        private final int dailyCapacity;
+        private final List<RunResult> runs;
+        private final long elapsedMillis;
+
+        public SimulationReport(Source source, LocalDate startDate, int days, int filings,
+                                Map<Case.CourtLevel, Integer> judges, int dailyCapacity, List<RunResult> runs,
+                                long elapsedMillis) {
+            this.source = source;
+            this.startDate = startDate;
+            this.days = days;
+            this.filings = filings;
+            this.judges = judges;
+            this.dailyCapacity = dailyCapacity;
+            this.runs = runs;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        // Getters
+        public Source getSource() { return source; }
+        public LocalDate getStartDate() { return startDate; }
+        public int getDays() { return days; }
+        public int getFilings() { return filings; }
+        public Map<Case.CourtLevel, Integer> getJudges() { return judges; }
+        public int getDailyCapacity() { return dailyCapacity; }
+        public List<RunResult> getRuns() { return runs; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
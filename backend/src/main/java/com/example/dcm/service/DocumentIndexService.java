@@ -0,0 +1,282 @@
+package com.example.dcm.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ObjIntConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.dcm.model.Document;
+import com.example.dcm.repository.DocumentRepository;
+
+/**
+ * In-memory full-text index over uploaded documents.
+ * Each case owns an inverted index (term -> postings) that is updated as documents
+ * are uploaded, so searches never touch the stored files.
+ */
+@Service
+public class DocumentIndexService {
+
+    private static final String UPLOAD_DIR = "uploads/";
+
+    private static final String VIEW_URL_PREFIX = "/api/documents/view/";
+    private static final int SNIPPET_RADIUS = 80;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "are", "was", "with", "that", "this", "from", "have", "has",
+            "not", "but", "its", "into", "onto", "of", "to", "in", "on", "at", "by", "or", "an", "is", "be");
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentTextExtractor textExtractor;
+
+    @Autowired
+    private CaseArchiveService caseArchiveService;
+
+    private final Map<Long, CaseIndex> caseIndexes = new ConcurrentHashMap<>();
+
+    // Build the index once at startup from the documents already on disk
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        caseIndexes.clear();
+        for (Document document : documentRepository.findAll()) {
+            indexDocument(document);
+        }
+        // Archived cases stay searchable
+        for (Document document : caseArchiveService.findArchivedDocuments()) {
+            indexDocument(document);
+        }
+    }
+
+    // Add (or replace) a document in its case index
+    public void indexDocument(Document document) {
+        Long caseId = document.getCaseEntity().getId();
+        String text;
+        try {
+            text = textExtractor.extract(resolveStoredFile(document), document.getFileType(), document.getOriginalFileName());
+        } catch (IOException e) {
+            // Unreadable files are still searchable by name and description
+            text = "";
+        }
+
+        IndexedDocument indexed = new IndexedDocument(document.getId(), caseId, document.getOriginalFileName(),
+                document.getDescription(), text);
+        caseIndexes.computeIfAbsent(caseId, id -> new CaseIndex()).add(indexed);
+    }
+
+    // Search documents of one case (or all cases when caseId is null); every query term must match
+    public List<SearchHit> search(String query, Long caseId, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        List<SearchHit> hits = new ArrayList<>();
+        if (caseId != null) {
+            CaseIndex index = caseIndexes.get(caseId);
+            if (index != null) {
+                index.search(terms, hits);
+            }
+        } else {
+            for (CaseIndex index : caseIndexes.values()) {
+                index.search(terms, hits);
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    // Number of documents currently indexed
+    public int getIndexedDocumentCount() {
+        return caseIndexes.values().stream().mapToInt(CaseIndex::size).sum();
+    }
+
+    // Documents are stored under UPLOAD_DIR and referenced by their view URL
+    private Path resolveStoredFile(Document document) {
+        String url = document.getUrl();
+        if (url == null || !url.startsWith(VIEW_URL_PREFIX)) {
+            return null;
+        }
+        return Paths.get(UPLOAD_DIR + url.substring(VIEW_URL_PREFIX.length()));
+    }
+
+    // Lowercase alphanumeric tokens, skipping stop words and single characters
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        forEachToken(text, (token, offset) -> tokens.add(token));
+        return tokens;
+    }
+
+    // Hand each token of the text to the consumer with the offset it starts at
+    static void forEachToken(String text, ObjIntConsumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase();
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    consumer.accept(token, start);
+                }
+                start = -1;
+            }
+        }
+    }
+
+    // Inverted index for the documents of a single case
+    private static class CaseIndex {
+        private final Map<Long, IndexedDocument> documents = new HashMap<>();
+        private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+
+        synchronized void add(IndexedDocument document) {
+            remove(document.documentId);
+            documents.put(document.documentId, document);
+
+            forEachToken(document.searchable, (token, offset) -> {
+                postings.computeIfAbsent(token, t -> new HashMap<>())
+                        .computeIfAbsent(document.documentId, id -> new Posting(offset))
+                        .frequency++;
+                document.terms.add(token);
+            });
+        }
+
+        // Only the removed document's own terms are visited, not the whole case vocabulary
+        synchronized void remove(Long documentId) {
+            IndexedDocument document = documents.remove(documentId);
+            if (document == null) {
+                return;
+            }
+            for (String term : document.terms) {
+                Map<Long, Posting> docs = postings.get(term);
+                docs.remove(documentId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        synchronized int size() {
+            return documents.size();
+        }
+
+        // Intersect the postings of all terms, scoring by tf-idf within the case
+        synchronized void search(List<String> terms, List<SearchHit> hits) {
+            List<Map<Long, Posting>> termPostings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Posting> docs = postings.get(term);
+                if (docs == null) {
+                    return;
+                }
+                termPostings.add(docs);
+            }
+            termPostings.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Posting> rarest = termPostings.get(0);
+            for (Map.Entry<Long, Posting> candidate : rarest.entrySet()) {
+                Long documentId = candidate.getKey();
+                double score = 0;
+                boolean matchesAll = true;
+                for (Map<Long, Posting> docs : termPostings) {
+                    Posting posting = docs.get(documentId);
+                    if (posting == null) {
+                        matchesAll = false;
+                        break;
+                    }
+                    double idf = Math.log(1.0 + (double) documents.size() / docs.size());
+                    score += (1.0 + Math.log(posting.frequency)) * idf;
+                }
+                if (matchesAll) {
+                    IndexedDocument document = documents.get(documentId);
+                    hits.add(new SearchHit(document.documentId, document.caseId, document.fileName,
+                            document.description, score, document.snippet(candidate.getValue().firstOffset)));
+                }
+            }
+        }
+    }
+
+    private static class Posting {
+        private final int firstOffset;
+        private int frequency;
+
+        Posting(int firstOffset) {
+            this.firstOffset = firstOffset;
+        }
+    }
+
+    private static class IndexedDocument {
+        private final Long documentId;
+        private final Long caseId;
+        private final String fileName;
+        private final String description;
+        private final String searchable;
+        // Distinct terms the document was indexed under
+        private final Set<String> terms = new HashSet<>();
+
+        IndexedDocument(Long documentId, Long caseId, String fileName, String description, String text) {
+            this.documentId = documentId;
+            this.caseId = caseId;
+            this.fileName = fileName;
+            this.description = description;
+            // File name and description are indexed ahead of the extracted body
+            this.searchable = nullToEmpty(fileName) + "\n" + nullToEmpty(description) + "\n" + text;
+        }
+
+        String snippet(int offset) {
+            int from = Math.max(0, offset - SNIPPET_RADIUS);
+            int to = Math.min(searchable.length(), offset + SNIPPET_RADIUS);
+            String snippet = searchable.substring(from, to).replaceAll("\\s+", " ").trim();
+            return (from > 0 ? "..." : "") + snippet + (to < searchable.length() ? "..." : "");
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+
+    // Search result returned to the API
+    public static class SearchHit {
+        private final Long documentId;
+        private final Long caseId;
+        private final String fileName;
+        private final String description;
+        private final double score;
+        private final String snippet;
+
+        public SearchHit(Long documentId, Long caseId, String fileName, String description, double score, String snippet) {
+            this.documentId = documentId;
+            this.caseId = caseId;
+            this.fileName = fileName;
+            this.description = description;
+            this.score = score;
+            this.snippet = snippet;
+        }
+
+        // Getters
+        public Long getDocumentId() { return documentId; }
+        public Long getCaseId() { return caseId; }
+        public String getFileName() { return fileName; }
+        public String getDescription() { return description; }
+        public double getScore() { return score; }
+        public String getSnippet() { return snippet; }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.dcm.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Extracts plain text from stored document files for indexing.
+ * Plain text is read as-is, HTML has its markup stripped and PDF text is
+ * pulled from the string operands of text-showing operators.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    // Upper bound on extracted characters per document to keep the index bounded
+    static final int MAX_EXTRACTED_CHARS = 200_000;
+
+    private static final Pattern HTML_SKIPPED_BLOCKS = Pattern.compile("(?is)<(script|style)[^>]*>.*?</\\1>");
+    private static final Pattern HTML_TAGS = Pattern.compile("(?s)<[^>]*>");
+    private static final Pattern PDF_STREAM = Pattern.compile("(?s)<<(.*?)>>\\s*stream\\r?\\n");
+
+    public String extract(Path file, String fileType, String fileName) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            return "";
+        }
+
+        String kind = detectKind(fileType, fileName);
+        byte[] content = Files.readAllBytes(file);
+        String text = switch (kind) {
+            case "text" -> new String(content, StandardCharsets.UTF_8);
+            case "html" -> extractHtml(new String(content, StandardCharsets.UTF_8));
+            case "pdf" -> extractPdf(content);
+            default -> "";
+        };
+
+        return text.length() > MAX_EXTRACTED_CHARS ? text.substring(0, MAX_EXTRACTED_CHARS) : text;
+    }
+
+    // Decide how to read the file from its content type, falling back to the extension
+    private String detectKind(String fileType, String fileName) {
+        String type = fileType == null ? "" : fileType.toLowerCase();
+        String name = fileName == null ? "" : fileName.toLowerCase();
+
+        if (type.contains("html") || name.endsWith(".html") || name.endsWith(".htm")) {
+            return "html";
+        }
+        if (type.contains("pdf") || name.endsWith(".pdf")) {
+            return "pdf";
+        }
+        if (type.startsWith("text/") || name.endsWith(".txt") || name.endsWith(".csv") || name.endsWith(".md")) {
+            return "text";
+        }
+        return "binary";
+    }
+
+    private String extractHtml(String html) {
+        String text = HTML_SKIPPED_BLOCKS.matcher(html).replaceAll(" ");
+        text = HTML_TAGS.matcher(text).replaceAll(" ");
+        return text.replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&amp;", "&");
+    }
+
+    // Minimal PDF text extraction: walk every content stream (inflating FlateDecode
+    // streams) and collect literal strings shown by Tj, TJ, ' and " operators
+    private String extractPdf(byte[] content) {
+        String raw = new String(content, StandardCharsets.ISO_8859_1);
+        StringBuilder text = new StringBuilder();
+        Matcher matcher = PDF_STREAM.matcher(raw);
+
+        int searchFrom = 0;
+        while (matcher.find(searchFrom)) {
+            int start = matcher.end();
+            int end = raw.indexOf("endstream", start);
+            if (end < 0) {
+                break;
+            }
+            searchFrom = end;
+
+            byte[] streamBytes = raw.substring(start, end).getBytes(StandardCharsets.ISO_8859_1);
+            String dictionary = matcher.group(1);
+            if (dictionary.contains("/FlateDecode")) {
+                streamBytes = inflate(streamBytes);
+                if (streamBytes == null) {
+                    continue;
+                }
+            } else if (dictionary.contains("/Filter")) {
+                // Other filters (images, fonts) carry no readable text
+                continue;
+            }
+
+            collectPdfStrings(new String(streamBytes, StandardCharsets.ISO_8859_1), text);
+            if (text.length() > MAX_EXTRACTED_CHARS) {
+                break;
+            }
+        }
+        return text.toString();
+    }
+
+    private byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        inflater.setInput(data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+        byte[] buffer = new byte[8192];
+        try {
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Collect the literal strings of a content stream, inserting a line break after each BT/ET block
+    private void collectPdfStrings(String stream, StringBuilder text) {
+        int i = 0;
+        int length = stream.length();
+        while (i < length) {
+            char c = stream.charAt(i);
+            if (c == '(') {
+                i = readPdfLiteral(stream, i + 1, text);
+                text.append(' ');
+            } else if (c == 'E' && stream.startsWith("ET", i)) {
+                text.append('\n');
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    // Read a PDF literal string (balanced parentheses, backslash escapes), returning the index after it
+    private int readPdfLiteral(String stream, int i, StringBuilder text) {
+        int depth = 1;
+        while (i < stream.length()) {
+            char c = stream.charAt(i++);
+            if (c == '\\' && i < stream.length()) {
+                char escaped = stream.charAt(i++);
+                switch (escaped) {
+                    case 'n' -> text.append('\n');
+                    case 'r', 't', 'b', 'f' -> text.append(' ');
+                    default -> {
+                        if (escaped >= '0' && escaped <= '7') {
+                            int value = escaped - '0';
+                            for (int digits = 1; digits < 3 && i < stream.length()
+                                    && stream.charAt(i) >= '0' && stream.charAt(i) <= '7'; digits++) {
+                                value = value * 8 + (stream.charAt(i++) - '0');
+                            }
+                            text.append((char) value);
+                        } else {
+                            text.append(escaped);
+                        }
+                    }
+                }
+            } else if (c == '(') {
+                depth++;
+                text.append(c);
+            } else if (c == ')') {
+                if (--depth == 0) {
+                    break;
+                }
+                text.append(c);
+            } else {
+                text.append(c);
+            }
+        }
+        return i;
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.dcm.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of upcoming and past hearings per judge, used to reject overlapping hearings
+ * and to find a judge's next free slot. Each judge's hearings sit in a tree ordered by start;
+ * a hearing lasts one slot, so only hearings starting less than one slot before a candidate
+ * can overlap it and a conflict check is a single bounded range lookup. Changes made inside a
+ * transaction are undone if it rolls back. Rebuilt from the cases table at startup.
+ *
+ * A hearing's end is its start plus one slot, not its case's estimatedDurationDays: that is the
+ * expected time until the case is disposed of, weeks or months, not the length of a sitting, and
+ * HearingSchedulerService books exactly one slot of a judge's daily capacity per hearing. A
+ * per-hearing length would have to be added to the case and to the scheduler's slot grid first.
+ */
+@Component
+public class HearingConflictIndex {
+
+    private static final String SELECT_ACTIVE_HEARINGS =
+            "SELECT id, assigned_judge_id, hearing_date FROM cases " +
+            "WHERE assigned_judge_id IS NOT NULL AND hearing_date IS NOT NULL " +
+            "AND superseded_by_id IS NULL AND status NOT IN ('COMPLETED', 'DISMISSED')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Length of a hearing; the scheduler's slot grid uses the same length
+    @Value("${dcm.scheduling.slot-minutes:60}")
+    private int slotMinutes;
+
+    @Value("${dcm.scheduling.daily-capacity:6}")
+    private int dailyCapacity;
+
+    @Value("${dcm.scheduling.day-start:09:00}")
+    private LocalTime dayStart;
+
+    @Value("${dcm.scheduling.horizon-days:90}")
+    private int horizonDays;
+
+    // Guarded by this. Keys are (start, caseId) so hearings sharing a start time coexist.
+    private final Map<Long, TreeMap<HearingKey, Hearing>> byJudge = new HashMap<>();
+    private final Map<Long, Hearing> byCase = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        byJudge.clear();
+        byCase.clear();
+        jdbcTemplate.query(SELECT_ACTIVE_HEARINGS, rs -> {
+            Hearing hearing = new Hearing(rs.getLong("id"), rs.getLong("assigned_judge_id"),
+                    rs.getTimestamp("hearing_date").toLocalDateTime(), slotMinutes);
+            insert(hearing);
+        });
+    }
+
+    // Hold a slot for a case, replacing its previous hearing; IllegalStateException if it overlaps another
+    public synchronized void reserve(Long caseId, Long judgeId, LocalDateTime start) {
+        Hearing conflict = findConflict(caseId, judgeId, start);
+        if (conflict != null) {
+            throw new IllegalStateException("Hearing at " + start + " overlaps the hearing of case " + conflict.caseId
+                    + " at " + conflict.start + " for the same judge");
+        }
+        apply(caseId, new Hearing(caseId, judgeId, start, slotMinutes));
+    }
+
+    // Hold a slot for a case with no hearing yet; false if it has one by now or the slot is taken
+    public synchronized boolean tryReserve(Long caseId, Long judgeId, LocalDateTime start) {
+        if (byCase.containsKey(caseId) || findConflict(caseId, judgeId, start) != null) {
+            return false;
+        }
+        apply(caseId, new Hearing(caseId, judgeId, start, slotMinutes));
+        return true;
+    }
+
+    // Record a case's hearing without checking it, or drop it when the case has no active hearing
+    public synchronized void refresh(Long caseId, Long judgeId, LocalDateTime start) {
+        apply(caseId, judgeId != null && start != null ? new Hearing(caseId, judgeId, start, slotMinutes) : null);
+    }
+
+    public synchronized void remove(Long caseId) {
+        apply(caseId, null);
+    }
+
+    // Hearings of the judge overlapping a hearing starting at the given time
+    public synchronized List<Hearing> findConflicts(Long judgeId, LocalDateTime start) {
+        List<Hearing> conflicts = new ArrayList<>();
+        TreeMap<HearingKey, Hearing> hearings = byJudge.get(judgeId);
+        if (hearings != null) {
+            LocalDateTime end = start.plusMinutes(slotMinutes);
+            for (Hearing hearing : candidates(hearings, start, end).values()) {
+                if (hearing.overlaps(start, end)) {
+                    conflicts.add(hearing);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    // Earliest slot on the hearing grid at or after the given time with no hearing for the judge
+    public synchronized LocalDateTime findNextFreeSlot(Long judgeId, LocalDateTime from) {
+        TreeMap<HearingKey, Hearing> hearings = byJudge.getOrDefault(judgeId, new TreeMap<>());
+        LocalDateTime limit = from.plusDays(horizonDays);
+        LocalDateTime slot = alignToGrid(from);
+        while (slot.isBefore(limit)) {
+            LocalDateTime end = slot.plusMinutes(slotMinutes);
+            LocalDateTime busyUntil = null;
+            for (Hearing hearing : candidates(hearings, slot, end).values()) {
+                if (hearing.overlaps(slot, end) && (busyUntil == null || hearing.end.isAfter(busyUntil))) {
+                    busyUntil = hearing.end;
+                }
+            }
+            if (busyUntil == null) {
+                return slot;
+            }
+            // Skip straight past the hearings in the way
+            slot = alignToGrid(busyUntil);
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return byCase.size();
+    }
+
+    // Hearings starting within one slot before the window up to its end; only these can overlap it
+    private NavigableMap<HearingKey, Hearing> candidates(TreeMap<HearingKey, Hearing> hearings,
+            LocalDateTime start, LocalDateTime end) {
+        return hearings.subMap(new HearingKey(start.minusMinutes(slotMinutes), Long.MAX_VALUE), false,
+                new HearingKey(end, Long.MIN_VALUE), false);
+    }
+
+    private Hearing findConflict(Long caseId, Long judgeId, LocalDateTime start) {
+        for (Hearing hearing : findConflicts(judgeId, start)) {
+            if (!hearing.caseId.equals(caseId)) {
+                return hearing;
+            }
+        }
+        return null;
+    }
+
+    // First grid slot at or after the time, on a working day within the court day
+    private LocalDateTime alignToGrid(LocalDateTime time) {
+        LocalDateTime dayOpen = time.toLocalDate().atTime(dayStart);
+        if (time.isBefore(dayOpen)) {
+            time = dayOpen;
+        }
+        long seconds = Duration.between(dayOpen, time).getSeconds();
+        long slotSeconds = slotMinutes * 60L;
+        long slot = (seconds + slotSeconds - 1) / slotSeconds;
+        if (slot >= dailyCapacity || isWeekend(time)) {
+            LocalDateTime next = time.toLocalDate().plusDays(1).atTime(dayStart);
+            while (isWeekend(next)) {
+                next = next.plusDays(1);
+            }
+            return next;
+        }
+        return dayOpen.plusMinutes(slot * slotMinutes);
+    }
+
+    private static boolean isWeekend(LocalDateTime time) {
+        DayOfWeek day = time.getDayOfWeek();
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    // Replace the case's hearing, undoing the change if the surrounding transaction rolls back
+    private void apply(Long caseId, Hearing hearing) {
+        Hearing previous = byCase.get(caseId);
+        if (previous != null) {
+            delete(previous);
+        }
+        if (hearing != null) {
+            insert(hearing);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo(caseId, hearing, previous);
+                    }
+                }
+            });
+        }
+    }
+
+    private synchronized void undo(Long caseId, Hearing applied, Hearing previous) {
+        // Only if nothing replaced the change since
+        if (!Objects.equals(byCase.get(caseId), applied)) {
+            return;
+        }
+        if (applied != null) {
+            delete(applied);
+        }
+        if (previous != null) {
+            insert(previous);
+        }
+    }
+
+    private void insert(Hearing hearing) {
+        byJudge.computeIfAbsent(hearing.judgeId, id -> new TreeMap<>()).put(hearing.key(), hearing);
+        byCase.put(hearing.caseId, hearing);
+    }
+
+    private void delete(Hearing hearing) {
+        TreeMap<HearingKey, Hearing> hearings = byJudge.get(hearing.judgeId);
+        if (hearings != null) {
+            hearings.remove(hearing.key());
+            if (hearings.isEmpty()) {
+                byJudge.remove(hearing.judgeId);
+            }
+        }
+        byCase.remove(hearing.caseId);
+    }
+
+    private record HearingKey(LocalDateTime start, long caseId) implements Comparable<HearingKey> {
+        @Override
+        public int compareTo(HearingKey other) {
+            int byStart = start.compareTo(other.start);
+            return byStart != 0 ? byStart : Long.compare(caseId, other.caseId);
+        }
+    }
+
+    // A case's hearing slot with one judge
+    public static class Hearing {
+        private final Long caseId;
+        private final Long judgeId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Hearing(Long caseId, Long judgeId, LocalDateTime start, int minutes) {
+            this.caseId = caseId;
+            this.judgeId = judgeId;
+            this.start = start;
+            this.end = start.plusMinutes(minutes);
+        }
+
+        boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+            return start.isBefore(otherEnd) && otherStart.isBefore(end);
+        }
+
+        HearingKey key() {
+            return new HearingKey(start, caseId);
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public Long getJudgeId() { return judgeId; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+    }
+}
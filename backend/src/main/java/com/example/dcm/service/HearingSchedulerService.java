@@ -0,0 +1,447 @@
+package com.example.dcm.service;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.model.CaseChangeEvent;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Allocates hearing slots to every unscheduled case in one pass. Each judge has a calendar of
+ * working days over the scheduling horizon holding one bitmask of taken slots per day, seeded
+ * with the hearings already booked. Cases are taken in priority order: a case with a judge gets
+ * that judge's earliest free slot, an unassigned case the earliest free slot among the judges of
+ * its court level, found through a queue ordered by each judge's first day with room.
+ * Allocations are held in the hearing conflict index and written with batched JDBC updates.
+ */
+@Service
+public class HearingSchedulerService {
+
+    // Same selection and effective priority order as getUnscheduledCases(), read as plain columns;
+    // the parameters are the old and regular age bonus cutoffs and the rules' maximum priority
+    private static final String SELECT_UNSCHEDULED =
+            "SELECT id, case_number, court_level, assigned_judge_id, priority, estimated_duration_days FROM cases " +
+            "WHERE status = 'UNDER_REVIEW' AND hearing_date IS NULL AND superseded_by_id IS NULL " +
+            "ORDER BY LEAST(priority + CASE WHEN filing_date <= ? THEN 2 WHEN filing_date <= ? THEN 1 ELSE 0 END, ?) " +
+            "DESC, filing_date ASC, id ASC";
+
+    private static final String SELECT_BOOKED =
+            "SELECT assigned_judge_id, hearing_date FROM cases " +
+            "WHERE assigned_judge_id IS NOT NULL AND hearing_date >= ? AND hearing_date < ? " +
+            "AND superseded_by_id IS NULL AND status NOT IN ('COMPLETED', 'DISMISSED')";
+
+    // Only cases nobody scheduled in the meantime are updated
+    private static final String UPDATE_SCHEDULED =
+            "UPDATE cases SET hearing_date = ?, assigned_judge_id = ?, status = 'SCHEDULED', updated_at = ? " +
+            "WHERE id = ? AND status = 'UNDER_REVIEW' AND hearing_date IS NULL";
+
+    private static final int MAX_REPORTED_UNSCHEDULED = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private CaseEventOutbox eventOutbox;
+
+    @Autowired
+    private HearingConflictIndex hearingIndex;
+
+    @Autowired
+    private JudgeWorkloadIndex workloadIndex;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Hearings a judge can hear per day; at most 64, one bit per slot
+    @Value("${dcm.scheduling.daily-capacity:6}")
+    private int dailyCapacity;
+
+    @Value("${dcm.scheduling.slot-minutes:60}")
+    private int slotMinutes;
+
+    @Value("${dcm.scheduling.day-start:09:00}")
+    private LocalTime dayStart;
+
+    // Calendar days ahead of the start date that hearings may be placed in
+    @Value("${dcm.scheduling.horizon-days:90}")
+    private int horizonDays;
+
+    // Cases written per transaction
+    @Value("${dcm.scheduling.batch-size:1000}")
+    private int batchSize;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private TransactionTemplate writeTransaction;
+
+    @PostConstruct
+    void init() {
+        if (dailyCapacity < 1 || dailyCapacity > 64) {
+            throw new IllegalStateException("dcm.scheduling.daily-capacity must be between 1 and 64");
+        }
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Schedule all unscheduled cases, placing hearings on working days from startDate onwards
+    public ScheduleResult scheduleUnscheduledCases(LocalDate startDate) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Hearing scheduling is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            List<LocalDate> days = workingDays(startDate);
+            Map<LocalDate, Integer> dayIndex = new HashMap<>();
+            for (int i = 0; i < days.size(); i++) {
+                dayIndex.put(days.get(i), i);
+            }
+
+            Map<Long, JudgeCalendar> calendars = loadCalendars(days.size());
+            seedBookedHearings(calendars, dayIndex, startDate, startDate.plusDays(horizonDays));
+
+            Map<Case.CourtLevel, PriorityQueue<QueueEntry>> queues = new EnumMap<>(Case.CourtLevel.class);
+            for (JudgeCalendar calendar : calendars.values()) {
+                if (calendar.firstFreeDay < days.size()) {
+                    queues.computeIfAbsent(calendar.courtLevel, level -> new PriorityQueue<>(QueueEntry.ORDER))
+                            .add(new QueueEntry(calendar));
+                }
+            }
+
+            List<Allocation> allocations = new ArrayList<>();
+            List<Long> unscheduled = new ArrayList<>();
+            int[] candidates = new int[1];
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.query(SELECT_UNSCHEDULED, rs -> {
+                candidates[0]++;
+                long caseId = rs.getLong("id");
+                long judgeId = rs.getLong("assigned_judge_id");
+                PriorityQueue<QueueEntry> queue = null;
+                JudgeCalendar calendar;
+                if (rs.wasNull()) {
+                    queue = queues.get(courtLevel(rs.getString("court_level")));
+                    calendar = nextAvailable(queue, days.size());
+                } else {
+                    calendar = calendars.get(judgeId);
+                }
+
+                int day = calendar != null ? calendar.firstFreeDay : days.size();
+                if (day >= days.size()) {
+                    unscheduled.add(caseId);
+                    return;
+                }
+                int slot = calendar.take(day, days.size());
+                if (queue != null && calendar.firstFreeDay < days.size()) {
+                    queue.add(new QueueEntry(calendar));
+                }
+                LocalDateTime hearingDate = days.get(day).atTime(dayStart).plusMinutes((long) slot * slotMinutes);
+                long weight = workloadIndex.weightOf((Integer) rs.getObject("priority"),
+                        (Integer) rs.getObject("estimated_duration_days"));
+                allocations.add(new Allocation(caseId, rs.getString("case_number"), calendar, hearingDate, weight));
+            }, Timestamp.valueOf(Case.oldAgeBonusCutoff(now)), Timestamp.valueOf(Case.ageBonusCutoff(now)),
+                    priorityEngine.getRules().getMaxPriority());
+
+            int[] written = persist(allocations);
+
+            Map<String, Integer> hearingsByJudge = new HashMap<>();
+            for (Allocation allocation : allocations) {
+                hearingsByJudge.merge(allocation.judge.username, 1, Integer::sum);
+            }
+            return new ScheduleResult(startDate, days.isEmpty() ? startDate : days.get(days.size() - 1),
+                    candidates[0], written[0], unscheduled.size(), written[1], calendars.size(), hearingsByJudge,
+                    unscheduled.subList(0, Math.min(unscheduled.size(), MAX_REPORTED_UNSCHEDULED)),
+                    System.currentTimeMillis() - started);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // Cause list: a judge's hearings on one day in hearing order
+    public List<Case> getCauseList(Long judgeId, LocalDate date) {
+        return caseRepository.findCauseList(judgeId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    private List<LocalDate> workingDays(LocalDate startDate) {
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = startDate; day.isBefore(startDate.plusDays(horizonDays)); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private Map<Long, JudgeCalendar> loadCalendars(int dayCount) {
+        Map<Long, JudgeCalendar> calendars = new HashMap<>();
+        for (User judge : userRepository.findByRole(User.Role.JUDGE)) {
+            calendars.put(judge.getId(), new JudgeCalendar(judge.getId(), judge.getUsername(),
+                    courtLevel(judge.getCourtLevel()), dayCount, dailyCapacity));
+        }
+        return calendars;
+    }
+
+    // Mark the slots that hearings already booked overlap; one outside the court day still uses up
+    // a slot of its day's capacity
+    private void seedBookedHearings(Map<Long, JudgeCalendar> calendars, Map<LocalDate, Integer> dayIndex,
+            LocalDate from, LocalDate to) {
+        jdbcTemplate.query(SELECT_BOOKED, rs -> {
+            JudgeCalendar calendar = calendars.get(rs.getLong("assigned_judge_id"));
+            LocalDateTime hearingDate = rs.getTimestamp("hearing_date").toLocalDateTime();
+            Integer day = dayIndex.get(hearingDate.toLocalDate());
+            if (calendar == null || day == null) {
+                return;
+            }
+            long minutes = ChronoUnit.MINUTES.between(dayStart, hearingDate.toLocalTime());
+            calendar.book(day, Math.floorDiv(minutes, slotMinutes), Math.floorDiv(minutes + slotMinutes - 1, slotMinutes),
+                    dayIndex.size());
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+    }
+
+    // Take the judge of a court level with the earliest free day, least booked on that day, off
+    // its queue; the caller queues it again after allocating
+    private static JudgeCalendar nextAvailable(PriorityQueue<QueueEntry> queue, int dayCount) {
+        if (queue == null) {
+            return null;
+        }
+        QueueEntry head;
+        while ((head = queue.poll()) != null) {
+            JudgeCalendar calendar = head.calendar;
+            if (calendar.firstFreeDay >= dayCount) {
+                continue;
+            }
+            if (head.isCurrent()) {
+                return calendar;
+            }
+            // Allocations for cases already assigned to this judge moved it on since it was queued
+            queue.add(new QueueEntry(calendar));
+        }
+        return null;
+    }
+
+    private int[] persist(List<Allocation> allocations) {
+        int scheduled = 0;
+        int conflicts = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < allocations.size(); from += batchSize) {
+            List<Allocation> chunk = allocations.subList(from, Math.min(from + batchSize, allocations.size()));
+            int[] counts = writeTransaction.execute(status -> {
+                // Hold each slot in the hearing index first; one taken since the calendars were built is skipped
+                List<Allocation> batch = new ArrayList<>(chunk.size());
+                for (Allocation allocation : chunk) {
+                    if (hearingIndex.tryReserve(allocation.caseId, allocation.judge.judgeId, allocation.hearingDate)) {
+                        batch.add(allocation);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    return new int[] { 0, chunk.size() };
+                }
+
+                int[] updated = jdbcTemplate.batchUpdate(UPDATE_SCHEDULED, batch, batch.size(), (ps, allocation) -> {
+                    ps.setTimestamp(1, Timestamp.valueOf(allocation.hearingDate));
+                    ps.setLong(2, allocation.judge.judgeId);
+                    ps.setTimestamp(3, Timestamp.valueOf(now));
+                    ps.setLong(4, allocation.caseId);
+                })[0];
+
+                List<AuditEntry> audits = new ArrayList<>();
+                List<CaseChangeEvent> events = new ArrayList<>();
+                int written = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    Allocation allocation = batch.get(i);
+                    if (updated[i] == 0) {
+                        hearingIndex.remove(allocation.caseId);
+                        continue;
+                    }
+                    written++;
+                    workloadIndex.track(allocation.caseId, allocation.judge.judgeId, allocation.weight, false);
+                    AuditEntry audit = new AuditEntry(allocation.caseId, allocation.caseNumber,
+                            CaseAudit.ActionType.HEARING_SCHEDULED, "Hearing scheduled for " + allocation.hearingDate);
+                    audit.setPreviousStatus(Case.Status.UNDER_REVIEW);
+                    audit.setNewStatus(Case.Status.SCHEDULED);
+                    audit.setDetails("Allocated by scheduler to " + allocation.judge.username);
+                    audits.add(audit);
+                    events.add(CaseChangeEvent.statusChanged(allocation.caseId, Case.Status.UNDER_REVIEW,
+                            Case.Status.SCHEDULED));
+                }
+                auditService.recordAll(audits);
+                eventOutbox.recordAll(events);
+                return new int[] { written, chunk.size() - written };
+            });
+            scheduled += counts[0];
+            conflicts += counts[1];
+        }
+        return new int[] { scheduled, conflicts };
+    }
+
+    private static Case.CourtLevel courtLevel(String name) {
+        return name != null ? Case.CourtLevel.valueOf(name) : Case.CourtLevel.DISTRICT;
+    }
+
+    private static Case.CourtLevel courtLevel(User.CourtLevel level) {
+        return level != null ? Case.CourtLevel.valueOf(level.name()) : Case.CourtLevel.DISTRICT;
+    }
+
+    // A judge's slots over the horizon: one bitmask of taken slots per working day
+    private static final class JudgeCalendar {
+        private final long judgeId;
+        private final String username;
+        private final Case.CourtLevel courtLevel;
+        private final long[] taken;
+        private final long fullDay;
+        // Every day before this one is full; only ever moves forward
+        private int firstFreeDay;
+
+        JudgeCalendar(long judgeId, String username, Case.CourtLevel courtLevel, int dayCount, int capacity) {
+            this.judgeId = judgeId;
+            this.username = username;
+            this.courtLevel = courtLevel;
+            this.taken = new long[dayCount];
+            this.fullDay = capacity == 64 ? -1L : (1L << capacity) - 1;
+        }
+
+        void book(int day, long firstSlot, long lastSlot, int dayCount) {
+            long overlapped = 0;
+            for (long slot = Math.max(firstSlot, 0); slot <= Math.min(lastSlot, 63); slot++) {
+                overlapped |= 1L << slot;
+            }
+            overlapped &= fullDay;
+            if (overlapped != 0) {
+                taken[day] |= overlapped;
+            } else {
+                taken[day] |= Long.lowestOneBit(~taken[day] & fullDay);
+            }
+            advance(dayCount);
+        }
+
+        // Take the lowest free slot of a day that has one
+        int take(int day, int dayCount) {
+            long slotBit = Long.lowestOneBit(~taken[day] & fullDay);
+            taken[day] |= slotBit;
+            advance(dayCount);
+            return Long.numberOfTrailingZeros(slotBit);
+        }
+
+        int bookedOn(int day) {
+            return Long.bitCount(taken[day]);
+        }
+
+        private void advance(int dayCount) {
+            while (firstFreeDay < dayCount && taken[firstFreeDay] == fullDay) {
+                firstFreeDay++;
+            }
+        }
+    }
+
+    // Queue key snapshot; stale once the judge's calendar changes while it is queued
+    private static final class QueueEntry {
+        static final Comparator<QueueEntry> ORDER = Comparator.<QueueEntry>comparingInt(entry -> entry.day)
+                .thenComparingInt(entry -> entry.booked)
+                .thenComparingLong(entry -> entry.calendar.judgeId);
+
+        private final JudgeCalendar calendar;
+        private final int day;
+        private final int booked;
+
+        // Only queued while the judge has a free day
+        QueueEntry(JudgeCalendar calendar) {
+            this.calendar = calendar;
+            this.day = calendar.firstFreeDay;
+            this.booked = calendar.bookedOn(day);
+        }
+
+        boolean isCurrent() {
+            return day == calendar.firstFreeDay && booked == calendar.bookedOn(day);
+        }
+    }
+
+    private static final class Allocation {
+        private final long caseId;
+        private final String caseNumber;
+        private final JudgeCalendar judge;
+        private final LocalDateTime hearingDate;
+        private final long weight;
+
+        Allocation(long caseId, String caseNumber, JudgeCalendar judge, LocalDateTime hearingDate, long weight) {
+            this.caseId = caseId;
+            this.caseNumber = caseNumber;
+            this.judge = judge;
+            this.hearingDate = hearingDate;
+            this.weight = weight;
+        }
+    }
+
+    // Inner class for the outcome of a scheduling run
+    public static class ScheduleResult {
+        private final LocalDate fromDate;
+        private final LocalDate toDate;
+        private final int candidates;
+        private final int scheduled;
+        private final int unscheduled;
+        private final int conflicts;
+        private final int judges;
+        private final Map<String, Integer> hearingsByJudge;
+        private final List<Long> unscheduledCaseIds;
+        private final long elapsedMillis;
+
+        public ScheduleResult(LocalDate fromDate, LocalDate toDate, int candidates, int scheduled, int unscheduled,
+                int conflicts, int judges, Map<String, Integer> hearingsByJudge, List<Long> unscheduledCaseIds,
+                long elapsedMillis) {
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.candidates = candidates;
+            this.scheduled = scheduled;
+            this.unscheduled = unscheduled;
+            this.conflicts = conflicts;
+            this.judges = judges;
+            this.hearingsByJudge = hearingsByJudge;
+            this.unscheduledCaseIds = unscheduledCaseIds;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        // Getters
+        public LocalDate getFromDate() { return fromDate; }
+        public LocalDate getToDate() { return toDate; }
+        public int getCandidates() { return candidates; }
+        public int getScheduled() { return scheduled; }
+        public int getUnscheduled() { return unscheduled; }
+        public int getConflicts() { return conflicts; }
+        public int getJudges() { return judges; }
+        public Map<String, Integer> getHearingsByJudge() { return hearingsByJudge; }
+        public List<Long> getUnscheduledCaseIds() { return unscheduledCaseIds; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.dcm.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.UserRepository;
+
+/**
+ * Open caseload of every judge, weighted by priority times estimated duration, used to assign
+ * cases to the least loaded judge of their court level and to rebalance a court level. Judges of
+ * each level sit in a tree ordered by load, so the least and most loaded judge are found and a
+ * changed load is re-placed in O(log j). A case counts while it is open; changes made inside a
+ * transaction are undone if it rolls back. Rebuilt from the cases table at startup.
+ */
+@Component
+public class JudgeWorkloadIndex {
+
+    private static final String SELECT_OPEN_ASSIGNMENTS =
+            "SELECT id, assigned_judge_id, priority, estimated_duration_days, hearing_date FROM cases " +
+            "WHERE assigned_judge_id IS NOT NULL AND superseded_by_id IS NULL " +
+            "AND status NOT IN ('COMPLETED', 'DISMISSED')";
+
+    private static final Comparator<JudgeLoad> BY_LOAD =
+            Comparator.comparingLong((JudgeLoad judge) -> judge.load).thenComparingLong(judge -> judge.judgeId);
+
+    private static final Comparator<CaseWeight> BY_WEIGHT =
+            Comparator.comparingLong((CaseWeight c) -> c.weight).thenComparingLong(c -> c.caseId);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Duration assumed for cases filed without an estimate
+    @Value("${dcm.assignment.default-duration-days:30}")
+    private int defaultDurationDays;
+
+    // Guarded by this. Only judges currently holding the JUDGE role are in a court level's pool;
+    // a former judge keeps its entry until its cases are reassigned or closed.
+    private final Map<Case.CourtLevel, TreeSet<JudgeLoad>> pools = new EnumMap<>(Case.CourtLevel.class);
+    private final Map<Long, JudgeLoad> byJudge = new HashMap<>();
+    private final Map<Long, Assignment> byCase = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        pools.clear();
+        byJudge.clear();
+        byCase.clear();
+        for (User judge : userRepository.findByRole(User.Role.JUDGE)) {
+            refreshJudge(judge);
+        }
+        jdbcTemplate.query(SELECT_OPEN_ASSIGNMENTS, rs -> {
+            Integer priority = (Integer) rs.getObject("priority");
+            Integer durationDays = (Integer) rs.getObject("estimated_duration_days");
+            insert(new Assignment(rs.getLong("id"), rs.getLong("assigned_judge_id"),
+                    weightOf(priority, durationDays), rs.getTimestamp("hearing_date") == null));
+        });
+    }
+
+    // Weight of an open case in its judge's load
+    public long weightOf(Integer priority, Integer durationDays) {
+        int days = durationDays != null ? durationDays : defaultDurationDays;
+        return (long) Math.max(1, priority != null ? priority : 5) * Math.max(1, days);
+    }
+
+    // Add a judge to its court level's pool, move it after a level change, or drop it once it is no longer a judge
+    public synchronized void refreshJudge(User user) {
+        JudgeLoad judge = byJudge.get(user.getId());
+        if (judge != null && judge.courtLevel != null) {
+            pools.get(judge.courtLevel).remove(judge);
+            judge.courtLevel = null;
+        }
+        if (user.getRole() != User.Role.JUDGE) {
+            return;
+        }
+        if (judge == null) {
+            judge = new JudgeLoad(user.getId());
+            byJudge.put(judge.judgeId, judge);
+        }
+        judge.username = user.getUsername();
+        judge.courtLevel = courtLevel(user.getCourtLevel());
+        pools.computeIfAbsent(judge.courtLevel, level -> new TreeSet<>(BY_LOAD)).add(judge);
+    }
+
+    public synchronized void removeJudge(Long judgeId) {
+        JudgeLoad judge = byJudge.get(judgeId);
+        if (judge != null && judge.courtLevel != null) {
+            pools.get(judge.courtLevel).remove(judge);
+            judge.courtLevel = null;
+        }
+    }
+
+    // Least loaded judge of a court level, or null when the level has no judges
+    public synchronized Long findLeastLoadedJudge(Case.CourtLevel courtLevel) {
+        TreeSet<JudgeLoad> pool = pools.get(courtLevel);
+        return pool == null || pool.isEmpty() ? null : pool.first().judgeId;
+    }
+
+    // Count an open case against its judge; movable cases have no hearing yet and may be rebalanced
+    public synchronized void track(Long caseId, Long judgeId, long weight, boolean movable) {
+        apply(List.of(new Assignment(caseId, judgeId, weight, movable)), List.of(caseId));
+    }
+
+    // Bring the tracked assignments of loaded cases in step with them
+    public synchronized void refresh(Collection<Case> cases) {
+        List<Assignment> assignments = new ArrayList<>();
+        List<Long> caseIds = new ArrayList<>(cases.size());
+        for (Case caseEntity : cases) {
+            caseIds.add(caseEntity.getId());
+            if (isOpenAssignment(caseEntity)) {
+                assignments.add(new Assignment(caseEntity.getId(), caseEntity.getAssignedJudge().getId(),
+                        weightOf(caseEntity.getPriority(), caseEntity.getEstimatedDurationDays()),
+                        caseEntity.getHearingDate() == null));
+            }
+        }
+        apply(assignments, caseIds);
+    }
+
+    // Re-weigh tracked cases whose priorities were rewritten in bulk; call once the writes commit
+    public synchronized void reweigh(long[] caseIds, int[] priorities, Integer[] durationDays, int count) {
+        for (int i = 0; i < count; i++) {
+            Assignment current = byCase.get(caseIds[i]);
+            long weight = weightOf(priorities[i], durationDays[i]);
+            if (current != null && current.weight != weight) {
+                replace(current.caseId, new Assignment(current.caseId, current.judgeId, weight, current.movable));
+            }
+        }
+    }
+
+    public synchronized void untrack(Long caseId) {
+        if (byCase.containsKey(caseId)) {
+            apply(List.of(), List.of(caseId));
+        }
+    }
+
+    // Move cases without a hearing from the most to the least loaded judges of a court level until no
+    // move narrows the gap between them. Each move takes the case whose weight is closest to half the
+    // gap, so both judges end up nearer the middle. The moves are applied here; the caller persists them.
+    public synchronized List<Move> planRebalance(Case.CourtLevel courtLevel, int maxMoves) {
+        List<Move> moves = new ArrayList<>();
+        TreeSet<JudgeLoad> pool = pools.get(courtLevel);
+        if (pool == null || pool.size() < 2) {
+            return moves;
+        }
+        List<Long> caseIds = new ArrayList<>();
+        List<Assignment> moved = new ArrayList<>();
+        List<Assignment> previous = new ArrayList<>();
+        while (moves.size() < maxMoves) {
+            JudgeLoad most = pool.last();
+            JudgeLoad least = pool.first();
+            long gap = most.load - least.load;
+            CaseWeight below = most.movable.floor(new CaseWeight(Long.MAX_VALUE, gap / 2));
+            CaseWeight above = most.movable.ceiling(new CaseWeight(Long.MIN_VALUE, gap / 2));
+            // Distances are compared doubled, so an odd gap's half needs no rounding; ties take the lighter case
+            CaseWeight pick = below == null ? above
+                    : above == null || Math.abs(2 * below.weight - gap) <= Math.abs(2 * above.weight - gap) ? below
+                    : above;
+            // A case weighing as much as the gap would only swap the two judges round
+            if (pick == null || pick.weight >= gap) {
+                break;
+            }
+            Assignment next = new Assignment(pick.caseId, least.judgeId, pick.weight, true);
+            moves.add(new Move(pick.caseId, most.judgeId, least.judgeId, pick.weight));
+            caseIds.add(pick.caseId);
+            previous.add(byCase.get(pick.caseId));
+            replace(pick.caseId, next);
+            moved.add(next);
+        }
+        registerUndo(caseIds, moved, previous);
+        return moves;
+    }
+
+    public synchronized List<JudgeWorkload> getWorkloads(Case.CourtLevel courtLevel) {
+        List<JudgeWorkload> workloads = new ArrayList<>();
+        for (Map.Entry<Case.CourtLevel, TreeSet<JudgeLoad>> pool : pools.entrySet()) {
+            if (courtLevel == null || pool.getKey() == courtLevel) {
+                for (JudgeLoad judge : pool.getValue()) {
+                    workloads.add(new JudgeWorkload(judge.judgeId, judge.username, judge.courtLevel,
+                            judge.load, judge.openCases, judge.movable.size()));
+                }
+            }
+        }
+        return workloads;
+    }
+
+    // Replace the tracked assignments of the given cases, undoing the changes if the surrounding
+    // transaction rolls back
+    private void apply(List<Assignment> assignments, List<Long> caseIds) {
+        List<Assignment> previous = new ArrayList<>(caseIds.size());
+        Map<Long, Assignment> next = new HashMap<>();
+        assignments.forEach(assignment -> next.put(assignment.caseId, assignment));
+        List<Assignment> applied = new ArrayList<>(caseIds.size());
+        for (Long caseId : caseIds) {
+            previous.add(byCase.get(caseId));
+            Assignment assignment = next.get(caseId);
+            replace(caseId, assignment);
+            applied.add(assignment);
+        }
+        registerUndo(caseIds, applied, previous);
+    }
+
+    private void registerUndo(List<Long> caseIds, List<Assignment> applied, List<Assignment> previous) {
+        if (caseIds.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    undo(caseIds, applied, previous);
+                }
+            }
+        });
+    }
+
+    private synchronized void undo(List<Long> caseIds, List<Assignment> applied, List<Assignment> previous) {
+        // Latest change first, and only where nothing replaced the change since
+        for (int i = caseIds.size() - 1; i >= 0; i--) {
+            Long caseId = caseIds.get(i);
+            if (byCase.get(caseId) == applied.get(i)) {
+                replace(caseId, previous.get(i));
+            }
+        }
+    }
+
+    private void replace(Long caseId, Assignment assignment) {
+        Assignment current = byCase.get(caseId);
+        if (current != null) {
+            delete(current);
+        }
+        if (assignment != null) {
+            insert(assignment);
+        }
+    }
+
+    private void insert(Assignment assignment) {
+        JudgeLoad judge = byJudge.computeIfAbsent(assignment.judgeId, JudgeLoad::new);
+        reload(judge, assignment.weight, 1);
+        if (assignment.movable) {
+            judge.movable.add(new CaseWeight(assignment.caseId, assignment.weight));
+        }
+        byCase.put(assignment.caseId, assignment);
+    }
+
+    private void delete(Assignment assignment) {
+        JudgeLoad judge = byJudge.get(assignment.judgeId);
+        reload(judge, -assignment.weight, -1);
+        if (assignment.movable) {
+            judge.movable.remove(new CaseWeight(assignment.caseId, assignment.weight));
+        }
+        byCase.remove(assignment.caseId);
+    }
+
+    // Change a judge's load, re-placing it in its pool
+    private void reload(JudgeLoad judge, long weight, int cases) {
+        TreeSet<JudgeLoad> pool = judge.courtLevel != null ? pools.get(judge.courtLevel) : null;
+        if (pool != null) {
+            pool.remove(judge);
+        }
+        judge.load += weight;
+        judge.openCases += cases;
+        if (pool != null) {
+            pool.add(judge);
+        }
+    }
+
+    // Same selection as SELECT_OPEN_ASSIGNMENTS
+    private static boolean isOpenAssignment(Case caseEntity) {
+        return caseEntity.getAssignedJudge() != null && caseEntity.getSupersededById() == null
+                && caseEntity.getStatus() != Case.Status.COMPLETED
+                && caseEntity.getStatus() != Case.Status.DISMISSED;
+    }
+
+    private static Case.CourtLevel courtLevel(User.CourtLevel level) {
+        return level != null ? Case.CourtLevel.valueOf(level.name()) : Case.CourtLevel.DISTRICT;
+    }
+
+    private static final class JudgeLoad {
+        private final long judgeId;
+        private String username;
+        private Case.CourtLevel courtLevel;
+        private long load;
+        private int openCases;
+        private final TreeSet<CaseWeight> movable = new TreeSet<>(BY_WEIGHT);
+
+        JudgeLoad(long judgeId) {
+            this.judgeId = judgeId;
+        }
+    }
+
+    private record CaseWeight(long caseId, long weight) {
+    }
+
+    private static final class Assignment {
+        private final Long caseId;
+        private final Long judgeId;
+        private final long weight;
+        private final boolean movable;
+
+        Assignment(Long caseId, Long judgeId, long weight, boolean movable) {
+            this.caseId = caseId;
+            this.judgeId = judgeId;
+            this.weight = weight;
+            this.movable = movable;
+        }
+    }
+
+    // A case moved from one judge to another by a rebalance
+    public static class Move {
+        private final Long caseId;
+        private final Long fromJudgeId;
+        private final Long toJudgeId;
+        private final long weight;
+
+        Move(Long caseId, Long fromJudgeId, Long toJudgeId, long weight) {
+            this.caseId = caseId;
+            this.fromJudgeId = fromJudgeId;
+            this.toJudgeId = toJudgeId;
+            this.weight = weight;
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public Long getFromJudgeId() { return fromJudgeId; }
+        public Long getToJudgeId() { return toJudgeId; }
+        public long getWeight() { return weight; }
+    }
+
+    // Inner class for one judge's current load
+    public static class JudgeWorkload {
+        private final Long judgeId;
+        private final String username;
+        private final Case.CourtLevel courtLevel;
+        private final long load;
+        private final int openCases;
+        private final int casesWithoutHearing;
+
+        JudgeWorkload(Long judgeId, String username, Case.CourtLevel courtLevel, long load, int openCases,
+                int casesWithoutHearing) {
+            this.judgeId = judgeId;
+            this.username = username;
+            this.courtLevel = courtLevel;
+            this.load = load;
+            this.openCases = openCases;
+            this.casesWithoutHearing = casesWithoutHearing;
+        }
+
+        // Getters
+        public Long getJudgeId() { return judgeId; }
+        public String getUsername() { return username; }
+        public Case.CourtLevel getCourtLevel() { return courtLevel; }
+        public long getLoad() { return load; }
+        public int getOpenCases() { return openCases; }
+        public int getCasesWithoutHearing() { return casesWithoutHearing; }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.dcm.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Aho-Corasick matcher for the resource flag keywords. Built once per compiled rule set; the
+ * failure links are folded into a dense transition table over the characters the keywords use, so
+ * classifying a requirement is one pass over its characters with a table lookup each, whatever
+ * the number of keywords. Characters are case-folded one at a time as they are read, the same way
+ * String.regionMatches(true, ...) compares them, so no lower-cased copy of the text is made.
+ */
+final class KeywordAutomaton {
+
+    private static final int ASCII = 128;
+
+    // Character class of each ASCII character and of the non-ASCII keyword characters; class 0 is
+    // any character no keyword uses
+    private final int[] asciiClass = new int[ASCII];
+    private final char[] otherChars;
+    private final int[] otherClass;
+    private final int classes;
+    // transitions[state * classes + class] is the next state; outputs[state] the flags ending there
+    private final int[] transitions;
+    private final int[] outputs;
+    private final int allFlags;
+
+    KeywordAutomaton(List<String> keywords, int[] keywordFlags) {
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                alphabet.add(fold(keyword.charAt(i)));
+            }
+        }
+        List<Character> others = new ArrayList<>();
+        int next = 1;
+        for (char c : alphabet) {
+            if (c < ASCII) {
+                asciiClass[c] = next++;
+            } else {
+                others.add(c);
+            }
+        }
+        this.otherChars = new char[others.size()];
+        this.otherClass = new int[others.size()];
+        for (int i = 0; i < others.size(); i++) {
+            otherChars[i] = others.get(i);
+            otherClass[i] = next++;
+        }
+        // Keep fold() consistent for ASCII characters that fold onto a keyword character
+        for (int c = 0; c < ASCII; c++) {
+            char folded = fold((char) c);
+            if (folded < ASCII) {
+                asciiClass[c] = asciiClass[folded];
+            } else {
+                int at = Arrays.binarySearch(otherChars, folded);
+                asciiClass[c] = at >= 0 ? otherClass[at] : 0;
+            }
+        }
+        this.classes = next;
+
+        // Trie of the keywords
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> trieOutputs = new ArrayList<>();
+        trie.add(newRow(classes));
+        trieOutputs.add(0);
+        int all = 0;
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int cls = classOf(keyword.charAt(i));
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow(classes));
+                    trieOutputs.add(0);
+                }
+                state = trie.get(state)[cls];
+            }
+            trieOutputs.set(state, trieOutputs.get(state) | keywordFlags[k]);
+            all |= keywordFlags[k];
+        }
+        this.allFlags = all;
+
+        // Breadth-first over the trie, filling missing transitions from the failure state
+        int states = trie.size();
+        this.transitions = new int[states * classes];
+        this.outputs = new int[states];
+        int[] failure = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < classes; cls++) {
+            int child = trie.get(0)[cls];
+            if (child < 0 || cls == 0) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = child;
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        outputs[0] = trieOutputs.get(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = trieOutputs.get(state) | outputs[failure[state]];
+            for (int cls = 0; cls < classes; cls++) {
+                int child = trie.get(state)[cls];
+                if (child < 0 || cls == 0) {
+                    transitions[state * classes + cls] = transitions[failure[state] * classes + cls];
+                } else {
+                    transitions[state * classes + cls] = child;
+                    failure[child] = transitions[failure[state] * classes + cls];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    // Union of the flags of every keyword found in the text
+    int match(CharSequence text) {
+        if (text == null || allFlags == 0) {
+            return 0;
+        }
+        int flags = 0;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * classes + classOf(text.charAt(i))];
+            flags |= outputs[state];
+            if (flags == allFlags) {
+                break;
+            }
+        }
+        return flags;
+    }
+
+    private int classOf(char c) {
+        if (c < ASCII) {
+            return asciiClass[c];
+        }
+        char folded = fold(c);
+        if (folded < ASCII) {
+            return asciiClass[folded];
+        }
+        int at = Arrays.binarySearch(otherChars, folded);
+        return at >= 0 ? otherClass[at] : 0;
+    }
+
+    // The case folding String.regionMatches(true, ...) uses
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static int[] newRow(int classes) {
+        int[] row = new int[classes];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
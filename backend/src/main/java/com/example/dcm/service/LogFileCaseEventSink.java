@@ -0,0 +1,91 @@
+package com.example.dcm.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.dcm.model.CaseChangeEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Appends case change events to a log file, one JSON object per line, forced to disk before the
+ * relay checkpoints the batch. After a crash the last batch may be appended twice; readers skip
+ * lines whose id they have already seen.
+ */
+@Component
+public class LogFileCaseEventSink implements CaseEventSink {
+
+    public static final String NAME = "log";
+
+    @Value("${dcm.outbox.log-file:case-events.log}")
+    private String logFile;
+
+    // Own mapper so the log format does not follow web serialization settings
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private FileChannel channel;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void publish(List<CaseChangeEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder(events.size() * 160);
+        for (CaseChangeEvent event : events) {
+            lines.append(mapper.writeValueAsString(event)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            FileChannel out = open();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            // Reopened on the retry, in case the file was rotated away or its disk remounted
+            close();
+            throw e;
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        if (channel == null) {
+            Path path = Paths.get(logFile);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing is left to write
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.dcm.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.dcm.model.CaseAudit;
+import com.example.dcm.repository.CaseRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for the free-text Case.notes column. Edits are held per case and
+ * only the latest text is written, once the case has been quiet for the window or the
+ * oldest buffered edit reaches the maximum delay. Each case is written in its own transaction,
+ * so one failing case does not hold back the others. Readers overlay buffered text, and the
+ * buffer is drained on shutdown.
+ */
+@Component
+public class NoteWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteWriteBehindBuffer.class);
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditService auditService;
+
+    // Quiet period after the last edit before a case is written; 0 writes every edit through
+    @Value("${dcm.notes.write-behind.window-ms:2000}")
+    private long windowMs;
+
+    // Upper bound on how long an edit can stay unwritten while edits keep arriving
+    @Value("${dcm.notes.write-behind.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    private final Map<Long, PendingNotes> pending = new ConcurrentHashMap<>();
+    private TransactionTemplate writeTransaction;
+
+    private final AtomicLong edits = new AtomicLong();
+    private final AtomicLong casesWritten = new AtomicLong();
+    private final AtomicLong casesDropped = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        // Independent of any request transaction, whose persistence context may hold the case
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    void drain() {
+        flushAll();
+    }
+
+    // Buffer the latest notes text for a case
+    public void put(Long caseId, String caseNumber, String notes) {
+        long now = System.currentTimeMillis();
+        String username = currentUsername();
+        String ipAddress = currentIpAddress();
+        // Cleared notes are buffered as empty text, so null always means nothing is pending
+        String text = notes != null ? notes : "";
+        edits.incrementAndGet();
+        pending.compute(caseId, (id, previous) -> previous == null
+                ? new PendingNotes(caseNumber, text, now, now, 1, username, ipAddress)
+                : new PendingNotes(caseNumber, text, previous.firstEditMillis, now, previous.editCount + 1,
+                        username, ipAddress));
+
+        if (windowMs <= 0) {
+            flush(caseId);
+        }
+    }
+
+    // Buffered notes text for a case, or null if nothing is pending
+    public String getPending(Long caseId) {
+        PendingNotes notes = pending.get(caseId);
+        return notes != null ? notes.notes : null;
+    }
+
+    // Write one case now, e.g. before rendering its report
+    public void flush(Long caseId) {
+        if (pending.containsKey(caseId)) {
+            write(List.of(caseId));
+        }
+    }
+
+    public void flushAll() {
+        if (!pending.isEmpty()) {
+            write(new ArrayList<>(pending.keySet()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dcm.notes.write-behind.check-interval-ms:500}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        List<Long> due = new ArrayList<>();
+        for (Map.Entry<Long, PendingNotes> entry : pending.entrySet()) {
+            PendingNotes notes = entry.getValue();
+            if (now - notes.lastEditMillis >= windowMs || now - notes.firstEditMillis >= maxDelayMs) {
+                due.add(entry.getKey());
+            }
+        }
+        if (!due.isEmpty()) {
+            try {
+                write(due);
+            } catch (RuntimeException e) {
+                // Failed entries stay buffered and are retried on the next check
+                log.error(e.getMessage(), e.getCause());
+            }
+        }
+    }
+
+    public WriteBehindStats getStats() {
+        return new WriteBehindStats(pending.size(), edits.get(), casesWritten.get(), casesDropped.get(),
+                transactions.get());
+    }
+
+    // Writers are serialized and take each case's current text, so an older snapshot can never
+    // overwrite a newer one that another flush already wrote. Each case is written in its own
+    // transaction: a case that fails stays buffered for the next check without holding back the
+    // others, and the first failure is rethrown once the rest are written.
+    private synchronized void write(List<Long> caseIds) {
+        RuntimeException failure = null;
+        int failed = 0;
+        for (Long caseId : caseIds) {
+            PendingNotes notes = pending.get(caseId);
+            if (notes == null) {
+                continue;
+            }
+            try {
+                writeCase(caseId, notes);
+            } catch (RuntimeException e) {
+                failed++;
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Failed to write buffered notes of " + failed
+                    + (failed == 1 ? " case" : " cases"), failure);
+        }
+    }
+
+    private void writeCase(Long caseId, PendingNotes written) {
+        int updated = writeTransaction.execute(status ->
+                caseRepository.updateNotes(caseId, written.notes, LocalDateTime.now()));
+        transactions.incrementAndGet();
+
+        // Only drop the entry if no newer edit replaced it while it was being written
+        if (!pending.remove(caseId, written)) {
+            return;
+        }
+        if (updated == 0) {
+            // Deleted, or archived after the archive run flushed the buffer; nothing to retry
+            casesDropped.incrementAndGet();
+            log.warn("Dropped buffered notes of case {} ({} {}): the case is no longer in the cases table",
+                    written.caseNumber, written.editCount, written.editCount == 1 ? "edit" : "edits");
+            return;
+        }
+        casesWritten.incrementAndGet();
+        AuditEntry audit = new AuditEntry(caseId, written.caseNumber, CaseAudit.ActionType.NOTE_UPDATED,
+                "Case notes updated");
+        audit.setDetails(written.notes.length() + " characters, "
+                + written.editCount + (written.editCount == 1 ? " edit" : " edits"));
+        audit.setPerformedBy(written.username);
+        audit.setIpAddress(written.ipAddress);
+        auditService.record(audit);
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static String currentIpAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getRequest().getRemoteAddr()
+                : null;
+    }
+
+    // Compared by identity, so a newer edit never matches the entry being written
+    private static final class PendingNotes {
+        private final String caseNumber;
+        private final String notes;
+        private final long firstEditMillis;
+        private final long lastEditMillis;
+        private final int editCount;
+        private final String username;
+        private final String ipAddress;
+
+        PendingNotes(String caseNumber, String notes, long firstEditMillis, long lastEditMillis, int editCount,
+                String username, String ipAddress) {
+            this.caseNumber = caseNumber;
+            this.notes = notes;
+            this.firstEditMillis = firstEditMillis;
+            this.lastEditMillis = lastEditMillis;
+            this.editCount = editCount;
+            this.username = username;
+            this.ipAddress = ipAddress;
+        }
+    }
+
+    // Inner class for buffer statistics
+    public static class WriteBehindStats {
+        private final int pendingCases;
+        private final long edits;
+        private final long casesWritten;
+        private final long casesDropped;
+        private final long transactions;
+
+        public WriteBehindStats(int pendingCases, long edits, long casesWritten, long casesDropped, long transactions) {
+            this.pendingCases = pendingCases;
+            this.edits = edits;
+            this.casesWritten = casesWritten;
+            this.casesDropped = casesDropped;
+            this.transactions = transactions;
+        }
+
+        // Getters
+        public int getPendingCases() { return pendingCases; }
+        public long getEdits() { return edits; }
+        public long getCasesWritten() { return casesWritten; }
+        public long getCasesDropped() { return casesDropped; }
+        public long getTransactions() { return transactions; }
+    }
+}
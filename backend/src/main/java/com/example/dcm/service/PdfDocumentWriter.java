@@ -0,0 +1,327 @@
+package com.example.dcm.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal streaming PDF 1.4 writer for text reports.
+ * Objects are written as soon as a page is complete and their byte offsets are
+ * recorded for the cross-reference table, so only the current page is held in
+ * memory. Page content streams are Deflate-compressed and text uses the
+ * standard Helvetica fonts with WinAnsi encoding.
+ */
+public class PdfDocumentWriter implements Closeable {
+
+    private static final int PAGE_WIDTH = 612;
+    private static final int PAGE_HEIGHT = 792;
+    private static final int MARGIN = 72;
+    private static final int FOOTER_Y = 40;
+    private static final float BODY_SIZE = 11f;
+    private static final float HEADING_SIZE = 16f;
+    private static final float LEADING_FACTOR = 1.35f;
+
+    // Fixed object numbers; page and content objects are allocated after these
+    private static final int CATALOG_OBJ = 1;
+    private static final int PAGES_OBJ = 2;
+    private static final int FONT_REGULAR_OBJ = 3;
+    private static final int FONT_BOLD_OBJ = 4;
+
+    // Helvetica advance widths (1/1000 em) for ASCII 32..126
+    private static final short[] HELVETICA_WIDTHS = {
+        278, 278, 355, 556, 556, 889, 667, 191, 333, 333, 389, 584, 278, 333, 278, 278,
+        556, 556, 556, 556, 556, 556, 556, 556, 556, 556, 278, 278, 584, 584, 584, 556,
+        1015, 667, 667, 722, 722, 667, 611, 778, 722, 278, 500, 667, 556, 833, 722, 778,
+        667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611, 278, 278, 278, 469, 556,
+        333, 556, 556, 500, 556, 556, 278, 556, 556, 222, 222, 500, 222, 833, 556, 556,
+        556, 556, 333, 500, 278, 556, 500, 722, 500, 500, 500, 334, 260, 334, 584
+    };
+
+    private final CountingOutputStream out;
+    private final List<Long> objectOffsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+
+    private ByteArrayOutputStream pageContent;
+    private float cursorY;
+    private boolean finished;
+
+    public PdfDocumentWriter(OutputStream out) throws IOException {
+        this.out = new CountingOutputStream(out);
+        // Reserve the fixed objects so their numbers are stable
+        for (int i = 0; i < FONT_BOLD_OBJ; i++) {
+            objectOffsets.add(0L);
+        }
+        writeAscii("%PDF-1.4\n");
+        // Binary comment marks the file as binary for transfer tools
+        this.out.write(new byte[] {'%', (byte) 0xE2, (byte) 0xE3, (byte) 0xCF, (byte) 0xD3, '\n'});
+
+        beginObject(FONT_REGULAR_OBJ);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(FONT_BOLD_OBJ);
+        writeAscii("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    // Large bold line, e.g. a report title
+    public void heading(String text) throws IOException {
+        writeWrapped(text, "F2", HEADING_SIZE);
+        spacer();
+    }
+
+    // "Label: value" line, wrapped like body text
+    public void field(String label, Object value) throws IOException {
+        writeWrapped(label + ": " + value, "F1", BODY_SIZE);
+    }
+
+    // Bold section title
+    public void section(String title) throws IOException {
+        spacer();
+        writeWrapped(title, "F2", BODY_SIZE + 1);
+    }
+
+    // Wrapped body text; embedded line breaks start new lines
+    public void paragraph(String text) throws IOException {
+        for (String line : text.split("\\r?\\n", -1)) {
+            writeWrapped(line, "F1", BODY_SIZE);
+        }
+    }
+
+    public void spacer() throws IOException {
+        ensurePage();
+        cursorY -= BODY_SIZE * LEADING_FACTOR / 2;
+    }
+
+    // Start the next block of content on a fresh page
+    public void pageBreak() throws IOException {
+        if (pageContent != null) {
+            finishPage();
+        }
+    }
+
+    public int getPageCount() {
+        return pageObjects.size() + (pageContent != null ? 1 : 0);
+    }
+
+    // Write the page tree, catalog, cross-reference table and trailer
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (pageContent != null || pageObjects.isEmpty()) {
+            ensurePage();
+            finishPage();
+        }
+
+        beginObject(PAGES_OBJ);
+        StringBuilder kids = new StringBuilder();
+        for (int pageObject : pageObjects) {
+            kids.append(pageObject).append(" 0 R ");
+        }
+        writeAscii("<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>\nendobj\n");
+
+        beginObject(CATALOG_OBJ);
+        writeAscii("<< /Type /Catalog /Pages " + PAGES_OBJ + " 0 R >>\nendobj\n");
+
+        long xrefOffset = out.getCount();
+        int size = objectOffsets.size() + 1;
+        StringBuilder xref = new StringBuilder();
+        xref.append("xref\n0 ").append(size).append('\n');
+        xref.append("0000000000 65535 f \n");
+        for (long offset : objectOffsets) {
+            xref.append(String.format("%010d 00000 n \n", offset));
+        }
+        writeAscii(xref.toString());
+        writeAscii("trailer\n<< /Size " + size + " /Root " + CATALOG_OBJ + " 0 R >>\nstartxref\n" + xrefOffset + "\n%%EOF\n");
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void writeWrapped(String text, String font, float size) throws IOException {
+        float maxWidth = PAGE_WIDTH - 2f * MARGIN;
+        String remaining = text == null ? "" : text;
+        do {
+            int breakAt = fitLength(remaining, size, maxWidth);
+            writeLine(remaining.substring(0, breakAt).stripTrailing(), font, size);
+            remaining = remaining.substring(breakAt).stripLeading();
+        } while (!remaining.isEmpty());
+    }
+
+    // Longest prefix that fits the line width, preferring to break after a space
+    private int fitLength(String text, float size, float maxWidth) {
+        float width = 0;
+        int lastSpace = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            width += charWidth(c) * size / 1000f;
+            if (width > maxWidth) {
+                if (lastSpace > 0) {
+                    return lastSpace + 1;
+                }
+                return Math.max(i, 1);
+            }
+            if (c == ' ') {
+                lastSpace = i;
+            }
+        }
+        return text.length();
+    }
+
+    private void writeLine(String line, String font, float size) throws IOException {
+        float leading = size * LEADING_FACTOR;
+        ensurePage();
+        if (cursorY - leading < MARGIN) {
+            finishPage();
+            ensurePage();
+        }
+        cursorY -= leading;
+
+        writeContent("BT /" + font + " " + number(size) + " Tf " + MARGIN + " " + number(cursorY) + " Td (");
+        pageContent.write(encodeLiteral(line));
+        writeContent(") Tj ET\n");
+    }
+
+    private void ensurePage() {
+        if (pageContent == null) {
+            pageContent = new ByteArrayOutputStream(4096);
+            cursorY = PAGE_HEIGHT - MARGIN;
+        }
+    }
+
+    // Compress the buffered page content and emit its content stream and page objects
+    private void finishPage() throws IOException {
+        int pageNumber = pageObjects.size() + 1;
+        writeContent("BT /F1 9 Tf " + (PAGE_WIDTH / 2 - 15) + " " + FOOTER_Y + " Td (Page " + pageNumber + ") Tj ET\n");
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(pageContent.size() / 2 + 64);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater)) {
+            pageContent.writeTo(deflate);
+        } finally {
+            deflater.end();
+        }
+        pageContent = null;
+
+        int contentObject = allocateObject();
+        beginObject(contentObject);
+        writeAscii("<< /Length " + compressed.size() + " /Filter /FlateDecode >>\nstream\n");
+        compressed.writeTo(out);
+        writeAscii("\nendstream\nendobj\n");
+
+        int pageObject = allocateObject();
+        beginObject(pageObject);
+        writeAscii("<< /Type /Page /Parent " + PAGES_OBJ + " 0 R /MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "]"
+                + " /Resources << /Font << /F1 " + FONT_REGULAR_OBJ + " 0 R /F2 " + FONT_BOLD_OBJ + " 0 R >> >>"
+                + " /Contents " + contentObject + " 0 R >>\nendobj\n");
+        pageObjects.add(pageObject);
+    }
+
+    private int allocateObject() {
+        objectOffsets.add(0L);
+        return objectOffsets.size();
+    }
+
+    private void beginObject(int objectNumber) throws IOException {
+        objectOffsets.set(objectNumber - 1, out.getCount());
+        writeAscii(objectNumber + " 0 obj\n");
+    }
+
+    private void writeAscii(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private void writeContent(String operators) throws IOException {
+        pageContent.write(operators.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // Encode text as WinAnsi bytes for a literal string, escaping delimiters
+    private static byte[] encodeLiteral(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            int code = toWinAnsi(text.charAt(i));
+            if (code == '(' || code == ')' || code == '\\') {
+                bytes.write('\\');
+            }
+            bytes.write(code);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int toWinAnsi(char c) {
+        if (c >= 32 && c <= 126) {
+            return c;
+        }
+        if (c >= 0xA0 && c <= 0xFF) {
+            return c; // Latin-1 supplement matches WinAnsi
+        }
+        return switch (c) {
+            case '\t' -> ' ';
+            case '€' -> 0x80;
+            case '‚' -> 0x82;
+            case '„' -> 0x84;
+            case '…' -> 0x85;
+            case '‘' -> 0x91;
+            case '’' -> 0x92;
+            case '“' -> 0x93;
+            case '”' -> 0x94;
+            case '•' -> 0x95;
+            case '–' -> 0x96;
+            case '—' -> 0x97;
+            case '™' -> 0x99;
+            default -> '?';
+        };
+    }
+
+    // PDF numbers with at most two decimals
+    private static String number(float value) {
+        float rounded = Math.round(value * 100f) / 100f;
+        return rounded == (int) rounded ? Integer.toString((int) rounded) : Float.toString(rounded);
+    }
+
+    private static int charWidth(char c) {
+        if (c >= 32 && c <= 126) {
+            return HELVETICA_WIDTHS[c - 32];
+        }
+        return 556;
+    }
+
+    // Tracks the number of bytes written so object offsets are exact
+    private static class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
@@ -1,124 +1,222 @@
 package com.example.dcm.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.example.dcm.model.Case;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Case priority scoring. The rules are a declarative PriorityRuleSet read from priority-rules.json
+ * on the classpath or from dcm.priority.rules-file, compiled into lookup tables at startup. An
+ * external rules file is watched and recompiled when it changes; a file that does not parse or
+ * validate is rejected and the current rules stay in force.
+ */
 @Service
 public class PriorityEngine {
 
-    // Priority calculation based on case characteristics
-    // Higher score = higher priority (1-10 scale)
+    private static final Logger log = LoggerFactory.getLogger(PriorityEngine.class);
 
-    public int calculatePriority(Case caseEntity) {
-        int basePriority = 5; // Default medium priority
-
-        // Case type weights
-        switch (caseEntity.getCaseType()) {
-            case CONSTITUTIONAL:
-                basePriority += 3; // Highest priority
-                break;
-            case CRIMINAL:
-                basePriority += 2;
-                break;
-            case FAMILY:
-                basePriority += 1;
-                break;
-            case CIVIL:
-                basePriority += 0;
-                break;
-            case ADMINISTRATIVE:
-                basePriority -= 1; // Lower priority
-                break;
-        }
+    private static final String CLASSPATH_RULES = "priority-rules.json";
+
+    // External rules file; empty uses the bundled priority-rules.json
+    @Value("${dcm.priority.rules-file:}")
+    private String rulesFile;
 
-        // Court level multiplier - higher courts get priority boost
-        if (caseEntity.getCourtLevel() != null) {
-            switch (caseEntity.getCourtLevel()) {
-                case SUPREME:
-                    basePriority += 3; // Supreme Court cases get significant boost
-                    break;
-                case HIGH:
-                    basePriority += 2; // High Court cases get moderate boost
-                    break;
-                case DISTRICT:
-                    basePriority += 0; // District Court is baseline
-                    break;
+    // Own mapper so the rules format does not follow web serialization settings
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Object reloadLock = new Object();
+    private volatile CompiledPriorityRules rules;
+    private volatile String rulesSource;
+    private volatile LocalDateTime rulesLoadedAt;
+    private long rulesFileModified;
+    private long nextRevision = 1;
+
+    @PostConstruct
+    void loadRules() throws IOException {
+        reload();
+    }
+
+    // Recompile the rules from their source; invalid rules leave the current ones in place
+    public CompiledPriorityRules reload() throws IOException {
+        synchronized (reloadLock) {
+            PriorityRuleSet ruleSet;
+            String source;
+            long modified = 0;
+            if (rulesFile == null || rulesFile.isBlank()) {
+                try (InputStream in = new ClassPathResource(CLASSPATH_RULES).getInputStream()) {
+                    ruleSet = readRuleSet(in);
+                }
+                source = "classpath:" + CLASSPATH_RULES;
+            } else {
+                Path path = Paths.get(rulesFile);
+                modified = Files.getLastModifiedTime(path).toMillis();
+                try (InputStream in = Files.newInputStream(path)) {
+                    ruleSet = readRuleSet(in);
+                }
+                source = path.toAbsolutePath().toString();
             }
+            CompiledPriorityRules compiled = new CompiledPriorityRules(ruleSet, nextRevision);
+            nextRevision++;
+            rulesFileModified = modified;
+            rulesSource = source;
+            rulesLoadedAt = LocalDateTime.now();
+            rules = compiled;
+            log.info("Loaded priority rules revision {} from {}", compiled.getRevision(), source);
+            return compiled;
         }
+    }
 
-        // Resource requirements
-        if (caseEntity.getResourceRequirement() != null) {
-            String req = caseEntity.getResourceRequirement().toLowerCase();
-            if (req.contains("urgent") || req.contains("emergency")) {
-                basePriority += 2;
+    // Pick up edits to an external rules file
+    @Scheduled(fixedDelayString = "${dcm.priority.rules-check-interval-ms:10000}")
+    public void checkRulesFile() {
+        if (rulesFile == null || rulesFile.isBlank()) {
+            return;
+        }
+        try {
+            long modified = Files.getLastModifiedTime(Paths.get(rulesFile)).toMillis();
+            synchronized (reloadLock) {
+                if (modified == rulesFileModified) {
+                    return;
+                }
             }
-            if (req.contains("special expertise") || req.contains("complex")) {
-                basePriority += 1;
+            reload();
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Keeping priority rules revision {}; {} could not be loaded", rules.getRevision(), rulesFile, e);
+            synchronized (reloadLock) {
+                try {
+                    rulesFileModified = Files.getLastModifiedTime(Paths.get(rulesFile)).toMillis();
+                } catch (IOException ignored) {
+                    // Retried on the next check
+                }
             }
         }
+    }
 
-        // Estimated duration impact
-        if (caseEntity.getEstimatedDurationDays() != null) {
-            if (caseEntity.getEstimatedDurationDays() <= 7) {
-                basePriority += 1; // Quick resolution cases get slight boost
-            } else if (caseEntity.getEstimatedDurationDays() > 90) {
-                basePriority -= 1; // Long cases might be deprioritized
-            }
-        }
+    public CompiledPriorityRules getRules() { return rules; }
+    public String getRulesSource() { return rulesSource; }
+    public LocalDateTime getRulesLoadedAt() { return rulesLoadedAt; }
 
-        // Escalation boost - cases that have been escalated get priority boost
-        if (caseEntity.getEscalationDate() != null) {
-            basePriority += 1; // Escalated cases get a boost
+    // Compile the live rules with overrides merged in; omitted values keep their live settings
+    public CompiledPriorityRules compileOverrides(JsonNode overrides) throws IOException {
+        CompiledPriorityRules live = rules;
+        if (overrides == null || overrides.isNull() || overrides.isEmpty()) {
+            return live;
         }
+        PriorityRuleSet copy = mapper.convertValue(live.getRuleSet(), PriorityRuleSet.class);
+        PriorityRuleSet merged = mapper.readerForUpdating(copy).readValue(overrides);
+        return new CompiledPriorityRules(merged, 0);
+    }
 
-        // Ensure priority stays within 1-10 range
-        return Math.max(1, Math.min(10, basePriority));
+    // Priority calculation based on case characteristics
+    // Higher score = higher priority (1-10 scale by default)
+
+    public int calculatePriority(Case caseEntity) {
+        return calculatePriority(caseEntity, rules);
     }
 
-    // Dynamic priority adjustment based on case age and status
-    public int adjustPriorityForAge(Case caseEntity) {
-        int currentPriority = caseEntity.getPriority();
+    // Same calculation under other rules, used by docket simulations
+    public int calculatePriority(Case caseEntity, CompiledPriorityRules rules) {
+        return rules.score(caseEntity, resourceFlags(caseEntity, rules));
+    }
 
-        // If case is old and still under review, increase priority
-        if (caseEntity.getStatus() == Case.Status.UNDER_REVIEW ||
-            caseEntity.getStatus() == Case.Status.FILED) {
+    // Rule score with the case's manual or escalation adjustment applied; what recalculation stores
+    public int adjustedPriority(Case caseEntity) {
+        CompiledPriorityRules current = rules;
+        return current.adjust(calculatePriority(caseEntity, current), caseEntity.getPriorityAdjustment());
+    }
 
-            long daysSinceFiling = java.time.Duration.between(
-                caseEntity.getFilingDate(),
-                java.time.LocalDateTime.now()
-            ).toDays();
+    // Resource flags of a case, parsed from its requirement only when the cached flags were
+    // extracted under different keywords
+    public int resourceFlags(Case caseEntity, CompiledPriorityRules rules) {
+        Integer cached = caseEntity.getResourceFlags();
+        Long version = caseEntity.getResourceFlagsVersion();
+        if (cached != null && version != null && version == rules.getKeywordVersion()) {
+            return cached;
+        }
+        int flags = rules.resourceFlags(caseEntity.getResourceRequirement());
+        caseEntity.cacheResourceFlags(flags, rules.getKeywordVersion());
+        return flags;
+    }
 
-            if (daysSinceFiling > 30) {
-                currentPriority = Math.min(10, currentPriority + 1);
-            } else if (daysSinceFiling > 90) {
-                currentPriority = Math.min(10, currentPriority + 2);
-            }
+    private PriorityRuleSet readRuleSet(InputStream in) throws IOException {
+        try {
+            return mapper.readValue(in, PriorityRuleSet.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid priority rules: " + e.getOriginalMessage(), e);
         }
+    }
 
-        return currentPriority;
+    // Priority including the age bonus as of now. Only the base score is ever stored; the bonus
+    // is computed when cases are read, so stored priorities do not drift with time.
+    public int effectivePriority(Case caseEntity) {
+        return effectivePriority(caseEntity, LocalDateTime.now());
     }
 
-    // Recalculate priorities for all cases when a new case is added
-    // This ensures relative priorities remain accurate
-    public void recalculateAllPriorities(List<Case> allCases) {
-        for (Case caseEntity : allCases) {
-            // Skip completed cases as they don't need priority recalculation
-            if (caseEntity.getStatus() != Case.Status.COMPLETED) {
-                int newPriority = calculatePriority(caseEntity);
-                // Apply age-based adjustment for older cases
-                newPriority = adjustPriorityForAge(caseEntity);
-                caseEntity.setPriority(newPriority);
-            }
+    // Same as of a given time
+    public int effectivePriority(Case caseEntity, LocalDateTime asOf) {
+        return effectivePriority(caseEntity, rules, asOf);
+    }
+
+    // Same capped by other rules; simulations run under their own rules and clock
+    public int effectivePriority(Case caseEntity, CompiledPriorityRules rules, LocalDateTime asOf) {
+        return Case.effectivePriority(caseEntity.getPriority(), caseEntity.getStatus(), caseEntity.getFilingDate(), asOf,
+                rules.getMaxPriority());
+    }
+
+    // Score of a case with the rule by rule account behind it, in one pass over the scoring inputs.
+    // The account is shared between cases with the same inputs, so explaining a cause list costs
+    // one flag lookup per case beyond reading it.
+    public PriorityExplanation explain(Case caseEntity) {
+        return explain(caseEntity, rules, LocalDateTime.now());
+    }
+
+    // Same for a batch of cases, such as a day's cause list, under one set of rules and one clock
+    public List<PriorityExplanation> explainAll(List<Case> cases) {
+        CompiledPriorityRules current = rules;
+        LocalDateTime now = LocalDateTime.now();
+        List<PriorityExplanation> explanations = new ArrayList<>(cases.size());
+        for (Case caseEntity : cases) {
+            explanations.add(explain(caseEntity, current, now));
         }
+        return explanations;
+    }
+
+    private PriorityExplanation explain(Case caseEntity, CompiledPriorityRules rules, LocalDateTime asOf) {
+        CompiledPriorityRules.Breakdown breakdown = rules.breakdown(caseEntity, resourceFlags(caseEntity, rules));
+        int ageBonus = caseEntity.getStatus() != null && caseEntity.getStatus().gainsAgeBonus()
+                ? Case.ageBonus(caseEntity.getFilingDate(), asOf) : 0;
+        int adjustment = caseEntity.getPriorityAdjustment();
+        return new PriorityExplanation(caseEntity.getId(), caseEntity.getCaseNumber(), caseEntity.getPriority(),
+                breakdown, adjustment, rules.adjust(breakdown.getScore(), adjustment), ageBonus,
+                effectivePriority(caseEntity, rules, asOf));
     }
 
     // Compare cases for scheduling order
     public int compareCases(Case case1, Case case2) {
-        // Higher priority first
-        int priorityCompare = Integer.compare(case2.getPriority(), case1.getPriority());
+        // Higher effective priority first
+        CompiledPriorityRules current = rules;
+        LocalDateTime now = LocalDateTime.now();
+        int priorityCompare = Integer.compare(effectivePriority(case2, current, now),
+                effectivePriority(case1, current, now));
         if (priorityCompare != 0) {
             return priorityCompare;
         }
@@ -126,4 +224,50 @@ public class PriorityEngine {
         // Then by filing date (older first for same priority)
         return case1.getFilingDate().compareTo(case2.getFilingDate());
     }
+
+    // Inner class for the explanation of a case's priority
+    public static class PriorityExplanation {
+        private final Long caseId;
+        private final String caseNumber;
+        private final Integer storedPriority;
+        private final int calculatedPriority;
+        private final int priorityAdjustment;
+        private final int adjustedPriority;
+        private final long rulesRevision;
+        private final List<CompiledPriorityRules.Contribution> contributions;
+        private final int ageBonus;
+        private final int effectivePriority;
+
+        public PriorityExplanation(Long caseId, String caseNumber, Integer storedPriority,
+                                   CompiledPriorityRules.Breakdown breakdown, int priorityAdjustment,
+                                   int adjustedPriority, int ageBonus, int effectivePriority) {
+            this.caseId = caseId;
+            this.caseNumber = caseNumber;
+            this.storedPriority = storedPriority;
+            this.calculatedPriority = breakdown.getScore();
+            this.priorityAdjustment = priorityAdjustment;
+            this.adjustedPriority = adjustedPriority;
+            this.rulesRevision = breakdown.getRulesRevision();
+            this.contributions = breakdown.getContributions();
+            this.ageBonus = ageBonus;
+            this.effectivePriority = effectivePriority;
+        }
+
+        // Getters
+        public Long getCaseId() { return caseId; }
+        public String getCaseNumber() { return caseNumber; }
+        public Integer getStoredPriority() { return storedPriority; }
+        public int getCalculatedPriority() { return calculatedPriority; }
+        public int getPriorityAdjustment() { return priorityAdjustment; }
+        public int getAdjustedPriority() { return adjustedPriority; }
+        public long getRulesRevision() { return rulesRevision; }
+        public List<CompiledPriorityRules.Contribution> getContributions() { return contributions; }
+        public int getAgeBonus() { return ageBonus; }
+        public int getEffectivePriority() { return effectivePriority; }
+
+        // False after a rules change not yet recalculated
+        public boolean isStoredPriorityCurrent() {
+            return storedPriority != null && storedPriority == adjustedPriority;
+        }
+    }
 }
@@ -0,0 +1,507 @@
+package com.example.dcm.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Recomputes the stored base priority of every open case in the background, for use after the
+ * priority rules change; the age bonus is applied on read and never needs rewriting. Cases are
+ * read in id order as plain rows, a chunk at a time, into reused column arrays; each chunk is
+ * scored on a fork-join pool, keeping each case's manual or escalation adjustment, and only the
+ * priorities that changed are written back, as batched UPDATEs in one transaction per chunk.
+ * Resource flags are taken from each case's cache and parsed only where the cache is stale, in
+ * which case the fresh flags are written back too.
+ * Progress and per-chunk timings are kept in memory for the last few runs.
+ */
+@Service
+public class PriorityRecalculationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriorityRecalculationService.class);
+
+    // Every case not closed or replaced; the requirement text is only read where the cached flags
+    // were extracted under other keywords
+    private static final String SELECT_CHUNK =
+            "SELECT id, case_type, court_level, estimated_duration_days, escalation_date, " +
+            "priority, COALESCE(priority_adjustment, 0) AS priority_adjustment, resource_flags, resource_flags_version, " +
+            "CASE WHEN resource_flags_version = ? AND resource_flags IS NOT NULL THEN NULL ELSE resource_requirement END " +
+            "AS stale_requirement FROM cases " +
+            "WHERE id > ? AND superseded_by_id IS NULL AND status <> 'COMPLETED' ORDER BY id LIMIT ?";
+
+    private static final String COUNT_CASES =
+            "SELECT COUNT(*) FROM cases WHERE superseded_by_id IS NULL AND status <> 'COMPLETED'";
+
+    // Only rows nobody re-prioritized or overrode since they were read are updated
+    private static final String UPDATE_PRIORITY =
+            "UPDATE cases SET priority = ?, updated_at = ? " +
+            "WHERE id = ? AND priority = ? AND COALESCE(priority_adjustment, 0) = ?";
+
+    // Same, for rows whose flags were parsed again; also skipped if the requirement changed since
+    private static final String UPDATE_PRIORITY_AND_FLAGS =
+            "UPDATE cases SET priority = ?, updated_at = CASE WHEN priority = ? THEN updated_at ELSE ? END, " +
+            "resource_flags = ?, resource_flags_version = ? " +
+            "WHERE id = ? AND priority = ? AND COALESCE(priority_adjustment, 0) = ? " +
+            "AND resource_requirement IS NOT DISTINCT FROM ?";
+
+    private static final int FORK_THRESHOLD = 1024;
+    private static final int KEPT_RUNS = 10;
+    private static final int KEPT_CHUNK_TIMINGS = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Autowired
+    private JudgeWorkloadIndex workloadIndex;
+
+    @Autowired
+    private CaseClaimQueue claimQueue;
+
+    @Autowired
+    private CaseEventOutbox eventOutbox;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Cases read, scored and written per step
+    @Value("${dcm.priority.recalc.chunk-size:5000}")
+    private int chunkSize;
+
+    // Fork-join pool size; 0 = one thread per processor
+    @Value("${dcm.priority.recalc.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool scoringPool;
+    private ExecutorService runner;
+    private TransactionTemplate chunkTransaction;
+    private final AtomicReference<Run> running = new AtomicReference<>();
+    private final AtomicLong nextRunId = new AtomicLong(1);
+    // Guarded by itself; newest run first
+    private final Deque<Run> recentRuns = new ArrayDeque<>();
+
+    @PostConstruct
+    void init() {
+        if (chunkSize < 1) {
+            throw new IllegalStateException("dcm.priority.recalc.chunk-size must be positive");
+        }
+        scoringPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        runner = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "priority-recalc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        runner.shutdownNow();
+        scoringPool.shutdownNow();
+    }
+
+    // Start a run in the background and return its initial progress
+    public RecalculationView start(String username) {
+        Run run = new Run(nextRunId.getAndIncrement(), username, priorityEngine.getRules());
+        if (!running.compareAndSet(null, run)) {
+            throw new IllegalStateException("Priority recalculation " + running.get().id + " is already running");
+        }
+        synchronized (recentRuns) {
+            recentRuns.addFirst(run);
+            while (recentRuns.size() > KEPT_RUNS) {
+                recentRuns.removeLast();
+            }
+        }
+        try {
+            runner.execute(() -> execute(run));
+        } catch (RuntimeException e) {
+            running.set(null);
+            throw e;
+        }
+        return new RecalculationView(run);
+    }
+
+    public RecalculationView getRun(Long runId) {
+        synchronized (recentRuns) {
+            return recentRuns.stream()
+                    .filter(run -> run.id == runId)
+                    .findFirst()
+                    .map(RecalculationView::new)
+                    .orElseThrow(() -> new IllegalArgumentException("Priority recalculation not found with id: " + runId));
+        }
+    }
+
+    public List<RecalculationView> getRecentRuns() {
+        synchronized (recentRuns) {
+            return recentRuns.stream().map(RecalculationView::new).toList();
+        }
+    }
+
+    private void execute(Run run) {
+        try {
+            Long total = jdbcTemplate.queryForObject(COUNT_CASES, Long.class);
+            run.totalCases = total != null ? total : 0;
+            ChunkRows rows = new ChunkRows(chunkSize);
+            long lastId = 0;
+            while (true) {
+                long readStarted = System.nanoTime();
+                rows.read(jdbcTemplate, run.rules.getKeywordVersion(), lastId, chunkSize);
+                if (rows.count == 0) {
+                    break;
+                }
+                long scoreStarted = System.nanoTime();
+                scoringPool.invoke(new ScoreTask(rows, run.rules, 0, rows.count));
+                long writeStarted = System.nanoTime();
+                int changed = chunkTransaction.execute(status -> {
+                    int written = rows.write(jdbcTemplate, run.asOf);
+                    eventOutbox.recordPriorityChanges(rows.changedIds, rows.changedPreviousPriorities,
+                            rows.changedPriorities, written, run.asOf);
+                    return written;
+                });
+                long writeFinished = System.nanoTime();
+
+                // The writes are committed; bring the in-memory orderings in line with them
+                workloadIndex.reweigh(rows.changedIds, rows.changedPriorities, rows.changedDurations, changed);
+                claimQueue.reprioritize(rows.changedIds, rows.changedPriorities, changed);
+
+                run.record(new ChunkTiming(run.chunks + 1, rows.ids[0], rows.ids[rows.count - 1], rows.count, changed,
+                        rows.reparsed, (scoreStarted - readStarted) / 1_000_000,
+                        (writeStarted - scoreStarted) / 1_000_000, (writeFinished - writeStarted) / 1_000_000));
+                lastId = rows.ids[rows.count - 1];
+                if (rows.count < chunkSize) {
+                    break;
+                }
+            }
+            run.finish(Status.COMPLETED, null);
+            log.info("Priority recalculation {} scored {} cases, {} changed, in {} ms",
+                    run.id, run.scannedCases, run.changedCases, run.elapsedMillis());
+        } catch (RuntimeException e) {
+            log.error("Priority recalculation {} failed", run.id, e);
+            run.finish(Status.FAILED, e.getMessage());
+        } finally {
+            running.set(null);
+        }
+    }
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    // One chunk's scoring inputs and results as columns, reused from chunk to chunk
+    private static final class ChunkRows {
+        private final long[] ids;
+        private final Case.CaseType[] caseTypes;
+        private final Case.CourtLevel[] courtLevels;
+        private final Integer[] durations;
+        private final boolean[] escalated;
+        private final int[] priorities;
+        // Manual override or escalation bump, reapplied on top of the new score
+        private final int[] adjustments;
+        private final int[] flags;
+        // Requirement text of rows whose cached flags are stale, null otherwise
+        private final String[] staleRequirements;
+        private final boolean[] stale;
+        private final int[] newPriorities;
+        private final long[] changedIds;
+        private final int[] changedPreviousPriorities;
+        private final int[] changedPriorities;
+        private final Integer[] changedDurations;
+        private int count;
+        private int reparsed;
+        private long keywordVersion;
+
+        ChunkRows(int capacity) {
+            ids = new long[capacity];
+            caseTypes = new Case.CaseType[capacity];
+            courtLevels = new Case.CourtLevel[capacity];
+            durations = new Integer[capacity];
+            escalated = new boolean[capacity];
+            priorities = new int[capacity];
+            adjustments = new int[capacity];
+            flags = new int[capacity];
+            staleRequirements = new String[capacity];
+            stale = new boolean[capacity];
+            newPriorities = new int[capacity];
+            changedIds = new long[capacity];
+            changedPreviousPriorities = new int[capacity];
+            changedPriorities = new int[capacity];
+            changedDurations = new Integer[capacity];
+        }
+
+        void read(JdbcTemplate jdbcTemplate, long keywordVersion, long afterId, int limit) {
+            this.keywordVersion = keywordVersion;
+            count = 0;
+            jdbcTemplate.query(SELECT_CHUNK, rs -> {
+                int i = count++;
+                ids[i] = rs.getLong("id");
+                String caseType = rs.getString("case_type");
+                caseTypes[i] = caseType != null ? Case.CaseType.valueOf(caseType) : null;
+                String courtLevel = rs.getString("court_level");
+                courtLevels[i] = courtLevel != null ? Case.CourtLevel.valueOf(courtLevel) : null;
+                durations[i] = (Integer) rs.getObject("estimated_duration_days");
+                escalated[i] = rs.getTimestamp("escalation_date") != null;
+                priorities[i] = rs.getInt("priority");
+                adjustments[i] = rs.getInt("priority_adjustment");
+                Long version = (Long) rs.getObject("resource_flags_version");
+                Integer cachedFlags = (Integer) rs.getObject("resource_flags");
+                stale[i] = cachedFlags == null || version == null || version != keywordVersion;
+                flags[i] = stale[i] ? 0 : cachedFlags;
+                staleRequirements[i] = stale[i] ? rs.getString("stale_requirement") : null;
+            }, keywordVersion, afterId, limit);
+        }
+
+        // Write changed priorities and refreshed flags, one statement per row that needs either;
+        // returns how many changed priorities were written
+        int write(JdbcTemplate jdbcTemplate, LocalDateTime asOf) {
+            List<Object[]> priorityUpdates = new ArrayList<>();
+            List<Object[]> flagUpdates = new ArrayList<>();
+            List<Integer> priorityRows = new ArrayList<>();
+            List<Integer> flagRows = new ArrayList<>();
+            Timestamp updatedAt = Timestamp.valueOf(asOf);
+            for (int i = 0; i < count; i++) {
+                if (stale[i]) {
+                    flagUpdates.add(new Object[] { newPriorities[i], priorities[i], updatedAt, flags[i], keywordVersion,
+                            ids[i], priorities[i], adjustments[i], staleRequirements[i] });
+                    flagRows.add(i);
+                } else if (newPriorities[i] != priorities[i]) {
+                    priorityUpdates.add(new Object[] { newPriorities[i], updatedAt, ids[i], priorities[i], adjustments[i] });
+                    priorityRows.add(i);
+                }
+            }
+            reparsed = flagRows.size();
+            boolean[] written = new boolean[count];
+            markWritten(jdbcTemplate, UPDATE_PRIORITY_AND_FLAGS, flagUpdates, flagRows, written);
+            markWritten(jdbcTemplate, UPDATE_PRIORITY, priorityUpdates, priorityRows, written);
+
+            // Changed priorities in id order, for the in-memory orderings
+            int changed = 0;
+            for (int i = 0; i < count; i++) {
+                if (written[i] && newPriorities[i] != priorities[i]) {
+                    changedIds[changed] = ids[i];
+                    changedPreviousPriorities[changed] = priorities[i];
+                    changedPriorities[changed] = newPriorities[i];
+                    changedDurations[changed] = durations[i];
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        private static void markWritten(JdbcTemplate jdbcTemplate, String sql, List<Object[]> updates,
+                                        List<Integer> rows, boolean[] written) {
+            if (updates.isEmpty()) {
+                return;
+            }
+            int[] counts = jdbcTemplate.batchUpdate(sql, updates);
+            for (int u = 0; u < counts.length; u++) {
+                written[rows.get(u)] = counts[u] != 0;
+            }
+        }
+    }
+
+    // Scores a range of a chunk, splitting it across the pool
+    private static final class ScoreTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ChunkRows rows;
+        private final CompiledPriorityRules rules;
+        private final int from;
+        private final int to;
+
+        ScoreTask(ChunkRows rows, CompiledPriorityRules rules, int from, int to) {
+            this.rows = rows;
+            this.rules = rules;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > FORK_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ScoreTask(rows, rules, from, middle), new ScoreTask(rows, rules, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (rows.stale[i]) {
+                    rows.flags[i] = rules.resourceFlags(rows.staleRequirements[i]);
+                }
+                rows.newPriorities[i] = rules.adjust(rules.score(rows.caseTypes[i], rows.courtLevels[i],
+                        rows.durations[i], rows.escalated[i], rows.flags[i]), rows.adjustments[i]);
+            }
+        }
+    }
+
+    // Progress of one run; written by the runner thread, read by any
+    private static final class Run {
+        private final long id;
+        private final String startedBy;
+        private final CompiledPriorityRules rules;
+        private final LocalDateTime asOf = LocalDateTime.now();
+        private volatile Status status = Status.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String message;
+        private volatile long totalCases;
+        private volatile long scannedCases;
+        private volatile long changedCases;
+        private volatile long reparsedCases;
+        private volatile int chunks;
+        // Guarded by itself; latest chunk last
+        private final Deque<ChunkTiming> recentChunks = new ArrayDeque<>();
+
+        Run(long id, String startedBy, CompiledPriorityRules rules) {
+            this.id = id;
+            this.startedBy = startedBy;
+            this.rules = rules;
+        }
+
+        void record(ChunkTiming timing) {
+            scannedCases += timing.getCases();
+            changedCases += timing.getChanged();
+            reparsedCases += timing.getReparsed();
+            chunks++;
+            synchronized (recentChunks) {
+                recentChunks.addLast(timing);
+                if (recentChunks.size() > KEPT_CHUNK_TIMINGS) {
+                    recentChunks.removeFirst();
+                }
+            }
+        }
+
+        void finish(Status status, String message) {
+            this.message = message;
+            this.finishedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        long elapsedMillis() {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            return java.time.Duration.between(asOf, end).toMillis();
+        }
+    }
+
+    // Inner class for the timings of one chunk
+    public static class ChunkTiming {
+        private final int chunk;
+        private final long firstCaseId;
+        private final long lastCaseId;
+        private final int cases;
+        private final int changed;
+        private final int reparsed;
+        private final long readMillis;
+        private final long scoreMillis;
+        private final long writeMillis;
+
+        public ChunkTiming(int chunk, long firstCaseId, long lastCaseId, int cases, int changed, int reparsed,
+                           long readMillis, long scoreMillis, long writeMillis) {
+            this.chunk = chunk;
+            this.firstCaseId = firstCaseId;
+            this.lastCaseId = lastCaseId;
+            this.cases = cases;
+            this.changed = changed;
+            this.reparsed = reparsed;
+            this.readMillis = readMillis;
+            this.scoreMillis = scoreMillis;
+            this.writeMillis = writeMillis;
+        }
+
+        // Getters
+        public int getChunk() { return chunk; }
+        public long getFirstCaseId() { return firstCaseId; }
+        public long getLastCaseId() { return lastCaseId; }
+        public int getCases() { return cases; }
+        public int getChanged() { return changed; }
+        public int getReparsed() { return reparsed; }
+        public long getReadMillis() { return readMillis; }
+        public long getScoreMillis() { return scoreMillis; }
+        public long getWriteMillis() { return writeMillis; }
+    }
+
+    // Inner class for the progress of a run
+    public static class RecalculationView {
+        private final Long id;
+        private final Status status;
+        private final String startedBy;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+        private final long rulesRevision;
+        private final long totalCases;
+        private final long scannedCases;
+        private final long changedCases;
+        private final long reparsedCases;
+        private final int chunks;
+        private final long elapsedMillis;
+        private final String message;
+        private final List<ChunkTiming> recentChunks;
+
+        RecalculationView(Run run) {
+            this.id = run.id;
+            this.status = run.status;
+            this.startedBy = run.startedBy;
+            this.startedAt = run.asOf;
+            this.finishedAt = run.finishedAt;
+            this.rulesRevision = run.rules.getRevision();
+            this.totalCases = run.totalCases;
+            this.scannedCases = run.scannedCases;
+            this.changedCases = run.changedCases;
+            this.reparsedCases = run.reparsedCases;
+            this.chunks = run.chunks;
+            this.elapsedMillis = run.elapsedMillis();
+            this.message = run.message;
+            synchronized (run.recentChunks) {
+                this.recentChunks = List.copyOf(run.recentChunks);
+            }
+        }
+
+        // Getters
+        public Long getId() { return id; }
+        public Status getStatus() { return status; }
+        public String getStartedBy() { return startedBy; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public long getRulesRevision() { return rulesRevision; }
+        public long getTotalCases() { return totalCases; }
+        public long getScannedCases() { return scannedCases; }
+        public long getChangedCases() { return changedCases; }
+        public long getReparsedCases() { return reparsedCases; }
+        public int getChunks() { return chunks; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public String getMessage() { return message; }
+        public List<ChunkTiming> getRecentChunks() { return recentChunks; }
+
+        public double getPercentComplete() {
+            if (status == Status.COMPLETED) {
+                return 100.0;
+            }
+            return totalCases == 0 ? 0.0 : Math.min(100.0, 100.0 * scannedCases / totalCases);
+        }
+
+        public double getCasesPerSecond() {
+            return elapsedMillis == 0 ? 0.0 : scannedCases * 1000.0 / elapsedMillis;
+        }
+    }
+}
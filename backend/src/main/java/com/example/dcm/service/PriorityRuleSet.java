@@ -0,0 +1,93 @@
+package com.example.dcm.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.dcm.model.Case;
+import com.fasterxml.jackson.annotation.JsonMerge;
+
+/**
+ * Declarative priority scoring rules, as read from priority-rules.json or an external rules file.
+ * A case scores the base plus the weight of its case type, its court level, the first duration
+ * bucket its estimate falls in, escalation, and every resource flag whose keywords appear in its
+ * resource requirement, clamped to [minPriority, maxPriority]. PriorityEngine compiles a rule set
+ * into lookup tables; the rule set itself is never consulted while scoring.
+ */
+public class PriorityRuleSet {
+
+    private int base = 5;
+    private int minPriority = 1;
+    private int maxPriority = 10;
+
+    @JsonMerge
+    private Map<Case.CaseType, Integer> caseTypeWeights = new EnumMap<>(Case.CaseType.class);
+
+    @JsonMerge
+    private Map<Case.CourtLevel, Integer> courtLevelWeights = new EnumMap<>(Case.CourtLevel.class);
+
+    // Checked in order; a bucket without maxDays takes every longer estimate
+    private List<DurationBucket> durationBuckets = new ArrayList<>();
+
+    private int escalatedWeight;
+
+    private List<ResourceFlag> resourceFlags = new ArrayList<>();
+
+    public PriorityRuleSet() {}
+
+    // Getters and Setters
+    public int getBase() { return base; }
+    public void setBase(int base) { this.base = base; }
+
+    public int getMinPriority() { return minPriority; }
+    public void setMinPriority(int minPriority) { this.minPriority = minPriority; }
+
+    public int getMaxPriority() { return maxPriority; }
+    public void setMaxPriority(int maxPriority) { this.maxPriority = maxPriority; }
+
+    public Map<Case.CaseType, Integer> getCaseTypeWeights() { return caseTypeWeights; }
+    public void setCaseTypeWeights(Map<Case.CaseType, Integer> caseTypeWeights) { this.caseTypeWeights = caseTypeWeights; }
+
+    public Map<Case.CourtLevel, Integer> getCourtLevelWeights() { return courtLevelWeights; }
+    public void setCourtLevelWeights(Map<Case.CourtLevel, Integer> courtLevelWeights) { this.courtLevelWeights = courtLevelWeights; }
+
+    public List<DurationBucket> getDurationBuckets() { return durationBuckets; }
+    public void setDurationBuckets(List<DurationBucket> durationBuckets) { this.durationBuckets = durationBuckets; }
+
+    public int getEscalatedWeight() { return escalatedWeight; }
+    public void setEscalatedWeight(int escalatedWeight) { this.escalatedWeight = escalatedWeight; }
+
+    public List<ResourceFlag> getResourceFlags() { return resourceFlags; }
+    public void setResourceFlags(List<ResourceFlag> resourceFlags) { this.resourceFlags = resourceFlags; }
+
+    // Estimates up to maxDays (inclusive) score weight; a null maxDays is open-ended
+    public static class DurationBucket {
+        private Integer maxDays;
+        private int weight;
+
+        // Getters and Setters
+        public Integer getMaxDays() { return maxDays; }
+        public void setMaxDays(Integer maxDays) { this.maxDays = maxDays; }
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+    }
+
+    // A requirement mentioning any of the keywords, in any case, raises the flag and scores weight once
+    public static class ResourceFlag {
+        private String name;
+        private List<String> keywords = new ArrayList<>();
+        private int weight;
+
+        // Getters and Setters
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getKeywords() { return keywords; }
+        public void setKeywords(List<String> keywords) { this.keywords = keywords; }
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.dcm.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Size-bounded LRU cache of rendered case artifacts (text reports and PDFs).
+ * Each entry is tagged with the case version it was rendered from; a lookup with a
+ * newer version is a miss and drops the stale entry. Entries evicted from memory can
+ * optionally spill to a bounded directory on disk.
+ */
+@Component
+public class ReportArtifactCache {
+
+    public enum ArtifactType {
+        REPORT, PDF
+    }
+
+    private static final String SPILL_SUFFIX = ".artifact";
+
+    @Value("${dcm.report-cache.max-bytes:16777216}")
+    private long maxMemoryBytes;
+
+    @Value("${dcm.report-cache.spill-dir:}")
+    private String spillDirectory;
+
+    @Value("${dcm.report-cache.spill-max-bytes:268435456}")
+    private long maxSpillBytes;
+
+    // Access-ordered maps give LRU iteration order; guarded by this. File reads and writes happen
+    // outside the lock: a spill sits in spilling until its file is written, and a spilled entry is
+    // removed from disk before its file is read.
+    private final LinkedHashMap<ArtifactKey, Artifact> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private final LinkedHashMap<ArtifactKey, SpilledArtifact> disk = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<ArtifactKey, Artifact> spilling = new HashMap<>();
+    private long memoryBytes;
+    private long diskBytes;
+    private long spillSequence;
+    private Path spillPath;
+
+    private long hits;
+    private long misses;
+
+    @PostConstruct
+    void initSpillDirectory() throws IOException {
+        if (spillDirectory == null || spillDirectory.isBlank()) {
+            return;
+        }
+        spillPath = Paths.get(spillDirectory);
+        Files.createDirectories(spillPath);
+        // The disk index lives in memory, so files from a previous run are unreachable
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillPath, "*" + SPILL_SUFFIX)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // Cached bytes for the case rendered at exactly this version, or null
+    public byte[] get(Long caseId, ArtifactType type, LocalDateTime version) {
+        ArtifactKey key = new ArtifactKey(caseId, type);
+        PendingIo io = new PendingIo();
+        SpilledArtifact claimed;
+        synchronized (this) {
+            Artifact artifact = memory.get(key);
+            if (artifact != null) {
+                if (Objects.equals(artifact.version, version)) {
+                    hits++;
+                    return artifact.content;
+                }
+                removeFromMemory(key);
+            }
+
+            // Evicted but still being written out
+            Artifact inFlight = spilling.get(key);
+            if (inFlight != null && Objects.equals(inFlight.version, version)) {
+                hits++;
+                return inFlight.content;
+            }
+
+            // Claimed by removing it from the index, so the file is read without holding the lock
+            claimed = disk.remove(key);
+            if (claimed != null) {
+                diskBytes -= claimed.length;
+                if (!Objects.equals(claimed.version, version)) {
+                    io.deletes.add(claimed.file);
+                    claimed = null;
+                }
+            }
+            if (claimed == null) {
+                misses++;
+            }
+        }
+        if (claimed == null) {
+            finish(io);
+            return null;
+        }
+
+        byte[] content = readSpilled(claimed);
+        synchronized (this) {
+            if (content == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            // Promote back into memory unless a newer rendering was stored meanwhile
+            if (!memory.containsKey(key)) {
+                storeInMemory(key, new Artifact(version, content), io);
+            }
+        }
+        finish(io);
+        return content;
+    }
+
+    public void put(Long caseId, ArtifactType type, LocalDateTime version, byte[] content) {
+        ArtifactKey key = new ArtifactKey(caseId, type);
+        PendingIo io = new PendingIo();
+        synchronized (this) {
+            removeFromMemory(key);
+            removeFromDisk(key, io);
+            if (content.length <= maxMemoryBytes) {
+                storeInMemory(key, new Artifact(version, content), io);
+            }
+        }
+        finish(io);
+    }
+
+    // Drop every cached artifact of a case
+    public void invalidate(Long caseId) {
+        PendingIo io = new PendingIo();
+        synchronized (this) {
+            for (ArtifactType type : ArtifactType.values()) {
+                ArtifactKey key = new ArtifactKey(caseId, type);
+                removeFromMemory(key);
+                removeFromDisk(key, io);
+            }
+        }
+        finish(io);
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(memory.size(), memoryBytes, disk.size(), diskBytes, hits, misses);
+    }
+
+    // Evicted entries are queued for spilling; the caller writes them once the lock is released
+    private void storeInMemory(ArtifactKey key, Artifact artifact, PendingIo io) {
+        memory.put(key, artifact);
+        memoryBytes += artifact.content.length;
+
+        Iterator<Map.Entry<ArtifactKey, Artifact>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            Map.Entry<ArtifactKey, Artifact> entry = eldest.next();
+            eldest.remove();
+            memoryBytes -= entry.getValue().content.length;
+            Artifact evicted = entry.getValue();
+            if (spillPath != null && evicted.content.length <= maxSpillBytes) {
+                // Each spill gets its own file, so a newer spill of the same key never shares one
+                Path file = spillPath.resolve(entry.getKey().caseId + "-" + entry.getKey().type.name().toLowerCase() +
+                        "-" + (++spillSequence) + SPILL_SUFFIX);
+                spilling.put(entry.getKey(), evicted);
+                io.spills.add(new PendingSpill(entry.getKey(), evicted, file));
+            }
+        }
+    }
+
+    // Write queued spills and delete dropped files, outside the lock
+    private void finish(PendingIo io) {
+        while (!io.spills.isEmpty() || !io.deletes.isEmpty()) {
+            for (Path file : io.deletes) {
+                deleteQuietly(file);
+            }
+            io.deletes.clear();
+            if (io.spills.isEmpty()) {
+                return;
+            }
+            PendingSpill spill = io.spills.remove(0);
+            boolean written = write(spill);
+            synchronized (this) {
+                publish(spill, written, io);
+            }
+        }
+    }
+
+    private boolean write(PendingSpill spill) {
+        try {
+            Files.write(spill.file, spill.artifact.content);
+            return true;
+        } catch (IOException e) {
+            // Spilling is best effort; the artifact is simply re-rendered on the next request
+            return false;
+        }
+    }
+
+    // Make a written spill visible, unless it was replaced or invalidated while being written
+    private void publish(PendingSpill spill, boolean written, PendingIo io) {
+        boolean current = spilling.get(spill.key) == spill.artifact;
+        if (current) {
+            spilling.remove(spill.key);
+        }
+        if (!written) {
+            return;
+        }
+        if (!current || memory.containsKey(spill.key)) {
+            io.deletes.add(spill.file);
+            return;
+        }
+        removeFromDisk(spill.key, io);
+        disk.put(spill.key, new SpilledArtifact(spill.artifact.version, spill.file, spill.artifact.content.length));
+        diskBytes += spill.artifact.content.length;
+
+        Iterator<Map.Entry<ArtifactKey, SpilledArtifact>> eldest = disk.entrySet().iterator();
+        while (diskBytes > maxSpillBytes && eldest.hasNext()) {
+            SpilledArtifact evicted = eldest.next().getValue();
+            eldest.remove();
+            diskBytes -= evicted.length;
+            io.deletes.add(evicted.file);
+        }
+    }
+
+    private byte[] readSpilled(SpilledArtifact spilled) {
+        try {
+            return Files.readAllBytes(spilled.file);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            deleteQuietly(spilled.file);
+        }
+    }
+
+    private void removeFromMemory(ArtifactKey key) {
+        Artifact removed = memory.remove(key);
+        if (removed != null) {
+            memoryBytes -= removed.content.length;
+        }
+    }
+
+    // Also cancels a spill of the key that is still being written
+    private void removeFromDisk(ArtifactKey key, PendingIo io) {
+        spilling.remove(key);
+        SpilledArtifact removed = disk.remove(key);
+        if (removed != null) {
+            diskBytes -= removed.length;
+            io.deletes.add(removed.file);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A leftover file is harmless; the directory is cleared on the next startup
+        }
+    }
+
+    private record ArtifactKey(Long caseId, ArtifactType type) {}
+
+    private record PendingSpill(ArtifactKey key, Artifact artifact, Path file) {}
+
+    // File work collected under the lock and done after releasing it
+    private static class PendingIo {
+        private final List<PendingSpill> spills = new ArrayList<>();
+        private final List<Path> deletes = new ArrayList<>();
+    }
+
+    private static class Artifact {
+        private final LocalDateTime version;
+        private final byte[] content;
+
+        Artifact(LocalDateTime version, byte[] content) {
+            this.version = version;
+            this.content = content;
+        }
+    }
+
+    private static class SpilledArtifact {
+        private final LocalDateTime version;
+        private final Path file;
+        private final long length;
+
+        SpilledArtifact(LocalDateTime version, Path file, long length) {
+            this.version = version;
+            this.file = file;
+            this.length = length;
+        }
+    }
+
+    // Inner class for cache statistics
+    public static class CacheStats {
+        private final int memoryEntries;
+        private final long memoryBytes;
+        private final int diskEntries;
+        private final long diskBytes;
+        private final long hits;
+        private final long misses;
+
+        public CacheStats(int memoryEntries, long memoryBytes, int diskEntries, long diskBytes, long hits, long misses) {
+            this.memoryEntries = memoryEntries;
+            this.memoryBytes = memoryBytes;
+            this.diskEntries = diskEntries;
+            this.diskBytes = diskBytes;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        // Getters
+        public int getMemoryEntries() { return memoryEntries; }
+        public long getMemoryBytes() { return memoryBytes; }
+        public int getDiskEntries() { return diskEntries; }
+        public long getDiskBytes() { return diskBytes; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+    }
+}
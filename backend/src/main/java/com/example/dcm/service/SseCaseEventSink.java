@@ -0,0 +1,107 @@
+package com.example.dcm.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.dcm.model.CaseChangeEvent;
+
+/**
+ * Streams case change events to connected server-sent event clients. Each event is sent with its
+ * outbox id, so a client that reconnects with Last-Event-ID is first replayed what it missed from
+ * the outbox, for as long as the relay retains it, and then joins the live stream without a gap
+ * or a duplicate. Clients that are not connected when an event is published only get it that way.
+ */
+@Component
+public class SseCaseEventSink implements CaseEventSink {
+
+    public static final String NAME = "sse";
+
+    // Longest replay per connection; a client further behind reconnects for the rest
+    private static final int MAX_REPLAY = 10000;
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    @Autowired
+    private CaseEventOutbox outbox;
+
+    // Guarded by itself, together with lastPublishedId, so a replay and a publish never interleave
+    private final List<SseEmitter> emitters = new ArrayList<>();
+    private long lastPublishedId;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void resume(long lastEventId) {
+        synchronized (emitters) {
+            lastPublishedId = lastEventId;
+        }
+    }
+
+    // Open a stream, replaying events after lastEventId first when the client is resuming
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> remove(emitter));
+        emitter.onTimeout(() -> remove(emitter));
+        emitter.onError(e -> remove(emitter));
+        synchronized (emitters) {
+            if (lastEventId != null && lastEventId < lastPublishedId) {
+                List<CaseChangeEvent> missed = outbox.read(lastEventId, lastPublishedId, MAX_REPLAY);
+                if (!send(emitter, missed) || missed.size() == MAX_REPLAY) {
+                    emitter.complete();
+                    return emitter;
+                }
+            }
+            emitters.add(emitter);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<CaseChangeEvent> events) {
+        synchronized (emitters) {
+            // A client that has gone away is dropped; that is not a failure of the sink
+            List<SseEmitter> gone = new ArrayList<>();
+            for (SseEmitter emitter : emitters) {
+                if (!send(emitter, events)) {
+                    gone.add(emitter);
+                }
+            }
+            emitters.removeAll(gone);
+            gone.forEach(SseEmitter::complete);
+            lastPublishedId = events.get(events.size() - 1).getId();
+        }
+    }
+
+    public int getSubscriberCount() {
+        synchronized (emitters) {
+            return emitters.size();
+        }
+    }
+
+    private boolean send(SseEmitter emitter, List<CaseChangeEvent> events) {
+        try {
+            for (CaseChangeEvent event : events) {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getId()))
+                        .name(event.getType().name())
+                        .data(event));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private void remove(SseEmitter emitter) {
+        synchronized (emitters) {
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -23,6 +23,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JudgeWorkloadIndex workloadIndex;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
@@ -48,7 +51,9 @@ public class UserService implements UserDetailsService {
         // Encode password
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        workloadIndex.refreshJudge(saved);
+        return saved;
     }
 
     // Find user by username
@@ -103,7 +108,9 @@ public class UserService implements UserDetailsService {
             existingUser.setRole(userDetails.getRole());
         }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        workloadIndex.refreshJudge(saved);
+        return saved;
     }
 
     // Update user role
@@ -112,7 +119,9 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
 
         existingUser.setRole(role);
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        workloadIndex.refreshJudge(saved);
+        return saved;
     }
 
     // Update user court level (for judges only)
@@ -125,7 +134,10 @@ public class UserService implements UserDetailsService {
         }
 
         existingUser.setCourtLevel(courtLevel);
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        // The judge moves to the new court level's workload pool
+        workloadIndex.refreshJudge(saved);
+        return saved;
     }
 
     // Create judge with court level
@@ -143,7 +155,9 @@ public class UserService implements UserDetailsService {
         judge.setLastName(lastName);
         judge.setCourtLevel(courtLevel);
 
-        return userRepository.save(judge);
+        User saved = userRepository.save(judge);
+        workloadIndex.refreshJudge(saved);
+        return saved;
     }
 
     // Delete user
@@ -152,5 +166,6 @@ public class UserService implements UserDetailsService {
             throw new IllegalArgumentException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        workloadIndex.removeJudge(id);
     }
 }
@@ -0,0 +1,56 @@
+package com.example.dcm.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.service.PriorityEngine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class CaseJsonConfigTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private ObjectMapper mapperWithMaxPriority(int maxPriority) throws IOException {
+        Path rulesFile = rulesDir.resolve("rules.json");
+        Files.writeString(rulesFile, "{\"base\": 5, \"minPriority\": 1, \"maxPriority\": " + maxPriority + "}");
+        PriorityEngine engine = new PriorityEngine();
+        ReflectionTestUtils.setField(engine, "rulesFile", rulesFile.toString());
+        engine.reload();
+        CaseJsonConfig config = new CaseJsonConfig();
+        ReflectionTestUtils.setField(config, "priorityEngine", engine);
+        return new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(config.caseJsonModule());
+    }
+
+    private static JsonNode effectivePriority(ObjectMapper mapper, Integer priority) {
+        Case caseEntity = new Case();
+        caseEntity.setStatus(Case.Status.FILED);
+        caseEntity.setFilingDate(LocalDateTime.now().minusDays(200));
+        caseEntity.setPriority(priority);
+        return mapper.valueToTree(caseEntity).get("effectivePriority");
+    }
+
+    @Test
+    void serializedCasesCarryTheEnginesEffectivePriority() throws IOException {
+        assertEquals(10, effectivePriority(mapperWithMaxPriority(10), 8).intValue());
+        assertEquals(9, effectivePriority(mapperWithMaxPriority(9), 8).intValue());
+        assertEquals(10, effectivePriority(mapperWithMaxPriority(12), 8).intValue());
+    }
+
+    @Test
+    void casesWithoutAPriorityHaveNoEffectivePriority() throws IOException {
+        assertTrue(effectivePriority(mapperWithMaxPriority(10), null).isNull());
+    }
+}
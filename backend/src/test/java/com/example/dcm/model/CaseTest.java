@@ -0,0 +1,42 @@
+package com.example.dcm.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class CaseTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 6, 1, 12, 0);
+
+    @Test
+    void waitingCasesGainPriorityWithAge() {
+        // More than 30 whole days for +1, more than 90 for +2
+        assertEquals(5, Case.effectivePriority(5, Case.Status.FILED, NOW.minusDays(31).plusMinutes(1), NOW, 10));
+        assertEquals(6, Case.effectivePriority(5, Case.Status.FILED, NOW.minusDays(31), NOW, 10));
+        assertEquals(6, Case.effectivePriority(5, Case.Status.UNDER_REVIEW, NOW.minusDays(91).plusMinutes(1), NOW, 10));
+        assertEquals(7, Case.effectivePriority(5, Case.Status.UNDER_REVIEW, NOW.minusDays(91), NOW, 10));
+    }
+
+    @Test
+    void onlyWaitingCasesGainTheBonus() {
+        LocalDateTime filed = NOW.minusDays(200);
+
+        assertEquals(5, Case.effectivePriority(5, Case.Status.SCHEDULED, filed, NOW, 10));
+        assertEquals(5, Case.effectivePriority(5, Case.Status.COMPLETED, filed, NOW, 10));
+        assertEquals(5, Case.effectivePriority(5, null, filed, NOW, 10));
+        assertEquals(5, Case.effectivePriority(5, Case.Status.FILED, null, NOW, 10));
+    }
+
+    @Test
+    void bonusIsCappedAtTheGivenMaximum() {
+        LocalDateTime filed = NOW.minusDays(200);
+
+        assertEquals(10, Case.effectivePriority(9, Case.Status.FILED, filed, NOW, 10));
+        assertEquals(7, Case.effectivePriority(6, Case.Status.FILED, filed, NOW, 7));
+        assertEquals(12, Case.effectivePriority(10, Case.Status.FILED, filed, NOW, 15));
+        // A base already above the cap is left alone, the cap only limits the bonus
+        assertEquals(8, Case.effectivePriority(8, Case.Status.SCHEDULED, filed, NOW, 7));
+    }
+}
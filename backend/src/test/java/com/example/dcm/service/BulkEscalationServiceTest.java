@@ -0,0 +1,206 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.EscalationJob;
+import com.example.dcm.repository.EscalationJobRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "dcm.outbox.log-file=target/case-events.log")
+class BulkEscalationServiceTest {
+
+    @Autowired
+    private BulkEscalationService escalationService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private EscalationJobRepository jobRepository;
+
+    @Autowired
+    private CaseClaimQueue claimQueue;
+
+    @Autowired
+    private CaseArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(escalationService, "chunkSize", 2);
+    }
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(escalationService, "chunkSize", 50);
+        ReflectionTestUtils.setField(escalationService, "jobRepository", jobRepository);
+        ReflectionTestUtils.setField(caseService, "claimQueue", claimQueue);
+    }
+
+    private List<Long> districtCases(int count) {
+        List<Long> caseIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            caseIds.add(caseService.createCase(new Case(null, "Appeal " + i, "Bulk escalation", Case.CaseType.CIVIL),
+                    "clerk1").getId());
+        }
+        return caseIds;
+    }
+
+    // Jobs are started from requests, whose open session the job view's results are read in
+    private <T> T inRequest(Supplier<T> request) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            return request.get();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private BulkEscalationService.EscalationJobView start(List<Long> caseIds) {
+        return inRequest(() -> escalationService.startJob(caseIds, "Appeal filed", "judge1"));
+    }
+
+    private BulkEscalationService.EscalationJobView resume(Long jobId) {
+        return inRequest(() -> escalationService.resume(jobId));
+    }
+
+    // Number of cases each case was escalated into
+    private List<Integer> successors(List<Long> caseIds) {
+        return caseIds.stream()
+                .map(id -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cases WHERE parent_case_id = ?",
+                        Integer.class, id))
+                .toList();
+    }
+
+    @Test
+    void escalatesEveryCaseChunkByChunk() {
+        List<Long> caseIds = districtCases(5);
+
+        BulkEscalationService.EscalationJobView job = start(caseIds);
+
+        assertEquals(EscalationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(5, job.getEscalated());
+        assertEquals(List.of(1, 1, 1, 1, 1), successors(caseIds));
+        for (EscalationJob.Result result : job.getResults()) {
+            assertEquals(EscalationJob.Outcome.ESCALATED, result.getOutcome());
+            assertEquals(Case.CourtLevel.HIGH, result.getNewCourtLevel());
+        }
+
+        // Escalated cases are superseded, so a second job skips them
+        BulkEscalationService.EscalationJobView again = start(caseIds);
+        assertEquals(5, again.getSkipped());
+        assertEquals(List.of(1, 1, 1, 1, 1), successors(caseIds));
+    }
+
+    @Test
+    void resumesAFailedJobWithoutEscalatingAnyCaseTwice() {
+        List<Long> caseIds = districtCases(6);
+        // Progress past the fourth case cannot be saved until the fault clears
+        AtomicBoolean failing = new AtomicBoolean(true);
+        EscalationJobRepository faulty = mock(EscalationJobRepository.class, delegatesTo(jobRepository));
+        doAnswer(invocation -> {
+            EscalationJob job = invocation.getArgument(0);
+            if (failing.get() && job.getNextIndex() == 4) {
+                throw new DataAccessResourceFailureException("escalation_jobs unavailable");
+            }
+            return jobRepository.save(job);
+        }).when(faulty).save(any(EscalationJob.class));
+        ReflectionTestUtils.setField(escalationService, "jobRepository", faulty);
+
+        BulkEscalationService.EscalationJobView failed = start(caseIds);
+
+        assertEquals(EscalationJob.Status.FAILED, failed.getStatus());
+        assertEquals("escalation_jobs unavailable", failed.getLastError());
+        int processed = failed.getProcessed();
+        List<Integer> successors = successors(caseIds);
+        for (int i = 0; i < caseIds.size(); i++) {
+            assertEquals(i < processed ? 1 : 0, (int) successors.get(i));
+        }
+
+        failing.set(false);
+        BulkEscalationService.EscalationJobView resumed = resume(failed.getId());
+
+        assertEquals(EscalationJob.Status.COMPLETED, resumed.getStatus());
+        assertNull(resumed.getLastError());
+        assertEquals(6, resumed.getEscalated());
+        assertEquals(List.of(1, 1, 1, 1, 1, 1), successors(caseIds));
+    }
+
+    @Test
+    void aCaseThatFailsIsRecordedWithoutRollingBackTheRestOfItsChunk() {
+        List<Long> caseIds = districtCases(4);
+        Long broken = caseIds.get(1);
+        CaseClaimQueue faulty = mock(CaseClaimQueue.class, delegatesTo(claimQueue));
+        doAnswer(invocation -> {
+            Collection<Case> cases = invocation.getArgument(0);
+            if (cases.stream().anyMatch(c -> broken.equals(c.getId()))) {
+                throw new DataAccessResourceFailureException("claim queue unavailable");
+            }
+            claimQueue.refresh(cases);
+            return null;
+        }).when(faulty).refresh(anyCollection());
+        ReflectionTestUtils.setField(caseService, "claimQueue", faulty);
+
+        BulkEscalationService.EscalationJobView job = start(caseIds);
+
+        assertEquals(EscalationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getEscalated());
+        assertEquals(1, job.getFailed());
+        EscalationJob.Result failure = job.getResults().get(1);
+        assertEquals(EscalationJob.Outcome.FAILED, failure.getOutcome());
+        assertEquals("claim queue unavailable", failure.getMessage());
+        assertEquals(List.of(1, 0, 1, 1), successors(caseIds));
+        assertEquals(Case.Status.FILED, caseService.getCaseById(broken).orElseThrow().getStatus());
+    }
+
+    @Test
+    void archivedCasesAreRestoredBeforeTheyAreEscalated() {
+        List<Long> caseIds = districtCases(3);
+        caseService.updateCaseStatus(caseIds.get(1), Case.Status.DISMISSED);
+        archiveService.archiveOlderThan(LocalDateTime.now().plusMinutes(1));
+        assertTrue(archiveService.isArchived(caseIds.get(1)));
+
+        BulkEscalationService.EscalationJobView job = start(caseIds);
+
+        assertEquals(EscalationJob.Status.COMPLETED, job.getStatus());
+        assertEquals(3, job.getEscalated());
+        assertFalse(archiveService.isArchived(caseIds.get(1)));
+        assertEquals(List.of(1, 1, 1), successors(caseIds));
+    }
+}
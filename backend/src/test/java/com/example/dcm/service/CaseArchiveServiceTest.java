@@ -0,0 +1,149 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.CaseNote;
+import com.example.dcm.model.Document;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.DocumentRepository;
+
+@SpringBootTest(properties = "dcm.outbox.log-file=target/case-events.log")
+class CaseArchiveServiceTest {
+
+    @Autowired
+    private CaseArchiveService archiveService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseNoteService noteService;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Case finishedCase(String title) {
+        Case caseEntity = caseService.createCase(new Case(null, title, "Archive round trip", Case.CaseType.CIVIL),
+                "clerk1");
+        noteService.addNote(caseEntity.getId(), "Judgment delivered", CaseNote.NoteType.GENERAL, "judge1");
+        documentRepository.save(new Document("judgment.txt", "Judgment", "text/plain", 12L,
+                "/api/documents/view/judgment.txt", caseEntity));
+        return caseService.updateCaseStatus(caseEntity.getId(), Case.Status.COMPLETED);
+    }
+
+    private List<Long> noteIds(Long caseId) {
+        return noteService.getNotes(caseId, null, 50).getNotes().stream()
+                .map(CaseNoteService.NoteView::getId).toList();
+    }
+
+    private List<Long> auditIds(Long caseId) {
+        auditService.flush();
+        return auditService.getCaseHistory(caseId, null, null, 50).getEntries().stream()
+                .map(AuditEntry::getId).toList();
+    }
+
+    private List<Long> documentIds(List<Document> documents) {
+        return documents.stream().map(Document::getId).sorted().toList();
+    }
+
+    @Test
+    void archivedCasesComeBackUnchangedWhenReopened() {
+        Case finished = finishedCase("Archive round trip");
+        Long caseId = finished.getId();
+        List<Long> notes = noteIds(caseId);
+        List<Long> audit = auditIds(caseId);
+        List<Long> documents = documentIds(documentRepository.findByCaseEntityId(caseId));
+        assertEquals(1, notes.size());
+        assertFalse(documents.isEmpty());
+
+        CaseArchiveService.ArchiveResult result = archiveService.archiveOlderThan(LocalDateTime.now().plusMinutes(1));
+
+        assertTrue(result.getArchivedCases() >= 1);
+        assertFalse(caseRepository.existsById(caseId));
+        assertTrue(archiveService.isArchived(caseId));
+        assertTrue(documentRepository.findByCaseEntityId(caseId).isEmpty());
+        // Still readable by id, from the archive
+        Case archived = caseService.getCaseById(caseId).orElseThrow();
+        assertEquals(finished.getCaseNumber(), archived.getCaseNumber());
+        assertEquals(Case.Status.COMPLETED, archived.getStatus());
+        assertEquals(caseId, archiveService.findArchivedByCaseNumber(finished.getCaseNumber())
+                .orElseThrow().getArchivedCase().getId());
+        assertEquals(notes, noteIds(caseId));
+        assertEquals(audit, auditIds(caseId));
+        assertEquals(documents, documentIds(archiveService.findArchivedDocuments().stream()
+                .filter(d -> d.getCaseEntity().getId().equals(caseId)).toList()));
+
+        Case reopened = caseService.updateCaseStatus(caseId, Case.Status.FILED);
+
+        assertEquals(Case.Status.FILED, reopened.getStatus());
+        assertEquals(finished.getCaseNumber(), reopened.getCaseNumber());
+        assertFalse(archiveService.isArchived(caseId));
+        assertEquals(notes, noteIds(caseId));
+        assertTrue(auditIds(caseId).containsAll(audit));
+        assertEquals(documents, documentIds(documentRepository.findByCaseEntityId(caseId)));
+    }
+
+    @Test
+    void openCasesAndRecentlyFinishedOnesStayHot() {
+        Case open = caseService.createCase(new Case(null, "Still open", "Archive round trip", Case.CaseType.CRIMINAL),
+                "clerk1");
+        Case finished = finishedCase("Finished today");
+
+        archiveService.archiveOlderThan(LocalDateTime.now().minusDays(1));
+        archiveService.archiveOlderThan(LocalDateTime.now().plusMinutes(1));
+
+        assertTrue(caseRepository.existsById(open.getId()));
+        assertFalse(archiveService.isArchived(open.getId()));
+        assertTrue(archiveService.isArchived(finished.getId()));
+    }
+
+    @Test
+    void archivedDismissedCasesCanStillBeAppealed() {
+        Case dismissed = caseService.createCase(new Case(null, "Dismissed claim", "Archive round trip",
+                Case.CaseType.CIVIL), "clerk1");
+        caseService.updateCaseStatus(dismissed.getId(), Case.Status.DISMISSED);
+        archiveService.archiveOlderThan(LocalDateTime.now().plusMinutes(1));
+        assertTrue(archiveService.isArchived(dismissed.getId()));
+
+        Case appeal = caseService.escalateCase(dismissed.getId(), "Appeal filed");
+
+        assertEquals(Case.CourtLevel.HIGH, appeal.getCourtLevel());
+        assertEquals(dismissed.getId(), appeal.getParentCaseId());
+        assertFalse(archiveService.isArchived(dismissed.getId()));
+        assertEquals(appeal.getId(), caseRepository.findById(dismissed.getId()).orElseThrow().getSupersededById());
+    }
+
+    @Test
+    void restoreNeedsTheCallersTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Case open = caseService.createCase(new Case(null, "Never archived", "Archive round trip", Case.CaseType.CIVIL),
+                "clerk1");
+
+        Boolean restored = transaction.execute(status -> archiveService.restore(open.getId()));
+        assertFalse(restored);
+        assertThrows(IllegalTransactionStateException.class, () -> archiveService.restore(open.getId()));
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.User;
+import com.example.dcm.repository.CaseRepository;
+import com.example.dcm.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CaseClaimQueueTest {
+
+    private static final String CLAIM_SQL = "UPDATE cases SET claimed_by_id = ?, claim_expires_at = ? WHERE id = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PriorityEngine priorityEngine;
+
+    @InjectMocks
+    private CaseClaimQueue queue;
+
+    private final Map<Long, Case> cases = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(queue, "leaseMinutes", 30);
+        useMaxPriority(10);
+
+        User judge = new User("judge", "secret", "judge@example.com", User.Role.JUDGE);
+        judge.setId(7L);
+        judge.setCourtLevel(User.CourtLevel.DISTRICT);
+        lenient().when(userRepository.findByUsername("judge")).thenReturn(Optional.of(judge));
+        User clerk = new User("clerk", "secret", "clerk@example.com", User.Role.CLERK);
+        lenient().when(userRepository.findByUsername("clerk")).thenReturn(Optional.of(clerk));
+
+        lenient().when(caseRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(cases.get(invocation.<Long>getArgument(0))));
+        lenient().when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+    }
+
+    private void useMaxPriority(int maxPriority) {
+        PriorityRuleSet ruleSet = new PriorityRuleSet();
+        ruleSet.setMaxPriority(maxPriority);
+        lenient().when(priorityEngine.getRules()).thenReturn(new CompiledPriorityRules(ruleSet, 1));
+    }
+
+    private Case open(long id, Case.Status status, int priority, int daysWaiting) {
+        Case caseEntity = new Case();
+        caseEntity.setId(id);
+        caseEntity.setStatus(status);
+        caseEntity.setCourtLevel(Case.CourtLevel.DISTRICT);
+        caseEntity.setPriority(priority);
+        caseEntity.setFilingDate(LocalDateTime.now().minusDays(daysWaiting));
+        cases.put(id, caseEntity);
+        return caseEntity;
+    }
+
+    private Long claimNext() {
+        return queue.claimNext("judge").map(Case::getId).orElse(null);
+    }
+
+    @Test
+    void handsOutCasesByEffectivePriority() {
+        queue.refresh(List.of(
+                open(1L, Case.Status.FILED, 8, 100),
+                open(2L, Case.Status.SCHEDULED, 9, 200),
+                open(3L, Case.Status.FILED, 9, 1)));
+
+        // 8 plus the +2 age bonus beats 9; the older of the two nines goes first
+        assertEquals(1L, claimNext());
+        assertEquals(2L, claimNext());
+        assertEquals(3L, claimNext());
+        assertNull(claimNext());
+    }
+
+    @Test
+    void capsTheAgeBonusAtTheRulesMaximum() {
+        useMaxPriority(9);
+        queue.refresh(List.of(
+                open(1L, Case.Status.FILED, 8, 100),
+                open(2L, Case.Status.SCHEDULED, 9, 200)));
+
+        // Both are worth 9 under the cap, so the earlier filing wins
+        assertEquals(2L, claimNext());
+        assertEquals(1L, claimNext());
+    }
+
+    @Test
+    void claimedCasesReturnToTheQueueWhenReleased() {
+        queue.refresh(List.of(open(1L, Case.Status.FILED, 5, 1)));
+
+        assertEquals(1L, claimNext());
+        assertNull(claimNext());
+        assertEquals(1, queue.getClaims("judge").size());
+
+        queue.release(1L, "judge");
+        assertEquals(0, queue.getStats().getActiveClaims());
+        assertEquals(1L, claimNext());
+    }
+
+    @Test
+    void skipsCasesTheConditionalClaimMisses() {
+        queue.refresh(List.of(open(1L, Case.Status.FILED, 9, 1), open(2L, Case.Status.FILED, 5, 1)));
+        when(jdbcTemplate.update(startsWith(CLAIM_SQL), any(Object[].class)))
+                .thenReturn(0)
+                .thenReturn(1);
+
+        assertEquals(2L, claimNext());
+        // Claimed elsewhere; it is not offered again until it changes
+        assertNull(claimNext());
+    }
+
+    @Test
+    void closingACaseClearsItsClaimInTheSameStatement() {
+        queue.refresh(List.of(open(1L, Case.Status.FILED, 5, 1), open(2L, Case.Status.FILED, 5, 2)));
+        assertEquals(2L, claimNext());
+
+        Case closed = cases.get(2L);
+        closed.setStatus(Case.Status.COMPLETED);
+        queue.refresh(List.of(closed));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE cases SET claimed_by_id = NULL"), args.capture());
+        assertEquals(1, args.getValue().size());
+        assertEquals(2L, args.getValue().get(0)[0]);
+        assertEquals(0, queue.getStats().getActiveClaims());
+        assertEquals(1, queue.getStats().getWaitingCases().get(Case.CourtLevel.DISTRICT));
+    }
+
+    @Test
+    void expiredLeasesAreReaped() {
+        ReflectionTestUtils.setField(queue, "leaseMinutes", 0);
+        queue.refresh(List.of(open(1L, Case.Status.FILED, 5, 1)));
+        assertEquals(1L, claimNext());
+
+        queue.reapExpiredClaims();
+
+        verify(jdbcTemplate).update(eq("UPDATE cases SET claimed_by_id = NULL, claim_expires_at = NULL "
+                + "WHERE id = ? AND claimed_by_id = ? AND claim_expires_at <= ?"), eq(1L), eq(7L), any());
+        assertEquals(0, queue.getStats().getActiveClaims());
+        assertEquals(1L, claimNext());
+    }
+
+    @Test
+    void reprioritizedCasesMoveInTheQueue() {
+        queue.refresh(List.of(open(1L, Case.Status.FILED, 9, 1), open(2L, Case.Status.FILED, 5, 1)));
+
+        queue.reprioritize(new long[] { 2L }, new int[] { 10 }, 1);
+
+        assertEquals(2L, claimNext());
+    }
+
+    @Test
+    void onlyJudgesClaimCases() {
+        assertThrows(IllegalArgumentException.class, () -> queue.claimNext("clerk"));
+        assertThrows(IllegalStateException.class, () -> queue.release(1L, "judge"));
+        assertTrue(queue.getClaims("judge").isEmpty());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.model.CaseChangeEvent;
+
+@ExtendWith(MockitoExtension.class)
+class CaseEventRelayTest {
+
+    private static final String SELECT_CHECKPOINT = "SELECT last_event_id FROM outbox_checkpoints WHERE sink = ?";
+
+    @Mock
+    private CaseEventOutbox outbox;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CaseEventRelay relay;
+
+    private final RecordingSink first = new RecordingSink("first");
+    private final RecordingSink second = new RecordingSink("second");
+
+    // Events whose transactions have committed, in id order
+    private final List<CaseChangeEvent> committed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(relay, "availableSinks", List.of(first, second));
+        ReflectionTestUtils.setField(relay, "enabledSinks", Set.of("first", "second"));
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "gapTimeoutMs", 60_000L);
+
+        lenient().when(jdbcTemplate.queryForList(eq(SELECT_CHECKPOINT), eq(Long.class), any(Object[].class)))
+                .thenReturn(List.of());
+        lenient().when(outbox.read(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            long upToId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return committed.stream()
+                    .filter(e -> e.getId() > afterId && e.getId() <= upToId)
+                    .limit(limit)
+                    .toList();
+        });
+    }
+
+    private void commit(long... ids) {
+        for (long id : ids) {
+            CaseChangeEvent event = CaseChangeEvent.statusChanged(id * 10, null, null);
+            event.setId(id);
+            committed.add(event);
+        }
+        committed.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+    }
+
+    @Test
+    void publishesEventsInBatchesToEverySink() {
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        relay.loadCheckpoints();
+        commit(1, 2, 3);
+
+        assertTrue(relay.relayBatch());
+        assertFalse(relay.relayBatch());
+
+        assertEquals(List.of(1L, 2L, 3L), first.ids());
+        assertEquals(List.of(1L, 2L, 3L), second.ids());
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_checkpoints"), eq(3L), any(), eq("first"));
+        assertEquals(3, relay.getStats().getSinks().get(0).getDelivered());
+    }
+
+    @Test
+    void holdsBackEventsPastAGapUntilItCommits() {
+        relay.loadCheckpoints();
+        commit(1, 2, 4);
+
+        relay.relayBatch();
+        assertEquals(List.of(1L, 2L), first.ids());
+        assertEquals(3L, relay.getStats().getWaitingForEventId());
+
+        // Still open: the later event keeps waiting
+        relay.relayBatch();
+        assertEquals(List.of(1L, 2L), first.ids());
+
+        commit(3);
+        relay.relayBatch();
+        assertEquals(List.of(1L, 2L, 3L, 4L), first.ids());
+        assertEquals(List.of(1L, 2L, 3L, 4L), second.ids());
+        assertNull(relay.getStats().getWaitingForEventId());
+    }
+
+    @Test
+    void skipsAGapOnceItTimesOut() {
+        ReflectionTestUtils.setField(relay, "gapTimeoutMs", 0L);
+        relay.loadCheckpoints();
+        commit(1, 3);
+
+        // The gap is always waited out for one pass before it is taken as a rollback
+        relay.relayBatch();
+        assertEquals(List.of(1L), first.ids());
+
+        relay.relayBatch();
+        assertEquals(List.of(1L, 3L), first.ids());
+        assertNull(relay.getStats().getWaitingForEventId());
+
+        // An id the relay gave up on is not delivered if it commits after all
+        commit(2, 4);
+        relay.relayBatch();
+        assertEquals(List.of(1L, 3L, 4L), first.ids());
+    }
+
+    @Test
+    void failingSinkCatchesUpWithoutHoldingBackTheOthers() {
+        relay.loadCheckpoints();
+        second.failures = 1;
+        commit(1, 2);
+
+        relay.relayBatch();
+        assertEquals(List.of(1L, 2L), first.ids());
+        assertTrue(second.ids().isEmpty());
+        CaseEventRelay.SinkStats failing = relay.getStats().getSinks().get(1);
+        assertTrue(failing.isFailing());
+        assertEquals(1, failing.getFailures());
+        assertEquals(0, failing.getLastEventId());
+
+        commit(3);
+        relay.relayBatch();
+        assertEquals(List.of(1L, 2L, 3L), first.ids());
+        assertEquals(List.of(1L, 2L, 3L), second.ids());
+        assertFalse(relay.getStats().getSinks().get(1).isFailing());
+    }
+
+    @Test
+    void resumesEachSinkFromItsCheckpoint() {
+        when(jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class, "second")).thenReturn(List.of(2L));
+        relay.loadCheckpoints();
+        commit(1, 2, 3);
+
+        relay.relayBatch();
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO outbox_checkpoints"), eq("first"), any());
+        assertEquals(0L, first.resumedFrom);
+        assertEquals(2L, second.resumedFrom);
+        assertEquals(List.of(1L, 2L, 3L), first.ids());
+        assertEquals(List.of(3L), second.ids());
+    }
+
+    // Remembers what it was given and fails a set number of times first
+    private static class RecordingSink implements CaseEventSink {
+        private final String name;
+        private final List<CaseChangeEvent> published = new ArrayList<>();
+        private int failures;
+        private Long resumedFrom;
+
+        RecordingSink(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void publish(List<CaseChangeEvent> events) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("sink unavailable");
+            }
+            published.addAll(events);
+        }
+
+        @Override
+        public void resume(long lastEventId) {
+            resumedFrom = lastEventId;
+        }
+
+        List<Long> ids() {
+            return published.stream().map(CaseChangeEvent::getId).toList();
+        }
+    }
+}
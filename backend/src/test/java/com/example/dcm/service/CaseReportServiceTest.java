@@ -0,0 +1,58 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.dcm.model.Case;
+
+@SpringBootTest(properties = "dcm.outbox.log-file=target/case-events.log")
+class CaseReportServiceTest {
+
+    @Autowired
+    private CaseReportService reportService;
+
+    @Autowired
+    private CaseService caseService;
+
+    private List<String> zipEntries(CaseFilter filter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = reportService.writeBatchReport(filter, CaseReportService.BatchFormat.ZIP, out);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(written, entries.size());
+        return entries;
+    }
+
+    @Test
+    void batchReportsLeaveOutEscalatedCases() throws IOException {
+        Case dismissed = caseService.createCase(new Case(null, "Reported appeal", "Batch report", Case.CaseType.CIVIL),
+                "clerk1");
+        caseService.updateCaseStatus(dismissed.getId(), Case.Status.DISMISSED);
+        Case appeal = caseService.escalateCase(dismissed.getId(), "Appeal filed");
+
+        String superseded = "case-report-" + dismissed.getCaseNumber() + ".txt";
+        List<String> entries = zipEntries(new CaseFilter());
+
+        assertTrue(entries.contains("case-report-" + appeal.getCaseNumber() + ".txt"));
+        assertFalse(entries.contains(superseded));
+        assertFalse(zipEntries(new CaseFilter(Case.CourtLevel.DISTRICT, null, null, null, null)).contains(superseded));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.repository.CaseRepository;
+
+@SpringBootTest(properties = "dcm.outbox.log-file=target/case-events.log")
+class CaseServiceTest {
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private NoteWriteBehindBuffer noteBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static List<Long> ids(List<Case> cases) {
+        return cases.stream().map(Case::getId).toList();
+    }
+
+    private String notesOf(Long caseId) {
+        return jdbcTemplate.queryForObject("SELECT notes FROM cases WHERE id = ?", String.class, caseId);
+    }
+
+    @Test
+    void escalationMovesACaseToTheNextLevelsDocket() {
+        CaseService.CourtLevelStats before = caseService.getCourtLevelStats();
+        Case dismissed = caseService.createCase(new Case(null, "Appealed ruling", "Docket", Case.CaseType.CIVIL),
+                "clerk1");
+        caseService.updateCaseStatus(dismissed.getId(), Case.Status.DISMISSED);
+
+        assertTrue(ids(caseService.getCasesByCourtLevel(Case.CourtLevel.DISTRICT)).contains(dismissed.getId()));
+        assertTrue(ids(caseService.getCasesEligibleForEscalation()).contains(dismissed.getId()));
+        CaseService.CourtLevelStats filed = caseService.getCourtLevelStats();
+        assertEquals(before.getDistrictCourtCases() + 1, filed.getDistrictCourtCases());
+        assertEquals(before.getEscalationEligible() + 1, filed.getEscalationEligible());
+
+        Case appeal = caseService.escalateCase(dismissed.getId(), "Appeal filed");
+
+        assertEquals(Case.CourtLevel.HIGH, appeal.getCourtLevel());
+        assertFalse(ids(caseService.getCasesByCourtLevel(Case.CourtLevel.DISTRICT)).contains(dismissed.getId()));
+        assertTrue(ids(caseService.getCasesByCourtLevel(Case.CourtLevel.HIGH)).contains(appeal.getId()));
+        assertFalse(ids(caseService.getCasesEligibleForEscalation()).contains(dismissed.getId()));
+        CaseService.CourtLevelStats escalated = caseService.getCourtLevelStats();
+        assertEquals(before.getDistrictCourtCases(), escalated.getDistrictCourtCases());
+        assertEquals(before.getHighCourtCases() + 1, escalated.getHighCourtCases());
+        assertEquals(before.getSupremeCourtCases(), escalated.getSupremeCourtCases());
+        assertEquals(before.getEscalatedCases() + 1, escalated.getEscalatedCases());
+        assertEquals(before.getEscalationEligible(), escalated.getEscalationEligible());
+    }
+
+    @Test
+    void theFinalLevelIsNeverEligible() {
+        Case dismissed = caseService.createCase(new Case(null, "Final appeal", "Docket", Case.CaseType.CRIMINAL),
+                "clerk1");
+        caseService.updateCaseStatus(dismissed.getId(), Case.Status.DISMISSED);
+        Case high = caseService.escalateCase(dismissed.getId(), "Appeal filed");
+        caseService.updateCaseStatus(high.getId(), Case.Status.DISMISSED);
+        Case supreme = caseService.escalateCase(high.getId(), "Further appeal");
+        CaseService.CourtLevelStats before = caseService.getCourtLevelStats();
+
+        caseService.updateCaseStatus(supreme.getId(), Case.Status.DISMISSED);
+
+        assertEquals(Case.CourtLevel.SUPREME, supreme.getCourtLevel());
+        assertTrue(ids(caseService.getCasesByCourtLevel(Case.CourtLevel.SUPREME)).contains(supreme.getId()));
+        assertFalse(ids(caseService.getCasesEligibleForEscalation()).contains(supreme.getId()));
+        assertEquals(before.getEscalationEligible(), caseService.getCourtLevelStats().getEscalationEligible());
+    }
+
+    @Test
+    void savingACaseLoadedBeforeANotesEditKeepsTheEdit() {
+        Case created = caseService.createCase(new Case(null, "Noted case", "Notes", Case.CaseType.CIVIL), "clerk1");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Case loaded = caseRepository.findById(created.getId()).orElseThrow();
+            // The buffered edit is written in its own transaction while this one still holds the case
+            noteBuffer.put(created.getId(), created.getCaseNumber(), "Adjourned at the parties' request");
+            noteBuffer.flush(created.getId());
+            loaded.setDescription("Amended");
+        });
+
+        assertEquals("Adjourned at the parties' request", notesOf(created.getId()));
+        assertEquals("Amended", caseService.getCaseById(created.getId()).orElseThrow().getDescription());
+    }
+
+    @Test
+    void escalationCarriesTheLatestNotesOver() {
+        Case dismissed = caseService.createCase(new Case(null, "Noted appeal", "Notes", Case.CaseType.CIVIL),
+                "clerk1");
+        caseService.updateCaseStatus(dismissed.getId(), Case.Status.DISMISSED);
+        caseService.updateCaseNotes(dismissed.getId(), "Grounds of appeal lodged");
+        noteBuffer.flush(dismissed.getId());
+
+        Case appeal = caseService.escalateCase(dismissed.getId(), "Appeal filed");
+
+        assertEquals("Grounds of appeal lodged", notesOf(appeal.getId()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import com.example.dcm.model.Case;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CompiledPriorityRulesTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private PriorityRuleSet bundledRules() throws IOException {
+        try (InputStream in = new ClassPathResource("priority-rules.json").getInputStream()) {
+            return mapper.readValue(in, PriorityRuleSet.class);
+        }
+    }
+
+    private CompiledPriorityRules compile(String json) throws IOException {
+        return new CompiledPriorityRules(mapper.readValue(json, PriorityRuleSet.class), 1);
+    }
+
+    @Test
+    void scoresEveryRuleFromTheTable() throws IOException {
+        CompiledPriorityRules rules = new CompiledPriorityRules(bundledRules(), 1);
+
+        // 5 base + 2 criminal + 0 district + 0 for 8-90 days
+        assertEquals(7, rules.score(Case.CaseType.CRIMINAL, Case.CourtLevel.DISTRICT, 30, false, 0));
+        // 5 base - 1 administrative + 2 high + 1 for a week or less + 1 escalated
+        assertEquals(8, rules.score(Case.CaseType.ADMINISTRATIVE, Case.CourtLevel.HIGH, 7, true, 0));
+        // 5 base + 0 civil + 0 district - 1 past the last bound
+        assertEquals(4, rules.score(Case.CaseType.CIVIL, Case.CourtLevel.DISTRICT, 91, false, 0));
+        // Missing inputs weigh nothing
+        assertEquals(5, rules.score(null, null, null, false, 0));
+    }
+
+    @Test
+    void addsResourceFlagWeights() throws IOException {
+        CompiledPriorityRules rules = new CompiledPriorityRules(bundledRules(), 1);
+        int urgent = rules.resourceFlags("Urgent hearing requested");
+        int both = rules.resourceFlags("complex and urgent");
+
+        assertEquals(1, urgent);
+        assertEquals(3, both);
+        assertEquals(7, rules.score(Case.CaseType.CIVIL, Case.CourtLevel.DISTRICT, 30, false, urgent));
+        assertEquals(8, rules.score(Case.CaseType.CIVIL, Case.CourtLevel.DISTRICT, 30, false, both));
+    }
+
+    @Test
+    void clampsToTheConfiguredRange() throws IOException {
+        CompiledPriorityRules rules = compile("{\"base\": 5, \"minPriority\": 2, \"maxPriority\": 6,"
+                + " \"caseTypeWeights\": {\"CONSTITUTIONAL\": 4, \"ADMINISTRATIVE\": -4}}");
+
+        assertEquals(6, rules.score(Case.CaseType.CONSTITUTIONAL, Case.CourtLevel.DISTRICT, null, false, 0));
+        assertEquals(2, rules.score(Case.CaseType.ADMINISTRATIVE, Case.CourtLevel.DISTRICT, null, false, 0));
+        assertEquals(6, rules.adjust(5, 3));
+        assertEquals(2, rules.adjust(5, -4));
+        assertEquals(4, rules.adjust(5, -1));
+    }
+
+    @Test
+    void breakdownAccountsForTheScore() throws IOException {
+        CompiledPriorityRules rules = new CompiledPriorityRules(bundledRules(), 3);
+        Case caseEntity = new Case();
+        caseEntity.setCaseType(Case.CaseType.CONSTITUTIONAL);
+        caseEntity.setCourtLevel(Case.CourtLevel.SUPREME);
+        caseEntity.setEstimatedDurationDays(3);
+
+        CompiledPriorityRules.Breakdown breakdown = rules.breakdown(caseEntity, 3);
+
+        assertEquals(3, breakdown.getRulesRevision());
+        assertEquals(15, breakdown.getRawScore());
+        assertEquals(10, breakdown.getScore());
+        assertEquals(rules.score(caseEntity, 3), breakdown.getScore());
+        assertEquals(breakdown.getScore(), breakdown.getContributions().stream()
+                .mapToInt(CompiledPriorityRules.Contribution::getPoints).sum());
+        assertTrue(breakdown.getContributions().stream().anyMatch(c -> c.getRule().equals("CLAMP")));
+        assertEquals("0-7 days", breakdown.getContributions().stream()
+                .filter(c -> c.getRule().equals("DURATION")).findFirst().orElseThrow().getDetail());
+    }
+
+    @Test
+    void rejectsInvalidRuleSets() {
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"minPriority\": 5, \"maxPriority\": 4}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"maxPriority\": 10, \"durationBuckets\":"
+                + " [{\"maxDays\": null, \"weight\": 1}, {\"maxDays\": 7, \"weight\": 0}]}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"maxPriority\": 10, \"durationBuckets\":"
+                + " [{\"maxDays\": 30, \"weight\": 1}, {\"maxDays\": 30, \"weight\": 0}]}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"maxPriority\": 10, \"resourceFlags\":"
+                + " [{\"name\": \"EMPTY\", \"keywords\": [], \"weight\": 1}]}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"maxPriority\": 10, \"resourceFlags\":"
+                + " [{\"name\": \"BLANK\", \"keywords\": [\" \"], \"weight\": 1}]}"));
+    }
+
+    @Test
+    void keywordVersionFollowsOnlyTheKeywords() throws IOException {
+        PriorityRuleSet ruleSet = bundledRules();
+        long version = new CompiledPriorityRules(ruleSet, 1).getKeywordVersion();
+
+        ruleSet.setBase(7);
+        ruleSet.getResourceFlags().get(0).setWeight(5);
+        assertEquals(version, new CompiledPriorityRules(ruleSet, 2).getKeywordVersion());
+
+        ruleSet.getResourceFlags().get(0).setKeywords(List.of("urgent", "emergency", "immediate"));
+        assertNotEquals(version, new CompiledPriorityRules(ruleSet, 3).getKeywordVersion());
+    }
+}
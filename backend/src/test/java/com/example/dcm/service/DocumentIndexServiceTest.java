@@ -0,0 +1,123 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.Document;
+import com.example.dcm.repository.DocumentRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentIndexServiceTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentTextExtractor textExtractor;
+
+    @InjectMocks
+    private DocumentIndexService indexService;
+
+    private Document index(long documentId, long caseId, String fileName, String text) throws IOException {
+        Case caseEntity = new Case();
+        caseEntity.setId(caseId);
+        Document document = new Document(fileName, "Filed document", "text/plain", 1L,
+                "/api/documents/view/" + fileName, caseEntity);
+        document.setId(documentId);
+        when(textExtractor.extract(any(), eq("text/plain"), eq(fileName))).thenReturn(text);
+        indexService.indexDocument(document);
+        return document;
+    }
+
+    private List<Long> hits(String query, Long caseId) {
+        return indexService.search(query, caseId, 10).stream()
+                .map(DocumentIndexService.SearchHit::getDocumentId).toList();
+    }
+
+    @Test
+    void everyTermMustMatchAndFrequentTermsRankFirst() throws IOException {
+        index(1L, 10L, "a.txt", "Lease agreement for the warehouse");
+        index(2L, 10L, "b.txt", "Warehouse lease, lease renewal and lease arrears");
+        index(3L, 10L, "c.txt", "Warehouse inspection report");
+
+        assertEquals(List.of(2L, 1L), hits("lease warehouse", 10L));
+        assertEquals(List.of(3L), hits("WAREHOUSE inspection", 10L));
+        assertTrue(hits("lease inspection", 10L).isEmpty());
+    }
+
+    @Test
+    void stopWordsAndSingleCharactersAreNotTerms() {
+        assertEquals(List.of("notice", "appeal", "2026"),
+                DocumentIndexService.tokenize("The notice of a appeal, 2026"));
+        assertTrue(indexService.search("the a of", null, 10).isEmpty());
+    }
+
+    @Test
+    void searchesOneCaseOrAll() throws IOException {
+        index(1L, 10L, "a.txt", "Witness statement");
+        index(2L, 20L, "b.txt", "Witness summons");
+
+        assertEquals(List.of(1L), hits("witness", 10L));
+        assertEquals(List.of(2L), hits("witness", 20L));
+        assertEquals(2, hits("witness", null).size());
+        assertTrue(hits("witness", 30L).isEmpty());
+        assertEquals(1, indexService.search("witness", null, 1).size());
+    }
+
+    @Test
+    void reindexingReplacesTheOldText() throws IOException {
+        Document document = index(1L, 10L, "a.txt", "Draft settlement terms");
+        index(2L, 10L, "b.txt", "Settlement correspondence");
+
+        when(textExtractor.extract(any(), eq("text/plain"), eq("a.txt"))).thenReturn("Final judgment");
+        indexService.indexDocument(document);
+
+        assertTrue(hits("draft", 10L).isEmpty());
+        assertEquals(List.of(2L), hits("settlement", 10L));
+        assertEquals(List.of(1L), hits("judgment", 10L));
+        assertEquals(2, indexService.getIndexedDocumentCount());
+    }
+
+    @Test
+    void reindexingDropsEveryPostingOfTheOldText() throws IOException {
+        Document document = index(1L, 10L, "a.txt", "Lease notice");
+        index(2L, 10L, "b.txt", "Lease lease notice");
+        indexService.indexDocument(document);
+
+        // Counted once despite being indexed twice, so the lease-heavy document still ranks first
+        assertEquals(List.of(2L, 1L), hits("lease", 10L));
+
+        when(textExtractor.extract(any(), eq("text/plain"), eq("a.txt"))).thenReturn("Notice");
+        indexService.indexDocument(document);
+        assertEquals(List.of(2L), hits("lease", 10L));
+        assertEquals(2, hits("notice", 10L).size());
+    }
+
+    @Test
+    void unreadableFilesAreFoundByNameAndDescription() throws IOException {
+        Case caseEntity = new Case();
+        caseEntity.setId(10L);
+        Document document = new Document("exhibit-photo.jpg", "Scene photograph", "image/jpeg", 1L,
+                "/api/documents/view/exhibit-photo.jpg", caseEntity);
+        document.setId(1L);
+        when(textExtractor.extract(any(), any(), any())).thenThrow(new IOException("unreadable"));
+
+        indexService.indexDocument(document);
+
+        assertEquals(List.of(1L), hits("exhibit photograph", 10L));
+        assertTrue(indexService.search("scene", 10L, 10).get(0).getSnippet().contains("Scene photograph"));
+    }
+}
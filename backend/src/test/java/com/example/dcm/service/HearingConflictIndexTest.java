@@ -0,0 +1,122 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class HearingConflictIndexTest {
+
+    // A Monday; 2026-06-05 is the Friday of the same week
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 6, 1, 9, 0);
+
+    private HearingConflictIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HearingConflictIndex();
+        ReflectionTestUtils.setField(index, "slotMinutes", 60);
+        ReflectionTestUtils.setField(index, "dailyCapacity", 6);
+        ReflectionTestUtils.setField(index, "dayStart", LocalTime.of(9, 0));
+        ReflectionTestUtils.setField(index, "horizonDays", 90);
+    }
+
+    @Test
+    void rejectsOverlappingHearingsOfTheSameJudge() {
+        index.reserve(1L, 10L, MONDAY.plusHours(1));
+
+        assertThrows(IllegalStateException.class, () -> index.reserve(2L, 10L, MONDAY.plusHours(1)));
+        assertThrows(IllegalStateException.class, () -> index.reserve(2L, 10L, MONDAY.plusMinutes(90)));
+        assertThrows(IllegalStateException.class, () -> index.reserve(2L, 10L, MONDAY.plusMinutes(30)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void allowsBackToBackHearingsAndOtherJudges() {
+        index.reserve(1L, 10L, MONDAY.plusHours(1));
+
+        index.reserve(2L, 10L, MONDAY);
+        index.reserve(3L, 10L, MONDAY.plusHours(2));
+        index.reserve(4L, 20L, MONDAY.plusHours(1));
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L), index.findConflicts(10L, MONDAY.plusHours(1)).stream()
+                .map(HearingConflictIndex.Hearing::getCaseId).toList());
+    }
+
+    @Test
+    void movingACaseFreesItsPreviousSlot() {
+        index.reserve(1L, 10L, MONDAY);
+        // The case may move onto an overlapping time of its own
+        index.reserve(1L, 10L, MONDAY.plusMinutes(30));
+        index.reserve(2L, 10L, MONDAY.plusMinutes(90));
+
+        assertTrue(index.findConflicts(10L, MONDAY.minusMinutes(30)).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void tryReserveKeepsAnExistingHearing() {
+        assertTrue(index.tryReserve(1L, 10L, MONDAY));
+        assertFalse(index.tryReserve(1L, 10L, MONDAY.plusHours(3)));
+        assertFalse(index.tryReserve(2L, 10L, MONDAY));
+        assertTrue(index.tryReserve(2L, 10L, MONDAY.plusHours(1)));
+    }
+
+    @Test
+    void refreshAndRemoveDropHearings() {
+        index.reserve(1L, 10L, MONDAY);
+        index.refresh(1L, null, null);
+        assertEquals(0, index.size());
+
+        index.refresh(2L, 10L, MONDAY);
+        index.remove(2L);
+        assertTrue(index.findConflicts(10L, MONDAY).isEmpty());
+    }
+
+    @Test
+    void nextFreeSlotSkipsBusySlotsAndWeekends() {
+        assertEquals(MONDAY.plusHours(1), index.findNextFreeSlot(10L, MONDAY.plusMinutes(1)));
+
+        index.reserve(1L, 10L, MONDAY);
+        index.reserve(2L, 10L, MONDAY.plusHours(1));
+        assertEquals(MONDAY.plusHours(2), index.findNextFreeSlot(10L, MONDAY));
+
+        // Friday's last slot is taken, so the next one is Monday morning
+        LocalDateTime fridayLastSlot = MONDAY.plusDays(4).plusHours(5);
+        index.reserve(3L, 10L, fridayLastSlot);
+        assertEquals(MONDAY.plusDays(7), index.findNextFreeSlot(10L, fridayLastSlot));
+        assertEquals(MONDAY.plusDays(7), index.findNextFreeSlot(10L, MONDAY.plusDays(5).plusHours(3)));
+    }
+
+    @Test
+    void rollbackRestoresThePreviousHearing() {
+        index.reserve(1L, 10L, MONDAY);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.reserve(1L, 10L, MONDAY.plusHours(2));
+            index.reserve(2L, 10L, MONDAY);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), index.findConflicts(10L, MONDAY).stream()
+                .map(HearingConflictIndex.Hearing::getCaseId).toList());
+        assertTrue(index.findConflicts(10L, MONDAY.plusHours(2)).isEmpty());
+    }
+}
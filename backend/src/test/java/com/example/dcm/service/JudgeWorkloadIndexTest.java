@@ -0,0 +1,146 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.dcm.model.Case;
+import com.example.dcm.model.User;
+
+class JudgeWorkloadIndexTest {
+
+    private JudgeWorkloadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new JudgeWorkloadIndex();
+        ReflectionTestUtils.setField(index, "defaultDurationDays", 30);
+        index.refreshJudge(judge(1L, User.CourtLevel.DISTRICT));
+        index.refreshJudge(judge(2L, User.CourtLevel.DISTRICT));
+    }
+
+    private static User judge(Long id, User.CourtLevel courtLevel) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("judge" + id);
+        user.setRole(User.Role.JUDGE);
+        user.setCourtLevel(courtLevel);
+        return user;
+    }
+
+    private Map<Long, Long> loads() {
+        return index.getWorkloads(Case.CourtLevel.DISTRICT).stream()
+                .collect(Collectors.toMap(JudgeWorkloadIndex.JudgeWorkload::getJudgeId,
+                        JudgeWorkloadIndex.JudgeWorkload::getLoad));
+    }
+
+    @Test
+    void weighsPriorityByDuration() {
+        assertEquals(80, index.weightOf(8, 10));
+        assertEquals(150, index.weightOf(null, null));
+        assertEquals(3, index.weightOf(0, 3));
+    }
+
+    @Test
+    void assignsToTheLeastLoadedJudgeOfTheLevel() {
+        index.refreshJudge(judge(3L, User.CourtLevel.HIGH));
+        index.track(10L, 1L, 50, true);
+
+        assertEquals(2L, index.findLeastLoadedJudge(Case.CourtLevel.DISTRICT));
+        assertEquals(3L, index.findLeastLoadedJudge(Case.CourtLevel.HIGH));
+        assertNull(index.findLeastLoadedJudge(Case.CourtLevel.SUPREME));
+
+        index.track(11L, 2L, 80, true);
+        assertEquals(1L, index.findLeastLoadedJudge(Case.CourtLevel.DISTRICT));
+
+        // Re-tracking replaces the earlier assignment of the case
+        index.track(11L, 2L, 20, true);
+        index.untrack(10L);
+        assertEquals(Map.of(1L, 0L, 2L, 20L), loads());
+    }
+
+    @Test
+    void formerJudgesLeaveThePool() {
+        User clerk = judge(2L, User.CourtLevel.DISTRICT);
+        clerk.setRole(User.Role.CLERK);
+        index.refreshJudge(clerk);
+        index.track(10L, 1L, 50, true);
+
+        assertEquals(1L, index.findLeastLoadedJudge(Case.CourtLevel.DISTRICT));
+
+        index.refreshJudge(judge(1L, User.CourtLevel.HIGH));
+        assertNull(index.findLeastLoadedJudge(Case.CourtLevel.DISTRICT));
+        assertEquals(50, index.getWorkloads(Case.CourtLevel.HIGH).get(0).getLoad());
+    }
+
+    @Test
+    void rebalanceMovesCasesWithoutHearingsUntilTheGapCannotNarrow() {
+        index.track(10L, 1L, 20, true);
+        index.track(11L, 1L, 20, true);
+        index.track(12L, 1L, 40, false);
+
+        List<JudgeWorkloadIndex.Move> moves = index.planRebalance(Case.CourtLevel.DISTRICT, 10);
+
+        assertEquals(2, moves.size());
+        assertTrue(moves.stream().allMatch(move -> move.getFromJudgeId() == 1L && move.getToJudgeId() == 2L));
+        assertEquals(List.of(10L, 11L), moves.stream().map(JudgeWorkloadIndex.Move::getCaseId).sorted().toList());
+        assertEquals(Map.of(1L, 40L, 2L, 40L), loads());
+        // A second pass has nothing left to do
+        assertTrue(index.planRebalance(Case.CourtLevel.DISTRICT, 10).isEmpty());
+    }
+
+    @Test
+    void eachMoveTakesTheCaseNearestHalfTheGap() {
+        index.track(10L, 1L, 10, true);
+        index.track(11L, 1L, 25, true);
+        index.track(12L, 1L, 40, true);
+
+        // Half the gap is 37.5: the heavier case lands closer to it than the lighter one below it
+        List<JudgeWorkloadIndex.Move> moves = index.planRebalance(Case.CourtLevel.DISTRICT, 10);
+
+        assertEquals(List.of(12L), moves.stream().map(JudgeWorkloadIndex.Move::getCaseId).toList());
+        assertEquals(Map.of(1L, 35L, 2L, 40L), loads());
+    }
+
+    @Test
+    void rebalanceStopsAtTheMoveLimitAndNeverMovesHearings() {
+        index.track(10L, 1L, 10, true);
+        index.track(11L, 1L, 10, true);
+        index.track(12L, 1L, 10, true);
+        index.track(13L, 1L, 500, false);
+
+        assertEquals(1, index.planRebalance(Case.CourtLevel.DISTRICT, 1).size());
+        assertEquals(2, index.planRebalance(Case.CourtLevel.DISTRICT, 10).size());
+        assertEquals(Map.of(1L, 500L, 2L, 30L), loads());
+    }
+
+    @Test
+    void changesAreUndoneWhenTheTransactionRollsBack() {
+        index.track(10L, 1L, 30, true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.track(11L, 1L, 30, true);
+            index.planRebalance(Case.CourtLevel.DISTRICT, 10);
+            assertEquals(Map.of(1L, 30L, 2L, 30L), loads());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            for (int i = synchronizations.size() - 1; i >= 0; i--) {
+                synchronizations.get(i).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(Map.of(1L, 30L, 2L, 0L), loads());
+    }
+}
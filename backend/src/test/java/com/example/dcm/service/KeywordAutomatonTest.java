@@ -0,0 +1,82 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void reportsTheFlagsOfEveryKeywordFound() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("he", "she", "his", "hers"),
+                new int[] { 1, 2, 4, 8 });
+
+        assertEquals(1 | 2 | 8, automaton.match("ushers"));
+        assertEquals(4, automaton.match("this"));
+        assertEquals(0, automaton.match("nothing to match"));
+    }
+
+    @Test
+    void findsKeywordsInsideLongerWords() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("urgent", "special expertise"), new int[] { 1, 2 });
+
+        assertEquals(1, automaton.match("non-urgent matter"));
+        assertEquals(2, automaton.match("needs special expertise"));
+        // A partial match followed by a full one
+        assertEquals(2, automaton.match("special expert, special expertise"));
+    }
+
+    @Test
+    void ignoresCaseIncludingOutsideAscii() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("Émergence", "kit"), new int[] { 1, 2 });
+
+        assertEquals(1, automaton.match("ÉMERGENCE"));
+        assertEquals(1, automaton.match("émergence"));
+        // The Kelvin sign folds to k, as String.regionMatches(true, ...) treats it
+        assertEquals(2, automaton.match("\u212Ait"));
+    }
+
+    @Test
+    void matchesNothingInEmptyInput() {
+        KeywordAutomaton automaton = new KeywordAutomaton(List.of("urgent"), new int[] { 1 });
+
+        assertEquals(0, automaton.match(null));
+        assertEquals(0, automaton.match(""));
+        assertEquals(0, new KeywordAutomaton(List.of(), new int[0]).match("urgent"));
+    }
+
+    @Test
+    void agreesWithRegionMatches() {
+        List<String> keywords = List.of("ab", "bab", "abc", "ca", "aaa", "B");
+        int[] flags = { 1, 2, 4, 8, 16, 32 };
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords, flags);
+        Random random = new Random(42);
+        String alphabet = "abcABC ";
+
+        for (int run = 0; run < 2000; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertEquals(naiveMatch(keywords, flags, text.toString()), automaton.match(text), text.toString());
+        }
+    }
+
+    private static int naiveMatch(List<String> keywords, int[] flags, String text) {
+        int found = 0;
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            for (int at = 0; at + keyword.length() <= text.length(); at++) {
+                if (text.regionMatches(true, at, keyword, 0, keyword.length())) {
+                    found |= flags[k];
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+}
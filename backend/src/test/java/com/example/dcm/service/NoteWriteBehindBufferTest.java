@@ -0,0 +1,151 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.dcm.repository.CaseRepository;
+
+@ExtendWith(MockitoExtension.class)
+class NoteWriteBehindBufferTest {
+
+    @Mock
+    private CaseRepository caseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AuditService auditService;
+
+    @InjectMocks
+    private NoteWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(buffer, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(buffer, "maxDelayMs", 600_000L);
+        buffer.init();
+        lenient().when(caseRepository.updateNotes(any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void writesOnlyTheLatestTextOfACase() {
+        buffer.put(1L, "DCM-1", "first");
+        buffer.put(1L, "DCM-1", "second");
+        buffer.put(2L, "DCM-2", null);
+
+        assertEquals("second", buffer.getPending(1L));
+        assertEquals("", buffer.getPending(2L));
+        // Neither window has passed yet
+        buffer.flushDue();
+        verify(caseRepository, never()).updateNotes(any(), any(), any());
+
+        buffer.flushAll();
+
+        verify(caseRepository).updateNotes(eq(1L), eq("second"), any());
+        verify(caseRepository).updateNotes(eq(2L), eq(""), any());
+        assertNull(buffer.getPending(1L));
+        ArgumentCaptor<AuditEntry> audits = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditService, times(2)).record(audits.capture());
+        assertEquals("6 characters, 2 edits", audits.getAllValues().get(0).getDetails());
+        NoteWriteBehindBuffer.WriteBehindStats stats = buffer.getStats();
+        assertEquals(3, stats.getEdits());
+        assertEquals(2, stats.getCasesWritten());
+        assertEquals(0, stats.getPendingCases());
+    }
+
+    @Test
+    void aZeroWindowWritesEveryEditThrough() {
+        ReflectionTestUtils.setField(buffer, "windowMs", 0L);
+
+        buffer.put(1L, "DCM-1", "now");
+
+        verify(caseRepository).updateNotes(eq(1L), eq("now"), any());
+        assertNull(buffer.getPending(1L));
+    }
+
+    @Test
+    void casesAreDueAfterTheWindowOrTheMaximumDelay() {
+        buffer.put(1L, "DCM-1", "quiet");
+        ReflectionTestUtils.setField(buffer, "windowMs", 0L);
+
+        buffer.flushDue();
+        verify(caseRepository).updateNotes(eq(1L), eq("quiet"), any());
+
+        // Still within the window, but edited for longer than the maximum delay
+        ReflectionTestUtils.setField(buffer, "windowMs", 60_000L);
+        ReflectionTestUtils.setField(buffer, "maxDelayMs", 0L);
+        buffer.put(2L, "DCM-2", "busy");
+        buffer.flushDue();
+        verify(caseRepository).updateNotes(eq(2L), eq("busy"), any());
+    }
+
+    @Test
+    void editsOfACaseThatIsGoneAreDropped() {
+        when(caseRepository.updateNotes(eq(1L), anyString(), any())).thenReturn(0);
+        buffer.put(1L, "DCM-1", "lost");
+
+        buffer.flush(1L);
+
+        assertNull(buffer.getPending(1L));
+        assertEquals(1, buffer.getStats().getCasesDropped());
+        assertEquals(0, buffer.getStats().getCasesWritten());
+        verify(auditService, never()).record(any());
+    }
+
+    @Test
+    void aFailingCaseStaysBufferedWithoutHoldingBackTheOthers() {
+        when(caseRepository.updateNotes(eq(1L), anyString(), any())).thenThrow(new IllegalStateException("locked"));
+        buffer.put(1L, "DCM-1", "retry me");
+        buffer.put(2L, "DCM-2", "fine");
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, buffer::flushAll);
+
+        assertEquals("Failed to write buffered notes of 1 case", failure.getMessage());
+        assertEquals("retry me", buffer.getPending(1L));
+        assertNull(buffer.getPending(2L));
+        verify(caseRepository).updateNotes(eq(2L), eq("fine"), any());
+
+        // The scheduled check logs instead of throwing and retries next time
+        ReflectionTestUtils.setField(buffer, "windowMs", 0L);
+        buffer.flushDue();
+        assertEquals("retry me", buffer.getPending(1L));
+    }
+
+    @Test
+    void anEditMadeDuringTheWriteStaysBuffered() {
+        when(caseRepository.updateNotes(eq(1L), eq("old"), any())).thenAnswer(invocation -> {
+            buffer.put(1L, "DCM-1", "new");
+            return 1;
+        });
+        buffer.put(1L, "DCM-1", "old");
+
+        buffer.flush(1L);
+
+        assertEquals("new", buffer.getPending(1L));
+        assertEquals(0, buffer.getStats().getCasesWritten());
+
+        buffer.flush(1L);
+        verify(caseRepository).updateNotes(eq(1L), eq("new"), any());
+        assertNull(buffer.getPending(1L));
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.junit.jupiter.api.Test;
+
+class PdfDocumentWriterTest {
+
+    private static final Pattern STARTXREF = Pattern.compile("startxref\n(\\d+)\n%%EOF\n$");
+    private static final Pattern STREAM = Pattern.compile("<< /Length (\\d+) /Filter /FlateDecode >>\nstream\n");
+
+    private static byte[] render(int paragraphs) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocumentWriter writer = new PdfDocumentWriter(out)) {
+            writer.heading("Case Report (DCM-2026-0001)");
+            writer.field("Status", "FILED");
+            for (int i = 0; i < paragraphs; i++) {
+                writer.paragraph("Paragraph " + i + " with a back\\slash, costs of 12 € and a long line that "
+                        + "has to wrap across the page width at least once before it ends.");
+            }
+        }
+        return out.toByteArray();
+    }
+
+    // Latin-1 keeps every byte at its offset, so offsets into the string are file offsets
+    private static String text(byte[] pdf) {
+        return new String(pdf, StandardCharsets.ISO_8859_1);
+    }
+
+    private static List<Long> xrefOffsets(String pdf) {
+        Matcher startxref = STARTXREF.matcher(pdf);
+        assertTrue(startxref.find(), "trailer ends with startxref");
+        int xref = Integer.parseInt(startxref.group(1));
+        assertTrue(pdf.startsWith("xref\n0 ", xref), "startxref points at the xref table");
+
+        String[] lines = pdf.substring(xref).split("\n");
+        int size = Integer.parseInt(lines[1].substring(2));
+        assertEquals("0000000000 65535 f ", lines[2]);
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 1; i < size; i++) {
+            String entry = lines[2 + i];
+            assertEquals(19, entry.length(), "xref entries are 20 bytes with the newline");
+            assertTrue(entry.endsWith(" 00000 n "));
+            offsets.add(Long.parseLong(entry.substring(0, 10)));
+        }
+        assertTrue(pdf.contains("trailer\n<< /Size " + size + " /Root 1 0 R >>"));
+        return offsets;
+    }
+
+    @Test
+    void everyXrefEntryPointsAtItsObject() throws IOException {
+        String pdf = text(render(3));
+
+        List<Long> offsets = xrefOffsets(pdf);
+
+        assertTrue(pdf.startsWith("%PDF-1.4\n"));
+        assertEquals(6, offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+            int object = i + 1;
+            assertTrue(pdf.startsWith(object + " 0 obj\n", offsets.get(i).intValue()), "offset of object " + object);
+        }
+    }
+
+    @Test
+    void longReportsSpanPagesListedInThePageTree() throws IOException {
+        String pdf = text(render(200));
+
+        List<Long> offsets = xrefOffsets(pdf);
+        Matcher pages = Pattern.compile("<< /Type /Pages /Kids \\[([0-9 R]*)\\] /Count (\\d+) >>").matcher(pdf);
+        assertTrue(pages.find());
+        int count = Integer.parseInt(pages.group(2));
+        String[] kids = pages.group(1).trim().split(" 0 R ?");
+
+        assertTrue(count > 1);
+        assertEquals(count, kids.length);
+        // Fonts, catalog, page tree, and a content stream and page object per page
+        assertEquals(4 + 2 * count, offsets.size());
+        for (String kid : kids) {
+            int offset = offsets.get(Integer.parseInt(kid.trim()) - 1).intValue();
+            assertTrue(pdf.startsWith(kid.trim() + " 0 obj\n<< /Type /Page /Parent 2 0 R", offset));
+        }
+        assertTrue(inflateAll(pdf).contains("(Page " + count + ") Tj"));
+    }
+
+    @Test
+    void streamLengthsMatchAndTextIsEscaped() throws IOException {
+        String pdf = text(render(1));
+
+        String content = inflateAll(pdf);
+
+        assertTrue(content.contains("(Case Report \\(DCM-2026-0001\\)) Tj"));
+        assertTrue(content.contains("back\\\\slash"));
+        assertTrue(content.contains("12 \u0080 and"), "euro sign is WinAnsi 0x80");
+        assertTrue(content.contains("(Page 1) Tj"));
+    }
+
+    @Test
+    void emptyDocumentStillHasOnePage() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfDocumentWriter writer = new PdfDocumentWriter(out);
+        writer.finish();
+        writer.close();
+        String pdf = text(out.toByteArray());
+
+        assertEquals(1, writer.getPageCount());
+        assertEquals(6, xrefOffsets(pdf).size());
+        assertTrue(pdf.contains("/Count 1 >>"));
+        assertEquals(pdf.indexOf("%%EOF"), pdf.lastIndexOf("%%EOF"), "finish is idempotent");
+    }
+
+    // Inflate every content stream, checking each /Length against the bytes up to endstream
+    private static String inflateAll(String pdf) {
+        StringBuilder content = new StringBuilder();
+        Matcher stream = STREAM.matcher(pdf);
+        while (stream.find()) {
+            int length = Integer.parseInt(stream.group(1));
+            int start = stream.end();
+            assertTrue(pdf.startsWith("\nendstream\nendobj\n", start + length), "stream /Length is exact");
+            byte[] compressed = pdf.substring(start, start + length).getBytes(StandardCharsets.ISO_8859_1);
+            content.append(inflate(compressed));
+        }
+        return content.toString();
+    }
+
+    private static String inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+            }
+            assertTrue(inflater.finished(), "stream inflates completely");
+            return out.toString(StandardCharsets.ISO_8859_1);
+        } catch (DataFormatException e) {
+            throw new AssertionError("stream is not valid Deflate data", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.model.Case;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PriorityEngineTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private PriorityEngine engineWithMaxPriority(int maxPriority) throws IOException {
+        Path rulesFile = rulesDir.resolve("rules.json");
+        Files.writeString(rulesFile, "{\"base\": 5, \"minPriority\": 1, \"maxPriority\": " + maxPriority + ","
+                + " \"caseTypeWeights\": {\"CRIMINAL\": 2}}");
+        PriorityEngine engine = new PriorityEngine();
+        ReflectionTestUtils.setField(engine, "rulesFile", rulesFile.toString());
+        engine.loadRules();
+        return engine;
+    }
+
+    private static Case waitingCase(int priority, int daysWaiting) {
+        Case caseEntity = new Case();
+        caseEntity.setCaseType(Case.CaseType.CRIMINAL);
+        caseEntity.setCourtLevel(Case.CourtLevel.DISTRICT);
+        caseEntity.setStatus(Case.Status.FILED);
+        caseEntity.setFilingDate(LocalDateTime.now().minusDays(daysWaiting));
+        caseEntity.setPriority(priority);
+        return caseEntity;
+    }
+
+    @Test
+    void capsTheAgeBonusAtTheRulesMaximum() throws IOException {
+        PriorityEngine engine = engineWithMaxPriority(8);
+
+        assertEquals(8, engine.effectivePriority(waitingCase(7, 120)));
+        assertEquals(8, engine.effectivePriority(waitingCase(6, 120)));
+        assertEquals(6, engine.effectivePriority(waitingCase(5, 40)));
+        assertEquals(5, engine.effectivePriority(waitingCase(5, 1)));
+    }
+
+    @Test
+    void simulatedRulesUseTheirOwnMaximum() throws IOException {
+        PriorityEngine engine = engineWithMaxPriority(10);
+        CompiledPriorityRules simulated = engine.compileOverrides(
+                new ObjectMapper().readTree("{\"maxPriority\": 6}"));
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(6, engine.effectivePriority(waitingCase(5, 120), simulated, now));
+        assertEquals(7, engine.effectivePriority(waitingCase(5, 120), now));
+        // Compiling overrides leaves the live maximum alone
+        assertEquals(10, engine.getRules().getMaxPriority());
+    }
+
+    @Test
+    void adjustmentsSurviveRecalculationWithinTheRange() throws IOException {
+        PriorityEngine engine = engineWithMaxPriority(10);
+        Case caseEntity = waitingCase(9, 1);
+        caseEntity.setPriorityAdjustment(2);
+
+        // Rule score 7 plus the stored adjustment
+        assertEquals(7, engine.calculatePriority(caseEntity));
+        assertEquals(9, engine.adjustedPriority(caseEntity));
+        assertTrue(engine.explain(caseEntity).isStoredPriorityCurrent());
+
+        caseEntity.setPriorityAdjustment(5);
+        assertEquals(10, engine.adjustedPriority(caseEntity));
+        assertFalse(engine.explain(caseEntity).isStoredPriorityCurrent());
+    }
+}
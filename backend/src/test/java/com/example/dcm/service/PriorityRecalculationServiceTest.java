@@ -0,0 +1,118 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.model.Case;
+
+@SpringBootTest(properties = "dcm.outbox.log-file=target/case-events.log")
+class PriorityRecalculationServiceTest {
+
+    @Autowired
+    private PriorityRecalculationService recalculationService;
+
+    @Autowired
+    private CaseService caseService;
+
+    @Autowired
+    private PriorityEngine priorityEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // A case whose stored priority is off from what the rules give it; returns the rules' priority
+    private int staleCase(Case caseEntity) {
+        Case created = caseService.createCase(caseEntity, "clerk1");
+        int scored = created.getPriority();
+        jdbcTemplate.update("UPDATE cases SET priority = ? WHERE id = ?", otherThan(scored), created.getId());
+        return scored;
+    }
+
+    private static int otherThan(int priority) {
+        return priority == 1 ? 2 : 1;
+    }
+
+    private int storedPriority(Long caseId) {
+        return jdbcTemplate.queryForObject("SELECT priority FROM cases WHERE id = ?", Integer.class, caseId);
+    }
+
+    private PriorityRecalculationService.RecalculationView runToCompletion() throws InterruptedException {
+        Long runId = recalculationService.start("admin").getId();
+        PriorityRecalculationService.RecalculationView run = recalculationService.getRun(runId);
+        for (int i = 0; i < 200 && run.getStatus() == PriorityRecalculationService.Status.RUNNING; i++) {
+            Thread.sleep(50);
+            run = recalculationService.getRun(runId);
+        }
+        assertEquals(PriorityRecalculationService.Status.COMPLETED, run.getStatus(), run.getMessage());
+        return run;
+    }
+
+    @Test
+    void rewritesStalePriorities() throws InterruptedException {
+        Case civil = new Case(null, "Boundary dispute", "Recalculation", Case.CaseType.CIVIL);
+        Case criminal = new Case(null, "Burglary", "Recalculation", Case.CaseType.CRIMINAL);
+        int civilPriority = staleCase(civil);
+        int criminalPriority = staleCase(criminal);
+
+        PriorityRecalculationService.RecalculationView run = runToCompletion();
+
+        assertEquals(civilPriority, storedPriority(civil.getId()));
+        assertEquals(criminalPriority, storedPriority(criminal.getId()));
+        assertEquals(run.getTotalCases(), run.getScannedCases());
+        assertEquals(100.0, run.getPercentComplete());
+    }
+
+    @Test
+    void leavesCasesReprioritizedWhileTheChunkWasScored() throws InterruptedException {
+        Case raced = new Case(null, "Contract claim", "Recalculation", Case.CaseType.CIVIL);
+        Case quiet = new Case(null, "Tenancy claim", "Recalculation", Case.CaseType.CIVIL);
+        int scored = staleCase(raced);
+        staleCase(quiet);
+        int override = scored == 9 ? 8 : 9;
+        // Someone changes the priority after the chunk was read, while it is being scored
+        AtomicBoolean changed = new AtomicBoolean();
+        CompiledPriorityRules rules = spy(priorityEngine.getRules());
+        doAnswer(invocation -> {
+            if (changed.compareAndSet(false, true)) {
+                jdbcTemplate.update("UPDATE cases SET priority = ? WHERE id = ?", override, raced.getId());
+            }
+            return invocation.callRealMethod();
+        }).when(rules).score(any(), any(), any(), anyBoolean(), anyInt());
+        PriorityEngine engine = spy(priorityEngine);
+        doReturn(rules).when(engine).getRules();
+
+        ReflectionTestUtils.setField(recalculationService, "priorityEngine", engine);
+        try {
+            runToCompletion();
+        } finally {
+            ReflectionTestUtils.setField(recalculationService, "priorityEngine", priorityEngine);
+        }
+
+        assertEquals(override, storedPriority(raced.getId()));
+        assertEquals(scored, storedPriority(quiet.getId()));
+    }
+
+    @Test
+    void keepsEachCasesAdjustment() throws InterruptedException {
+        Case adjusted = new Case(null, "Expedited claim", "Recalculation", Case.CaseType.CIVIL);
+        int scored = staleCase(adjusted);
+        jdbcTemplate.update("UPDATE cases SET priority_adjustment = 2 WHERE id = ?", adjusted.getId());
+
+        runToCompletion();
+
+        assertEquals(priorityEngine.getRules().adjust(scored, 2), storedPriority(adjusted.getId()));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.dcm.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.dcm.service.ReportArtifactCache.ArtifactType;
+
+class ReportArtifactCacheTest {
+
+    private static final LocalDateTime V1 = LocalDateTime.of(2026, 3, 1, 10, 0);
+    private static final LocalDateTime V2 = V1.plusMinutes(5);
+
+    @TempDir
+    Path spillDir;
+
+    private ReportArtifactCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReportArtifactCache();
+        ReflectionTestUtils.setField(cache, "maxMemoryBytes", 100L);
+        ReflectionTestUtils.setField(cache, "spillDirectory", "");
+        ReflectionTestUtils.setField(cache, "maxSpillBytes", 1000L);
+    }
+
+    private void enableSpill() throws IOException {
+        ReflectionTestUtils.setField(cache, "spillDirectory", spillDir.toString());
+        cache.initSpillDirectory();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.toList();
+        }
+    }
+
+    private static byte[] bytes(int length, char fill) {
+        return String.valueOf(fill).repeat(length).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void anotherVersionIsAMissAndDropsTheEntry() {
+        cache.put(1L, ArtifactType.REPORT, V1, bytes(10, 'a'));
+
+        assertArrayEquals(bytes(10, 'a'), cache.get(1L, ArtifactType.REPORT, V1));
+        assertNull(cache.get(1L, ArtifactType.PDF, V1));
+        assertNull(cache.get(1L, ArtifactType.REPORT, V2));
+        assertNull(cache.get(1L, ArtifactType.REPORT, V1));
+
+        ReportArtifactCache.CacheStats stats = cache.getStats();
+        assertEquals(0, stats.getMemoryEntries());
+        assertEquals(0, stats.getMemoryBytes());
+        assertEquals(1, stats.getHits());
+        assertEquals(3, stats.getMisses());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPastTheMemoryBound() {
+        cache.put(1L, ArtifactType.REPORT, V1, bytes(40, 'a'));
+        cache.put(2L, ArtifactType.REPORT, V1, bytes(40, 'b'));
+        cache.get(1L, ArtifactType.REPORT, V1);
+        cache.put(3L, ArtifactType.REPORT, V1, bytes(40, 'c'));
+        // Larger than the whole cache; not kept at all
+        cache.put(4L, ArtifactType.REPORT, V1, bytes(101, 'd'));
+
+        assertNull(cache.get(2L, ArtifactType.REPORT, V1));
+        assertArrayEquals(bytes(40, 'a'), cache.get(1L, ArtifactType.REPORT, V1));
+        assertArrayEquals(bytes(40, 'c'), cache.get(3L, ArtifactType.REPORT, V1));
+        assertNull(cache.get(4L, ArtifactType.REPORT, V1));
+        assertEquals(80, cache.getStats().getMemoryBytes());
+    }
+
+    @Test
+    void spilledEntriesAreReadBackAndPromoted() throws IOException {
+        enableSpill();
+        cache.put(1L, ArtifactType.PDF, V1, bytes(60, 'a'));
+        cache.put(2L, ArtifactType.PDF, V1, bytes(60, 'b'));
+
+        assertEquals(1, cache.getStats().getDiskEntries());
+        assertEquals(60, cache.getStats().getDiskBytes());
+        assertEquals(1, spillFiles().size());
+
+        // Reading case 1 back evicts case 2 to disk in turn
+        assertArrayEquals(bytes(60, 'a'), cache.get(1L, ArtifactType.PDF, V1));
+        ReportArtifactCache.CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getMemoryEntries());
+        assertEquals(1, stats.getDiskEntries());
+        assertEquals(1, spillFiles().size());
+        assertArrayEquals(bytes(60, 'b'), cache.get(2L, ArtifactType.PDF, V1));
+    }
+
+    @Test
+    void staleSpillsAreDeletedOnLookup() throws IOException {
+        enableSpill();
+        cache.put(1L, ArtifactType.PDF, V1, bytes(60, 'a'));
+        cache.put(2L, ArtifactType.PDF, V1, bytes(60, 'b'));
+
+        assertNull(cache.get(1L, ArtifactType.PDF, V2));
+
+        assertEquals(0, cache.getStats().getDiskEntries());
+        assertTrue(spillFiles().isEmpty());
+    }
+
+    @Test
+    void spillDirectoryIsBoundedAndInvalidateClearsIt() throws IOException {
+        ReflectionTestUtils.setField(cache, "maxSpillBytes", 120L);
+        enableSpill();
+        for (long caseId = 1; caseId <= 5; caseId++) {
+            cache.put(caseId, ArtifactType.REPORT, V1, bytes(60, (char) ('a' + caseId)));
+        }
+
+        // Case 5 in memory, the two most recent spills on disk
+        assertEquals(2, cache.getStats().getDiskEntries());
+        assertEquals(2, spillFiles().size());
+        assertNull(cache.get(2L, ArtifactType.REPORT, V1));
+        assertArrayEquals(bytes(60, 'e'), cache.get(4L, ArtifactType.REPORT, V1));
+
+        cache.invalidate(3L);
+        cache.invalidate(4L);
+        cache.invalidate(5L);
+
+        ReportArtifactCache.CacheStats stats = cache.getStats();
+        assertEquals(0, stats.getMemoryEntries());
+        assertEquals(0, stats.getDiskEntries());
+        assertEquals(0, stats.getDiskBytes());
+        assertTrue(spillFiles().isEmpty());
+    }
+
+    @Test
+    void concurrentSpillsNeverServeAnotherVersion() throws Exception {
+        ReflectionTestUtils.setField(cache, "maxSpillBytes", 400L);
+        enableSpill();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2000; i++) {
+                    long caseId = random.nextInt(6);
+                    LocalDateTime version = V1.plusSeconds(random.nextInt(3));
+                    switch (random.nextInt(5)) {
+                        case 0, 1 -> cache.put(caseId, ArtifactType.PDF, version, rendering(caseId, version));
+                        case 2 -> cache.invalidate(caseId);
+                        default -> {
+                            byte[] content = cache.get(caseId, ArtifactType.PDF, version);
+                            if (content != null) {
+                                assertArrayEquals(rendering(caseId, version), content);
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+
+        // Once quiet, the disk index and the directory agree
+        ReportArtifactCache.CacheStats stats = cache.getStats();
+        List<Path> files = spillFiles();
+        assertEquals(stats.getDiskEntries(), files.size());
+        long bytesOnDisk = 0;
+        for (Path file : files) {
+            bytesOnDisk += Files.size(file);
+        }
+        assertEquals(stats.getDiskBytes(), bytesOnDisk);
+        assertTrue(stats.getDiskBytes() <= 400);
+    }
+
+    // Padded so every rendering is the same size and a few fill the memory bound
+    private static byte[] rendering(long caseId, LocalDateTime version) {
+        String text = caseId + "@" + version;
+        return (text + "#".repeat(40 - text.length())).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void leftoverSpillFilesAreClearedAtStartup() throws IOException {
+        Files.writeString(spillDir.resolve("1-pdf-7.artifact"), "old");
+        Files.writeString(spillDir.resolve("notes.txt"), "kept");
+
+        enableSpill();
+
+        assertEquals(List.of(spillDir.resolve("notes.txt")), spillFiles());
+    }
+}
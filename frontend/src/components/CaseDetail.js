@@ -369,34 +369,15 @@ const CaseDetail = () => {
 
     setEscalationLoading(true);
     try {
-      await axios.post(`http://localhost:8080/api/cases/${id}/escalate`, {
+      // Escalation opens a new case at the higher court; continue on that case
+      const response = await axios.post(`http://localhost:8080/api/cases/${id}/escalate`, {
         reason: escalationReason
       });
 
-      // Refresh case data to show updated case
-      const response = await axios.get(`http://localhost:8080/api/cases/${id}`);
-      setCaseData(response.data);
-      
-      // Update notes state with newly parsed notes
-      const parsedNotes = parseNotes(response.data.notes);
-      setNotes(parsedNotes);
-      
-      // Update documents state with newly parsed documents
-      if (response.data.documents) {
-        try {
-          const parsedDocuments = JSON.parse(response.data.documents);
-          setDocuments(parsedDocuments);
-        } catch (error) {
-          console.error('Error parsing documents:', error);
-          setDocuments([]);
-        }
-      } else {
-        setDocuments([]);
-      }
-
       setShowEscalateModal(false);
       setEscalationReason('');
       showToast('Case escalated successfully');
+      navigate(`/cases/${response.data.id}`);
     } catch (error) {
       console.error('Error escalating case:', error);
       const errorMessage = error.response?.data?.message || 'Failed to escalate case';
@@ -548,8 +529,9 @@ const CaseDetail = () => {
                       </div>
                       <div>
                         <label className="block text-sm font-medium text-gray-700 dark:text-gray-300 mb-1">Priority</label>
-                        <span className={`inline-flex items-center px-3 py-1 rounded-full text-sm font-medium border ${getPriorityColor(caseData.priority)}`}>
-                          Priority {caseData.priority}/10
+                        <span className={`inline-flex items-center px-3 py-1 rounded-full text-sm font-medium border ${getPriorityColor(caseData.effectivePriority)}`}>
+                          Priority {caseData.effectivePriority}/10
+                          {caseData.effectivePriority !== caseData.priority && ` (base ${caseData.priority})`}
                         </span>
                       </div>
                     </div>
@@ -569,7 +551,7 @@ const CaseDetail = () => {
                 {/* Quick Stats */}
                 <div className="grid grid-cols-1 md:grid-cols-4 gap-4">
                   <div className="bg-blue-50 dark:bg-blue-900/20 rounded-lg p-4 text-center transition-colors duration-300">
-                    <div className="text-2xl font-bold text-blue-600 dark:text-blue-400">{caseData.priority}/10</div>
+                    <div className="text-2xl font-bold text-blue-600 dark:text-blue-400">{caseData.effectivePriority}/10</div>
                     <div className="text-sm text-blue-600 dark:text-blue-300">Priority Level</div>
                   </div>
                   <div className="bg-green-50 dark:bg-green-900/20 rounded-lg p-4 text-center transition-colors duration-300">
@@ -1115,12 +1097,12 @@ const CaseDetail = () => {
                   <div className="flex items-center justify-between">
                     <div>
                       <p className="text-sm font-medium text-blue-600 dark:text-blue-300">Priority Level</p>
-                      <p className="text-3xl font-bold text-blue-900 dark:text-blue-100">{caseData.priority}/10</p>
+                      <p className="text-3xl font-bold text-blue-900 dark:text-blue-100">{caseData.effectivePriority}/10</p>
                       <div className="mt-2">
                         <div className="w-full bg-blue-200 rounded-full h-2">
                           <div
                             className="bg-blue-600 h-2 rounded-full"
-                            style={{ width: `${(caseData.priority / 10) * 100}%` }}
+                            style={{ width: `${(caseData.effectivePriority / 10) * 100}%` }}
                           ></div>
                         </div>
                       </div>
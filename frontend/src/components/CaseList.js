@@ -187,7 +187,7 @@ const CaseList = () => {
 
     if (filters.priority) {
       const priorityNum = parseInt(filters.priority);
-      filtered = filtered.filter(caseItem => caseItem.priority === priorityNum);
+      filtered = filtered.filter(caseItem => caseItem.effectivePriority === priorityNum);
     }
 
     if (filters.search) {
@@ -316,7 +316,7 @@ const CaseList = () => {
     scheduled: cases.filter(c => c.status === 'SCHEDULED').length,
     inProgress: cases.filter(c => c.status === 'IN_PROGRESS').length,
     completed: cases.filter(c => c.status === 'COMPLETED').length,
-    highPriority: cases.filter(c => c.priority >= 8).length,
+    highPriority: cases.filter(c => c.effectivePriority >= 8).length,
   };
 
   if (loading) {
@@ -597,9 +597,9 @@ const CaseList = () => {
                 </div>
                 <div className="flex items-center space-x-2">
                   <span className={`inline-flex items-center px-3 py-1 rounded-full text-xs font-semibold border ${
-                    getPriorityColor(caseItem.priority)
+                    getPriorityColor(caseItem.effectivePriority)
                   } bg-white/20 border-white/30 text-white`}>
-                    Priority {caseItem.priority}
+                    Priority {caseItem.effectivePriority}
                   </span>
                 </div>
               </div>
@@ -435,8 +435,8 @@ const Dashboard = () => {
                           <span className={`inline-flex items-center px-2.5 py-1 rounded-full text-xs font-medium border ${getStatusColor(caseItem.status)}`}>
                             {caseItem.status.replace('_', ' ')}
                           </span>
-                          <span className={`inline-flex items-center px-2.5 py-1 rounded-full text-xs font-medium border ${getPriorityColor(caseItem.priority)}`}>
-                            P{caseItem.priority}
+                          <span className={`inline-flex items-center px-2.5 py-1 rounded-full text-xs font-medium border ${getPriorityColor(caseItem.effectivePriority)}`}>
+                            P{caseItem.effectivePriority}
                           </span>
                           <span className="text-xs text-gray-400 dark:text-gray-500">
                             {caseItem.courtLevel || 'DISTRICT'}
@@ -41,7 +41,7 @@ const Reports = () => {
         number: c.caseNumber,
         title: c.title,
         status: c.status,
-        priority: c.priority,
+        priority: c.effectivePriority,
         filingDate: c.filingDate
       }))
     };
@@ -82,6 +82,27 @@ For detailed case reports, please contact a judge or administrator.
     window.URL.revokeObjectURL(url);
   };
 
+  const exportDocket = async (format) => {
+    try {
+      const response = await axios.get('http://localhost:8080/api/cases/export', {
+        params: { format },
+        responseType: 'blob'
+      });
+
+      const extension = format === 'NDJSON' ? 'ndjson' : 'csv';
+      const url = window.URL.createObjectURL(new Blob([response.data]));
+      const link = document.createElement('a');
+      link.href = url;
+      link.download = `docket-${new Date().toISOString().split('T')[0]}.${extension}`;
+      document.body.appendChild(link);
+      link.click();
+      link.remove();
+      window.URL.revokeObjectURL(url);
+    } catch (error) {
+      console.error('Error exporting docket:', error);
+    }
+  };
+
   if (loading) {
     return (
       <div className="min-h-screen bg-gradient-to-br from-slate-50 via-blue-50 to-indigo-50 flex items-center justify-center">
@@ -122,6 +143,15 @@ For detailed case reports, please contact a judge or administrator.
                 </svg>
                 Generate Report
               </button>
+              <button
+                onClick={() => exportDocket('CSV')}
+                className="bg-white dark:bg-slate-800 text-amber-600 dark:text-amber-400 border border-amber-500 px-6 py-3 rounded-lg hover:bg-amber-50 dark:hover:bg-slate-700 transition-all duration-200 shadow-lg hover:shadow-xl flex items-center"
+              >
+                <svg className="w-5 h-5 mr-2" fill="none" stroke="currentColor" viewBox="0 0 24 24">
+                  <path strokeLinecap="round" strokeLinejoin="round" strokeWidth="2" d="M4 16v1a3 3 0 003 3h10a3 3 0 003-3v-1m-4-4l-4 4m0 0l-4-4m4 4V4" />
+                </svg>
+                Export CSV
+              </button>
             </div>
           </div>
         </div>
@@ -291,7 +321,7 @@ For detailed case reports, please contact a judge or administrator.
                             </span>
                           </td>
                           <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-900 dark:text-gray-300">
-                            {caseItem.priority}/10
+                            {caseItem.effectivePriority}/10
                           </td>
                           <td className="px-6 py-4 whitespace-nowrap text-sm text-gray-900 dark:text-gray-300">
                             {new Date(caseItem.filingDate).toLocaleDateString()}
@@ -350,7 +380,7 @@ For detailed case reports, please contact a judge or administrator.
                         <div key={priority} className="flex justify-between items-center">
                           <span className="text-sm text-gray-600 dark:text-gray-400">Priority {priority}</span>
                           <span className="text-sm font-medium text-gray-900 dark:text-white">
-                            {cases.filter(c => c.priority === priority).length}
+                            {cases.filter(c => c.effectivePriority === priority).length}
                           </span>
                         </div>
                       ))}